@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.benchmarks;
+
+import com.hubrick.vertx.elasticsearch.impl.JsonSourceEncoder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways the sources of a bulk request are turned into index requests.
+ * <ul>
+ * <li>{@code mapConversion}: copy into maps and lists, serialized again by Elasticsearch (the former bulk path)</li>
+ * <li>{@code stringEncoding}: encode to a String, converted to UTF-8 by Elasticsearch (the single index path)</li>
+ * <li>{@code sharedBuffer}: encode once into the shared buffer of a {@link JsonSourceEncoder}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkSourceEncodingBenchmark {
+
+    @Param({"100"})
+    private int documents;
+
+    @Param({"10", "100"})
+    private int fields;
+
+    private List<JsonObject> sources;
+
+    @Setup
+    public void setUp() {
+        sources = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            final JsonObject source = new JsonObject();
+            for (int j = 0; j < fields; j++) {
+                switch (j % 4) {
+                    case 0:
+                        source.put("text_" + j, "Lorem ipsum dolor sit amet, consectetur adipiscing elit " + i);
+                        break;
+                    case 1:
+                        source.put("number_" + j, i * j);
+                        break;
+                    case 2:
+                        source.put("tags_" + j, new JsonArray().add("alpha").add("beta").add("gamma"));
+                        break;
+                    default:
+                        source.put("nested_" + j, new JsonObject().put("id", i).put("flag", true).put("score", 0.5 * j));
+                }
+            }
+            sources.add(source);
+        }
+    }
+
+    @Benchmark
+    public void mapConversion(Blackhole blackhole) {
+        for (JsonObject source : sources) {
+            blackhole.consume(new IndexRequest("index", "type").source(convertJsonObjectToMap(source)));
+        }
+    }
+
+    @Benchmark
+    public void stringEncoding(Blackhole blackhole) {
+        for (JsonObject source : sources) {
+            blackhole.consume(new IndexRequest("index", "type").source(source.encode(), XContentType.JSON));
+        }
+    }
+
+    @Benchmark
+    public void sharedBuffer(Blackhole blackhole) {
+        final JsonSourceEncoder encoder = new JsonSourceEncoder();
+        for (JsonObject source : sources) {
+            blackhole.consume(new IndexRequest("index", "type").source(encoder.encode(source), XContentType.JSON));
+        }
+    }
+
+    // Copy of the conversion DefaultElasticSearchService used for bulk sources
+    private static Map<String, Object> convertJsonObjectToMap(JsonObject jsonObject) {
+        final Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, Object> jsonObjectEntry : jsonObject) {
+            if (jsonObjectEntry.getValue() instanceof JsonArray) {
+                map.put(jsonObjectEntry.getKey(), convertJsonArrayToList((JsonArray) jsonObjectEntry.getValue()));
+            } else if (jsonObjectEntry.getValue() instanceof JsonObject) {
+                map.put(jsonObjectEntry.getKey(), convertJsonObjectToMap((JsonObject) jsonObjectEntry.getValue()));
+            } else {
+                map.put(jsonObjectEntry.getKey(), jsonObjectEntry.getValue());
+            }
+        }
+        return map;
+    }
+
+    private static List<Object> convertJsonArrayToList(JsonArray jsonArray) {
+        final List<Object> list = new LinkedList<>();
+        for (Object jsonArrayEntry : jsonArray) {
+            if (jsonArrayEntry instanceof JsonArray) {
+                list.add(convertJsonArrayToList((JsonArray) jsonArrayEntry));
+            } else if (jsonArrayEntry instanceof JsonObject) {
+                list.add(convertJsonObjectToMap((JsonObject) jsonArrayEntry));
+            } else {
+                list.add(jsonArrayEntry);
+            }
+        }
+        return list;
+    }
+}
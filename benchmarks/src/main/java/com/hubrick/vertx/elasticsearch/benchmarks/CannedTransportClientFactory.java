@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.benchmarks;
+
+import com.hubrick.vertx.elasticsearch.TransportClientFactory;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetAction;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.index.IndexAction;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.action.support.replication.ReplicationResponse;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.index.get.GetResult;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.transport.client.PreBuiltTransportClient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransportClientFactory} creating clients that never connect to a cluster. Searches, gets, multi gets and
+ * index requests are answered with canned responses after a latency drawn uniformly from
+ * {@code [latencyInMicros, latencyInMicros + jitterInMicros]}, everything else fails.
+ */
+public class CannedTransportClientFactory implements TransportClientFactory {
+
+    private final int hits;
+    private final long latencyInMicros;
+    private final long jitterInMicros;
+
+    public CannedTransportClientFactory(int hits, long latencyInMicros, long jitterInMicros) {
+        this.hits = hits;
+        this.latencyInMicros = latencyInMicros;
+        this.jitterInMicros = jitterInMicros;
+    }
+
+    @Override
+    public TransportClient create(Settings settings) {
+        return new CannedTransportClient(settings);
+    }
+
+    private static BytesArray source(int i) {
+        return new BytesArray("{\"title\":\"Lorem ipsum dolor sit amet " + i + "\",\"count\":" + i
+                + ",\"tags\":[\"alpha\",\"beta\",\"gamma\"],\"nested\":{\"flag\":true,\"score\":" + (0.5 * i) + "}}");
+    }
+
+    private class CannedTransportClient extends PreBuiltTransportClient {
+
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "canned-transport");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final SearchResponse searchResponse;
+
+        CannedTransportClient(Settings settings) {
+            super(settings);
+
+            final SearchHit[] searchHits = new SearchHit[hits];
+            for (int i = 0; i < hits; i++) {
+                searchHits[i] = new SearchHit(i, String.valueOf(i), new Text("type"), Collections.emptyMap()).sourceRef(source(i));
+                searchHits[i].score(1.0f / (i + 1));
+            }
+            final InternalSearchResponse internalSearchResponse = new InternalSearchResponse(new SearchHits(searchHits, hits, 1.0f), null, null, null, false, null, 1);
+            searchResponse = new SearchResponse(internalSearchResponse, null, 1, 1, 0, latencyInMicros / 1000, new ShardSearchFailure[0], SearchResponse.Clusters.EMPTY);
+        }
+
+        @Override
+        public TransportClient addTransportAddress(TransportAddress transportAddress) {
+            // Never connect
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+            final ActionResponse response;
+            if (action == SearchAction.INSTANCE) {
+                response = searchResponse;
+            } else if (action == GetAction.INSTANCE) {
+                response = getResponse((GetRequest) request);
+            } else if (action == MultiGetAction.INSTANCE) {
+                final List<MultiGetRequest.Item> items = ((MultiGetRequest) request).getItems();
+                final MultiGetItemResponse[] itemResponses = new MultiGetItemResponse[items.size()];
+                for (int i = 0; i < itemResponses.length; i++) {
+                    final MultiGetRequest.Item item = items.get(i);
+                    itemResponses[i] = new MultiGetItemResponse(getResponse(new GetRequest(item.index(), item.type(), item.id())), null);
+                }
+                response = new MultiGetResponse(itemResponses);
+            } else if (action == IndexAction.INSTANCE) {
+                final IndexRequest indexRequest = (IndexRequest) request;
+                final IndexResponse indexResponse = new IndexResponse(new ShardId(indexRequest.index(), "_na_", 0), indexRequest.type(), indexRequest.id() != null ? indexRequest.id() : "1", 1, 1, 1, true);
+                indexResponse.setShardInfo(new ReplicationResponse.ShardInfo(1, 1));
+                response = indexResponse;
+            } else {
+                listener.onFailure(new UnsupportedOperationException("No canned response for " + action.name()));
+                return;
+            }
+
+            final long latency = latencyInMicros + (jitterInMicros > 0 ? ThreadLocalRandom.current().nextLong(jitterInMicros + 1) : 0);
+            scheduler.schedule(() -> listener.onResponse((Response) response), latency, TimeUnit.MICROSECONDS);
+        }
+
+        private GetResponse getResponse(GetRequest request) {
+            return new GetResponse(new GetResult(request.index(), request.type(), request.id(), 1, true, source(0), Collections.emptyMap()));
+        }
+
+        @Override
+        public void close() {
+            scheduler.shutdownNow();
+            super.close();
+        }
+    }
+}
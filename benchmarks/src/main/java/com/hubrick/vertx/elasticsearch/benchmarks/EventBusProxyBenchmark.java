@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.benchmarks;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.impl.EventBusCodecs;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.Hits;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a search round trip through the event bus proxies of a service in the same JVM.
+ * <ul>
+ * <li>{@code plainProxy}: the default JSON codec, deep copying request and response on delivery</li>
+ * <li>{@code localProxy}: the local codec, handing request and response over by reference</li>
+ * </ul>
+ * The service answers immediately with a canned response, so only the proxy overhead is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusProxyBenchmark {
+
+    private static final String ADDRESS = "benchmark.elasticsearch";
+
+    @Param({"10", "100"})
+    private int hits;
+
+    private Vertx vertx;
+    private ElasticSearchService plainProxy;
+    private ElasticSearchService localProxy;
+    private SearchOptions searchOptions;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        EventBusCodecs.bindService(vertx, ADDRESS, createService(createSearchResponse(hits)));
+        plainProxy = ElasticSearchService.createEventBusProxy(vertx, ADDRESS);
+        localProxy = ElasticSearchServiceHelper.createLocalEventBusProxy(vertx, ADDRESS);
+        searchOptions = new SearchOptions()
+                .setQuery(new JsonObject().put("match", new JsonObject().put("message", "elasticsearch")))
+                .setSize(hits);
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Benchmark
+    public SearchResponse plainProxy() throws Exception {
+        return search(plainProxy);
+    }
+
+    @Benchmark
+    public SearchResponse localProxy() throws Exception {
+        return search(localProxy);
+    }
+
+    private SearchResponse search(ElasticSearchService proxy) throws Exception {
+        final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+        proxy.search(Collections.singletonList("index"), searchOptions, result -> {
+            if (result.succeeded()) {
+                future.complete(result.result());
+            } else {
+                future.completeExceptionally(result.cause());
+            }
+        });
+        return future.get();
+    }
+
+    private static SearchResponse createSearchResponse(int size) {
+        final List<Hit> hitList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hitList.add(new Hit()
+                    .setIndex("index")
+                    .setType("type")
+                    .setId(String.valueOf(i))
+                    .setScore(1.0f)
+                    .setSource(new JsonObject()
+                            .put("message", "Lorem ipsum dolor sit amet, consectetur adipiscing elit " + i)
+                            .put("count", i)
+                            .put("tags", new JsonArray().add("alpha").add("beta"))
+                            .put("user", new JsonObject().put("id", i).put("name", "user" + i))));
+        }
+        return new SearchResponse()
+                .setTook(1L)
+                .setTimedOut(false)
+                .setHits(new Hits().setTotal((long) size).setMaxScore(1.0f).setHits(hitList));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ElasticSearchService createService(SearchResponse searchResponse) {
+        return (ElasticSearchService) Proxy.newProxyInstance(
+                EventBusProxyBenchmark.class.getClassLoader(),
+                new Class[]{ElasticSearchService.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("search")) {
+                        ((Handler<AsyncResult<SearchResponse>>) args[2]).handle(Future.succeededFuture(searchResponse));
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.benchmarks;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceVerticle;
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchAdminService;
+import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchService;
+import com.hubrick.vertx.elasticsearch.impl.JsonElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.model.AggregationOption;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load harness driving the {@link ElasticSearchServiceVerticle} over the event bus, against clients created by a
+ * {@link CannedTransportClientFactory}, so no cluster is needed.
+ * <p>
+ * The generators send requests at a fixed rate, up to a maximum number of requests in flight, until the end of the
+ * measurement window. The requests completing within the window are counted, with their latency measured from the
+ * time the request was due rather than the time it was sent, so requests held back by the concurrency limit show up
+ * in the histogram instead of being hidden. Parameters are passed as {@code key=value} arguments, see
+ * {@link #DEFAULTS}.
+ */
+public class LoadHarness {
+
+    private static final String ADDRESS = "load.elasticsearch";
+    private static final String INDEX = "index";
+    private static final String TYPE = "type";
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // search, preparedSearch, get or index
+        DEFAULTS.put("operation", "search");
+        // Requests per second, over all generators
+        DEFAULTS.put("rate", "1000");
+        // Requests in flight, over all generators
+        DEFAULTS.put("concurrency", "64");
+        // Generator verticles, each on its own event loop
+        DEFAULTS.put("generators", "2");
+        // Service verticles, each with its own service and client
+        DEFAULTS.put("verticles", "1");
+        DEFAULTS.put("eventLoops", String.valueOf(VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE));
+        DEFAULTS.put("warmupSeconds", "5");
+        DEFAULTS.put("durationSeconds", "30");
+        // Hits of the canned search response
+        DEFAULTS.put("hits", "10");
+        // Canned latency of the transport client
+        DEFAULTS.put("latencyMicros", "1000");
+        DEFAULTS.put("jitterMicros", "500");
+        // Ids of the documents the gets are spread over
+        DEFAULTS.put("ids", "1000");
+        // Optional JSON file merged into the verticle and service config, e.g. to enable coalescing or get batching
+        DEFAULTS.put("config", "");
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> parameters = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                System.err.println("Unknown argument " + arg + ", expected key=value with a key of " + DEFAULTS.keySet());
+                System.exit(1);
+            }
+            parameters.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        System.out.println("Parameters " + parameters);
+
+        final JsonObject config = new JsonObject().put("address", ADDRESS);
+        if (!parameters.get("config").isEmpty()) {
+            config.mergeIn(new JsonObject(new String(Files.readAllBytes(Paths.get(parameters.get("config"))), "UTF-8")));
+        }
+
+        final Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(Integer.parseInt(parameters.get("eventLoops"))));
+        try {
+            final CannedTransportClientFactory clientFactory = new CannedTransportClientFactory(
+                    Integer.parseInt(parameters.get("hits")),
+                    Long.parseLong(parameters.get("latencyMicros")),
+                    Long.parseLong(parameters.get("jitterMicros")));
+            final DeploymentOptions serviceDeploymentOptions = new DeploymentOptions().setConfig(config);
+            for (int i = 0; i < Integer.parseInt(parameters.get("verticles")); i++) {
+                final DefaultElasticSearchService service = new DefaultElasticSearchService(clientFactory, new JsonElasticSearchConfigurator(config));
+                deploy(vertx, new ElasticSearchServiceVerticle(service, new DefaultElasticSearchAdminService(service)), serviceDeploymentOptions);
+            }
+
+            final int generators = Integer.parseInt(parameters.get("generators"));
+            final long now = System.nanoTime();
+            final long measurementStart = now + TimeUnit.SECONDS.toNanos(Long.parseLong(parameters.get("warmupSeconds")));
+            final long measurementEnd = measurementStart + TimeUnit.SECONDS.toNanos(Long.parseLong(parameters.get("durationSeconds")));
+            final List<LoadGenerator> loadGenerators = new ArrayList<>(generators);
+            for (int i = 0; i < generators; i++) {
+                final LoadGenerator loadGenerator = new LoadGenerator(
+                        parameters.get("operation"),
+                        Double.parseDouble(parameters.get("rate")) / generators,
+                        Math.max(1, Integer.parseInt(parameters.get("concurrency")) / generators),
+                        Integer.parseInt(parameters.get("hits")),
+                        Integer.parseInt(parameters.get("ids")),
+                        now,
+                        measurementStart,
+                        measurementEnd);
+                loadGenerators.add(loadGenerator);
+                deploy(vertx, loadGenerator, new DeploymentOptions());
+            }
+
+            final Histogram histogram = new Histogram(3, TimeUnit.HOURS.toMicros(1), 3);
+            long succeeded = 0;
+            long failed = 0;
+            long unsent = 0;
+            for (LoadGenerator loadGenerator : loadGenerators) {
+                loadGenerator.done.get();
+                histogram.add(loadGenerator.histogram);
+                succeeded += loadGenerator.succeeded;
+                failed += loadGenerator.failed;
+                unsent += loadGenerator.unsent;
+            }
+
+            final double seconds = (measurementEnd - measurementStart) / 1e9;
+            System.out.println();
+            System.out.printf("Throughput %.1f requests/s, %d succeeded, %d failed in %.1f s%n", succeeded / seconds, succeeded, failed, seconds);
+            if (unsent > 0) {
+                System.out.printf("Could not keep up with the rate, %d due requests were never sent%n", unsent);
+            }
+            System.out.printf("Latency in us p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n",
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+            System.out.println();
+            histogram.outputPercentileDistribution(System.out, 1.0);
+        } finally {
+            final CompletableFuture<Void> closed = new CompletableFuture<>();
+            vertx.close(result -> closed.complete(null));
+            closed.get();
+        }
+    }
+
+    private static void deploy(Vertx vertx, AbstractVerticle verticle, DeploymentOptions deploymentOptions) throws Exception {
+        final CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(verticle, deploymentOptions, result -> {
+            if (result.succeeded()) {
+                deployed.complete(result.result());
+            } else {
+                deployed.completeExceptionally(result.cause());
+            }
+        });
+        deployed.get();
+    }
+
+    /**
+     * Sends requests at a fixed rate from its event loop and records the latencies of the requests completing within
+     * the measurement window. All state is only touched from the event loop of the verticle.
+     */
+    private static class LoadGenerator extends AbstractVerticle {
+
+        private final String operation;
+        private final long intervalInNanos;
+        private final int concurrency;
+        private final int hits;
+        private final int ids;
+        private final long measurementStart;
+        private final long measurementEnd;
+
+        private final Histogram histogram = new Histogram(3, TimeUnit.HOURS.toMicros(1), 3);
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long succeeded;
+        private long failed;
+        private long unsent;
+
+        private ElasticSearchService service;
+        private PreparedSearch preparedSearch;
+        private long nextDue;
+        private int inFlight;
+        private long timerId;
+
+        LoadGenerator(String operation, double rate, int concurrency, int hits, int ids, long start, long measurementStart, long measurementEnd) {
+            this.operation = operation;
+            this.intervalInNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            this.concurrency = concurrency;
+            this.hits = hits;
+            this.ids = ids;
+            this.nextDue = start;
+            this.measurementStart = measurementStart;
+            this.measurementEnd = measurementEnd;
+        }
+
+        @Override
+        public void start() {
+            service = ElasticSearchService.createEventBusProxy(vertx, ADDRESS);
+            if ("preparedSearch".equals(operation)) {
+                ElasticSearchServiceHelper.prepareSearch(service, Collections.singletonList(INDEX), createSearchOptions().setQuery(new JsonObject().put("match", new JsonObject().put("title", "{{title}}"))), result -> {
+                    preparedSearch = result.result();
+                    timerId = vertx.setPeriodic(1, id -> send());
+                });
+            } else {
+                timerId = vertx.setPeriodic(1, id -> send());
+            }
+        }
+
+        private void send() {
+            final long now = System.nanoTime();
+            while (nextDue <= now && nextDue < measurementEnd && inFlight < concurrency) {
+                final long due = nextDue;
+                nextDue += intervalInNanos;
+                inFlight++;
+                execute(result -> complete(due, result));
+            }
+            if (now >= measurementEnd && nextDue < measurementEnd) {
+                // Give up on the requests still held back by the concurrency limit
+                unsent = (measurementEnd - nextDue + intervalInNanos - 1) / intervalInNanos;
+                nextDue = measurementEnd;
+            }
+            if (nextDue >= measurementEnd) {
+                vertx.cancelTimer(timerId);
+                if (inFlight == 0) {
+                    done.complete(null);
+                }
+            }
+        }
+
+        private void execute(Handler<AsyncResult<?>> handler) {
+            switch (operation) {
+                case "search":
+                    service.search(Collections.singletonList(INDEX), createSearchOptions().setQuery(new JsonObject().put("match", new JsonObject().put("title", "lorem"))), handler::handle);
+                    break;
+                case "preparedSearch":
+                    preparedSearch.execute(new JsonObject().put("title", "lorem"), handler::handle);
+                    break;
+                case "get":
+                    service.get(INDEX, TYPE, String.valueOf(ThreadLocalRandom.current().nextInt(ids)), new GetOptions(), handler::handle);
+                    break;
+                case "index":
+                    service.index(INDEX, TYPE, new JsonObject().put("title", "Lorem ipsum dolor sit amet").put("count", 1), new IndexOptions(), handler::handle);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + operation);
+            }
+        }
+
+        private SearchOptions createSearchOptions() {
+            return new SearchOptions()
+                    .setSize(hits)
+                    .addFieldSort("date", SortOrder.DESC)
+                    .addAggregation(new AggregationOption()
+                            .setName("tags")
+                            .setType(AggregationOption.AggregationType.TERMS)
+                            .setDefinition(new JsonObject().put("field", "tags").put("size", 10)));
+        }
+
+        private void complete(long due, AsyncResult<?> result) {
+            inFlight--;
+            final long now = System.nanoTime();
+            if (now >= measurementStart && now < measurementEnd) {
+                if (result.succeeded()) {
+                    succeeded++;
+                    histogram.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(now - due)));
+                } else {
+                    failed++;
+                }
+            }
+            // Send the requests held back by the concurrency limit right away
+            send();
+        }
+    }
+}
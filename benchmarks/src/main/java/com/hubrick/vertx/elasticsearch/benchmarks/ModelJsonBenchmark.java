@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.benchmarks;
+
+import com.hubrick.vertx.elasticsearch.model.AggregationOption;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.Hits;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON conversions the event bus proxies apply to the data objects on every call.
+ * <ul>
+ * <li>{@code searchOptionsToJson}/{@code searchOptionsFromJson}: search options with query, sorts and aggregations</li>
+ * <li>{@code searchResponseToJson}/{@code searchResponseFromJson}: a search response with the given number of hits</li>
+ * <li>{@code bulkIndexOptionsToJson}/{@code bulkIndexOptionsFromJson}: a bulk index item with its source</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int hits;
+
+    private SearchOptions searchOptions;
+    private JsonObject searchOptionsJson;
+    private SearchResponse searchResponse;
+    private JsonObject searchResponseJson;
+    private BulkIndexOptions bulkIndexOptions;
+    private JsonObject bulkIndexOptionsJson;
+
+    @Setup
+    public void setUp() {
+        searchOptions = new SearchOptions()
+                .setQuery(new JsonObject().put("match", new JsonObject().put("title", "lorem ipsum")))
+                .setSize(hits)
+                .addFieldSort("date", SortOrder.DESC)
+                .addAggregation(new AggregationOption()
+                        .setName("tags")
+                        .setType(AggregationOption.AggregationType.TERMS)
+                        .setDefinition(new JsonObject().put("field", "tags").put("size", 10)));
+        searchOptionsJson = searchOptions.toJson();
+
+        final List<Hit> hitList = new ArrayList<>(hits);
+        for (int i = 0; i < hits; i++) {
+            hitList.add(new Hit()
+                    .setIndex("index")
+                    .setType("type")
+                    .setId(String.valueOf(i))
+                    .setScore(1.0f / (i + 1))
+                    .setSource(createSource(i)));
+        }
+        searchResponse = new SearchResponse()
+                .setTook(10L)
+                .setTimedOut(false)
+                .setHits(new Hits().setTotal((long) hits).setMaxScore(1.0f).setHits(hitList));
+        searchResponseJson = searchResponse.toJson();
+
+        bulkIndexOptions = new BulkIndexOptions()
+                .setIndex("index")
+                .setType("type")
+                .setSource(createSource(0))
+                .setIndexOptions(new IndexOptions().setId("0"));
+        bulkIndexOptionsJson = bulkIndexOptions.toJson();
+    }
+
+    @Benchmark
+    public Object searchOptionsToJson() {
+        return searchOptions.toJson();
+    }
+
+    @Benchmark
+    public Object searchOptionsFromJson() {
+        return new SearchOptions(searchOptionsJson);
+    }
+
+    @Benchmark
+    public Object searchResponseToJson() {
+        return searchResponse.toJson();
+    }
+
+    @Benchmark
+    public Object searchResponseFromJson() {
+        return new SearchResponse(searchResponseJson);
+    }
+
+    @Benchmark
+    public Object bulkIndexOptionsToJson() {
+        return bulkIndexOptions.toJson();
+    }
+
+    @Benchmark
+    public Object bulkIndexOptionsFromJson() {
+        return new BulkIndexOptions(bulkIndexOptionsJson);
+    }
+
+    private static JsonObject createSource(int i) {
+        return new JsonObject()
+                .put("title", "Lorem ipsum dolor sit amet " + i)
+                .put("count", i)
+                .put("tags", new JsonArray().add("alpha").add("beta").add("gamma"))
+                .put("nested", new JsonObject().put("flag", true).put("score", 0.5 * i));
+    }
+}
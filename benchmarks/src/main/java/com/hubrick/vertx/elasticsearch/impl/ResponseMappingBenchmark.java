@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ResponseMaterialization;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.action.support.replication.ReplicationResponse;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of synthetic Elasticsearch responses to the data objects of the service.
+ * <ul>
+ * <li>{@code mapSearchResponse}: {@link ElasticSearchServiceMapper#mapToSearchResponse} without the raw response</li>
+ * <li>{@code mapSearchResponseWithRaw}: the same, also rendering the raw response</li>
+ * <li>{@code mapBulkIndexResponse}: {@link ElasticSearchServiceMapper#mapToBulkIndexResponse} of one item per hit</li>
+ * <li>{@code readResponse}: rendering the whole search response to a {@code JsonObject}</li>
+ * </ul>
+ * Lives in the {@code impl} package to reach the non public parts of the mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int hits;
+
+    @Param({"TREE", "JSON_STRING"})
+    private ResponseMaterialization materialization;
+
+    private SearchResponse searchResponse;
+    private BulkResponse bulkResponse;
+
+    @Setup
+    public void setUp() {
+        final SearchHit[] searchHits = new SearchHit[hits];
+        final BulkItemResponse[] bulkItems = new BulkItemResponse[hits];
+        for (int i = 0; i < hits; i++) {
+            final String id = String.valueOf(i);
+            searchHits[i] = new SearchHit(i, id, new Text("type"), Collections.emptyMap())
+                    .sourceRef(new BytesArray("{\"title\":\"Lorem ipsum dolor sit amet " + i + "\",\"count\":" + i
+                            + ",\"tags\":[\"alpha\",\"beta\",\"gamma\"],\"nested\":{\"flag\":true,\"score\":" + (0.5 * i) + "}}"));
+            searchHits[i].score(1.0f / (i + 1));
+
+            final IndexResponse indexResponse = new IndexResponse(new ShardId("index", "_na_", 0), "type", id, i, 1, 1, true);
+            indexResponse.setShardInfo(new ReplicationResponse.ShardInfo(1, 1));
+            bulkItems[i] = new BulkItemResponse(i, DocWriteRequest.OpType.INDEX, indexResponse);
+        }
+
+        final InternalSearchResponse internalSearchResponse = new InternalSearchResponse(new SearchHits(searchHits, hits, 1.0f), null, null, null, false, null, 1);
+        searchResponse = new SearchResponse(internalSearchResponse, null, 1, 1, 0, 10, new ShardSearchFailure[0], SearchResponse.Clusters.EMPTY);
+        bulkResponse = new BulkResponse(bulkItems, 10);
+    }
+
+    @Benchmark
+    public Object mapSearchResponse() {
+        return ElasticSearchServiceMapper.mapToSearchResponse(searchResponse, materialization, false);
+    }
+
+    @Benchmark
+    public Object mapSearchResponseWithRaw() {
+        return ElasticSearchServiceMapper.mapToSearchResponse(searchResponse, materialization, true);
+    }
+
+    @Benchmark
+    public Object mapBulkIndexResponse() {
+        return ElasticSearchServiceMapper.mapToBulkIndexResponse(bulkResponse, materialization, false);
+    }
+
+    @Benchmark
+    public Object readResponse() {
+        return ElasticSearchServiceMapper.readResponse(searchResponse, materialization);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.benchmarks.CannedTransportClientFactory;
+import com.hubrick.vertx.elasticsearch.model.AggregationOption;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of the search options into the Elasticsearch request.
+ * <ul>
+ * <li>{@code populateSearchRequest}: query, sorts, a script field and the given number of aggregations, each with a sub
+ * aggregation, parsed every time or taken from the parsed builder cache</li>
+ * <li>{@code convertScriptParams}: the conversion of nested script params into maps and lists</li>
+ * </ul>
+ * The service runs on a {@link CannedTransportClientFactory} and the request is never sent, so no cluster is needed.
+ * Lives in the {@code impl} package to reach the non public parts of {@link DefaultElasticSearchService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchRequestBuildingBenchmark {
+
+    @Param({"1", "10"})
+    private int aggregations;
+
+    @Param({"0", "1000"})
+    private int parsedBuilderCacheSize;
+
+    private DefaultElasticSearchService service;
+    private SearchOptions searchOptions;
+    private JsonObject scriptParams;
+
+    @Setup
+    public void setUp() {
+        service = new DefaultElasticSearchService(new CannedTransportClientFactory(0, 0, 0),
+                new JsonElasticSearchConfigurator(new JsonObject().put(JsonElasticSearchConfigurator.CONFIG_PARSED_BUILDER_CACHE_SIZE, parsedBuilderCacheSize)));
+        service.start();
+
+        scriptParams = new JsonObject()
+                .put("factor", 1.5)
+                .put("fields", new JsonArray().add("title").add("body").add(new JsonObject().put("name", "tags").put("boost", 2)))
+                .put("weights", new JsonObject().put("recent", 3).put("popular", new JsonArray().add(1).add(2).add(3)));
+
+        searchOptions = new SearchOptions()
+                .setQuery(new JsonObject().put("bool", new JsonObject()
+                        .put("must", new JsonArray().add(new JsonObject().put("match", new JsonObject().put("title", "lorem ipsum"))))
+                        .put("filter", new JsonArray().add(new JsonObject().put("term", new JsonObject().put("status", "published"))))))
+                .setSize(20)
+                .setFrom(40)
+                .addFieldSort("date", SortOrder.DESC)
+                .addFieldSort("_score", SortOrder.DESC)
+                .addScriptField("boosted", "doc['count'].value * params.factor", scriptParams);
+        for (int i = 0; i < aggregations; i++) {
+            searchOptions.addAggregation(new AggregationOption()
+                    .setName("terms_" + i)
+                    .setType(AggregationOption.AggregationType.TERMS)
+                    .setDefinition(new JsonObject().put("field", "field_" + i).put("size", 10))
+                    .addSubAggregation(new AggregationOption()
+                            .setName("max_" + i)
+                            .setType(AggregationOption.AggregationType.MAX)
+                            .setDefinition(new JsonObject().put("field", "count"))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.stop();
+    }
+
+    @Benchmark
+    public Object populateSearchRequest() {
+        final SearchRequestBuilder builder = new SearchRequestBuilder(null, SearchAction.INSTANCE);
+        service.populateSearchRequestBuilder(builder, searchOptions);
+        return builder;
+    }
+
+    @Benchmark
+    public Object convertScriptParams() {
+        return DefaultElasticSearchService.convertJsonObjectToMap(scriptParams);
+    }
+}
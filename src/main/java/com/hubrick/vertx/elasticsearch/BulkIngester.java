@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+import com.hubrick.vertx.elasticsearch.impl.BulkWriteStream;
+import com.hubrick.vertx.elasticsearch.impl.DefaultBulkIngester;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIngesterOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * Gathers single index, update and delete actions into bulk requests.
+ * <p>
+ * A batch is sent once it reaches {@code maxActions} actions or {@code maxSizeInBytes} bytes, or when the flush interval
+ * elapses, and a new batch is started whenever the kind of action changes. With a single request in flight, actions
+ * therefore reach the cluster in the order they were added, except that a rejected action is retried after the rest of
+ * its batch. Bulk requests and actions rejected by a full write queue are retried with exponential backoff. Every caller is
+ * completed with the {@link BulkResponseItem} of its own action, on its own Vert.x context. The ingester can be shared
+ * between verticles.
+ */
+public interface BulkIngester {
+
+    static BulkIngester create(Vertx vertx, ElasticSearchService elasticSearchService, BulkIngesterOptions options) {
+        return new DefaultBulkIngester(vertx, elasticSearchService, options);
+    }
+
+    BulkIngester index(BulkIndexOptions bulkIndexOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler);
+
+    BulkIngester update(BulkUpdateOptions bulkUpdateOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler);
+
+    BulkIngester delete(BulkDeleteOptions bulkDeleteOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler);
+
+    /**
+     * @return a stream of index actions with backpressure on the bytes not yet acknowledged, see {@link BulkWriteStream}
+     */
+    default WriteStream<BulkIndexOptions> indexStream() {
+        return new BulkWriteStream<>(this::index, DefaultBulkIngester::estimateSizeInBytes, this::flush);
+    }
+
+    /**
+     * @return a stream of update actions with backpressure on the bytes not yet acknowledged, see {@link BulkWriteStream}
+     */
+    default WriteStream<BulkUpdateOptions> updateStream() {
+        return new BulkWriteStream<>(this::update, DefaultBulkIngester::estimateSizeInBytes, this::flush);
+    }
+
+    /**
+     * @return a stream of delete actions with backpressure on the bytes not yet acknowledged, see {@link BulkWriteStream}
+     */
+    default WriteStream<BulkDeleteOptions> deleteStream() {
+        return new BulkWriteStream<>(this::delete, DefaultBulkIngester::estimateSizeInBytes, this::flush);
+    }
+
+    /**
+     * Sends the pending actions without waiting for a threshold.
+     */
+    BulkIngester flush();
+
+    /**
+     * Flushes the pending actions and completes once every bulk request in flight is done. Further actions are rejected.
+     */
+    void close(Handler<AsyncResult<Void>> resultHandler);
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+/**
+ * Controls on which thread ElasticSearch responses are mapped and handed to the result handlers
+ */
+public enum CompletionMode {
+
+    /**
+     * Map the response and call the handler directly on the ElasticSearch transport thread
+     */
+    TRANSPORT_THREAD,
+
+    /**
+     * Map the response and call the handler on the Vert.x context the request was issued from
+     */
+    CALLER_CONTEXT,
+
+    /**
+     * Map the response on a dedicated bounded pool and only call the handler on the Vert.x context the request was issued from
+     */
+    MAPPING_POOL
+}
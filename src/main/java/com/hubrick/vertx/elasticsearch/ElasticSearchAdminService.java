@@ -88,4 +88,30 @@ public interface ElasticSearchAdminService {
 
     void putTemplate(String name, JsonObject source, TemplateOptions options, Handler<AsyncResult<Void>> resultHandler);
     void deleteTemplate(String name, TemplateOptions options, Handler<AsyncResult<Void>> resultHandler);
+
+    @GenIgnore
+    @ProxyIgnore
+    default void putSearchTemplate(String id, JsonObject template, Handler<AsyncResult<Void>> resultHandler) {
+        putSearchTemplate(id, template.encode(), resultHandler);
+    }
+
+    /**
+     * Stores a mustache search template to be run with {@link ElasticSearchService#searchTemplate(List, com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions, Handler)}.
+     * Putting a template this service stored under the same id within the last minute completes without updating the
+     * cluster state. That knowledge can be stale: a template deleted by another client meanwhile is not stored again
+     * until it expired.
+     *
+     * @param id            the template id
+     * @param template      the mustache template
+     * @param resultHandler result handler callback
+     */
+    void putSearchTemplate(String id, String template, Handler<AsyncResult<Void>> resultHandler);
+
+    /**
+     * Deletes a stored search template.
+     *
+     * @param id            the template id
+     * @param resultHandler result handler callback
+     */
+    void deleteSearchTemplate(String id, Handler<AsyncResult<Void>> resultHandler);
 }
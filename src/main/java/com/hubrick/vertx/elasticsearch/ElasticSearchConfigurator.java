@@ -15,6 +15,7 @@
  */
 package com.hubrick.vertx.elasticsearch;
 
+import com.hubrick.vertx.elasticsearch.model.TransportOptions;
 import org.elasticsearch.common.transport.TransportAddress;
 
 import java.util.List;
@@ -30,4 +31,88 @@ public interface ElasticSearchConfigurator {
 
     List<TransportAddress> getTransportAddresses();
 
+    /**
+     * Where result handlers are completed, defaults to {@link CompletionMode#CALLER_CONTEXT}
+     */
+    default CompletionMode getCompletionMode() {
+        return CompletionMode.CALLER_CONTEXT;
+    }
+
+    /**
+     * The number of threads mapping responses with {@link CompletionMode#MAPPING_POOL}, defaults to the number of processors
+     */
+    default int getMappingPoolSize() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The number of responses waiting for the mapping pool, defaults to 10000
+     */
+    default int getMappingPoolQueueSize() {
+        return 10000;
+    }
+
+    /**
+     * How responses are converted into Vert.x JSON, defaults to {@link ResponseMaterialization#TREE}
+     */
+    default ResponseMaterialization getResponseMaterialization() {
+        return ResponseMaterialization.TREE;
+    }
+
+    /**
+     * Whether responses carry the complete ElasticSearch response unless a request says otherwise, defaults to true
+     */
+    default boolean getIncludeRawResponse() {
+        return true;
+    }
+
+    /**
+     * Whether responses carry the time spent in each phase of the request, defaults to false
+     */
+    default boolean getIncludeTimings() {
+        return false;
+    }
+
+    /**
+     * How long concurrent gets are gathered into one multi get, defaults to 0 which disables batching
+     */
+    default long getGetBatchWindowMicros() {
+        return 0;
+    }
+
+    /**
+     * The number of gets a batch is sent with as soon as it reaches it, defaults to 100
+     */
+    default int getGetBatchMaxSize() {
+        return 100;
+    }
+
+    /**
+     * The number of parsed aggregations and client parsed queries kept for reuse, defaults to 1000
+     */
+    default int getParsedBuilderCacheSize() {
+        return 1000;
+    }
+
+    /**
+     * The number of prepared searches kept by the service, defaults to 1000
+     */
+    default int getPreparedSearchCacheSize() {
+        return 1000;
+    }
+
+    /**
+     * How queries and post filters reach the cluster, defaults to {@link QueryParsing#WRAPPER}
+     */
+    default QueryParsing getQueryParsing() {
+        return QueryParsing.WRAPPER;
+    }
+
+    /**
+     * The transport connection settings, defaults to the settings of the transport client
+     */
+    default TransportOptions getTransportOptions() {
+        return new TransportOptions();
+    }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+/**
+ * Receives the measurements of the requests the services send to ElasticSearch. Bind an implementation to report them
+ * to Micrometer, Dropwizard Metrics or any other registry, the default one records nothing.
+ * <p>
+ * Measurements are keyed by operation, the name of the service method, and by index, the comma separated indices the
+ * request targets or {@code null} when it targets none. The methods are called on the transport threads and must not
+ * block.
+ */
+public interface ElasticSearchMetrics {
+
+    /**
+     * Whether requests are measured at all, the services don't instrument them otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Whether request and response sizes are measured, which serializes them a second time
+     */
+    boolean isRecordingSizes();
+
+    /**
+     * A request was sent
+     */
+    void requestStarted(String operation, String index);
+
+    /**
+     * A request succeeded
+     *
+     * @param latencyInNanos      the time from sending the request to receiving the response, before it is mapped
+     * @param tookInMillis        the time ElasticSearch reports it took, -1 if the response doesn't report one
+     * @param requestSizeInBytes  the serialized size of the request, -1 if sizes aren't recorded
+     * @param responseSizeInBytes the serialized size of the response, -1 if sizes aren't recorded
+     */
+    void requestSucceeded(String operation, String index, long latencyInNanos, long tookInMillis, long requestSizeInBytes, long responseSizeInBytes);
+
+    /**
+     * A request failed
+     *
+     * @param latencyInNanos the time from sending the request to receiving the failure
+     * @param cause          the failure, unwrapped from the transport exceptions
+     */
+    void requestFailed(String operation, String index, long latencyInNanos, Throwable cause);
+
+    /**
+     * The items of a bulk request to an index completed
+     */
+    void bulkItemsCompleted(String index, int succeededItems, int failedItems);
+
+    /**
+     * A phase of a successful request of {@code DefaultElasticSearchService} completed, reported once the result handler
+     * is about to be called
+     */
+    void requestPhaseCompleted(String operation, String index, RequestPhase phase, long durationInNanos);
+
+    /**
+     * A builder was looked up in the parsed builder cache of {@code DefaultElasticSearchService}
+     *
+     * @param hit whether the builder was cached, it was parsed otherwise
+     */
+    void parsedBuilderCacheAccessed(ParsedBuilderType type, boolean hit);
+
+}
@@ -32,9 +32,12 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
 import io.vertx.codegen.annotations.GenIgnore;
@@ -44,6 +47,7 @@ import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceProxyBuilder;
 
@@ -57,6 +61,12 @@ import java.util.List;
 @ProxyGen
 public interface ElasticSearchService {
 
+    /**
+     * The failure code of a {@link io.vertx.serviceproxy.ServiceException} for a request the cluster rejected because its
+     * queues were full. The request can be retried after backing off.
+     */
+    int REJECTED_EXECUTION = 429;
+
     static ElasticSearchService createEventBusProxy(Vertx vertx, String address) {
         return new ServiceProxyBuilder(vertx).setAddress(address).build(ElasticSearchService.class);
     }
@@ -92,6 +102,32 @@ public interface ElasticSearchService {
      */
     void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler);
 
+    /**
+     * Indexes an already encoded JSON source without decoding it first.
+     *
+     * @param index         the index name
+     * @param type          the type name
+     * @param source        the JSON encoded source to be indexed
+     * @param options       optional index options (id, timeout, ttl, etc.)
+     * @param resultHandler result handler callback
+     */
+    @GenIgnore
+    @ProxyIgnore
+    default void index(String index, String type, Buffer source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        indexRaw(index, type, RawSource.json(source), options, resultHandler);
+    }
+
+    /**
+     * Indexes an already encoded JSON, SMILE, CBOR or YAML source without decoding it first.
+     *
+     * @param index         the index name
+     * @param type          the type name
+     * @param source        the encoded source to be indexed
+     * @param options       optional index options (id, timeout, ttl, etc.)
+     * @param resultHandler result handler callback
+     */
+    void indexRaw(String index, String type, RawSource source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler);
+
     /**
      * http://www.elastic.co/guide/en/elasticsearch/client/java-api/1.4/java-update-api.html
      *
@@ -148,6 +184,21 @@ public interface ElasticSearchService {
 
     void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler);
 
+    @GenIgnore
+    @ProxyIgnore
+    default void searchTemplate(String index, SearchTemplateOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        searchTemplate(Collections.singletonList(index), options, resultHandler);
+    }
+
+    /**
+     * https://www.elastic.co/guide/en/elasticsearch/reference/6.1/search-template.html
+     *
+     * @param indices       the index names
+     * @param options       the id of a stored template or an inline template, its params and the search options
+     * @param resultHandler result handler callback
+     */
+    void searchTemplate(List<String> indices, SearchTemplateOptions options, Handler<AsyncResult<SearchResponse>> resultHandler);
+
     @GenIgnore
     @ProxyIgnore
     default void searchScroll(String scrollId, Handler<AsyncResult<SearchResponse>> resultHandler) {
@@ -163,6 +214,40 @@ public interface ElasticSearchService {
      */
     void searchScroll(String scrollId, SearchScrollOptions options, Handler<AsyncResult<SearchResponse>> resultHandler);
 
+    /**
+     * https://www.elastic.co/guide/en/elasticsearch/reference/6.1/search-request-scroll.html#_clear_scroll_api
+     *
+     * @param scrollIds     the scroll ids to clear
+     * @param resultHandler result handler callback
+     */
+    void clearScroll(List<String> scrollIds, Handler<AsyncResult<Void>> resultHandler);
+
+    /**
+     * Registers a prepared search, see {@link ElasticSearchServiceHelper#prepareSearch(ElasticSearchService, List, SearchOptions, Handler)} for the handle using it.
+     *
+     * @param indices       the index names
+     * @param template      the search options, with {@code "{{name}}"} placeholders in the query and post filter
+     * @param resultHandler result handler callback, receives the id of the prepared search
+     */
+    void registerPreparedSearch(List<String> indices, SearchOptions template, Handler<AsyncResult<String>> resultHandler);
+
+    /**
+     * Executes a prepared search.
+     *
+     * @param preparedSearchId the id of the prepared search
+     * @param params           the values of the placeholders and the optional {@code from} and {@code size}
+     * @param resultHandler    result handler callback, fails with the failure code {@link PreparedSearch#UNKNOWN_PREPARED_SEARCH} if the id is unknown
+     */
+    void executePreparedSearch(String preparedSearchId, JsonObject params, Handler<AsyncResult<SearchResponse>> resultHandler);
+
+    /**
+     * Releases a prepared search.
+     *
+     * @param preparedSearchId the id of the prepared search
+     * @param resultHandler    result handler callback
+     */
+    void removePreparedSearch(String preparedSearchId, Handler<AsyncResult<Void>> resultHandler);
+
     /**
      * http://www.elastic.co/guide/en/elasticsearch/client/java-api/1.4/delete.html
      *
@@ -222,6 +307,23 @@ public interface ElasticSearchService {
                      final MultiSearchOptions options,
                      final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiSearchResponse>> resultHandler);
 
+    @GenIgnore
+    @ProxyIgnore
+    default void multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions, final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiSearchResponse>> resultHandler) {
+        multiSearchTemplate(multiSearchTemplateQueryOptions, new MultiSearchOptions(), resultHandler);
+    }
+
+    /**
+     * https://www.elastic.co/guide/en/elasticsearch/reference/6.1/multi-search-template.html
+     *
+     * @param multiSearchTemplateQueryOptions the indices and template of every search
+     * @param options                         multi search options
+     * @param resultHandler                   result handler callback
+     */
+    void multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions,
+                             final MultiSearchOptions options,
+                             final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiSearchResponse>> resultHandler);
+
     @GenIgnore
     @ProxyIgnore
     default void multiGet(final List<MultiGetQueryOptions> multiGetQueryOptions, final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiGetResponse>> resultHandler) {
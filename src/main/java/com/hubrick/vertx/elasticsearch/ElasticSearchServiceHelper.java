@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+import com.hubrick.vertx.elasticsearch.impl.DefaultPreparedSearch;
+import com.hubrick.vertx.elasticsearch.impl.DefaultSearchAfterIterator;
+import com.hubrick.vertx.elasticsearch.impl.EventBusCodecs;
+import com.hubrick.vertx.elasticsearch.impl.LocalJsonObjectMessageCodec;
+import com.hubrick.vertx.elasticsearch.impl.SearchScrollReadStream;
+import com.hubrick.vertx.elasticsearch.impl.SlicedSearchScrollReadStream;
+import com.hubrick.vertx.elasticsearch.impl.SmileJsonObjectMessageCodec;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.serviceproxy.ServiceProxyBuilder;
+
+import java.util.List;
+
+/**
+ * Proxies and client side helpers built on top of an {@link ElasticSearchService}, e.g. a proxy or the service itself.
+ */
+public final class ElasticSearchServiceHelper {
+
+    private ElasticSearchServiceHelper() {
+    }
+
+    /**
+     * Creates an event bus proxy that exchanges requests and responses as SMILE instead of JSON text.
+     */
+    public static ElasticSearchService createBinaryEventBusProxy(Vertx vertx, String address) {
+        EventBusCodecs.registerCodecs(vertx.eventBus());
+        return new ServiceProxyBuilder(vertx).setAddress(address).setOptions(EventBusCodecs.deliveryOptions(SmileJsonObjectMessageCodec.CODEC_NAME)).build(ElasticSearchService.class);
+    }
+
+    /**
+     * Creates an event bus proxy for callers in the same JVM as the service verticle. Requests and responses are handed
+     * over by reference instead of being copied on delivery, so the JSON nested in the options, e.g. a query, is read by
+     * the service while the request is in flight. Options must not be modified after sending, until their result handler
+     * was called.
+     */
+    public static ElasticSearchService createLocalEventBusProxy(Vertx vertx, String address) {
+        EventBusCodecs.registerCodecs(vertx.eventBus());
+        return new ServiceProxyBuilder(vertx).setAddress(address).setOptions(EventBusCodecs.deliveryOptions(LocalJsonObjectMessageCodec.CODEC_NAME)).build(ElasticSearchService.class);
+    }
+
+    /**
+     * Streams all hits of a scrolled search. The next page is fetched while the current one is consumed, the scroll is
+     * cleared when the stream ends, fails or is cancelled by setting a null handler.
+     *
+     * @param service the service to search with
+     * @param indices the index names
+     * @param options the search options, {@code scroll} defaults to 1m and {@code size} is the page size
+     * @return the stream of hits, the search starts when a handler is set
+     */
+    public static ReadStream<Hit> searchStream(ElasticSearchService service, List<String> indices, SearchOptions options) {
+        return new SearchScrollReadStream(service, indices, options);
+    }
+
+    /**
+     * Streams all hits of a search split into sliced scrolls which are scrolled in parallel.
+     *
+     * @param service             the service to search with
+     * @param indices             the index names
+     * @param options             the search options, {@code scroll} defaults to 1m and {@code size} is the page size of every slice
+     * @param slicedScrollOptions the number of slices, the parallelism, the ordering and the buffer limit
+     * @return the merged stream of hits, the search starts when a handler is set
+     */
+    public static ReadStream<Hit> slicedSearchStream(ElasticSearchService service, List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions) {
+        return new SlicedSearchScrollReadStream(service, indices, options, slicedScrollOptions);
+    }
+
+    /**
+     * Pages through a search with {@code search_after}, sorted by the sorts of the search and {@code _id} as tiebreaker.
+     * The next page is requested while the current one is consumed.
+     *
+     * @param service the service to search with
+     * @param indices the index names
+     * @param options the search options, {@code size} is the page size and {@code searchAfter} the optional start
+     * @return the page iterator, the search starts with the first call to {@link SearchAfterIterator#next(Handler)}
+     */
+    public static SearchAfterIterator searchAfterIterator(ElasticSearchService service, List<String> indices, SearchOptions options) {
+        return new DefaultSearchAfterIterator(service, indices, options);
+    }
+
+    /**
+     * Prepares a search once, so it can be executed repeatedly with parameters only. Through the event bus proxies only
+     * the id of the prepared search and the parameters are sent per execution.
+     *
+     * @param service       the service to prepare the search in
+     * @param indices       the index names
+     * @param template      the search options, with {@code "{{name}}"} placeholders in the query and post filter
+     * @param resultHandler result handler callback
+     */
+    public static void prepareSearch(ElasticSearchService service, List<String> indices, SearchOptions template, Handler<AsyncResult<PreparedSearch>> resultHandler) {
+        DefaultPreparedSearch.prepare(service, indices, template, resultHandler);
+    }
+}
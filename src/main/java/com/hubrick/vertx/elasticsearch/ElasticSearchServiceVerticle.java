@@ -15,7 +15,15 @@
  */
 package com.hubrick.vertx.elasticsearch;
 
+import com.hubrick.vertx.elasticsearch.impl.CachingElasticSearchService;
+import com.hubrick.vertx.elasticsearch.impl.CoalescingElasticSearchService;
+import com.hubrick.vertx.elasticsearch.impl.DocumentCachingElasticSearchService;
+import com.hubrick.vertx.elasticsearch.impl.EventBusCodecs;
+import com.hubrick.vertx.elasticsearch.model.CoalescingOptions;
+import com.hubrick.vertx.elasticsearch.model.DocumentCacheOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchCacheOptions;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
 
 import javax.inject.Inject;
@@ -25,6 +33,10 @@ import javax.inject.Inject;
  */
 public class ElasticSearchServiceVerticle extends AbstractVerticle {
 
+    private static final String CONFIG_SEARCH_CACHE = "search_cache";
+    private static final String CONFIG_DOCUMENT_CACHE = "document_cache";
+    private static final String CONFIG_COALESCING = "coalescing";
+
     private final ElasticSearchService service;
     private final ElasticSearchAdminService adminService;
 
@@ -49,8 +61,23 @@ public class ElasticSearchServiceVerticle extends AbstractVerticle {
             adminAddress = address + ".admin";
         }
 
-        // Register service as an event bus proxy
-        new ServiceBinder(vertx).setAddress(address).register(ElasticSearchService.class, service);
+        // Coalesce requests, cache documents and search responses if configured
+        ElasticSearchService boundService = service;
+        final JsonObject coalescingConfig = config().getJsonObject(CONFIG_COALESCING);
+        if (coalescingConfig != null) {
+            boundService = new CoalescingElasticSearchService(boundService, new CoalescingOptions(coalescingConfig));
+        }
+        final JsonObject documentCacheConfig = config().getJsonObject(CONFIG_DOCUMENT_CACHE);
+        if (documentCacheConfig != null) {
+            boundService = new DocumentCachingElasticSearchService(boundService, new DocumentCacheOptions(documentCacheConfig));
+        }
+        final JsonObject searchCacheConfig = config().getJsonObject(CONFIG_SEARCH_CACHE);
+        if (searchCacheConfig != null) {
+            boundService = new CachingElasticSearchService(boundService, new SearchCacheOptions(searchCacheConfig));
+        }
+
+        // Register service as an event bus proxy, replying with the codec each proxy asks for
+        EventBusCodecs.bindService(vertx, address, boundService);
         new ServiceBinder(vertx).setAddress(adminAddress).register(ElasticSearchAdminService.class, adminService);
 
         // Start the service
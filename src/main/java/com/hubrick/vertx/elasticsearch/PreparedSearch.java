@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A search prepared once by the service and executed with parameters only.
+ * <p>
+ * String values of the query and post filter of the template written as {@code "{{name}}"} are placeholders, each
+ * replaced as a whole by the JSON value of the parameter of that name, e.g. a string, a number or an array of terms.
+ * The parameters {@link #PARAM_FROM} and {@link #PARAM_SIZE} override the paging of the template. Aggregations, sorts,
+ * script fields and suggestions are parsed when the search is prepared and reused by every execution.
+ */
+public interface PreparedSearch {
+
+    String PARAM_FROM = "from";
+    String PARAM_SIZE = "size";
+
+    /**
+     * The failure code of a {@link io.vertx.serviceproxy.ServiceException} for an id the service doesn't know, e.g.
+     * because it was restarted or another service instance prepared the search. The handle prepares the search again then.
+     */
+    int UNKNOWN_PREPARED_SEARCH = 404;
+
+    /**
+     * @return the id of the prepared search, the same for the same indices and template
+     */
+    String getId();
+
+    /**
+     * Executes the prepared search.
+     *
+     * @param params        the values of the placeholders and the optional paging
+     * @param resultHandler result handler callback
+     */
+    void execute(JsonObject params, Handler<AsyncResult<SearchResponse>> resultHandler);
+
+    /**
+     * Releases the prepared search in the service.
+     *
+     * @param resultHandler result handler callback
+     */
+    void close(Handler<AsyncResult<Void>> resultHandler);
+}
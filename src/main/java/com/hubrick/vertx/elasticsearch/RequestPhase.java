@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+/**
+ * The phases the time spent on a request is broken down into
+ */
+public enum RequestPhase {
+
+    /**
+     * Populating the ElasticSearch request builder from the options, including parsing queries and aggregations
+     */
+    BUILD,
+
+    /**
+     * From sending the request to receiving the response on the transport thread
+     */
+    TRANSPORT,
+
+    /**
+     * Mapping the ElasticSearch response to the service model
+     */
+    MAPPING,
+
+    /**
+     * Waiting for the mapping pool and the caller's context before the result handler is called
+     */
+    DISPATCH
+}
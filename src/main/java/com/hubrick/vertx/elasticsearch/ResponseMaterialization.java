@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+/**
+ * Controls how ElasticSearch responses are turned into Vert.x JSON
+ */
+public enum ResponseMaterialization {
+
+    /**
+     * Render the response to a JSON string and parse the string again
+     */
+    JSON_STRING,
+
+    /**
+     * Build the JsonObject/JsonArray tree directly from the XContent events without an intermediate string. With the raw
+     * response included, hits, sources and aggregations are mapped from a copy of the raw response instead of being read again
+     */
+    TREE
+}
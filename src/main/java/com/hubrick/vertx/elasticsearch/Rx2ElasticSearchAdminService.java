@@ -71,4 +71,8 @@ public interface Rx2ElasticSearchAdminService {
     Completable putTemplate(String name, JsonObject source, TemplateOptions options);
 
     Completable deleteTemplate(String name, TemplateOptions options);
+
+    Completable putSearchTemplate(String id, String template);
+
+    Completable deleteSearchTemplate(String id);
 }
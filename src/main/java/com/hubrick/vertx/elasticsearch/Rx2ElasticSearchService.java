@@ -27,6 +27,7 @@ import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
 import com.hubrick.vertx.elasticsearch.model.GetOptions;
 import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.Hit;
 import com.hubrick.vertx.elasticsearch.model.IndexOptions;
 import com.hubrick.vertx.elasticsearch.model.IndexResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
@@ -34,12 +35,18 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -59,12 +66,22 @@ public interface Rx2ElasticSearchService {
         return new DefaultRx2ElasticSearchService(ElasticSearchService.createEventBusProxy(vertx, address));
     }
 
+    static Rx2ElasticSearchService createBinaryEventBusProxy(Vertx vertx, String address) {
+        return new DefaultRx2ElasticSearchService(ElasticSearchServiceHelper.createBinaryEventBusProxy(vertx, address));
+    }
+
+    static Rx2ElasticSearchService createLocalEventBusProxy(Vertx vertx, String address) {
+        return new DefaultRx2ElasticSearchService(ElasticSearchServiceHelper.createLocalEventBusProxy(vertx, address));
+    }
+
     default Single<IndexResponse> index(String index, String type, JsonObject source) {
         return index(index, type, source, new IndexOptions());
     }
 
     Single<IndexResponse> index(String index, String type, JsonObject source, IndexOptions options);
 
+    Single<IndexResponse> indexRaw(String index, String type, RawSource source, IndexOptions options);
+
     Single<UpdateResponse> update(String index, String type, String id, UpdateOptions options);
 
     default Single<GetResponse> get(String index, String type, String id) {
@@ -87,12 +104,28 @@ public interface Rx2ElasticSearchService {
 
     Single<SearchResponse> search(List<String> indices, SearchOptions options);
 
+    Single<SearchResponse> searchTemplate(List<String> indices, SearchTemplateOptions options);
+
     default Single<SearchResponse> searchScroll(String scrollId) {
         return searchScroll(scrollId, new SearchScrollOptions());
     }
 
     Single<SearchResponse> searchScroll(String scrollId, SearchScrollOptions options);
 
+    Completable clearScroll(List<String> scrollIds);
+
+    /**
+     * Scrolls through all hits of the search, see {@link ElasticSearchServiceHelper#searchStream(ElasticSearchService, List, SearchOptions)}.
+     * Every subscription runs its own scrolled search.
+     */
+    Flowable<Hit> searchStream(List<String> indices, SearchOptions options);
+
+    /**
+     * Scrolls through all hits of the search in parallel slices, see
+     * {@link ElasticSearchServiceHelper#slicedSearchStream(ElasticSearchService, List, SearchOptions, SlicedScrollOptions)}.
+     */
+    Flowable<Hit> slicedSearchStream(List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions);
+
     default Single<DeleteResponse> delete(String index, String type, String id) {
         return delete(index, type, id, new DeleteOptions());
     }
@@ -123,6 +156,13 @@ public interface Rx2ElasticSearchService {
     Single<MultiSearchResponse> multiSearch(final List<MultiSearchQueryOptions> multiSearchQueryOptions,
                                             final MultiSearchOptions options);
 
+    default Single<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions) {
+        return multiSearchTemplate(multiSearchTemplateQueryOptions, new MultiSearchOptions());
+    }
+
+    Single<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions,
+                                                    final MultiSearchOptions options);
+
     default Single<MultiGetResponse> multiGet(final List<MultiGetQueryOptions> multiGetQueryOptions) {
         return multiGet(multiGetQueryOptions, new MultiGetOptions());
     }
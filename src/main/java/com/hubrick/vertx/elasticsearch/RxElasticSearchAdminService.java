@@ -72,4 +72,8 @@ public interface RxElasticSearchAdminService {
 
     Observable<Void> deleteTemplate(String name, TemplateOptions options);
 
+    Observable<Void> putSearchTemplate(String id, String template);
+
+    Observable<Void> deleteSearchTemplate(String id);
+
 }
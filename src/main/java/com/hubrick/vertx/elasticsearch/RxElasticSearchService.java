@@ -27,6 +27,7 @@ import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
 import com.hubrick.vertx.elasticsearch.model.GetOptions;
 import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.Hit;
 import com.hubrick.vertx.elasticsearch.model.IndexOptions;
 import com.hubrick.vertx.elasticsearch.model.IndexResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
@@ -34,10 +35,14 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
 import io.vertx.core.Vertx;
@@ -59,12 +64,22 @@ public interface RxElasticSearchService {
         return new DefaultRxElasticSearchService(ElasticSearchService.createEventBusProxy(vertx, address));
     }
 
+    static RxElasticSearchService createBinaryEventBusProxy(Vertx vertx, String address) {
+        return new DefaultRxElasticSearchService(ElasticSearchServiceHelper.createBinaryEventBusProxy(vertx, address));
+    }
+
+    static RxElasticSearchService createLocalEventBusProxy(Vertx vertx, String address) {
+        return new DefaultRxElasticSearchService(ElasticSearchServiceHelper.createLocalEventBusProxy(vertx, address));
+    }
+
     default Observable<IndexResponse> index(String index, String type, JsonObject source) {
         return index(index, type, source, new IndexOptions());
     }
 
     Observable<IndexResponse> index(String index, String type, JsonObject source, IndexOptions options);
 
+    Observable<IndexResponse> indexRaw(String index, String type, RawSource source, IndexOptions options);
+
     Observable<UpdateResponse> update(String index, String type, String id, UpdateOptions options);
 
     default Observable<GetResponse> get(String index, String type, String id) {
@@ -87,12 +102,28 @@ public interface RxElasticSearchService {
 
     Observable<SearchResponse> search(List<String> indices, SearchOptions options);
 
+    Observable<SearchResponse> searchTemplate(List<String> indices, SearchTemplateOptions options);
+
     default Observable<SearchResponse> searchScroll(String scrollId) {
         return searchScroll(scrollId, new SearchScrollOptions());
     }
 
     Observable<SearchResponse> searchScroll(String scrollId, SearchScrollOptions options);
 
+    Observable<Void> clearScroll(List<String> scrollIds);
+
+    /**
+     * Scrolls through all hits of the search, see {@link ElasticSearchServiceHelper#searchStream(ElasticSearchService, List, SearchOptions)}.
+     * Every subscription runs its own scrolled search, backpressure is applied by pausing the stream.
+     */
+    Observable<Hit> searchStream(List<String> indices, SearchOptions options);
+
+    /**
+     * Scrolls through all hits of the search in parallel slices, see
+     * {@link ElasticSearchServiceHelper#slicedSearchStream(ElasticSearchService, List, SearchOptions, SlicedScrollOptions)}.
+     */
+    Observable<Hit> slicedSearchStream(List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions);
+
     default Observable<DeleteResponse> delete(String index, String type, String id) {
         return delete(index, type, id, new DeleteOptions());
     }
@@ -123,6 +154,13 @@ public interface RxElasticSearchService {
     Observable<MultiSearchResponse> multiSearch(final List<MultiSearchQueryOptions> multiSearchQueryOptions,
                                                 final MultiSearchOptions options);
 
+    default Observable<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions) {
+        return multiSearchTemplate(multiSearchTemplateQueryOptions, new MultiSearchOptions());
+    }
+
+    Observable<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions,
+                                                        final MultiSearchOptions options);
+
     default Observable<MultiGetResponse> multiGet(final List<MultiGetQueryOptions> multiGetQueryOptions) {
         return multiGet(multiGetQueryOptions, new MultiGetOptions());
     }
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Pages through a search with {@code search_after} instead of {@code from}/{@code size}.
+ * <p>
+ * Each page continues after the sort values of the last hit of the previous page, so the cost of a page doesn't grow
+ * with its depth. A tiebreaker sort is appended to the sort of the search to make it stable. While a page is consumed
+ * the next one is already requested.
+ */
+public interface SearchAfterIterator {
+
+    /**
+     * @return whether another page may be available, the last page can be empty if the total hits are unknown
+     */
+    boolean hasNext();
+
+    /**
+     * Fetches the next page. Must not be called again before the previous page was handed to its handler.
+     *
+     * @param resultHandler result handler callback, fails with {@link java.util.NoSuchElementException} when there are no more pages
+     */
+    void next(Handler<AsyncResult<SearchResponse>> resultHandler);
+
+    /**
+     * @return the sort values of the last hit handed out, can be passed to {@code setSearchAfter} to continue the search later
+     */
+    JsonArray getSearchAfter();
+
+    /**
+     * Drops the prefetched page and stops fetching.
+     */
+    void close();
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+/**
+ * Presets for the number of transport connections the client opens to every node per channel type. Bulk requests use
+ * the bulk channels, searches, gets and index requests the regular ones.
+ */
+public enum TransportProfile {
+
+    /**
+     * The ElasticSearch defaults, 3 bulk and 6 regular connections per node
+     */
+    DEFAULT,
+
+    /**
+     * 8 bulk and 4 regular connections per node, for services mostly writing in bulk
+     */
+    INGEST_HEAVY,
+
+    /**
+     * 2 bulk and 12 regular connections per node, so occasional bulks don't hold up searches
+     */
+    SEARCH_HEAVY
+}
@@ -17,12 +17,14 @@ package com.hubrick.vertx.elasticsearch.guice;
 
 import com.hubrick.vertx.elasticsearch.ElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.ElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
 import com.hubrick.vertx.elasticsearch.TransportClientFactory;
 import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchService;
 import com.hubrick.vertx.elasticsearch.impl.DefaultTransportClientFactory;
 import com.hubrick.vertx.elasticsearch.impl.EnvElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.impl.NoopElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchService;
 import com.google.inject.AbstractModule;
@@ -42,6 +44,7 @@ public class ElasticSearchBinder extends AbstractModule {
 
         bind(TransportClientFactory.class).to(DefaultTransportClientFactory.class);
         bind(ElasticSearchConfigurator.class).to(EnvElasticSearchConfigurator.class);
+        bind(ElasticSearchMetrics.class).to(NoopElasticSearchMetrics.class);
 
         bind(DefaultElasticSearchService.class).in(Singleton.class);
         bind(DefaultElasticSearchAdminService.class).in(Singleton.class);
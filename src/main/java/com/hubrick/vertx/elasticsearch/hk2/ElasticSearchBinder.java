@@ -17,12 +17,14 @@ package com.hubrick.vertx.elasticsearch.hk2;
 
 import com.hubrick.vertx.elasticsearch.ElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.ElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
 import com.hubrick.vertx.elasticsearch.TransportClientFactory;
 import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.impl.DefaultElasticSearchService;
 import com.hubrick.vertx.elasticsearch.impl.DefaultTransportClientFactory;
 import com.hubrick.vertx.elasticsearch.impl.EnvElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.impl.NoopElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchService;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -41,6 +43,7 @@ public class ElasticSearchBinder extends AbstractBinder {
     protected void configure() {
         bind(DefaultTransportClientFactory.class).to(TransportClientFactory.class);
         bind(EnvElasticSearchConfigurator.class).to(ElasticSearchConfigurator.class);
+        bind(NoopElasticSearchMetrics.class).to(ElasticSearchMetrics.class);
         bind(DefaultElasticSearchService.class).to(InternalElasticSearchService.class).to(ElasticSearchService.class).in(Singleton.class);
         bind(DefaultElasticSearchAdminService.class).to(InternalElasticSearchAdminService.class).to(ElasticSearchAdminService.class).in(Singleton.class);
     }
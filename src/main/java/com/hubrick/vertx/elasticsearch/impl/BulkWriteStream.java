@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link WriteStream} of bulk actions, written through a {@link com.hubrick.vertx.elasticsearch.BulkIngester}.
+ * <p>
+ * The write queue size is measured in bytes: the estimated size of every action written but not yet acknowledged by
+ * Elasticsearch, whether it is still pending in the ingester or part of a bulk request in flight. The queue is full once
+ * it exceeds the max size, the drain handler is called when it dropped to half of it again.
+ * <p>
+ * Failed actions are reported to the exception handler as {@link BulkItemFailureException} carrying the response item.
+ * {@link #end()} flushes the ingester but doesn't close it, as it may be shared.
+ */
+public class BulkWriteStream<T> implements WriteStream<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkWriteStream.class);
+
+    public static final int DEFAULT_WRITE_QUEUE_MAX_SIZE_IN_BYTES = 10 * 1024 * 1024;
+
+    private final BiConsumer<T, Handler<AsyncResult<BulkResponseItem>>> writer;
+    private final ToLongFunction<T> sizeEstimator;
+    private final Runnable flusher;
+    private final AtomicLong queuedSizeInBytes = new AtomicLong();
+
+    private volatile int maxSizeInBytes = DEFAULT_WRITE_QUEUE_MAX_SIZE_IN_BYTES;
+    private volatile Handler<Void> drainHandler;
+    private volatile Handler<Throwable> exceptionHandler;
+
+    public BulkWriteStream(BiConsumer<T, Handler<AsyncResult<BulkResponseItem>>> writer, ToLongFunction<T> sizeEstimator, Runnable flusher) {
+        this.writer = checkNotNull(writer, "writer must not be null");
+        this.sizeEstimator = checkNotNull(sizeEstimator, "sizeEstimator must not be null");
+        this.flusher = checkNotNull(flusher, "flusher must not be null");
+    }
+
+    @Override
+    public BulkWriteStream<T> exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public BulkWriteStream<T> write(T action) {
+        checkNotNull(action, "action must not be null");
+        final long sizeInBytes = sizeEstimator.applyAsLong(action);
+        final boolean full = queuedSizeInBytes.addAndGet(sizeInBytes) >= maxSizeInBytes;
+        writer.accept(action, result -> {
+            final long queued = queuedSizeInBytes.addAndGet(-sizeInBytes);
+            if (result.failed()) {
+                fail(result.cause());
+            } else if (result.result().getFailureMessage() != null) {
+                fail(new BulkItemFailureException(result.result()));
+            }
+
+            final Handler<Void> handler = drainHandler;
+            if (handler != null && queued <= maxSizeInBytes / 2 && queued + sizeInBytes > maxSizeInBytes / 2) {
+                handler.handle(null);
+            }
+        });
+        if (full) {
+            // Don't wait for the batch thresholds of the ingester, nothing drains the queue otherwise
+            flusher.run();
+        }
+        return this;
+    }
+
+    @Override
+    public void end() {
+        flusher.run();
+    }
+
+    @Override
+    public BulkWriteStream<T> setWriteQueueMaxSize(int maxSize) {
+        checkArgument(maxSize > 0, "maxSize must be greater than 0");
+        this.maxSizeInBytes = maxSize;
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return queuedSizeInBytes.get() >= maxSizeInBytes;
+    }
+
+    @Override
+    public BulkWriteStream<T> drainHandler(Handler<Void> handler) {
+        this.drainHandler = handler;
+        return this;
+    }
+
+    private void fail(Throwable cause) {
+        final Handler<Throwable> handler = exceptionHandler;
+        if (handler != null) {
+            handler.handle(cause);
+        } else {
+            log.error("Bulk action failed", cause);
+        }
+    }
+
+    /**
+     * A bulk action which was rejected or failed by Elasticsearch.
+     */
+    public static class BulkItemFailureException extends RuntimeException {
+
+        private final BulkResponseItem item;
+
+        public BulkItemFailureException(BulkResponseItem item) {
+            super(item.getFailureMessage());
+            this.item = item;
+        }
+
+        public BulkResponseItem getItem() {
+            return item;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.AbstractSearchOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse;
+import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
+import com.hubrick.vertx.elasticsearch.model.SearchCacheOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ElasticSearchService} decorator caching the responses of searches and multi searches flagged as
+ * {@link AbstractSearchOptions#setCacheable(Boolean) cacheable}.
+ * <p>
+ * Responses are keyed by a hash of the indices and the canonical JSON of the options. Every index, update, delete, bulk
+ * and delete by query issued through this service increments a generation counter of the indices it writes to, cached
+ * responses for these indices are discarded on their next lookup. Searches across wildcards or all indices can't be
+ * mapped to the written indices, so any write invalidates them. Aliases are taken for index names, writes through
+ * another name than the search used and writes by other clients are only caught by the TTL.
+ */
+public class CachingElasticSearchService extends ForwardingElasticSearchService {
+
+    private static final String ALL_INDICES = "_all";
+
+    private final Cache<HashCode, CachedResponse> cache;
+    private final long defaultTtlInMillis;
+    private final ConcurrentMap<String, AtomicLong> indexGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public CachingElasticSearchService(ElasticSearchService delegate, SearchCacheOptions options) {
+        super(delegate);
+        checkNotNull(options, "options must not be null");
+
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(options.getMaxEntries() != null ? options.getMaxEntries() : SearchCacheOptions.DEFAULT_MAX_ENTRIES)
+                .build();
+        this.defaultTtlInMillis = options.getTtlInMillis() != null ? options.getTtlInMillis() : SearchCacheOptions.DEFAULT_TTL_IN_MILLIS;
+    }
+
+    @Override
+    public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        if (!isCacheable(options)) {
+            delegate.search(indices, options, resultHandler);
+            return;
+        }
+
+        final HashCode key = RequestKeys.hash(new JsonArray().add(RequestKeys.canonicalIndices(indices)).add(cacheKeyJson(options)));
+        final long generation = generation(indices);
+        final JsonObject cached = lookup(key, generation);
+        if (cached != null) {
+            completeFromCache(resultHandler, new SearchResponse(cached));
+            return;
+        }
+
+        final long ttlInMillis = ttlInMillis(options);
+        delegate.search(indices, options, result -> {
+            if (result.succeeded()) {
+                store(key, generation, ttlInMillis, result.result().toJson());
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    @Override
+    public void multiSearch(List<MultiSearchQueryOptions> multiSearchQueryOptions, MultiSearchOptions options, Handler<AsyncResult<MultiSearchResponse>> resultHandler) {
+        if (multiSearchQueryOptions.isEmpty() || !multiSearchQueryOptions.stream().allMatch(query -> isCacheable(query.getSearchOptions()))) {
+            delegate.multiSearch(multiSearchQueryOptions, options, resultHandler);
+            return;
+        }
+
+        final JsonArray keyJson = new JsonArray().add(options != null ? options.toJson() : new JsonObject());
+        long generation = 0;
+        long ttlInMillis = Long.MAX_VALUE;
+        for (MultiSearchQueryOptions query : multiSearchQueryOptions) {
+            keyJson.add(RequestKeys.canonicalIndices(query.getIndices())).add(cacheKeyJson(query.getSearchOptions()));
+            generation += generation(query.getIndices());
+            ttlInMillis = Math.min(ttlInMillis, ttlInMillis(query.getSearchOptions()));
+        }
+
+        final HashCode key = RequestKeys.hash(keyJson);
+        final long snapshot = generation;
+        final JsonObject cached = lookup(key, snapshot);
+        if (cached != null) {
+            completeFromCache(resultHandler, new MultiSearchResponse(cached));
+            return;
+        }
+
+        final long queryTtlInMillis = ttlInMillis;
+        delegate.multiSearch(multiSearchQueryOptions, options, result -> {
+            if (result.succeeded() && result.result().getResponses().stream().allMatch(item -> item.getFailureMessage() == null)) {
+                store(key, snapshot, queryTtlInMillis, result.result().toJson());
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    @Override
+    public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        delegate.index(index, type, source, options, invalidating(Collections.singleton(index), resultHandler));
+    }
+
+    @Override
+    public void indexRaw(String index, String type, RawSource source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        delegate.indexRaw(index, type, source, options, invalidating(Collections.singleton(index), resultHandler));
+    }
+
+    @Override
+    public void update(String index, String type, String id, UpdateOptions options, Handler<AsyncResult<UpdateResponse>> resultHandler) {
+        delegate.update(index, type, id, options, invalidating(Collections.singleton(index), resultHandler));
+    }
+
+    @Override
+    public void delete(String index, String type, String id, DeleteOptions options, Handler<AsyncResult<DeleteResponse>> resultHandler) {
+        delegate.delete(index, type, id, options, invalidating(Collections.singleton(index), resultHandler));
+    }
+
+    @Override
+    public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                     List<BulkUpdateOptions> bulkUpdateOptions,
+                     List<BulkDeleteOptions> bulkDeleteOptions,
+                     BulkOptions bulkOptions,
+                     Handler<AsyncResult<BulkResponse>> resultHandler) {
+        final Set<String> indices = new HashSet<>();
+        bulkIndexOptions.forEach(item -> indices.add(item.getIndex()));
+        bulkUpdateOptions.forEach(item -> indices.add(item.getIndex()));
+        bulkDeleteOptions.forEach(item -> indices.add(item.getIndex()));
+
+        delegate.bulk(bulkIndexOptions, bulkUpdateOptions, bulkDeleteOptions, bulkOptions, invalidating(indices, resultHandler));
+    }
+
+    @Override
+    public void deleteByQuery(List<String> indices, DeleteByQueryOptions options, Handler<AsyncResult<DeleteByQueryResponse>> resultHandler) {
+        delegate.deleteByQuery(indices, options, invalidating(indices, resultHandler));
+    }
+
+    /**
+     * Drops all cached responses.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        writeGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private boolean isCacheable(AbstractSearchOptions<?> options) {
+        return options != null && Boolean.TRUE.equals(options.isCacheable()) && options.getScroll() == null;
+    }
+
+    private long ttlInMillis(AbstractSearchOptions<?> options) {
+        return options.getCacheTtlInMillis() != null ? options.getCacheTtlInMillis() : defaultTtlInMillis;
+    }
+
+    private JsonObject lookup(HashCode key, long generation) {
+        final CachedResponse cachedResponse = cache.getIfPresent(key);
+        if (cachedResponse == null) {
+            return null;
+        }
+        if (cachedResponse.generation != generation || cachedResponse.expiresAtMillis <= System.currentTimeMillis()) {
+            cache.asMap().remove(key, cachedResponse);
+            return null;
+        }
+        // Callers own the response they get, the cached one must stay untouched
+        return cachedResponse.json.copy();
+    }
+
+    private void store(HashCode key, long generation, long ttlInMillis, JsonObject json) {
+        // Stored with the generation seen when the search started, a write completing meanwhile discards it on lookup
+        if (ttlInMillis > 0) {
+            cache.put(key, new CachedResponse(json.copy(), generation, System.currentTimeMillis() + ttlInMillis));
+        }
+    }
+
+    /**
+     * The generation of a search on concrete indices is the sum of the generations of its indices and the epoch, which
+     * changes when everything is invalidated. The counters only ever increase, so the sum changes as soon as one of
+     * them does. Other searches depend on the generation of all writes.
+     */
+    private long generation(List<String> indices) {
+        if (!isConcrete(indices)) {
+            return writeGeneration.get();
+        }
+
+        long generation = epoch.get();
+        for (String index : indices) {
+            final AtomicLong indexGeneration = indexGenerations.get(index);
+            if (indexGeneration != null) {
+                generation += indexGeneration.get();
+            }
+        }
+        return generation;
+    }
+
+    private <T> Handler<AsyncResult<T>> invalidating(Collection<String> indices, Handler<AsyncResult<T>> resultHandler) {
+        // Invalidated when the write completes, searches started while it was running are stale as well
+        return result -> {
+            invalidate(indices);
+            resultHandler.handle(result);
+        };
+    }
+
+    private void invalidate(Collection<String> indices) {
+        for (String index : indices) {
+            if (index == null || !isConcrete(Collections.singletonList(index))) {
+                invalidateAll();
+                return;
+            }
+        }
+        for (String index : indices) {
+            indexGenerations.computeIfAbsent(index, name -> new AtomicLong()).incrementAndGet();
+        }
+        writeGeneration.incrementAndGet();
+    }
+
+    private static boolean isConcrete(List<String> indices) {
+        if (indices == null || indices.isEmpty()) {
+            return false;
+        }
+        for (String index : indices) {
+            if (ALL_INDICES.equals(index) || index.indexOf('*') >= 0 || index.indexOf(',') >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonObject cacheKeyJson(AbstractSearchOptions<?> options) {
+        final JsonObject json = options.toJson();
+        json.remove(AbstractSearchOptions.JSON_FIELD_CACHEABLE);
+        json.remove(AbstractSearchOptions.JSON_FIELD_CACHE_TTL_IN_MILLIS);
+        return json;
+    }
+
+    private static class CachedResponse {
+
+        private final JsonObject json;
+        private final long generation;
+        private final long expiresAtMillis;
+
+        private CachedResponse(JsonObject json, long generation, long expiresAtMillis) {
+            this.json = json;
+            this.generation = generation;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
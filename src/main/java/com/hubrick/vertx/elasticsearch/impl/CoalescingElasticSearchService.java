@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.google.common.hash.HashCode;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.CoalescingOptions;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ElasticSearchService} decorator sharing one request between identical gets and searches in flight at the
+ * same time.
+ * <p>
+ * The first caller's request is sent, the callers arriving before its response is received wait for it and get a
+ * copy of it on their own context. Nothing is kept once the response is received, use the caches to serve repeated
+ * requests. Scroll searches open a scroll context per request and are never coalesced. Distinct gets are batched into
+ * multi gets by the default service, see {@link com.hubrick.vertx.elasticsearch.ElasticSearchConfigurator#getGetBatchWindowMicros()}.
+ */
+public class CoalescingElasticSearchService extends ForwardingElasticSearchService {
+
+    private final boolean coalesceGets;
+    private final boolean coalesceSearches;
+    private final ConcurrentMap<HashCode, InFlightRequest<GetResponse>> inFlightGets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<HashCode, InFlightRequest<SearchResponse>> inFlightSearches = new ConcurrentHashMap<>();
+
+    public CoalescingElasticSearchService(ElasticSearchService delegate, CoalescingOptions options) {
+        super(delegate);
+        checkNotNull(options, "options must not be null");
+
+        this.coalesceGets = options.getCoalesceGets() != null ? options.getCoalesceGets() : CoalescingOptions.DEFAULT_COALESCE_GETS;
+        this.coalesceSearches = options.getCoalesceSearches() != null ? options.getCoalesceSearches() : CoalescingOptions.DEFAULT_COALESCE_SEARCHES;
+    }
+
+    @Override
+    public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+        if (!coalesceGets) {
+            delegate.get(index, type, id, options, resultHandler);
+            return;
+        }
+
+        final HashCode key = RequestKeys.hash(new JsonArray().add(index).add(type).add(id).add(options != null ? options.toJson() : new JsonObject()));
+        coalesce(inFlightGets, key, resultHandler, response -> new GetResponse(response.toJson().copy()), handler -> delegate.get(index, type, id, options, handler));
+    }
+
+    @Override
+    public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        if (!coalesceSearches || options == null || options.getScroll() != null) {
+            delegate.search(indices, options, resultHandler);
+            return;
+        }
+
+        final HashCode key = RequestKeys.hash(new JsonArray().add(RequestKeys.canonicalIndices(indices)).add(options.toJson()));
+        coalesce(inFlightSearches, key, resultHandler, response -> new SearchResponse(response.toJson().copy()), handler -> delegate.search(indices, options, handler));
+    }
+
+    private static <T> void coalesce(ConcurrentMap<HashCode, InFlightRequest<T>> inFlightRequests,
+                                     HashCode key,
+                                     Handler<AsyncResult<T>> resultHandler,
+                                     Function<T, T> copy,
+                                     Handler<Handler<AsyncResult<T>>> request) {
+
+        final InFlightRequest<T> inFlightRequest = new InFlightRequest<>();
+        while (true) {
+            final InFlightRequest<T> existing = inFlightRequests.putIfAbsent(key, inFlightRequest);
+            if (existing == null) {
+                break;
+            }
+            if (existing.join(resultHandler)) {
+                return;
+            }
+            // The existing request completed in between, it is about to be removed
+            inFlightRequests.remove(key, existing);
+        }
+
+        request.handle(result -> {
+            inFlightRequests.remove(key, inFlightRequest);
+            for (Waiter<T> waiter : inFlightRequest.complete()) {
+                final AsyncResult<T> copiedResult = result.succeeded() ? Future.succeededFuture(copy.apply(result.result())) : result;
+                if (waiter.context == null || waiter.context == Vertx.currentContext()) {
+                    waiter.resultHandler.handle(copiedResult);
+                } else {
+                    waiter.context.runOnContext(event -> waiter.resultHandler.handle(copiedResult));
+                }
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    private static class InFlightRequest<T> {
+
+        private List<Waiter<T>> waiters = new ArrayList<>();
+
+        private synchronized boolean join(Handler<AsyncResult<T>> resultHandler) {
+            if (waiters == null) {
+                return false;
+            }
+            waiters.add(new Waiter<>(resultHandler, Vertx.currentContext()));
+            return true;
+        }
+
+        private synchronized List<Waiter<T>> complete() {
+            final List<Waiter<T>> completedWaiters = waiters;
+            waiters = null;
+            return completedWaiters;
+        }
+    }
+
+    private static class Waiter<T> {
+
+        private final Handler<AsyncResult<T>> resultHandler;
+        private final Context context;
+
+        private Waiter(Handler<AsyncResult<T>> resultHandler, Context context) {
+            this.resultHandler = resultHandler;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Message wrapper that sends {@link JsonObject} replies with a given codec.
+ * <p>
+ * The generated proxy handlers reply without delivery options, so this is how service responses opt into a codec.
+ * Other replies, e.g. service exceptions, keep their default codec.
+ */
+public class CodecReplyMessage<T> implements Message<T> {
+
+    private final Message<T> delegate;
+    private final String codecName;
+
+    public CodecReplyMessage(Message<T> delegate, String codecName) {
+        this.delegate = delegate;
+        this.codecName = codecName;
+    }
+
+    @Override
+    public String address() {
+        return delegate.address();
+    }
+
+    @Override
+    public MultiMap headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public T body() {
+        return delegate.body();
+    }
+
+    @Override
+    public String replyAddress() {
+        return delegate.replyAddress();
+    }
+
+    @Override
+    public boolean isSend() {
+        return delegate.isSend();
+    }
+
+    @Override
+    public void reply(Object message) {
+        reply(message, new DeliveryOptions());
+    }
+
+    @Override
+    public <R> void reply(Object message, Handler<AsyncResult<Message<R>>> replyHandler) {
+        reply(message, new DeliveryOptions(), replyHandler);
+    }
+
+    @Override
+    public void reply(Object message, DeliveryOptions options) {
+        delegate.reply(message, withCodec(message, options));
+    }
+
+    @Override
+    public <R> void reply(Object message, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
+        delegate.reply(message, withCodec(message, options), replyHandler);
+    }
+
+    @Override
+    public void fail(int failureCode, String message) {
+        delegate.fail(failureCode, message);
+    }
+
+    private DeliveryOptions withCodec(Object message, DeliveryOptions options) {
+        if (message instanceof JsonObject && options.getCodecName() == null) {
+            return new DeliveryOptions(options).setCodecName(codecName);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,367 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.BulkIngester;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIngesterOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+import org.elasticsearch.rest.RestStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Default {@link BulkIngester} built on {@link ElasticSearchService#bulk}.
+ * <p>
+ * Actions are gathered into the pending batch under a lock. A batch only holds actions of one kind, as the bulk request
+ * orders its index actions before its updates and deletes, so the actions reach the cluster in the order they were added.
+ * Full batches are queued and sent as soon as less than
+ * {@code maxConcurrentRequests} bulk requests are in flight. A batch keeps its slot while its rejected actions are
+ * retried, so a saturated cluster slows down the ingestion instead of being flooded with retries.
+ */
+public class DefaultBulkIngester implements BulkIngester {
+
+    // Per action overhead of the bulk request body, as estimated by the BulkProcessor of Elasticsearch
+    private static final int ACTION_OVERHEAD_IN_BYTES = 50;
+
+    private final Vertx vertx;
+    private final ElasticSearchService elasticSearchService;
+    private final int maxActions;
+    private final long maxSizeInBytes;
+    private final int maxConcurrentRequests;
+    private final long initialBackoffInMillis;
+    private final int maxRetries;
+    private final BulkOptions bulkOptions;
+    private final long flushTimerId;
+
+    private List<Action> pending = new ArrayList<>();
+    private long pendingSizeInBytes;
+    private final Deque<List<Action>> ready = new ArrayDeque<>();
+    private int inFlight;
+    private boolean closed;
+    private Handler<AsyncResult<Void>> closeHandler;
+
+    public DefaultBulkIngester(Vertx vertx, ElasticSearchService elasticSearchService, BulkIngesterOptions options) {
+        checkNotNull(vertx, "vertx must not be null");
+        checkNotNull(elasticSearchService, "elasticSearchService must not be null");
+
+        final BulkIngesterOptions bulkIngesterOptions = options != null ? options : new BulkIngesterOptions();
+        this.vertx = vertx;
+        this.elasticSearchService = elasticSearchService;
+        this.maxActions = Optional.ofNullable(bulkIngesterOptions.getMaxActions()).orElse(BulkIngesterOptions.DEFAULT_MAX_ACTIONS);
+        this.maxSizeInBytes = Optional.ofNullable(bulkIngesterOptions.getMaxSizeInBytes()).orElse(BulkIngesterOptions.DEFAULT_MAX_SIZE_IN_BYTES);
+        this.maxConcurrentRequests = Optional.ofNullable(bulkIngesterOptions.getMaxConcurrentRequests()).orElse(BulkIngesterOptions.DEFAULT_MAX_CONCURRENT_REQUESTS);
+        this.initialBackoffInMillis = Optional.ofNullable(bulkIngesterOptions.getInitialBackoffInMillis()).orElse(BulkIngesterOptions.DEFAULT_INITIAL_BACKOFF_IN_MILLIS);
+        this.maxRetries = Optional.ofNullable(bulkIngesterOptions.getMaxRetries()).orElse(BulkIngesterOptions.DEFAULT_MAX_RETRIES);
+        this.bulkOptions = (bulkIngesterOptions.getBulkOptions() != null ? new BulkOptions(bulkIngesterOptions.getBulkOptions()) : new BulkOptions())
+                .setIncludeRawResponse(false);
+
+        checkArgument(maxActions > 0, "maxActions must be greater than 0");
+        checkArgument(maxSizeInBytes > 0, "maxSizeInBytes must be greater than 0");
+        checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests must be greater than 0");
+        checkArgument(initialBackoffInMillis > 0, "initialBackoffInMillis must be greater than 0");
+        checkArgument(maxRetries >= 0, "maxRetries must not be negative");
+
+        final long flushIntervalInMillis = Optional.ofNullable(bulkIngesterOptions.getFlushIntervalInMillis()).orElse(BulkIngesterOptions.DEFAULT_FLUSH_INTERVAL_IN_MILLIS);
+        this.flushTimerId = flushIntervalInMillis > 0 ? vertx.setPeriodic(flushIntervalInMillis, timerId -> flush()) : -1;
+    }
+
+    @Override
+    public DefaultBulkIngester index(BulkIndexOptions bulkIndexOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler) {
+        checkNotNull(bulkIndexOptions, "bulkIndexOptions must not be null");
+        add(new Action(bulkIndexOptions, null, null, estimateSizeInBytes(bulkIndexOptions), resultHandler));
+        return this;
+    }
+
+    @Override
+    public DefaultBulkIngester update(BulkUpdateOptions bulkUpdateOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler) {
+        checkNotNull(bulkUpdateOptions, "bulkUpdateOptions must not be null");
+        add(new Action(null, bulkUpdateOptions, null, estimateSizeInBytes(bulkUpdateOptions), resultHandler));
+        return this;
+    }
+
+    @Override
+    public DefaultBulkIngester delete(BulkDeleteOptions bulkDeleteOptions, Handler<AsyncResult<BulkResponseItem>> resultHandler) {
+        checkNotNull(bulkDeleteOptions, "bulkDeleteOptions must not be null");
+        add(new Action(null, null, bulkDeleteOptions, estimateSizeInBytes(bulkDeleteOptions), resultHandler));
+        return this;
+    }
+
+    @Override
+    public DefaultBulkIngester flush() {
+        final List<List<Action>> batches;
+        synchronized (this) {
+            cutBatch();
+            batches = takeSendableBatches();
+        }
+        batches.forEach(batch -> send(batch, 0));
+        return this;
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> resultHandler) {
+        final Handler<AsyncResult<Void>> handler = onCurrentContext(resultHandler);
+        final List<List<Action>> batches;
+        final boolean done;
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                if (flushTimerId != -1) {
+                    vertx.cancelTimer(flushTimerId);
+                }
+            }
+            cutBatch();
+            batches = takeSendableBatches();
+            done = inFlight == 0;
+            if (!done) {
+                closeHandler = handler;
+            }
+        }
+        batches.forEach(batch -> send(batch, 0));
+        if (done) {
+            handler.handle(Future.succeededFuture());
+        }
+    }
+
+    private void add(Action action) {
+        final List<List<Action>> batches;
+        final boolean accepted;
+        synchronized (this) {
+            accepted = !closed;
+            if (accepted) {
+                if (!pending.isEmpty() && !pending.get(pending.size() - 1).isSameKind(action)) {
+                    cutBatch();
+                }
+                pending.add(action);
+                pendingSizeInBytes += action.sizeInBytes;
+                if (pending.size() >= maxActions || pendingSizeInBytes >= maxSizeInBytes) {
+                    cutBatch();
+                }
+            }
+            batches = takeSendableBatches();
+        }
+        if (!accepted) {
+            action.complete(Future.failedFuture(new IllegalStateException("The bulk ingester is closed")));
+        }
+        batches.forEach(batch -> send(batch, 0));
+    }
+
+    private void cutBatch() {
+        if (!pending.isEmpty()) {
+            ready.add(pending);
+            pending = new ArrayList<>();
+            pendingSizeInBytes = 0;
+        }
+    }
+
+    private List<List<Action>> takeSendableBatches() {
+        final List<List<Action>> batches = new ArrayList<>();
+        while (inFlight < maxConcurrentRequests && !ready.isEmpty()) {
+            inFlight++;
+            batches.add(ready.poll());
+        }
+        return batches;
+    }
+
+    private void send(List<Action> batch, int attempt) {
+        final List<BulkIndexOptions> indexOptions = new ArrayList<>();
+        final List<BulkUpdateOptions> updateOptions = new ArrayList<>();
+        final List<BulkDeleteOptions> deleteOptions = new ArrayList<>();
+
+        for (Action action : batch) {
+            if (action.index != null) {
+                indexOptions.add(action.index);
+            } else if (action.update != null) {
+                updateOptions.add(action.update);
+            } else {
+                deleteOptions.add(action.delete);
+            }
+        }
+
+        try {
+            elasticSearchService.bulk(indexOptions, updateOptions, deleteOptions, bulkOptions, result -> handleResponse(batch, attempt, result));
+        } catch (RuntimeException e) {
+            // The batch never reached the service, so its slot is released here
+            batch.forEach(action -> action.complete(Future.failedFuture(e)));
+            done();
+        }
+    }
+
+    private void handleResponse(List<Action> actions, int attempt, AsyncResult<BulkResponse> result) {
+        if (result.failed()) {
+            if (isRejected(result.cause()) && attempt < maxRetries) {
+                retry(actions, attempt);
+            } else {
+                actions.forEach(action -> action.complete(Future.failedFuture(result.cause())));
+                done();
+            }
+            return;
+        }
+
+        final List<BulkResponseItem> items = result.result().getResponses();
+        if (items == null || items.size() != actions.size()) {
+            final IllegalStateException cause = new IllegalStateException("Expected " + actions.size() + " bulk response items but got " + (items != null ? items.size() : 0));
+            actions.forEach(action -> action.complete(Future.failedFuture(cause)));
+            done();
+            return;
+        }
+
+        final List<Action> rejected = new ArrayList<>();
+        for (int i = 0; i < actions.size(); i++) {
+            final BulkResponseItem item = items.get(i);
+            if (item.getStatus() != null && item.getStatus() == RestStatus.TOO_MANY_REQUESTS.getStatus() && attempt < maxRetries) {
+                rejected.add(actions.get(i));
+            } else {
+                actions.get(i).complete(Future.succeededFuture(item));
+            }
+        }
+
+        if (rejected.isEmpty()) {
+            done();
+        } else {
+            retry(rejected, attempt);
+        }
+    }
+
+    private static boolean isRejected(Throwable cause) {
+        return cause instanceof ServiceException && ((ServiceException) cause).failureCode() == ElasticSearchService.REJECTED_EXECUTION;
+    }
+
+    private void retry(List<Action> actions, int attempt) {
+        final long delay = initialBackoffInMillis << Math.min(attempt, 30);
+        vertx.setTimer(delay, timerId -> send(actions, attempt + 1));
+    }
+
+    private void done() {
+        final List<List<Action>> batches;
+        Handler<AsyncResult<Void>> handler = null;
+        synchronized (this) {
+            inFlight--;
+            batches = takeSendableBatches();
+            if (closeHandler != null && inFlight == 0) {
+                handler = closeHandler;
+                closeHandler = null;
+            }
+        }
+        batches.forEach(batch -> send(batch, 0));
+        if (handler != null) {
+            handler.handle(Future.succeededFuture());
+        }
+    }
+
+    /**
+     * Estimates the size of the action in the bulk request body without encoding it.
+     */
+    public static long estimateSizeInBytes(BulkIndexOptions bulkIndexOptions) {
+        if (bulkIndexOptions.getRawSource() != null && bulkIndexOptions.getRawSource().getBytes() != null) {
+            return ACTION_OVERHEAD_IN_BYTES + bulkIndexOptions.getRawSource().getBytes().length();
+        }
+        return ACTION_OVERHEAD_IN_BYTES + estimateSizeInBytes(bulkIndexOptions.getSource());
+    }
+
+    public static long estimateSizeInBytes(BulkUpdateOptions bulkUpdateOptions) {
+        return ACTION_OVERHEAD_IN_BYTES + (bulkUpdateOptions.getUpdateOptions() != null ? estimateSizeInBytes(bulkUpdateOptions.getUpdateOptions().toJson()) : 0);
+    }
+
+    public static long estimateSizeInBytes(BulkDeleteOptions bulkDeleteOptions) {
+        return ACTION_OVERHEAD_IN_BYTES;
+    }
+
+    static long estimateSizeInBytes(Object value) {
+        if (value == null) {
+            return 4;
+        } else if (value instanceof JsonObject) {
+            long sizeInBytes = 2;
+            for (Map.Entry<String, Object> entry : (JsonObject) value) {
+                sizeInBytes += entry.getKey().length() + 4 + estimateSizeInBytes(entry.getValue());
+            }
+            return sizeInBytes;
+        } else if (value instanceof JsonArray) {
+            long sizeInBytes = 2;
+            for (Object element : (JsonArray) value) {
+                sizeInBytes += 1 + estimateSizeInBytes(element);
+            }
+            return sizeInBytes;
+        } else if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() + 2;
+        } else if (value instanceof byte[]) {
+            // Base64 encoded
+            return ((byte[]) value).length * 4 / 3 + 4;
+        } else {
+            return value.toString().length();
+        }
+    }
+
+    private static <T> Handler<AsyncResult<T>> onCurrentContext(Handler<AsyncResult<T>> handler) {
+        final Context context = Vertx.currentContext();
+        return result -> {
+            if (handler == null) {
+                return;
+            }
+            if (context == null || Vertx.currentContext() == context) {
+                handler.handle(result);
+            } else {
+                context.runOnContext(v -> handler.handle(result));
+            }
+        };
+    }
+
+    private static class Action {
+
+        private final BulkIndexOptions index;
+        private final BulkUpdateOptions update;
+        private final BulkDeleteOptions delete;
+        private final long sizeInBytes;
+        private final Handler<AsyncResult<BulkResponseItem>> resultHandler;
+
+        private Action(BulkIndexOptions index, BulkUpdateOptions update, BulkDeleteOptions delete, long sizeInBytes, Handler<AsyncResult<BulkResponseItem>> resultHandler) {
+            this.index = index;
+            this.update = update;
+            this.delete = delete;
+            this.sizeInBytes = sizeInBytes;
+            this.resultHandler = onCurrentContext(resultHandler);
+        }
+
+        private boolean isSameKind(Action other) {
+            return (index != null) == (other.index != null) && (update != null) == (other.update != null);
+        }
+
+        private void complete(AsyncResult<BulkResponseItem> result) {
+            resultHandler.handle(result);
+        }
+    }
+}
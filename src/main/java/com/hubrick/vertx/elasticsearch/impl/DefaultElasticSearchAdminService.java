@@ -16,7 +16,10 @@
 package com.hubrick.vertx.elasticsearch.impl;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hubrick.vertx.elasticsearch.ElasticSearchAdminService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchService;
 import com.hubrick.vertx.elasticsearch.model.CreateIndexOptions;
@@ -28,6 +31,12 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.storedscripts.DeleteStoredScriptAction;
+import org.elasticsearch.action.admin.cluster.storedscripts.DeleteStoredScriptRequestBuilder;
+import org.elasticsearch.action.admin.cluster.storedscripts.DeleteStoredScriptResponse;
+import org.elasticsearch.action.admin.cluster.storedscripts.PutStoredScriptAction;
+import org.elasticsearch.action.admin.cluster.storedscripts.PutStoredScriptRequestBuilder;
+import org.elasticsearch.action.admin.cluster.storedscripts.PutStoredScriptResponse;
 import org.elasticsearch.action.admin.indices.create.CreateIndexAction;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
@@ -44,21 +53,39 @@ import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateActio
 import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateRequestBuilder;
 import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateResponse;
 import org.elasticsearch.client.AdminClient;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.xcontent.XContentType;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Default implementation of {@link ElasticSearchAdminService}
  */
 public class DefaultElasticSearchAdminService implements InternalElasticSearchAdminService {
 
+    static final long KNOWN_SEARCH_TEMPLATE_TTL_IN_MILLIS = 60000;
+
     private final InternalElasticSearchService service;
+    private final ElasticSearchMetrics metrics;
+    // Search templates put through this service by id, to skip cluster state updates for templates stored already.
+    // Templates deleted by other clients are stored again once their entry expired.
+    private final Cache<String, String> knownSearchTemplates;
 
-    @Inject
     public DefaultElasticSearchAdminService(InternalElasticSearchService service) {
+        this(service, NoopElasticSearchMetrics.INSTANCE);
+    }
+
+    @Inject
+    public DefaultElasticSearchAdminService(InternalElasticSearchService service, ElasticSearchMetrics metrics) {
+        this(service, metrics, KNOWN_SEARCH_TEMPLATE_TTL_IN_MILLIS);
+    }
+
+    DefaultElasticSearchAdminService(InternalElasticSearchService service, ElasticSearchMetrics metrics, long knownSearchTemplateTtlInMillis) {
         this.service = service;
+        this.metrics = metrics;
+        this.knownSearchTemplates = CacheBuilder.newBuilder().expireAfterWrite(knownSearchTemplateTtlInMillis, TimeUnit.MILLISECONDS).build();
     }
 
     @Override
@@ -69,7 +96,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
                 .setType(type)
                 .setSource(source.encode(), XContentType.JSON);
 
-        builder.execute(new ActionListener<PutMappingResponse>() {
+        builder.execute(MetricsListener.wrap(metrics, "putMapping", builder.request(), new ActionListener<PutMappingResponse>() {
             @Override
             public void onResponse(PutMappingResponse putMappingResponse) {
                 resultHandler.handle(Future.succeededFuture());
@@ -79,7 +106,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
             public void onFailure(Exception e) {
                 resultHandler.handle(Future.failedFuture(e));
             }
-        });
+        }));
     }
 
     @Override
@@ -89,7 +116,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
                 .setIndex(index)
                 .setSource(source.encode(), XContentType.JSON);
 
-        builder.execute(new ActionListener<CreateIndexResponse>() {
+        builder.execute(MetricsListener.wrap(metrics, "createIndex", builder.request(), new ActionListener<CreateIndexResponse>() {
             @Override
             public void onResponse(CreateIndexResponse createIndexResponse) {
                 resultHandler.handle(Future.succeededFuture());
@@ -99,14 +126,14 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
             public void onFailure(Exception e) {
                 resultHandler.handle(Future.failedFuture(e));
             }
-        });
+        }));
     }
 
     @Override
     public void deleteIndex(List<String> indices, DeleteIndexOptions options, Handler<AsyncResult<Void>> resultHandler) {
         final DeleteIndexRequestBuilder builder = new DeleteIndexRequestBuilder(service.getClient(), DeleteIndexAction.INSTANCE, indices.toArray(new String[0]));
 
-        builder.execute(new ActionListener<DeleteIndexResponse>() {
+        builder.execute(MetricsListener.wrap(metrics, "deleteIndex", builder.request(), new ActionListener<DeleteIndexResponse>() {
             @Override
             public void onResponse(DeleteIndexResponse deleteIndexResponse) {
                 resultHandler.handle(Future.succeededFuture());
@@ -116,7 +143,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
             public void onFailure(Exception e) {
                 resultHandler.handle(Future.failedFuture(e));
             }
-        });
+        }));
     }
 
     @Override
@@ -125,7 +152,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
         final PutIndexTemplateRequestBuilder builder = new PutIndexTemplateRequestBuilder(service.getClient(), PutIndexTemplateAction.INSTANCE, name)
                 .setSource(source.encode().getBytes(Charsets.UTF_8), XContentType.JSON);
 
-        builder.execute(new ActionListener<PutIndexTemplateResponse>() {
+        builder.execute(MetricsListener.wrap(metrics, "putTemplate", builder.request(), new ActionListener<PutIndexTemplateResponse>() {
             @Override
             public void onResponse(PutIndexTemplateResponse putIndexTemplateResponse) {
                 resultHandler.handle(Future.succeededFuture());
@@ -135,7 +162,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
             public void onFailure(Exception e) {
                 resultHandler.handle(Future.failedFuture(e));
             }
-        });
+        }));
     }
 
     @Override
@@ -143,7 +170,7 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
 
         final DeleteIndexTemplateRequestBuilder builder = DeleteIndexTemplateAction.INSTANCE.newRequestBuilder(service.getClient()).setName(name);
 
-        builder.execute(new ActionListener<DeleteIndexTemplateResponse>() {
+        builder.execute(MetricsListener.wrap(metrics, "deleteTemplate", builder.request(), new ActionListener<DeleteIndexTemplateResponse>() {
             @Override
             public void onResponse(DeleteIndexTemplateResponse deleteIndexTemplateResponse) {
                 JsonObject json = new JsonObject()
@@ -155,7 +182,52 @@ public class DefaultElasticSearchAdminService implements InternalElasticSearchAd
             public void onFailure(Exception e) {
                 resultHandler.handle(Future.failedFuture(e));
             }
-        });
+        }));
+    }
+
+    @Override
+    public void putSearchTemplate(String id, String template, Handler<AsyncResult<Void>> resultHandler) {
+        if (template.equals(knownSearchTemplates.getIfPresent(id))) {
+            resultHandler.handle(Future.succeededFuture());
+            return;
+        }
+
+        final JsonObject content = new JsonObject().put("script", new JsonObject().put("lang", "mustache").put("source", template));
+        final PutStoredScriptRequestBuilder builder = PutStoredScriptAction.INSTANCE.newRequestBuilder(service.getClient())
+                .setId(id)
+                .setContent(new BytesArray(content.encode()), XContentType.JSON);
+
+        builder.execute(MetricsListener.wrap(metrics, "putSearchTemplate", builder.request(), new ActionListener<PutStoredScriptResponse>() {
+            @Override
+            public void onResponse(PutStoredScriptResponse putStoredScriptResponse) {
+                knownSearchTemplates.put(id, template);
+                resultHandler.handle(Future.succeededFuture());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                resultHandler.handle(Future.failedFuture(e));
+            }
+        }));
+    }
+
+    @Override
+    public void deleteSearchTemplate(String id, Handler<AsyncResult<Void>> resultHandler) {
+        knownSearchTemplates.invalidate(id);
+
+        final DeleteStoredScriptRequestBuilder builder = DeleteStoredScriptAction.INSTANCE.newRequestBuilder(service.getClient()).setId(id);
+
+        builder.execute(MetricsListener.wrap(metrics, "deleteSearchTemplate", builder.request(), new ActionListener<DeleteStoredScriptResponse>() {
+            @Override
+            public void onResponse(DeleteStoredScriptResponse deleteStoredScriptResponse) {
+                resultHandler.handle(Future.succeededFuture());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                resultHandler.handle(Future.failedFuture(e));
+            }
+        }));
     }
 
     /**
@@ -15,9 +15,16 @@
  */
 package com.hubrick.vertx.elasticsearch.impl;
 
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.hubrick.vertx.elasticsearch.ElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import com.hubrick.vertx.elasticsearch.QueryParsing;
+import com.hubrick.vertx.elasticsearch.TransportProfile;
 import com.hubrick.vertx.elasticsearch.TransportClientFactory;
 import com.hubrick.vertx.elasticsearch.internal.InternalElasticSearchService;
 import com.hubrick.vertx.elasticsearch.model.AbstractSearchOptions;
@@ -39,20 +46,30 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.ScriptFieldOption;
 import com.hubrick.vertx.elasticsearch.model.ScriptSortOption;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SliceOption;
+import com.hubrick.vertx.elasticsearch.model.SourceType;
+import com.hubrick.vertx.elasticsearch.model.TransportOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
+import io.netty.buffer.ByteBuf;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import org.elasticsearch.ElasticsearchException;
+import io.vertx.serviceproxy.ServiceException;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
@@ -63,8 +80,10 @@ import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.ClearScrollRequestBuilder;
 import org.elasticsearch.action.search.MultiSearchRequestBuilder;
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
@@ -78,11 +97,14 @@ import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.BoostingQueryBuilder;
 import org.elasticsearch.index.query.CommonTermsQueryBuilder;
@@ -128,12 +150,18 @@ import org.elasticsearch.index.query.functionscore.FunctionScoreQueryBuilder;
 import org.elasticsearch.index.reindex.BulkByScrollResponse;
 import org.elasticsearch.index.reindex.DeleteByQueryAction;
 import org.elasticsearch.index.reindex.DeleteByQueryRequestBuilder;
+import org.elasticsearch.join.ParentJoinPlugin;
 import org.elasticsearch.join.query.HasChildQueryBuilder;
 import org.elasticsearch.join.query.HasParentQueryBuilder;
 import org.elasticsearch.join.query.ParentIdQueryBuilder;
 import org.elasticsearch.percolator.PercolateQueryBuilder;
+import org.elasticsearch.percolator.PercolatorPlugin;
 import org.elasticsearch.script.Script;
 import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.script.mustache.MultiSearchTemplateAction;
+import org.elasticsearch.script.mustache.MultiSearchTemplateRequestBuilder;
+import org.elasticsearch.script.mustache.SearchTemplateRequestBuilder;
+import org.elasticsearch.search.SearchModule;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.adjacency.AdjacencyMatrixAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
@@ -166,7 +194,9 @@ import org.elasticsearch.search.aggregations.metrics.stats.extended.ExtendedStat
 import org.elasticsearch.search.aggregations.metrics.sum.SumAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.tophits.TopHitsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.valuecount.ValueCountAggregationBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.ScriptSortBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.search.suggest.SuggestBuilder;
@@ -174,6 +204,7 @@ import org.elasticsearch.search.suggest.completion.CompletionSuggestionBuilder;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -181,15 +212,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToBulkIndexResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToDeleteByQueryResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToDeleteResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToIndexResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToMultiGetResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToMultiSearchResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToSearchResponse;
-import static com.hubrick.vertx.elasticsearch.impl.ElasticSearchServiceMapper.mapToUpdateResponse;
-
 /**
  * Default implementation of {@link ElasticSearchService}
  */
@@ -198,7 +220,12 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
     private final Logger log = LoggerFactory.getLogger(DefaultElasticSearchService.class);
     private final TransportClientFactory clientFactory;
     private final ElasticSearchConfigurator configurator;
+    private final ElasticSearchMetrics metrics;
     protected TransportClient client;
+    protected ResponseDispatcher dispatcher;
+    private GetBatcher getBatcher;
+    private ParsedBuilderCache parsedBuilderCache;
+    private Cache<String, PreparedSearchRequest> preparedSearches;
 
     private static final String DEFAULT_SCRIPT_LANG = "painless";
     private static final ScriptType DEFAULT_SCRIPT_TYPE = ScriptType.INLINE;
@@ -264,151 +291,208 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
 
                     .build()
     );
+    // Full search sources also hold aggregations, sorts, suggesters and highlighters, parsed like the cluster does
+    private static final NamedXContentRegistry SEARCH_SOURCE_X_CONTENT_REGISTRY = new NamedXContentRegistry(
+            new SearchModule(Settings.EMPTY, false, Arrays.asList(new ParentJoinPlugin(), new PercolatorPlugin(Settings.EMPTY))).getNamedXContents()
+    );
 
-    @Inject
     public DefaultElasticSearchService(TransportClientFactory clientFactory, ElasticSearchConfigurator configurator) {
+        this(clientFactory, configurator, NoopElasticSearchMetrics.INSTANCE);
+    }
+
+    @Inject
+    public DefaultElasticSearchService(TransportClientFactory clientFactory, ElasticSearchConfigurator configurator, ElasticSearchMetrics metrics) {
         this.clientFactory = clientFactory;
         this.configurator = configurator;
+        this.metrics = metrics;
     }
 
     @Override
     public void start() {
 
-        final Settings settings = Settings.builder()
-                .put("cluster.name", configurator.getClusterName())
-                .put("client.transport.sniff", true)
-                .build();
-
-        client = clientFactory.create(settings);
+        client = clientFactory.create(transportSettings(configurator));
         configurator.getTransportAddresses().forEach(client::addTransportAddress);
+
+        dispatcher = new ResponseDispatcher(configurator.getCompletionMode(), configurator.getMappingPoolSize(), configurator.getMappingPoolQueueSize());
+
+        // Concurrent gets are sent as one multi get when a batching window is configured
+        if (configurator.getGetBatchWindowMicros() > 0) {
+            getBatcher = new GetBatcher(configurator.getGetBatchWindowMicros(), configurator.getGetBatchMaxSize(), this::multiGet);
+        }
+
+        // Aggregations and client parsed queries repeated across searches are parsed once
+        if (configurator.getParsedBuilderCacheSize() > 0) {
+            parsedBuilderCache = new ParsedBuilderCache(configurator.getParsedBuilderCacheSize(), metrics);
+        }
+
+        // Evicted prepared searches fail as unknown and are prepared again by their handle
+        preparedSearches = CacheBuilder.newBuilder().maximumSize(configurator.getPreparedSearchCacheSize()).build();
     }
 
     @Override
     public void stop() {
         client.close();
         client = null;
+
+        dispatcher.close();
+        dispatcher = null;
+        getBatcher = null;
+        parsedBuilderCache = null;
+        preparedSearches = null;
     }
 
     @Override
     public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.IndexResponse>> resultHandler) {
 
-        final IndexRequestBuilder builder = client.prepareIndex(index, type).setSource(source.encode(), XContentType.JSON);
+        final RequestTimer timer = timer("index");
+        final IndexRequestBuilder builder = client.prepareIndex(index, type).setSource(JsonSourceEncoder.encodeToBytes(source), XContentType.JSON);
         populateIndexRequestBuilder(builder, options);
 
-        builder.execute(new ActionListener<IndexResponse>() {
-            @Override
-            public void onResponse(IndexResponse indexResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToIndexResponse(indexResponse)));
-            }
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, ElasticSearchServiceMapper::mapToIndexResponse));
 
-            @Override
-            public void onFailure(Exception e) {
-                handleFailure(resultHandler, e);
-            }
-        });
+    }
+
+    @Override
+    public void indexRaw(String index, String type, RawSource source, IndexOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.IndexResponse>> resultHandler) {
+
+        final RequestTimer timer = timer("indexRaw");
+        final IndexRequestBuilder builder = client.prepareIndex(index, type).setSource(toBytesReference(source.getBytes()), toXContentType(source.getType()));
+        populateIndexRequestBuilder(builder, options);
 
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, ElasticSearchServiceMapper::mapToIndexResponse));
     }
 
     @Override
     public void update(String index, String type, String id, UpdateOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.UpdateResponse>> resultHandler) {
 
+        final RequestTimer timer = timer("update");
         final UpdateRequestBuilder builder = client.prepareUpdate(index, type, id);
         populateUpdateRequestBuilder(builder, options);
 
-        builder.execute(new ActionListener<UpdateResponse>() {
-            @Override
-            public void onResponse(UpdateResponse updateResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToUpdateResponse(updateResponse)));
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                handleFailure(resultHandler, e);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, ElasticSearchServiceMapper::mapToUpdateResponse));
 
     }
 
     @Override
     public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.GetResponse>> resultHandler) {
 
+        if (getBatcher != null && GetBatcher.isBatchable(options)) {
+            getBatcher.get(index, type, id, options, resultHandler);
+            return;
+        }
+
+        final RequestTimer timer = timer("get");
         final GetRequestBuilder builder = client.prepareGet(index, type, id);
         populateGetRequestBuilder(builder, options);
 
-        builder.execute(new ActionListener<GetResponse>() {
-            @Override
-            public void onResponse(GetResponse getResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToUpdateResponse(getResponse)));
-            }
-
-            @Override
-            public void onFailure(Exception t) {
-                handleFailure(resultHandler, t);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToUpdateResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.getIncludeRawResponse() : null))));
 
     }
 
     @Override
     public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.SearchResponse>> resultHandler) {
 
+        final RequestTimer timer = timer("search");
         final SearchRequestBuilder builder = client.prepareSearch(indices.toArray(new String[indices.size()]));
 
         if (options != null) {
-            populateSearchRequestBuilder(builder, options);
-            builder.execute(new ActionListener<SearchResponse>() {
-                @Override
-                public void onResponse(SearchResponse searchResponse) {
-                    resultHandler.handle(Future.succeededFuture(mapToSearchResponse(searchResponse)));
-                }
+            try {
+                populateSearchRequestBuilder(builder, options);
+            } catch (RuntimeException e) {
+                resultHandler.handle(Future.failedFuture(e));
+                return;
+            }
+            execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToSearchResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options.isIncludeRawResponse()))));
+        }
+    }
 
-                @Override
-                public void onFailure(Exception t) {
-                    handleFailure(resultHandler, t);
-                }
-            });
+    @Override
+    public void searchTemplate(List<String> indices, SearchTemplateOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.SearchResponse>> resultHandler) {
+
+        final RequestTimer timer = timer("searchTemplate");
+        final SearchTemplateRequestBuilder builder = new SearchTemplateRequestBuilder(client);
+        populateSearchTemplateRequestBuilder(builder, indices, options);
+
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToSearchResponse(response.getResponse(), configurator.getResponseMaterialization(), includeRawResponse(options.isIncludeRawResponse()))));
+    }
+
+    @Override
+    public void registerPreparedSearch(List<String> indices, SearchOptions template, Handler<AsyncResult<String>> resultHandler) {
+        if (template == null) {
+            resultHandler.handle(Future.failedFuture(new IllegalArgumentException("template must not be null")));
+            return;
+        }
+
+        final String id = RequestKeys.hash(new JsonArray().add(RequestKeys.canonicalIndices(indices)).add(template.toJson())).toString();
+        if (preparedSearches.getIfPresent(id) == null) {
+            // Everything but the query and post filter is populated once, failing here if the template is invalid
+            final SearchRequestBuilder prototype = client.prepareSearch(indices.toArray(new String[indices.size()]));
+            final PreparedSearchRequest preparedSearch;
+            try {
+                populateSearchRequestBuilder(prototype, new SearchOptions(template).setQuery(null).setPostFilter(null));
+                preparedSearch = new PreparedSearchRequest(prototype.request(), template.getQuery(), template.getPostFilter(), template.isIncludeRawResponse(), this::toQueryBuilder);
+            } catch (RuntimeException e) {
+                resultHandler.handle(Future.failedFuture(e));
+                return;
+            }
+            preparedSearches.asMap().putIfAbsent(id, preparedSearch);
+        }
+        resultHandler.handle(Future.succeededFuture(id));
+    }
+
+    @Override
+    public void executePreparedSearch(String preparedSearchId, JsonObject params, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.SearchResponse>> resultHandler) {
+        final PreparedSearchRequest preparedSearch = preparedSearches.getIfPresent(preparedSearchId);
+        if (preparedSearch == null) {
+            resultHandler.handle(ServiceException.fail(PreparedSearch.UNKNOWN_PREPARED_SEARCH, "Unknown prepared search " + preparedSearchId));
+            return;
+        }
+
+        final RequestTimer timer = timer("executePreparedSearch");
+        final SearchRequestBuilder builder;
+        try {
+            builder = preparedSearch.bind(client, params);
+        } catch (RuntimeException e) {
+            resultHandler.handle(Future.failedFuture(e));
+            return;
         }
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToSearchResponse(response, configurator.getResponseMaterialization(), includeRawResponse(preparedSearch.getIncludeRawResponse()))));
+    }
+
+    @Override
+    public void removePreparedSearch(String preparedSearchId, Handler<AsyncResult<Void>> resultHandler) {
+        preparedSearches.invalidate(preparedSearchId);
+        resultHandler.handle(Future.succeededFuture());
     }
 
     @Override
     public void searchScroll(String scrollId, SearchScrollOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.SearchResponse>> resultHandler) {
+        final RequestTimer timer = timer("searchScroll");
         final SearchScrollRequestBuilder builder = client.prepareSearchScroll(scrollId);
 
         if (options != null) {
             if (options.getScroll() != null) builder.setScroll(options.getScroll());
         }
 
-        builder.execute(new ActionListener<SearchResponse>() {
-            @Override
-            public void onResponse(SearchResponse searchResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToSearchResponse(searchResponse)));
-            }
-
-            @Override
-            public void onFailure(Exception t) {
-                handleFailure(resultHandler, t);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToSearchResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.getIncludeRawResponse() : null))));
     }
 
+    @Override
+    public void clearScroll(List<String> scrollIds, Handler<AsyncResult<Void>> resultHandler) {
+        final RequestTimer timer = timer("clearScroll");
+        final ClearScrollRequestBuilder builder = client.prepareClearScroll().setScrollIds(scrollIds);
+
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> null));
+    }
 
     @Override
     public void delete(String index, String type, String id, DeleteOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.DeleteResponse>> resultHandler) {
 
+        final RequestTimer timer = timer("delete");
         final DeleteRequestBuilder builder = client.prepareDelete(index, type, id);
         populateDeleteRequestBuilder(builder, options);
 
-        builder.execute(new ActionListener<DeleteResponse>() {
-            @Override
-            public void onResponse(DeleteResponse deleteResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToDeleteResponse(deleteResponse)));
-            }
-
-            @Override
-            public void onFailure(Exception t) {
-                handleFailure(resultHandler, t);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, ElasticSearchServiceMapper::mapToDeleteResponse));
 
     }
 
@@ -418,6 +502,7 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
                      final List<BulkDeleteOptions> bulkDeleteOptions,
                      final BulkOptions bulkOptions,
                      final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.BulkResponse>> resultHandler) {
+        final RequestTimer timer = timer("bulk");
         final BulkRequestBuilder builder = client.prepareBulk();
 
         if (bulkOptions != null) {
@@ -428,8 +513,15 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
             if (bulkOptions.getTimeout() != null) builder.setTimeout(bulkOptions.getTimeout());
         }
 
+        final JsonSourceEncoder sourceEncoder = new JsonSourceEncoder();
         for (BulkIndexOptions bulkIndexOptionsItem : bulkIndexOptions) {
-            final IndexRequestBuilder indexRequestBuilder = client.prepareIndex(bulkIndexOptionsItem.getIndex(), bulkIndexOptionsItem.getType()).setSource(convertJsonObjectToMap(bulkIndexOptionsItem.getSource()));
+            final IndexRequestBuilder indexRequestBuilder = client.prepareIndex(bulkIndexOptionsItem.getIndex(), bulkIndexOptionsItem.getType());
+            if (bulkIndexOptionsItem.getRawSource() != null) {
+                final RawSource rawSource = bulkIndexOptionsItem.getRawSource();
+                indexRequestBuilder.setSource(toBytesReference(rawSource.getBytes()), toXContentType(rawSource.getType()));
+            } else {
+                indexRequestBuilder.setSource(sourceEncoder.encode(bulkIndexOptionsItem.getSource()), XContentType.JSON);
+            }
             populateIndexRequestBuilder(indexRequestBuilder, bulkIndexOptionsItem.getIndexOptions());
             builder.add(indexRequestBuilder);
         }
@@ -446,17 +538,7 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
             builder.add(deleteBuilder);
         }
 
-        builder.execute(new ActionListener<BulkResponse>() {
-            @Override
-            public void onResponse(final BulkResponse bulkItemResponses) {
-                resultHandler.handle(Future.succeededFuture(mapToBulkIndexResponse(bulkItemResponses)));
-            }
-
-            @Override
-            public void onFailure(final Exception e) {
-                handleFailure(resultHandler, e);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToBulkIndexResponse(response, configurator.getResponseMaterialization(), includeRawResponse(bulkOptions != null ? bulkOptions.getIncludeRawResponse() : null))));
     }
 
     @Override
@@ -464,6 +546,7 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
                             final MultiSearchOptions options,
                             final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiSearchResponse>> resultHandler) {
 
+        final RequestTimer timer = timer("multiSearch");
         final MultiSearchRequestBuilder builder = client.prepareMultiSearch();
 
         if (options != null) {
@@ -472,39 +555,49 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
             }
 
             if (options.getIndicesOptions() != null) {
-                final IndicesOptions defaultIndicesOptions = IndicesOptions.strictExpandOpenAndForbidClosed();
-                builder.setIndicesOptions(
-                        IndicesOptions.fromOptions(
-                                Optional.ofNullable(options.getIndicesOptions().getIgnoreUnavailable()).orElse(defaultIndicesOptions.ignoreUnavailable()),
-                                Optional.ofNullable(options.getIndicesOptions().getAllowNoIndices()).orElse(defaultIndicesOptions.allowNoIndices()),
-                                Optional.ofNullable(options.getIndicesOptions().getExpandToOpenIndices()).orElse(defaultIndicesOptions.expandWildcardsOpen()),
-                                Optional.ofNullable(options.getIndicesOptions().getExpandToClosedIndices()).orElse(defaultIndicesOptions.expandWildcardsClosed()),
-                                Optional.ofNullable(options.getIndicesOptions().getAllowAliasesToMultipleIndices()).orElse(defaultIndicesOptions.allowAliasesToMultipleIndices()),
-                                Optional.ofNullable(options.getIndicesOptions().getForbidClosedIndices()).orElse(defaultIndicesOptions.forbidClosedIndices()),
-                                Optional.ofNullable(options.getIndicesOptions().getIgnoreAliases()).orElse(defaultIndicesOptions.ignoreAliases())
-                        )
-                );
+                builder.setIndicesOptions(toIndicesOptions(options.getIndicesOptions()));
             }
         }
 
-        for (MultiSearchQueryOptions multiSearchQueryOptionsItem : multiSearchQueryOptions) {
-            final SearchRequestBuilder searchRequestBuilder = client.prepareSearch(multiSearchQueryOptionsItem.getIndices().toArray(new String[0]));
-            populateSearchRequestBuilder(searchRequestBuilder, multiSearchQueryOptionsItem.getSearchOptions());
-            builder.add(searchRequestBuilder);
+        try {
+            for (MultiSearchQueryOptions multiSearchQueryOptionsItem : multiSearchQueryOptions) {
+                final SearchRequestBuilder searchRequestBuilder = client.prepareSearch(multiSearchQueryOptionsItem.getIndices().toArray(new String[0]));
+                populateSearchRequestBuilder(searchRequestBuilder, multiSearchQueryOptionsItem.getSearchOptions());
+                builder.add(searchRequestBuilder);
+            }
+        } catch (RuntimeException e) {
+            resultHandler.handle(Future.failedFuture(e));
+            return;
         }
 
 
-        builder.execute(new ActionListener<MultiSearchResponse>() {
-            @Override
-            public void onResponse(final MultiSearchResponse multiSearchResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToMultiSearchResponse(multiSearchResponse)));
-            }
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToMultiSearchResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.getIncludeRawResponse() : null))));
+    }
+
+    @Override
+    public void multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions,
+                                    final MultiSearchOptions options,
+                                    final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiSearchResponse>> resultHandler) {
 
-            @Override
-            public void onFailure(final Exception e) {
-                handleFailure(resultHandler, e);
+        final RequestTimer timer = timer("multiSearchTemplate");
+        final MultiSearchTemplateRequestBuilder builder = MultiSearchTemplateAction.INSTANCE.newRequestBuilder(client);
+
+        if (options != null) {
+            if (options.getMaxConcurrentSearchRequests() != null) {
+                builder.setMaxConcurrentSearchRequests(options.getMaxConcurrentSearchRequests());
             }
-        });
+            if (options.getIndicesOptions() != null) {
+                builder.setIndicesOptions(toIndicesOptions(options.getIndicesOptions()));
+            }
+        }
+
+        for (MultiSearchTemplateQueryOptions multiSearchTemplateQueryOptionsItem : multiSearchTemplateQueryOptions) {
+            final SearchTemplateRequestBuilder searchTemplateRequestBuilder = new SearchTemplateRequestBuilder(client);
+            populateSearchTemplateRequestBuilder(searchTemplateRequestBuilder, multiSearchTemplateQueryOptionsItem.getIndices(), multiSearchTemplateQueryOptionsItem.getSearchTemplateOptions());
+            builder.add(searchTemplateRequestBuilder);
+        }
+
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToMultiSearchTemplateResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.getIncludeRawResponse() : null))));
     }
 
     @Override
@@ -512,6 +605,7 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
                          final MultiGetOptions options,
                          final Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.MultiGetResponse>> resultHandler) {
 
+        final RequestTimer timer = timer("multiGet");
         final MultiGetRequestBuilder builder = client.prepareMultiGet();
 
         if (options != null) {
@@ -545,26 +639,22 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
             builder.add(item);
         }
 
-        builder.execute(new ActionListener<MultiGetResponse>() {
-            @Override
-            public void onResponse(final MultiGetResponse multiGetResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToMultiGetResponse(multiGetResponse)));
-            }
-
-            @Override
-            public void onFailure(final Exception e) {
-                handleFailure(resultHandler, e);
-            }
-        });
+        execute(timer, builder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToMultiGetResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.getIncludeRawResponse() : null))));
     }
 
     @Override
     public void deleteByQuery(List<String> indices, DeleteByQueryOptions options, Handler<AsyncResult<com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse>> resultHandler) {
+        final RequestTimer timer = timer("deleteByQuery");
         final DeleteByQueryRequestBuilder deleteByQueryRequestBuilder = new DeleteByQueryRequestBuilder(client, DeleteByQueryAction.INSTANCE);
 
         deleteByQueryRequestBuilder.source(indices.toArray(new String[indices.size()]));
         if (options != null) {
-            populateSearchRequestBuilder(deleteByQueryRequestBuilder.source(), options);
+            try {
+                populateSearchRequestBuilder(deleteByQueryRequestBuilder.source(), options);
+            } catch (RuntimeException e) {
+                resultHandler.handle(Future.failedFuture(e));
+                return;
+            }
             if (options.getMaxRetries() != null) deleteByQueryRequestBuilder.setMaxRetries(options.getMaxRetries());
             if (options.getSlices() != null) deleteByQueryRequestBuilder.setSlices(options.getSlices());
             if (options.getWaitForActiveShards() != null)
@@ -575,17 +665,20 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
                 deleteByQueryRequestBuilder.setRequestsPerSecond(options.getRequestsPerSecond());
         }
 
-        deleteByQueryRequestBuilder.execute(new ActionListener<BulkByScrollResponse>() {
-            @Override
-            public void onResponse(BulkByScrollResponse deleteByQueryResponse) {
-                resultHandler.handle(Future.succeededFuture(mapToDeleteByQueryResponse(deleteByQueryResponse)));
-            }
+        execute(timer, deleteByQueryRequestBuilder, dispatcher.listener(timer, resultHandler, response -> ElasticSearchServiceMapper.mapToDeleteByQueryResponse(response, configurator.getResponseMaterialization(), includeRawResponse(options != null ? options.isIncludeRawResponse() : null))));
+    }
 
-            @Override
-            public void onFailure(Exception t) {
-                handleFailure(resultHandler, t);
-            }
-        });
+    private RequestTimer timer(String operation) {
+        return RequestTimer.start(metrics, operation, configurator.getIncludeTimings());
+    }
+
+    private <R extends ActionResponse> void execute(RequestTimer timer, ActionRequestBuilder<?, R, ?> builder, ActionListener<R> listener) {
+        timer.sent(builder.request());
+        builder.execute(MetricsListener.wrap(metrics, timer.getOperation(), builder.request(), listener));
+    }
+
+    private boolean includeRawResponse(Boolean includeRawResponse) {
+        return includeRawResponse != null ? includeRawResponse : configurator.getIncludeRawResponse();
     }
 
     @Override
@@ -660,8 +753,16 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
             if (options.getTimeout() != null) builder.setTimeout(options.getTimeout());
 
             if (options.getRetryOnConflict() != null) builder.setRetryOnConflict(options.getRetryOnConflict());
-            if (options.getDoc() != null) builder.setDoc(options.getDoc().encode(), XContentType.JSON);
-            if (options.getUpsert() != null) builder.setUpsert(options.getUpsert().encode(), XContentType.JSON);
+            if (options.getRawDoc() != null) {
+                builder.setDoc(toIndexRequest(options.getRawDoc()));
+            } else if (options.getDoc() != null) {
+                builder.setDoc(JsonSourceEncoder.encodeToBytes(options.getDoc()), XContentType.JSON);
+            }
+            if (options.getRawUpsert() != null) {
+                builder.setUpsert(toIndexRequest(options.getRawUpsert()));
+            } else if (options.getUpsert() != null) {
+                builder.setUpsert(JsonSourceEncoder.encodeToBytes(options.getUpsert()), XContentType.JSON);
+            }
             if (options.getDocAsUpsert() != null) builder.setDocAsUpsert(options.getDocAsUpsert());
             if (options.getDetectNoop() != null) builder.setDetectNoop(options.getDetectNoop());
             if (options.getScriptedUpsert() != null) builder.setScriptedUpsert(options.getScriptedUpsert());
@@ -676,7 +777,9 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
         }
     }
 
-    private void populateSearchRequestBuilder(SearchRequestBuilder builder, AbstractSearchOptions options) {
+    // Package-private for the benchmarks
+    void populateSearchRequestBuilder(SearchRequestBuilder builder, AbstractSearchOptions options) {
+        if (options.getSource() != null) builder.setSource(parseSearchSource(options.getSource()));
         if (!options.getTypes().isEmpty()) {
             builder.setTypes((String[]) options.getTypes().toArray(new String[options.getTypes().size()]));
         }
@@ -687,9 +790,8 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
         if (options.getTerminateAfter() != null) builder.setTerminateAfter(options.getTerminateAfter());
         if (options.getRouting() != null) builder.setRouting(options.getRouting());
         if (options.getPreference() != null) builder.setPreference(options.getPreference());
-        if (options.getQuery() != null) builder.setQuery(QueryBuilders.wrapperQuery(options.getQuery().encode()));
-        if (options.getPostFilter() != null)
-            builder.setPostFilter(QueryBuilders.wrapperQuery(options.getPostFilter().encode()));
+        if (options.getQuery() != null) builder.setQuery(toQueryBuilder(options.getQuery()));
+        if (options.getPostFilter() != null) builder.setPostFilter(toQueryBuilder(options.getPostFilter()));
         if (options.getMinScore() != null) builder.setMinScore(options.getMinScore());
         if (options.getSize() != null) builder.setSize(options.getSize());
         if (options.getFrom() != null) builder.setFrom(options.getFrom());
@@ -697,23 +799,19 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
         if (options.isVersion() != null) builder.setVersion(options.isVersion());
         if (options.isFetchSource() != null) builder.setFetchSource(options.isFetchSource());
         if (options.isTrackScores() != null) builder.setTrackScores(options.isTrackScores());
+        if (options.getSlice() != null) {
+            final SliceOption sliceOption = options.getSlice();
+            builder.slice(sliceOption.getField() != null
+                    ? new SliceBuilder(sliceOption.getField(), sliceOption.getId(), sliceOption.getMax())
+                    : new SliceBuilder(sliceOption.getId(), sliceOption.getMax()));
+        }
+        if (options.getSearchAfter() != null) builder.searchAfter(options.getSearchAfter().getList().toArray());
         if (!options.getStoredFields().isEmpty()) {
             builder.storedFields((String[]) options.getStoredFields().toArray(new String[options.getTypes().size()]));
         }
 
         if (options.getIndicesOptions() != null) {
-            final IndicesOptions defaultIndicesOptions = IndicesOptions.strictExpandOpenAndForbidClosed();
-            builder.setIndicesOptions(
-                    IndicesOptions.fromOptions(
-                            Optional.ofNullable(options.getIndicesOptions().getIgnoreUnavailable()).orElse(defaultIndicesOptions.ignoreUnavailable()),
-                            Optional.ofNullable(options.getIndicesOptions().getAllowNoIndices()).orElse(defaultIndicesOptions.allowNoIndices()),
-                            Optional.ofNullable(options.getIndicesOptions().getExpandToOpenIndices()).orElse(defaultIndicesOptions.expandWildcardsOpen()),
-                            Optional.ofNullable(options.getIndicesOptions().getExpandToClosedIndices()).orElse(defaultIndicesOptions.expandWildcardsClosed()),
-                            Optional.ofNullable(options.getIndicesOptions().getAllowAliasesToMultipleIndices()).orElse(defaultIndicesOptions.allowAliasesToMultipleIndices()),
-                            Optional.ofNullable(options.getIndicesOptions().getForbidClosedIndices()).orElse(defaultIndicesOptions.forbidClosedIndices()),
-                            Optional.ofNullable(options.getIndicesOptions().getIgnoreAliases()).orElse(defaultIndicesOptions.ignoreAliases())
-                    )
-            );
+            builder.setIndicesOptions(toIndicesOptions(options.getIndicesOptions()));
         }
 
         if (!options.getSourceIncludes().isEmpty() || !options.getSourceExcludes().isEmpty()) {
@@ -725,7 +823,9 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
 
         if (options.getAggregations() != null) {
             options.getAggregations().forEach(aggregationOption -> {
-                builder.addAggregation(parseAggregation((AggregationOption) aggregationOption));
+                builder.addAggregation(parsedBuilderCache != null
+                        ? parsedBuilderCache.aggregation((AggregationOption) aggregationOption, this::parseAggregation)
+                        : parseAggregation((AggregationOption) aggregationOption));
             });
         }
         if (!options.getSorts().isEmpty()) {
@@ -772,25 +872,139 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
         }
     }
 
+    private void populateSearchTemplateRequestBuilder(SearchTemplateRequestBuilder builder, List<String> indices, SearchTemplateOptions options) {
+        final SearchRequestBuilder searchRequestBuilder = client.prepareSearch(indices.toArray(new String[indices.size()]));
+        if (!options.getTypes().isEmpty()) {
+            searchRequestBuilder.setTypes(options.getTypes().toArray(new String[options.getTypes().size()]));
+        }
+        if (options.getSearchType() != null) searchRequestBuilder.setSearchType(SearchType.valueOf(options.getSearchType().name()));
+        if (options.getScroll() != null) searchRequestBuilder.setScroll(options.getScroll());
+        if (options.getRouting() != null) searchRequestBuilder.setRouting(options.getRouting());
+        if (options.getPreference() != null) searchRequestBuilder.setPreference(options.getPreference());
+        if (options.getIndicesOptions() != null) searchRequestBuilder.setIndicesOptions(toIndicesOptions(options.getIndicesOptions()));
+        builder.setRequest(searchRequestBuilder.request());
+
+        // A stored template wins over an inline one, the cluster caches the compiled template either way
+        if (options.getTemplateId() != null) {
+            builder.setScriptType(ScriptType.STORED).setScript(options.getTemplateId());
+        } else {
+            builder.setScriptType(ScriptType.INLINE).setScript(options.getTemplate());
+        }
+        builder.setScriptParams(options.getParams() != null ? convertJsonObjectToMap(options.getParams()) : Collections.emptyMap());
+        if (options.isExplain() != null) builder.setExplain(options.isExplain());
+        if (options.isProfile() != null) builder.setProfile(options.isProfile());
+    }
+
+    private static IndicesOptions toIndicesOptions(com.hubrick.vertx.elasticsearch.model.IndicesOptions indicesOptions) {
+        final IndicesOptions defaultIndicesOptions = IndicesOptions.strictExpandOpenAndForbidClosed();
+        return IndicesOptions.fromOptions(
+                Optional.ofNullable(indicesOptions.getIgnoreUnavailable()).orElse(defaultIndicesOptions.ignoreUnavailable()),
+                Optional.ofNullable(indicesOptions.getAllowNoIndices()).orElse(defaultIndicesOptions.allowNoIndices()),
+                Optional.ofNullable(indicesOptions.getExpandToOpenIndices()).orElse(defaultIndicesOptions.expandWildcardsOpen()),
+                Optional.ofNullable(indicesOptions.getExpandToClosedIndices()).orElse(defaultIndicesOptions.expandWildcardsClosed()),
+                Optional.ofNullable(indicesOptions.getAllowAliasesToMultipleIndices()).orElse(defaultIndicesOptions.allowAliasesToMultipleIndices()),
+                Optional.ofNullable(indicesOptions.getForbidClosedIndices()).orElse(defaultIndicesOptions.forbidClosedIndices()),
+                Optional.ofNullable(indicesOptions.getIgnoreAliases()).orElse(defaultIndicesOptions.ignoreAliases())
+        );
+    }
+
+    static Settings transportSettings(ElasticSearchConfigurator configurator) {
+        final Settings.Builder settings = Settings.builder()
+                .put("cluster.name", configurator.getClusterName())
+                .put("client.transport.sniff", configurator.getClientTransportSniff());
+
+        final TransportOptions transportOptions = configurator.getTransportOptions();
+        if (transportOptions == null) {
+            return settings.build();
+        }
+
+        // The presets only split the channels between bulks and the other requests, explicit counts win
+        final TransportProfile profile = Optional.ofNullable(transportOptions.getProfile()).orElse(TransportProfile.DEFAULT);
+        switch (profile) {
+            case INGEST_HEAVY:
+                settings.put("transport.connections_per_node.bulk", 8).put("transport.connections_per_node.reg", 4);
+                break;
+            case SEARCH_HEAVY:
+                settings.put("transport.connections_per_node.bulk", 2).put("transport.connections_per_node.reg", 12);
+                break;
+            default:
+                break;
+        }
+
+        putIfPresent(settings, "transport.connections_per_node.bulk", transportOptions.getBulkConnectionsPerNode());
+        putIfPresent(settings, "transport.connections_per_node.reg", transportOptions.getRegConnectionsPerNode());
+        putIfPresent(settings, "transport.connections_per_node.state", transportOptions.getStateConnectionsPerNode());
+        putIfPresent(settings, "transport.connections_per_node.ping", transportOptions.getPingConnectionsPerNode());
+        putIfPresent(settings, "transport.connections_per_node.recovery", transportOptions.getRecoveryConnectionsPerNode());
+        putIfPresent(settings, "transport.tcp.compress", transportOptions.getCompress());
+        putIfPresent(settings, "transport.ping_schedule", transportOptions.getPingSchedule());
+        putIfPresent(settings, "client.transport.ping_timeout", transportOptions.getPingTimeout());
+        putIfPresent(settings, "transport.tcp_no_delay", transportOptions.getTcpNoDelay());
+        putIfPresent(settings, "transport.tcp.send_buffer_size", transportOptions.getTcpSendBufferSize());
+        putIfPresent(settings, "transport.tcp.receive_buffer_size", transportOptions.getTcpReceiveBufferSize());
+        putIfPresent(settings, "client.transport.nodes_sampler_interval", transportOptions.getNodesSamplerInterval());
+
+        return settings.build();
+    }
+
+    private static void putIfPresent(Settings.Builder settings, String key, Object value) {
+        if (value != null) settings.put(key, value.toString());
+    }
+
+    private QueryBuilder toQueryBuilder(JsonObject query) {
+        if (configurator.getQueryParsing() == QueryParsing.CLIENT) {
+            return parsedBuilderCache != null ? parsedBuilderCache.query(query, json -> parseQuery(json.encode())) : parseQuery(query.encode());
+        }
+        return QueryBuilders.wrapperQuery(query.encode());
+    }
+
+    private QueryBuilder toQueryBuilder(String query) {
+        return configurator.getQueryParsing() == QueryParsing.CLIENT ? parseQuery(query) : QueryBuilders.wrapperQuery(query);
+    }
+
+    private static QueryBuilder parseQuery(String query) {
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(DEFAULT_NAMED_X_CONTEXT_REGISTRY, query)) {
+            return AbstractQueryBuilder.parseInnerQueryBuilder(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Wrong query definition " + query, e);
+        }
+    }
+
+    private static SearchSourceBuilder parseSearchSource(JsonObject source) {
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(SEARCH_SOURCE_X_CONTENT_REGISTRY, source.encode())) {
+            return SearchSourceBuilder.fromXContent(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Wrong search source " + source, e);
+        }
+    }
+
     private Script createScript(Optional<com.hubrick.vertx.elasticsearch.model.ScriptType> type, Optional<String> lang, Optional<JsonObject> params, String script) {
-        final Map<String, Object> paramsMap = params.map(this::convertJsonObjectToMap).orElse(Collections.emptyMap());
+        final Map<String, Object> paramsMap = params.map(DefaultElasticSearchService::convertJsonObjectToMap).orElse(Collections.emptyMap());
         final ScriptType scriptType = type.map(e -> ScriptType.valueOf(e.name())).orElse(DEFAULT_SCRIPT_TYPE);
         final String scriptLang = lang.orElse(DEFAULT_SCRIPT_LANG);
         return new Script(scriptType, scriptLang, script, paramsMap);
     }
 
-    private <T> void handleFailure(final Handler<AsyncResult<T>> resultHandler, final Throwable t) {
-        log.error("Error occurred in ElasticSearchService", t);
+    private IndexRequest toIndexRequest(RawSource rawSource) {
+        return new IndexRequest().source(toBytesReference(rawSource.getBytes()), toXContentType(rawSource.getType()));
+    }
 
-        if (t instanceof ElasticsearchException) {
-            final ElasticsearchException esException = (ElasticsearchException) t;
-            resultHandler.handle(Future.failedFuture(esException.getDetailedMessage()));
-        } else {
-            resultHandler.handle(Future.failedFuture(t));
+    private XContentType toXContentType(SourceType sourceType) {
+        return sourceType != null ? XContentType.valueOf(sourceType.name()) : XContentType.JSON;
+    }
+
+    private BytesReference toBytesReference(Buffer buffer) {
+        Preconditions.checkNotNull(buffer, "raw source bytes must not be null");
+        final ByteBuf byteBuf = buffer.getByteBuf();
+        if (byteBuf.hasArray()) {
+            // Heap buffers are wrapped without copying
+            return new BytesArray(byteBuf.array(), byteBuf.arrayOffset() + byteBuf.readerIndex(), byteBuf.readableBytes());
         }
+        return new BytesArray(buffer.getBytes());
     }
 
-    private Map<String, Object> convertJsonObjectToMap(JsonObject jsonObject) {
+    // Package-private for the benchmarks
+    static Map<String, Object> convertJsonObjectToMap(JsonObject jsonObject) {
 
         final Map<String, Object> map = new HashMap<>();
         for (Map.Entry<String, Object> jsonObjectEntry : jsonObject) {
@@ -806,7 +1020,7 @@ public class DefaultElasticSearchService implements InternalElasticSearchService
         return map;
     }
 
-    private List<Object> convertJsonArrayToList(JsonArray jsonArray) {
+    private static List<Object> convertJsonArrayToList(JsonArray jsonArray) {
 
         final List<Object> list = new LinkedList<>();
         for (Object jsonArrayEntry : jsonArray) {
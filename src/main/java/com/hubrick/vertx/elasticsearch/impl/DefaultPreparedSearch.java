@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Default {@link PreparedSearch}, keeping the template so the search can be prepared again when the service doesn't
+ * know the id.
+ */
+public class DefaultPreparedSearch implements PreparedSearch {
+
+    private final ElasticSearchService elasticSearchService;
+    private final List<String> indices;
+    private final SearchOptions template;
+    private final String id;
+
+    private DefaultPreparedSearch(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions template, String id) {
+        this.elasticSearchService = elasticSearchService;
+        this.indices = indices;
+        this.template = template;
+        this.id = id;
+    }
+
+    public static void prepare(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions template, Handler<AsyncResult<PreparedSearch>> resultHandler) {
+        checkNotNull(elasticSearchService, "elasticSearchService must not be null");
+        checkNotNull(indices, "indices must not be null");
+        checkNotNull(template, "template must not be null");
+
+        final List<String> indicesCopy = new ArrayList<>(indices);
+        final SearchOptions templateCopy = new SearchOptions(template);
+        elasticSearchService.registerPreparedSearch(indicesCopy, templateCopy, result -> {
+            if (result.succeeded()) {
+                resultHandler.handle(Future.succeededFuture(new DefaultPreparedSearch(elasticSearchService, indicesCopy, templateCopy, result.result())));
+            } else {
+                resultHandler.handle(Future.failedFuture(result.cause()));
+            }
+        });
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void execute(JsonObject params, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        elasticSearchService.executePreparedSearch(id, params, result -> {
+            if (result.failed() && isUnknown(result.cause())) {
+                elasticSearchService.registerPreparedSearch(indices, template, registration -> {
+                    if (registration.succeeded()) {
+                        elasticSearchService.executePreparedSearch(registration.result(), params, resultHandler);
+                    } else {
+                        resultHandler.handle(Future.failedFuture(registration.cause()));
+                    }
+                });
+            } else {
+                resultHandler.handle(result);
+            }
+        });
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> resultHandler) {
+        elasticSearchService.removePreparedSearch(id, resultHandler);
+    }
+
+    private static boolean isUnknown(Throwable cause) {
+        return cause instanceof ServiceException && ((ServiceException) cause).failureCode() == UNKNOWN_PREPARED_SEARCH;
+    }
+}
@@ -106,4 +106,30 @@ public class DefaultRx2ElasticSearchAdminService implements Rx2ElasticSearchAdmi
             });
         });
     }
+
+    @Override
+    public Completable putSearchTemplate(String id, String template) {
+        return Completable.create(handler -> {
+            elasticSearchAdminService.putSearchTemplate(id, template, response -> {
+                if (response.succeeded()) {
+                    handler.onComplete();
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
+
+    @Override
+    public Completable deleteSearchTemplate(String id) {
+        return Completable.create(handler -> {
+            elasticSearchAdminService.deleteSearchTemplate(id, response -> {
+                if (response.succeeded()) {
+                    handler.onComplete();
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
 }
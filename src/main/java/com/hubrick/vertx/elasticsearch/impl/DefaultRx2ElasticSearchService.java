@@ -16,6 +16,7 @@
 package com.hubrick.vertx.elasticsearch.impl;
 
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
 import com.hubrick.vertx.elasticsearch.Rx2ElasticSearchService;
 import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
@@ -28,6 +29,7 @@ import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
 import com.hubrick.vertx.elasticsearch.model.GetOptions;
 import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.Hit;
 import com.hubrick.vertx.elasticsearch.model.IndexOptions;
 import com.hubrick.vertx.elasticsearch.model.IndexResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
@@ -35,14 +37,21 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.FlowableHelper;
 
 import java.util.List;
 
@@ -75,6 +84,19 @@ public class DefaultRx2ElasticSearchService implements Rx2ElasticSearchService {
         });
     }
 
+    @Override
+    public Single<IndexResponse> indexRaw(String index, String type, RawSource source, IndexOptions options) {
+        return Single.create(handler -> {
+            elasticSearchService.indexRaw(index, type, source, options, response -> {
+                if (response.succeeded()) {
+                    handler.onSuccess(response.result());
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
+
     @Override
     public Single<UpdateResponse> update(String index, String type, String id, UpdateOptions options) {
         return Single.create(handler -> {
@@ -114,6 +136,19 @@ public class DefaultRx2ElasticSearchService implements Rx2ElasticSearchService {
         });
     }
 
+    @Override
+    public Single<SearchResponse> searchTemplate(List<String> indices, SearchTemplateOptions options) {
+        return Single.create(handler -> {
+            elasticSearchService.searchTemplate(indices, options, response -> {
+                if (response.succeeded()) {
+                    handler.onSuccess(response.result());
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
+
     @Override
     public Single<SearchResponse> searchScroll(String scrollId, SearchScrollOptions options) {
         return Single.create(handler -> {
@@ -127,6 +162,29 @@ public class DefaultRx2ElasticSearchService implements Rx2ElasticSearchService {
         });
     }
 
+    @Override
+    public Completable clearScroll(List<String> scrollIds) {
+        return Completable.create(handler -> {
+            elasticSearchService.clearScroll(scrollIds, response -> {
+                if (response.succeeded()) {
+                    handler.onComplete();
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
+
+    @Override
+    public Flowable<Hit> searchStream(List<String> indices, SearchOptions options) {
+        return Flowable.defer(() -> FlowableHelper.toFlowable(ElasticSearchServiceHelper.searchStream(elasticSearchService, indices, options)));
+    }
+
+    @Override
+    public Flowable<Hit> slicedSearchStream(List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions) {
+        return Flowable.defer(() -> FlowableHelper.toFlowable(ElasticSearchServiceHelper.slicedSearchStream(elasticSearchService, indices, options, slicedScrollOptions)));
+    }
+
     @Override
     public Single<DeleteResponse> delete(String index, String type, String id, DeleteOptions options) {
         return Single.create(handler -> {
@@ -169,6 +227,19 @@ public class DefaultRx2ElasticSearchService implements Rx2ElasticSearchService {
         });
     }
 
+    @Override
+    public Single<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions, MultiSearchOptions options) {
+        return Single.create(handler -> {
+            elasticSearchService.multiSearchTemplate(multiSearchTemplateQueryOptions, options, response -> {
+                if (response.succeeded()) {
+                    handler.onSuccess(response.result());
+                } else {
+                    handler.onError(response.cause());
+                }
+            });
+        });
+    }
+
     @Override
     public Single<MultiGetResponse> multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options) {
         return Single.create(handler -> {
@@ -78,4 +78,18 @@ public class DefaultRxElasticSearchAdminService implements RxElasticSearchAdminS
         elasticSearchAdminService.deleteTemplate(name, options, observableFuture.toHandler());
         return observableFuture;
     }
+
+    @Override
+    public Observable<Void> putSearchTemplate(String id, String template) {
+        final ObservableFuture<Void> observableFuture = RxHelper.observableFuture();
+        elasticSearchAdminService.putSearchTemplate(id, template, observableFuture.toHandler());
+        return observableFuture;
+    }
+
+    @Override
+    public Observable<Void> deleteSearchTemplate(String id) {
+        final ObservableFuture<Void> observableFuture = RxHelper.observableFuture();
+        elasticSearchAdminService.deleteSearchTemplate(id, observableFuture.toHandler());
+        return observableFuture;
+    }
 }
@@ -16,6 +16,7 @@
 package com.hubrick.vertx.elasticsearch.impl;
 
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
 import com.hubrick.vertx.elasticsearch.RxElasticSearchService;
 import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
@@ -28,6 +29,7 @@ import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
 import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
 import com.hubrick.vertx.elasticsearch.model.GetOptions;
 import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.Hit;
 import com.hubrick.vertx.elasticsearch.model.IndexOptions;
 import com.hubrick.vertx.elasticsearch.model.IndexResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
@@ -35,10 +37,14 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
 import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
 import io.vertx.core.json.JsonObject;
@@ -71,6 +77,13 @@ public class DefaultRxElasticSearchService implements RxElasticSearchService {
         return observableFuture;
     }
 
+    @Override
+    public Observable<IndexResponse> indexRaw(String index, String type, RawSource source, IndexOptions options) {
+        final ObservableFuture<IndexResponse> observableFuture = RxHelper.observableFuture();
+        elasticSearchService.indexRaw(index, type, source, options, observableFuture.toHandler());
+        return observableFuture;
+    }
+
     @Override
     public Observable<UpdateResponse> update(String index, String type, String id, UpdateOptions options) {
         final ObservableFuture<UpdateResponse> observableFuture = RxHelper.observableFuture();
@@ -92,6 +105,13 @@ public class DefaultRxElasticSearchService implements RxElasticSearchService {
         return observableFuture;
     }
 
+    @Override
+    public Observable<SearchResponse> searchTemplate(List<String> indices, SearchTemplateOptions options) {
+        final ObservableFuture<SearchResponse> observableFuture = RxHelper.observableFuture();
+        elasticSearchService.searchTemplate(indices, options, observableFuture.toHandler());
+        return observableFuture;
+    }
+
     @Override
     public Observable<SearchResponse> searchScroll(String scrollId, SearchScrollOptions options) {
         final ObservableFuture<SearchResponse> observableFuture = RxHelper.observableFuture();
@@ -99,6 +119,23 @@ public class DefaultRxElasticSearchService implements RxElasticSearchService {
         return observableFuture;
     }
 
+    @Override
+    public Observable<Void> clearScroll(List<String> scrollIds) {
+        final ObservableFuture<Void> observableFuture = RxHelper.observableFuture();
+        elasticSearchService.clearScroll(scrollIds, observableFuture.toHandler());
+        return observableFuture;
+    }
+
+    @Override
+    public Observable<Hit> searchStream(List<String> indices, SearchOptions options) {
+        return Observable.defer(() -> RxHelper.toObservable(ElasticSearchServiceHelper.searchStream(elasticSearchService, indices, options)));
+    }
+
+    @Override
+    public Observable<Hit> slicedSearchStream(List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions) {
+        return Observable.defer(() -> RxHelper.toObservable(ElasticSearchServiceHelper.slicedSearchStream(elasticSearchService, indices, options, slicedScrollOptions)));
+    }
+
     @Override
     public Observable<DeleteResponse> delete(String index, String type, String id, DeleteOptions options) {
         final ObservableFuture<DeleteResponse> observableFuture = RxHelper.observableFuture();
@@ -123,6 +160,13 @@ public class DefaultRxElasticSearchService implements RxElasticSearchService {
         return observableFuture;
     }
 
+    @Override
+    public Observable<MultiSearchResponse> multiSearchTemplate(final List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions, MultiSearchOptions options) {
+        final ObservableFuture<MultiSearchResponse> observableFuture = RxHelper.observableFuture();
+        elasticSearchService.multiSearchTemplate(multiSearchTemplateQueryOptions, options, observableFuture.toHandler());
+        return observableFuture;
+    }
+
     @Override
     public Observable<MultiGetResponse> multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options) {
         final ObservableFuture<MultiGetResponse> observableFuture = RxHelper.observableFuture();
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.SearchAfterIterator;
+import com.hubrick.vertx.elasticsearch.model.BaseSortOption;
+import com.hubrick.vertx.elasticsearch.model.FieldSortOption;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Default {@link SearchAfterIterator}.
+ * <p>
+ * When a page is handed out the request for the following page is sent right away, at most one page is held in memory.
+ * Responses are handed back to the Vert.x context the iterator was created on.
+ */
+public class DefaultSearchAfterIterator implements SearchAfterIterator {
+
+    public static final String DEFAULT_TIEBREAKER = "_id";
+    public static final int DEFAULT_SIZE = 10;
+
+    private final ElasticSearchService elasticSearchService;
+    private final List<String> indices;
+    private final SearchOptions searchOptions;
+    private final int size;
+    private final Context context;
+
+    private JsonArray searchAfter;
+    private JsonArray nextSearchAfter;
+    private long received;
+
+    private AsyncResult<SearchResponse> prefetched;
+    private Handler<AsyncResult<SearchResponse>> waiting;
+
+    private boolean fetching;
+    private boolean exhausted;
+    private boolean closed;
+
+    public DefaultSearchAfterIterator(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions options) {
+        this(elasticSearchService, indices, options, DEFAULT_TIEBREAKER);
+    }
+
+    /**
+     * @param tiebreaker a field with a unique value per document which is appended as ascending sort unless the search already sorts by it
+     */
+    public DefaultSearchAfterIterator(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions options, String tiebreaker) {
+        checkNotNull(elasticSearchService, "elasticSearchService must not be null");
+        checkNotNull(indices, "indices must not be null");
+        checkNotNull(tiebreaker, "tiebreaker must not be null");
+        checkArgument(options == null || options.getScroll() == null, "search_after can't be combined with scroll");
+        checkArgument(options == null || options.getFrom() == null || options.getFrom() == 0, "search_after can't be combined with from");
+
+        this.elasticSearchService = elasticSearchService;
+        this.indices = indices;
+        this.size = options != null && options.getSize() != null ? options.getSize() : DEFAULT_SIZE;
+        // Copied through JSON so the tiebreaker doesn't end up in the sorts of the caller's options
+        this.searchOptions = (options != null ? new SearchOptions(options.toJson()) : new SearchOptions()).setSize(size);
+        this.nextSearchAfter = searchOptions.getSearchAfter();
+        this.context = Vertx.currentContext();
+
+        if (!sortsBy(searchOptions, tiebreaker)) {
+            searchOptions.addFieldSort(tiebreaker, SortOrder.ASC);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && (prefetched != null || !exhausted);
+    }
+
+    @Override
+    public void next(Handler<AsyncResult<SearchResponse>> resultHandler) {
+        checkNotNull(resultHandler, "resultHandler must not be null");
+        checkState(waiting == null, "next() called before the previous page was handed out");
+
+        if (!hasNext()) {
+            resultHandler.handle(Future.failedFuture(new NoSuchElementException("No more pages")));
+        } else if (prefetched != null) {
+            final AsyncResult<SearchResponse> page = prefetched;
+            prefetched = null;
+            deliver(page, resultHandler);
+        } else {
+            waiting = resultHandler;
+            fetchNext();
+        }
+    }
+
+    @Override
+    public JsonArray getSearchAfter() {
+        return searchAfter;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        prefetched = null;
+    }
+
+    private void fetchNext() {
+        if (fetching || exhausted || closed) {
+            return;
+        }
+        fetching = true;
+        elasticSearchService.search(indices, new SearchOptions(searchOptions).setSearchAfter(nextSearchAfter), onContext(this::handlePage));
+    }
+
+    private void handlePage(AsyncResult<SearchResponse> result) {
+        fetching = false;
+        if (closed) {
+            return;
+        }
+
+        AsyncResult<SearchResponse> page = result;
+        if (result.succeeded()) {
+            final List<Hit> hits = result.result().getHits() != null ? result.result().getHits().getHits() : Collections.emptyList();
+            final Long total = result.result().getHits() != null ? result.result().getHits().getTotal() : null;
+            received += hits.size();
+            if (hits.size() < size || (total != null && received >= total)) {
+                exhausted = true;
+            } else if (hits.get(hits.size() - 1).getSortValues() == null) {
+                page = Future.failedFuture(new IllegalStateException("The hits of the search don't have sort values"));
+                exhausted = true;
+            } else {
+                nextSearchAfter = hits.get(hits.size() - 1).getSortValues();
+            }
+        }
+
+        if (waiting != null) {
+            final Handler<AsyncResult<SearchResponse>> handler = waiting;
+            waiting = null;
+            deliver(page, handler);
+        } else if (page.succeeded() || exhausted) {
+            prefetched = page;
+        }
+        // A failed prefetch is dropped and requested again by the next call
+    }
+
+    private void deliver(AsyncResult<SearchResponse> page, Handler<AsyncResult<SearchResponse>> handler) {
+        if (page.succeeded() && page.result().getHits() != null && !page.result().getHits().getHits().isEmpty()) {
+            final List<Hit> hits = page.result().getHits().getHits();
+            searchAfter = hits.get(hits.size() - 1).getSortValues();
+        }
+        if (page.succeeded()) {
+            fetchNext();
+        }
+        handler.handle(page);
+    }
+
+    private static boolean sortsBy(SearchOptions options, String field) {
+        for (BaseSortOption sort : options.getSorts()) {
+            if (sort instanceof FieldSortOption && field.equals(((FieldSortOption) sort).getField())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> Handler<AsyncResult<T>> onContext(Handler<AsyncResult<T>> handler) {
+        return result -> {
+            if (context == null || Vertx.currentContext() == context) {
+                handler.handle(result);
+            } else {
+                context.runOnContext(v -> handler.handle(result));
+            }
+        };
+    }
+}
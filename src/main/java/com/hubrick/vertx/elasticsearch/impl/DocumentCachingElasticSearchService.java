@@ -0,0 +1,431 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse;
+import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
+import com.hubrick.vertx.elasticsearch.model.DocumentCacheOptions;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.GetResult;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponseItem;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
+import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ElasticSearchService} decorator serving {@code get} and {@code multiGet} from a near cache of documents.
+ * <p>
+ * Only requests for the whole document are cached: no stored fields, no source filtering, no forced refresh and
+ * {@code includeRawResponse} explicitly set to false, as a request leaving it unset gets the raw response by default and a
+ * cached document has none. Entries are keyed by index, type and id and only serve requests with the routing they were fetched with.
+ * Documents indexed through this service replace their entry if their version is newer, other writes drop the entries
+ * they touch. Documents fetched while a write to their index was running are not cached. Writes by other clients are
+ * only caught by the TTL.
+ */
+public class DocumentCachingElasticSearchService extends ForwardingElasticSearchService {
+
+    private static final int ENTRY_OVERHEAD_IN_BYTES = 100;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<DocumentKey, CachedDocument> cache;
+    private final long defaultTtlInMillis;
+    private final Map<String, Long> indexTtlsInMillis;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public DocumentCachingElasticSearchService(ElasticSearchService delegate, DocumentCacheOptions options) {
+        super(delegate);
+        checkNotNull(options, "options must not be null");
+
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(options.getMaxSizeInBytes() != null ? options.getMaxSizeInBytes() : DocumentCacheOptions.DEFAULT_MAX_SIZE_IN_BYTES)
+                .weigher((DocumentKey key, CachedDocument document) -> document.weight)
+                .build();
+        this.defaultTtlInMillis = options.getTtlInMillis() != null ? options.getTtlInMillis() : DocumentCacheOptions.DEFAULT_TTL_IN_MILLIS;
+        this.indexTtlsInMillis = new ConcurrentHashMap<>(options.getIndexTtlsInMillis());
+    }
+
+    @Override
+    public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+        if (!isCacheable(index, options)) {
+            delegate.get(index, type, id, options, resultHandler);
+            return;
+        }
+
+        final String routing = routing(options.getRouting(), options.getParent());
+
+        final DocumentKey key = new DocumentKey(index, type, id);
+        final GetResult cached = lookup(key, routing);
+        if (cached != null) {
+            final GetResponse getResponse = new GetResponse();
+            getResponse.setResult(cached);
+            completeFromCache(resultHandler, getResponse);
+            return;
+        }
+
+        final long generation = generation(key);
+        delegate.get(index, type, id, options, result -> {
+            if (result.succeeded() && result.result().getResult() != null) {
+                store(key, routing, generation, result.result().getResult());
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    @Override
+    public void multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options, Handler<AsyncResult<MultiGetResponse>> resultHandler) {
+        if (!isCacheable(options)) {
+            delegate.multiGet(multiGetQueryOptions, options, resultHandler);
+            return;
+        }
+
+        final MultiGetResponseItem[] items = new MultiGetResponseItem[multiGetQueryOptions.size()];
+        final List<Integer> missPositions = new ArrayList<>();
+        final List<MultiGetQueryOptions> misses = new ArrayList<>();
+        for (int i = 0; i < multiGetQueryOptions.size(); i++) {
+            final MultiGetQueryOptions query = multiGetQueryOptions.get(i);
+            final GetResult cached = isCacheable(query) ? lookup(new DocumentKey(query.getIndex(), query.getType(), query.getId()), routing(query.getRouting(), query.getParent())) : null;
+            if (cached != null) {
+                items[i] = new MultiGetResponseItem().setIndex(cached.getIndex()).setType(cached.getType()).setId(cached.getId()).setGetResult(cached);
+            } else {
+                missPositions.add(i);
+                misses.add(query);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            completeFromCache(resultHandler, toMultiGetResponse(items));
+            return;
+        }
+        if (misses.size() == multiGetQueryOptions.size()) {
+            delegate.multiGet(multiGetQueryOptions, options, storing(multiGetQueryOptions, resultHandler));
+            return;
+        }
+
+        // Only the misses are fetched, their items are merged back in request order
+        delegate.multiGet(misses, options, storing(misses, result -> {
+            if (result.failed()) {
+                resultHandler.handle(result);
+                return;
+            }
+            final List<MultiGetResponseItem> responses = result.result().getResponses();
+            for (int i = 0; i < missPositions.size() && i < responses.size(); i++) {
+                items[missPositions.get(i)] = responses.get(i);
+            }
+            resultHandler.handle(Future.succeededFuture(toMultiGetResponse(items)));
+        }));
+    }
+
+    @Override
+    public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        final DocumentKey requestKey = new DocumentKey(index, type, options != null ? options.getId() : null);
+        beginWrite(requestKey);
+        delegate.index(index, type, source, options, result -> {
+            endWrite(requestKey);
+            if (result.succeeded()) {
+                // The indexed source is what a get returns from now on
+                final IndexResponse indexResponse = result.result();
+                final GetResult document = new GetResult()
+                        .setIndex(indexResponse.getIndex())
+                        .setType(indexResponse.getType())
+                        .setId(indexResponse.getId())
+                        .setVersion(indexResponse.getVersion())
+                        .setExists(true)
+                        .setSource(source);
+                // Index completions arriving out of order keep the newer version cached
+                final DocumentKey key = new DocumentKey(index, type, indexResponse.getId());
+                store(key, options != null ? routing(options.getRouting(), options.getParent()) : null, generation(key), document);
+            } else {
+                invalidate(requestKey);
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    @Override
+    public void indexRaw(String index, String type, RawSource source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        delegate.indexRaw(index, type, source, options, invalidating(new DocumentKey(index, type, options != null ? options.getId() : null), resultHandler));
+    }
+
+    @Override
+    public void update(String index, String type, String id, UpdateOptions options, Handler<AsyncResult<UpdateResponse>> resultHandler) {
+        delegate.update(index, type, id, options, invalidating(new DocumentKey(index, type, id), resultHandler));
+    }
+
+    @Override
+    public void delete(String index, String type, String id, DeleteOptions options, Handler<AsyncResult<DeleteResponse>> resultHandler) {
+        delegate.delete(index, type, id, options, invalidating(new DocumentKey(index, type, id), resultHandler));
+    }
+
+    @Override
+    public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                     List<BulkUpdateOptions> bulkUpdateOptions,
+                     List<BulkDeleteOptions> bulkDeleteOptions,
+                     BulkOptions bulkOptions,
+                     Handler<AsyncResult<BulkResponse>> resultHandler) {
+        final List<DocumentKey> keys = new ArrayList<>();
+        bulkIndexOptions.forEach(item -> keys.add(new DocumentKey(item.getIndex(), item.getType(), item.getIndexOptions() != null ? item.getIndexOptions().getId() : null)));
+        bulkUpdateOptions.forEach(item -> keys.add(new DocumentKey(item.getIndex(), item.getType(), item.getId())));
+        bulkDeleteOptions.forEach(item -> keys.add(new DocumentKey(item.getIndex(), item.getType(), item.getId())));
+
+        keys.forEach(this::beginWrite);
+        delegate.bulk(bulkIndexOptions, bulkUpdateOptions, bulkDeleteOptions, bulkOptions, result -> {
+            keys.forEach(key -> {
+                endWrite(key);
+                invalidate(key);
+            });
+            resultHandler.handle(result);
+        });
+    }
+
+    @Override
+    public void deleteByQuery(List<String> indices, DeleteByQueryOptions options, Handler<AsyncResult<DeleteByQueryResponse>> resultHandler) {
+        beginWriteAll();
+        delegate.deleteByQuery(indices, options, result -> {
+            endWriteAll();
+            if (indices.isEmpty() || indices.stream().anyMatch(index -> index.equals("_all") || index.contains("*"))) {
+                cache.invalidateAll();
+            } else {
+                cache.asMap().keySet().removeIf(key -> indices.contains(key.index));
+            }
+            resultHandler.handle(result);
+        });
+    }
+
+    /**
+     * Drops all cached documents.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean isCacheable(String index, GetOptions options) {
+        return options != null
+                && ttlInMillis(index) > 0
+                && options.getFields().isEmpty()
+                && !Boolean.FALSE.equals(options.getFetchSource())
+                && options.getFetchSourceIncludes().isEmpty()
+                && options.getFetchSourceExcludes().isEmpty()
+                && !Boolean.TRUE.equals(options.getRefresh())
+                && Boolean.FALSE.equals(options.getIncludeRawResponse())
+                && options.getVersion() == null;
+    }
+
+    private boolean isCacheable(MultiGetOptions options) {
+        return options != null && !Boolean.TRUE.equals(options.getRefresh()) && Boolean.FALSE.equals(options.getIncludeRawResponse());
+    }
+
+    private boolean isCacheable(MultiGetQueryOptions query) {
+        return query.getIndex() != null
+                && query.getId() != null
+                && ttlInMillis(query.getIndex()) > 0
+                && query.getStoredFields().isEmpty()
+                && !Boolean.FALSE.equals(query.getFetchSource())
+                && query.getFetchSourceIncludes().isEmpty()
+                && query.getFetchSourceExcludes().isEmpty();
+    }
+
+    private long ttlInMillis(String index) {
+        final Long ttlInMillis = indexTtlsInMillis.get(index);
+        return ttlInMillis != null ? ttlInMillis : defaultTtlInMillis;
+    }
+
+    private GetResult lookup(DocumentKey key, String routing) {
+        final CachedDocument cachedDocument = cache.getIfPresent(key);
+        if (cachedDocument == null || !Objects.equals(cachedDocument.routing, routing)) {
+            return null;
+        }
+        if (cachedDocument.expiresAtMillis <= System.currentTimeMillis()) {
+            cache.asMap().remove(key, cachedDocument);
+            return null;
+        }
+        // Copied so a caller modifying its result doesn't change the cached document
+        return new GetResult(cachedDocument.json.copy());
+    }
+
+    private void store(DocumentKey key, String routing, long generation, GetResult document) {
+        if (key.id == null || generation != generation(key)) {
+            // A write to the document started or completed meanwhile, it may already be outdated
+            return;
+        }
+
+        final JsonObject json = document.toJson().copy();
+        final int weight = (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_IN_BYTES + DefaultBulkIngester.estimateSizeInBytes(json));
+        final CachedDocument cachedDocument = new CachedDocument(json, routing, document.getVersion(), weight, System.currentTimeMillis() + ttlInMillis(key.index));
+        cache.asMap().merge(key, cachedDocument, (existing, update) -> isNewer(update, existing) ? update : existing);
+    }
+
+    private static boolean isNewer(CachedDocument document, CachedDocument existing) {
+        return existing.version == null || document.version == null || document.version >= existing.version;
+    }
+
+    private MultiGetResponse toMultiGetResponse(MultiGetResponseItem[] items) {
+        final List<MultiGetResponseItem> responses = new ArrayList<>(items.length);
+        Collections.addAll(responses, items);
+        return new MultiGetResponse().setResponses(responses);
+    }
+
+    private Handler<AsyncResult<MultiGetResponse>> storing(List<MultiGetQueryOptions> queries, Handler<AsyncResult<MultiGetResponse>> resultHandler) {
+        final long[] generations = queries.stream().mapToLong(query -> generation(new DocumentKey(query.getIndex(), query.getType(), query.getId()))).toArray();
+        return result -> {
+            if (result.succeeded()) {
+                final List<MultiGetResponseItem> responses = result.result().getResponses();
+                for (int i = 0; i < queries.size() && i < responses.size(); i++) {
+                    final MultiGetQueryOptions query = queries.get(i);
+                    final MultiGetResponseItem item = responses.get(i);
+                    if (isCacheable(query) && item.getFailureMessage() == null && item.getGetResult() != null) {
+                        store(new DocumentKey(query.getIndex(), query.getType(), query.getId()), routing(query.getRouting(), query.getParent()), generations[i], item.getGetResult());
+                    }
+                }
+            }
+            resultHandler.handle(result);
+        };
+    }
+
+    private <T> Handler<AsyncResult<T>> invalidating(DocumentKey key, Handler<AsyncResult<T>> resultHandler) {
+        beginWrite(key);
+        return result -> {
+            endWrite(key);
+            invalidate(key);
+            resultHandler.handle(result);
+        };
+    }
+
+    private void invalidate(DocumentKey key) {
+        if (key.id != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Documents are only stored if no write to them started or completed while they were fetched. Writes increment
+     * the generation of their document's stripe when they start and when they complete.
+     */
+    private void beginWrite(DocumentKey key) {
+        incrementGeneration(key);
+    }
+
+    private void endWrite(DocumentKey key) {
+        incrementGeneration(key);
+    }
+
+    /**
+     * Writes to any number of documents increment the generations of all stripes when they start and when they complete.
+     */
+    private void beginWriteAll() {
+        incrementAllGenerations();
+    }
+
+    private void endWriteAll() {
+        incrementAllGenerations();
+    }
+
+    private void incrementGeneration(DocumentKey key) {
+        if (key.id != null) {
+            generations.incrementAndGet(stripe(key));
+        }
+    }
+
+    private void incrementAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private long generation(DocumentKey key) {
+        return generations.get(stripe(key));
+    }
+
+    private static int stripe(DocumentKey key) {
+        return key.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    private static String routing(String routing, String parent) {
+        return routing != null ? routing : parent;
+    }
+
+    private static class DocumentKey {
+
+        private final String index;
+        private final String type;
+        private final String id;
+
+        private DocumentKey(String index, String type, String id) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final DocumentKey that = (DocumentKey) o;
+            return Objects.equals(index, that.index) && Objects.equals(type, that.type) && Objects.equals(id, that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, type, id);
+        }
+    }
+
+    private static class CachedDocument {
+
+        private final JsonObject json;
+        private final String routing;
+        private final Long version;
+        private final int weight;
+        private final long expiresAtMillis;
+
+        private CachedDocument(JsonObject json, String routing, Long version, int weight, long expiresAtMillis) {
+            this.json = json;
+            this.routing = routing;
+            this.version = version;
+            this.weight = weight;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
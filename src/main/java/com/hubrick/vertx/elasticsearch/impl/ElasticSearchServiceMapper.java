@@ -16,6 +16,7 @@
 package com.hubrick.vertx.elasticsearch.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.hubrick.vertx.elasticsearch.ResponseMaterialization;
 import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
 import com.hubrick.vertx.elasticsearch.model.Hit;
 import com.hubrick.vertx.elasticsearch.model.Hits;
@@ -28,10 +29,14 @@ import com.hubrick.vertx.elasticsearch.model.Suggestion;
 import com.hubrick.vertx.elasticsearch.model.SuggestionEntry;
 import com.hubrick.vertx.elasticsearch.model.SuggestionEntryOption;
 import com.hubrick.vertx.elasticsearch.model.SuggestionType;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
 import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.MultiSearchResponse;
@@ -39,12 +44,16 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.broadcast.BroadcastResponse;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
 import org.elasticsearch.action.update.UpdateResponse;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.text.Text;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.index.get.GetResult;
 import org.elasticsearch.index.reindex.BulkByScrollResponse;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.mustache.MultiSearchTemplateResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.aggregations.InternalAggregation;
@@ -54,7 +63,8 @@ import org.elasticsearch.search.suggest.phrase.PhraseSuggestion;
 import org.elasticsearch.search.suggest.term.TermSuggestion;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -63,9 +73,17 @@ import java.util.stream.Collectors;
  */
 public class ElasticSearchServiceMapper {
 
-    public static com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse mapToDeleteByQueryResponse(BulkByScrollResponse esDeleteByQueryResponse) {
+    private static final String RAW_FIELD_HITS = "hits";
+    private static final String RAW_FIELD_SOURCE = "_source";
+    private static final String RAW_FIELD_AGGREGATIONS = "aggregations";
+    private static final String RAW_FIELD_RESPONSES = "responses";
+    static final String RAW_FIELD_DOCS = "docs";
+
+    public static com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse mapToDeleteByQueryResponse(BulkByScrollResponse esDeleteByQueryResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
         final com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse deleteByQueryResponse = new com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse();
-        deleteByQueryResponse.setRawResponse(readResponse(esDeleteByQueryResponse));
+        if (includeRawResponse) {
+            deleteByQueryResponse.setRawResponse(readResponse(esDeleteByQueryResponse, materialization));
+        }
         deleteByQueryResponse.setTookMillis(esDeleteByQueryResponse.getTook().getMillis());
         deleteByQueryResponse.setTimedOut(esDeleteByQueryResponse.isTimedOut());
         deleteByQueryResponse.setDeleted(esDeleteByQueryResponse.getDeleted());
@@ -104,11 +122,12 @@ public class ElasticSearchServiceMapper {
         return deleteResponse;
     }
 
-    public static com.hubrick.vertx.elasticsearch.model.GetResponse mapToUpdateResponse(GetResponse esGetResponse) {
+    public static com.hubrick.vertx.elasticsearch.model.GetResponse mapToUpdateResponse(GetResponse esGetResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
         final com.hubrick.vertx.elasticsearch.model.GetResponse getResponse = new com.hubrick.vertx.elasticsearch.model.GetResponse();
 
-        getResponse.setRawResponse(readResponse(esGetResponse));
-        getResponse.setResult(mapToGetResult(esGetResponse));
+        final JsonObject rawResponse = includeRawResponse ? readResponse(esGetResponse, materialization) : null;
+        getResponse.setRawResponse(rawResponse);
+        getResponse.setResult(mapToGetResult(esGetResponse, reusableRaw(rawResponse, materialization)));
 
         return getResponse;
     }
@@ -143,91 +162,146 @@ public class ElasticSearchServiceMapper {
         return indexResponse;
     }
 
-    public static com.hubrick.vertx.elasticsearch.model.BulkResponse mapToBulkIndexResponse(BulkResponse esBulkResponse) {
+    public static com.hubrick.vertx.elasticsearch.model.BulkResponse mapToBulkIndexResponse(BulkResponse esBulkResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
         final com.hubrick.vertx.elasticsearch.model.BulkResponse bulkResponse = new com.hubrick.vertx.elasticsearch.model.BulkResponse();
 
         final org.elasticsearch.action.bulk.BulkItemResponse[] bulkResponseItems = esBulkResponse.getItems();
 
         final ImmutableList.Builder<BulkResponseItem> bulkResponseItemsBuilder = ImmutableList.builder();
         for (org.elasticsearch.action.bulk.BulkItemResponse bulkItemResponse : bulkResponseItems) {
-            bulkResponseItemsBuilder.add(mapToBulkItemResponse(bulkItemResponse));
+            bulkResponseItemsBuilder.add(mapToBulkItemResponse(bulkItemResponse, materialization));
         }
 
-        bulkResponse.setRawResponse(readResponse(esBulkResponse));
+        if (includeRawResponse) {
+            bulkResponse.setRawResponse(readResponse(esBulkResponse, materialization));
+        }
         bulkResponse.setResponses(bulkResponseItemsBuilder.build());
         bulkResponse.setTookInMillis(esBulkResponse.getTook().getMillis());
 
         return bulkResponse;
     }
 
-    public static BulkResponseItem mapToBulkItemResponse(org.elasticsearch.action.bulk.BulkItemResponse itemResponse) {
+    public static BulkResponseItem mapToBulkItemResponse(org.elasticsearch.action.bulk.BulkItemResponse itemResponse, ResponseMaterialization materialization) {
         final BulkResponseItem bulkItemResponse = new BulkResponseItem();
 
         bulkItemResponse.setId(itemResponse.getId());
-        bulkItemResponse.setShards(mapToShards(itemResponse.getResponse().getShardInfo()));
+        if (itemResponse.getResponse() != null) {
+            // Failed items don't have a response
+            bulkItemResponse.setShards(mapToShards(itemResponse.getResponse().getShardInfo()));
+        }
         bulkItemResponse.setIndex(itemResponse.getIndex());
         bulkItemResponse.setType(itemResponse.getType());
         bulkItemResponse.setOpType(OpType.valueOf(itemResponse.getOpType().name()));
-        bulkItemResponse.setFailure(itemResponse.getFailure() != null ? readResponse(itemResponse.getFailure()) : new JsonObject());
+        bulkItemResponse.setFailure(itemResponse.getFailure() != null ? readResponse(itemResponse.getFailure(), materialization) : new JsonObject());
         bulkItemResponse.setFailureMessage(itemResponse.getFailureMessage());
+        bulkItemResponse.setStatus(itemResponse.status().getStatus());
 
         return bulkItemResponse;
     }
 
-    public static com.hubrick.vertx.elasticsearch.model.MultiSearchResponse mapToMultiSearchResponse(MultiSearchResponse esMultiSearchResponse) {
+    public static com.hubrick.vertx.elasticsearch.model.MultiSearchResponse mapToMultiSearchResponse(MultiSearchResponse esMultiSearchResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
         final com.hubrick.vertx.elasticsearch.model.MultiSearchResponse multiSearchResponse = new com.hubrick.vertx.elasticsearch.model.MultiSearchResponse();
 
-        multiSearchResponse.setRawResponse(readResponse(esMultiSearchResponse));
-        multiSearchResponse.setResponses(
-                Arrays.asList(
-                        esMultiSearchResponse.getResponses()).stream()
-                        .map(e -> {
-                            final MultiSearchResponseItem multiSearchResponseItem = new MultiSearchResponseItem().setFailureMessage(e.getFailureMessage());
-                            if(e.getResponse() != null) {
-                                multiSearchResponseItem.setSearchResponse(mapToSearchResponse(e.getResponse()));
-                            }
+        final JsonObject rawResponse = includeRawResponse ? readResponse(esMultiSearchResponse, materialization) : null;
+        final JsonArray rawResponses = reusableRawArray(reusableRaw(rawResponse, materialization), RAW_FIELD_RESPONSES);
+        final MultiSearchResponse.Item[] items = esMultiSearchResponse.getResponses();
+
+        final List<MultiSearchResponseItem> multiSearchResponseItems = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            final MultiSearchResponse.Item item = items[i];
+            final MultiSearchResponseItem multiSearchResponseItem = new MultiSearchResponseItem().setFailureMessage(item.getFailureMessage());
+            if (item.getResponse() != null) {
+                // The raw multi search response already contains every single search response
+                final JsonObject rawItem;
+                if (rawResponses != null) {
+                    rawItem = rawResponses.getJsonObject(i);
+                } else {
+                    rawItem = includeRawResponse ? readResponse(item.getResponse(), materialization) : null;
+                }
+                multiSearchResponseItem.setSearchResponse(mapToSearchResponse(item.getResponse(), rawItem, materialization));
+            }
+            multiSearchResponseItems.add(multiSearchResponseItem);
+        }
 
-                            return multiSearchResponseItem;
-                        }).collect(Collectors.toList())
-        );
+        multiSearchResponse.setRawResponse(rawResponse);
+        multiSearchResponse.setResponses(multiSearchResponseItems);
 
         return multiSearchResponse;
     }
 
+    public static com.hubrick.vertx.elasticsearch.model.MultiSearchResponse mapToMultiSearchTemplateResponse(MultiSearchTemplateResponse esMultiSearchTemplateResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
+        final com.hubrick.vertx.elasticsearch.model.MultiSearchResponse multiSearchResponse = new com.hubrick.vertx.elasticsearch.model.MultiSearchResponse();
 
-    public static com.hubrick.vertx.elasticsearch.model.MultiGetResponse mapToMultiGetResponse(MultiGetResponse esMultiGetResponse) {
+        final JsonObject rawResponse = includeRawResponse ? readResponse(esMultiSearchTemplateResponse, materialization) : null;
+        final JsonArray rawResponses = reusableRawArray(reusableRaw(rawResponse, materialization), RAW_FIELD_RESPONSES);
+        final MultiSearchTemplateResponse.Item[] items = esMultiSearchTemplateResponse.getResponses();
+
+        final List<MultiSearchResponseItem> multiSearchResponseItems = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            final MultiSearchTemplateResponse.Item item = items[i];
+            final MultiSearchResponseItem multiSearchResponseItem = new MultiSearchResponseItem().setFailureMessage(item.getFailureMessage());
+            if (item.getResponse() != null && item.getResponse().hasResponse()) {
+                final SearchResponse esSearchResponse = item.getResponse().getResponse();
+                final JsonObject rawItem;
+                if (rawResponses != null) {
+                    rawItem = rawResponses.getJsonObject(i);
+                } else {
+                    rawItem = includeRawResponse ? readResponse(esSearchResponse, materialization) : null;
+                }
+                multiSearchResponseItem.setSearchResponse(mapToSearchResponse(esSearchResponse, rawItem, materialization));
+            }
+            multiSearchResponseItems.add(multiSearchResponseItem);
+        }
+
+        multiSearchResponse.setRawResponse(rawResponse);
+        multiSearchResponse.setResponses(multiSearchResponseItems);
+
+        return multiSearchResponse;
+    }
+
+
+    public static com.hubrick.vertx.elasticsearch.model.MultiGetResponse mapToMultiGetResponse(MultiGetResponse esMultiGetResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
         final com.hubrick.vertx.elasticsearch.model.MultiGetResponse multiGetResponse = new com.hubrick.vertx.elasticsearch.model.MultiGetResponse();
 
-        multiGetResponse.setRawResponse(readResponse(esMultiGetResponse));
-        multiGetResponse.setResponses(
-                Arrays.asList(
-                        esMultiGetResponse.getResponses()).stream()
-                        .map(e -> {
-                            final MultiGetResponseItem multiGetResponseItem = new MultiGetResponseItem().setId(e.getId()).setType(e.getType()).setIndex(e.getIndex());
-                            if(e.getResponse() != null) {
-                                multiGetResponseItem.setGetResult(mapToGetResult(e.getResponse()));
-                            }
-                            if (e.getFailure() != null) {
-                                multiGetResponseItem.setFailureMessage(e.getFailure().getMessage());
-                            }
-
-                            return multiGetResponseItem;
-                        })
-                        .collect(Collectors.toList()
-                        )
-        );
+        final JsonObject rawResponse = includeRawResponse ? readResponse(esMultiGetResponse, materialization) : null;
+        final JsonArray rawDocs = reusableRawArray(reusableRaw(rawResponse, materialization), RAW_FIELD_DOCS);
+        final MultiGetItemResponse[] items = esMultiGetResponse.getResponses();
+
+        final List<MultiGetResponseItem> multiGetResponseItems = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            final MultiGetItemResponse item = items[i];
+            final MultiGetResponseItem multiGetResponseItem = new MultiGetResponseItem().setId(item.getId()).setType(item.getType()).setIndex(item.getIndex());
+            if (item.getResponse() != null) {
+                multiGetResponseItem.setGetResult(mapToGetResult(item.getResponse(), rawDocs != null ? rawDocs.getJsonObject(i) : null));
+            }
+            if (item.getFailure() != null) {
+                multiGetResponseItem.setFailureMessage(item.getFailure().getMessage());
+                multiGetResponseItem.setStatus(ExceptionsHelper.status(item.getFailure().getFailure()).getStatus());
+            }
+            multiGetResponseItems.add(multiGetResponseItem);
+        }
+
+        multiGetResponse.setRawResponse(rawResponse);
+        multiGetResponse.setResponses(multiGetResponseItems);
 
         return multiGetResponse;
     }
 
-    public static com.hubrick.vertx.elasticsearch.model.SearchResponse mapToSearchResponse(SearchResponse esSearchResponse) {
+    public static com.hubrick.vertx.elasticsearch.model.SearchResponse mapToSearchResponse(SearchResponse esSearchResponse, ResponseMaterialization materialization, boolean includeRawResponse) {
+        return mapToSearchResponse(esSearchResponse, includeRawResponse ? readResponse(esSearchResponse, materialization) : null, materialization);
+    }
+
+    private static com.hubrick.vertx.elasticsearch.model.SearchResponse mapToSearchResponse(SearchResponse esSearchResponse, JsonObject rawResponse, ResponseMaterialization materialization) {
         final com.hubrick.vertx.elasticsearch.model.SearchResponse searchResponse = new com.hubrick.vertx.elasticsearch.model.SearchResponse();
+        final JsonObject reusableRawResponse = reusableRaw(rawResponse, materialization);
+        final JsonObject rawHits = reusableRawResponse != null ? reusableRawResponse.getJsonObject(RAW_FIELD_HITS) : null;
+        final JsonObject rawAggregations = reusableRawResponse != null ? reusableRawResponse.getJsonObject(RAW_FIELD_AGGREGATIONS) : null;
 
-        searchResponse.setRawResponse(readResponse(esSearchResponse));
+        searchResponse.setRawResponse(rawResponse);
         searchResponse.setTook(esSearchResponse.getTook().getMillis());
         searchResponse.setTimedOut(esSearchResponse.isTimedOut());
         searchResponse.setShards(mapToShards(esSearchResponse));
-        searchResponse.setHits(mapToHits(esSearchResponse.getHits()));
+        searchResponse.setHits(mapToHits(esSearchResponse.getHits(), reusableRawArray(rawHits, RAW_FIELD_HITS), materialization));
         searchResponse.setScrollId(esSearchResponse.getScrollId());
 
         if (esSearchResponse.getSuggest() != null) {
@@ -241,13 +315,20 @@ public class ElasticSearchServiceMapper {
                     esSearchResponse.getAggregations().asMap()
                             .entrySet()
                             .stream()
-                            .collect(Collectors.toMap(e -> e.getKey(), e -> readResponse((InternalAggregation) e.getValue())))
+                            .collect(Collectors.toMap(e -> e.getKey(), e -> mapToAggregation(e.getKey(), (InternalAggregation) e.getValue(), rawAggregations, materialization)))
             );
         }
 
         return searchResponse;
     }
 
+    private static JsonObject mapToAggregation(String name, InternalAggregation aggregation, JsonObject rawAggregations, ResponseMaterialization materialization) {
+        if (rawAggregations != null && rawAggregations.getJsonObject(name) != null) {
+            return new JsonObject().put(name, rawAggregations.getJsonObject(name));
+        }
+        return readResponse(aggregation, materialization);
+    }
+
     private static Shards mapToShards(ReplicationResponse.ShardInfo shardInfo) {
         return new Shards()
                 .setFailed(shardInfo.getFailed())
@@ -269,19 +350,20 @@ public class ElasticSearchServiceMapper {
                 .setTotal(esSearchResponse.getTotalShards());
     }
 
-    private static Hits mapToHits(SearchHits searchHits) {
+    private static Hits mapToHits(SearchHits searchHits, JsonArray rawHits, ResponseMaterialization materialization) {
+        final SearchHit[] esHits = searchHits.getHits();
+        final List<Hit> hits = new ArrayList<>(esHits.length);
+        for (int i = 0; i < esHits.length; i++) {
+            hits.add(mapToHit(esHits[i], rawHits != null ? rawHits.getJsonObject(i) : null, materialization));
+        }
+
         return new Hits()
                 .setMaxScore(searchHits.getMaxScore())
                 .setTotal(searchHits.getTotalHits())
-                .setHits(
-                        Arrays.asList(searchHits.getHits())
-                                .stream()
-                                .map(ElasticSearchServiceMapper::mapToHit)
-                                .collect(Collectors.toList())
-                );
+                .setHits(hits);
     }
 
-    private static Hit mapToHit(SearchHit searchHit) {
+    private static Hit mapToHit(SearchHit searchHit, JsonObject rawHit, ResponseMaterialization materialization) {
         final Hit hit = new Hit()
                 .setId(searchHit.getId())
                 .setIndex(searchHit.getIndex())
@@ -295,14 +377,34 @@ public class ElasticSearchServiceMapper {
                                 .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().getValues()))
                 );
 
-        if (searchHit.getSourceAsString() != null) {
-            hit.setSource(new JsonObject(searchHit.getSourceAsString()));
+        if (rawHit != null && rawHit.getJsonObject(RAW_FIELD_SOURCE) != null) {
+            hit.setSource(rawHit.getJsonObject(RAW_FIELD_SOURCE));
+        } else if (searchHit.hasSource()) {
+            hit.setSource(readSource(searchHit.getSourceRef(), materialization));
+        }
+
+        if (searchHit.getSortValues().length > 0) {
+            hit.setSortValues(mapToSortValues(searchHit.getSortValues()));
         }
 
         return hit;
     }
 
-    private static com.hubrick.vertx.elasticsearch.model.GetResult mapToGetResult(GetResponse getResponse) {
+    private static JsonArray mapToSortValues(Object[] sortValues) {
+        final JsonArray jsonSortValues = new JsonArray();
+        for (Object sortValue : sortValues) {
+            if (sortValue instanceof BytesRef) {
+                jsonSortValues.add(((BytesRef) sortValue).utf8ToString());
+            } else if (sortValue instanceof Text) {
+                jsonSortValues.add(sortValue.toString());
+            } else {
+                jsonSortValues.add(sortValue);
+            }
+        }
+        return jsonSortValues;
+    }
+
+    private static com.hubrick.vertx.elasticsearch.model.GetResult mapToGetResult(GetResponse getResponse, JsonObject rawGetResponse) {
         final com.hubrick.vertx.elasticsearch.model.GetResult getResult = new com.hubrick.vertx.elasticsearch.model.GetResult()
                 .setId(getResponse.getId())
                 .setIndex(getResponse.getIndex())
@@ -319,7 +421,9 @@ public class ElasticSearchServiceMapper {
             );
         }
 
-        if (getResponse.getSource() != null) {
+        if (rawGetResponse != null && rawGetResponse.getJsonObject(RAW_FIELD_SOURCE) != null) {
+            getResult.setSource(rawGetResponse.getJsonObject(RAW_FIELD_SOURCE));
+        } else if (getResponse.getSource() != null) {
             getResult.setSource(new JsonObject(getResponse.getSource()));
         }
 
@@ -407,9 +511,33 @@ public class ElasticSearchServiceMapper {
         return suggestionEntryOption;
     }
 
-    protected static JsonObject readResponse(ToXContent toXContent) {
+    /**
+     * The parts of a tree materialized response are taken from a copy of it, which is still cheaper than reading every
+     * source again and keeps the raw response apart from the mapped values. A response parsed from a string is only used
+     * as raw response to stay compatible with the previous behaviour.
+     */
+    private static JsonObject reusableRaw(JsonObject rawResponse, ResponseMaterialization materialization) {
+        return materialization == ResponseMaterialization.TREE && rawResponse != null ? rawResponse.copy() : null;
+    }
+
+    private static JsonArray reusableRawArray(JsonObject rawResponse, String field) {
+        return rawResponse != null ? rawResponse.getJsonArray(field) : null;
+    }
+
+    protected static JsonObject readSource(BytesReference source, ResponseMaterialization materialization) {
+        try {
+            if (materialization == ResponseMaterialization.TREE) {
+                return JsonTreeXContent.toJsonObject(source);
+            }
+            return new JsonObject(XContentHelper.convertToJson(source, false, false));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected static JsonObject readResponse(ToXContent toXContent, ResponseMaterialization materialization) {
         try {
-            final XContentBuilder builder = XContentFactory.jsonBuilder();
+            final XContentBuilder builder = materialization == ResponseMaterialization.TREE ? JsonTreeXContent.treeBuilder() : XContentFactory.jsonBuilder();
             if (toXContent.isFragment()) {
                 builder.startObject();
                 toXContent.toXContent(builder, SearchResponse.EMPTY_PARAMS);
@@ -418,6 +546,9 @@ public class ElasticSearchServiceMapper {
                 toXContent.toXContent(builder, SearchResponse.EMPTY_PARAMS);
             }
 
+            if (materialization == ResponseMaterialization.TREE) {
+                return JsonTreeXContent.toJsonObject(builder);
+            }
             return new JsonObject(builder.string());
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceVertxProxyHandler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceBinder;
+
+/**
+ * Registration of the event bus codecs proxies can opt into.
+ * <p>
+ * A proxy asks for a codec by sending its requests with it and naming it in the {@link #CODEC_HEADER} header,
+ * services bound with {@link #bindService(Vertx, String, ElasticSearchService)} then reply with the same codec.
+ */
+public final class EventBusCodecs {
+
+    public static final String CODEC_HEADER = "codec";
+
+    private EventBusCodecs() {
+    }
+
+    /**
+     * Registers the codecs on the event bus unless they already are.
+     */
+    public static void registerCodecs(EventBus eventBus) {
+        registerCodec(eventBus, new SmileJsonObjectMessageCodec());
+        registerCodec(eventBus, new LocalJsonObjectMessageCodec());
+    }
+
+    /**
+     * Delivery options for proxies sending requests with the given codec and asking for replies in the same format.
+     */
+    public static DeliveryOptions deliveryOptions(String codecName) {
+        return new DeliveryOptions()
+                .setCodecName(codecName)
+                .addHeader(CODEC_HEADER, codecName);
+    }
+
+    /**
+     * Binds the service to the address like {@link ServiceBinder} does, replying with the codec each request asks for.
+     */
+    public static MessageConsumer<JsonObject> bindService(Vertx vertx, String address, ElasticSearchService service) {
+        registerCodecs(vertx.eventBus());
+
+        // The generated handler replies without delivery options, so the codec is applied by wrapping the message
+        final ElasticSearchServiceVertxProxyHandler proxyHandler = new ElasticSearchServiceVertxProxyHandler(vertx, service, true, ServiceBinder.DEFAULT_CONNECTION_TIMEOUT);
+        return vertx.eventBus().<JsonObject>consumer(address, message -> {
+            final String codecName = message.headers().get(CODEC_HEADER);
+            if (SmileJsonObjectMessageCodec.CODEC_NAME.equals(codecName) || LocalJsonObjectMessageCodec.CODEC_NAME.equals(codecName)) {
+                proxyHandler.handle(new CodecReplyMessage<>(message, codecName));
+            } else {
+                proxyHandler.handle(message);
+            }
+        });
+    }
+
+    private static void registerCodec(EventBus eventBus, MessageCodec<?, ?> codec) {
+        try {
+            eventBus.registerCodec(codec);
+        } catch (IllegalStateException e) {
+            // Already registered, e.g. by another proxy or the service verticle
+        }
+    }
+}
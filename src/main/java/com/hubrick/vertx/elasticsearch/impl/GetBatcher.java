@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponseItem;
+import com.hubrick.vertx.elasticsearch.model.RequestTimings;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.rest.RestStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Gathers the gets issued within a window into multi gets and completes every get with its own item.
+ * <p>
+ * Gets are batched with the others sharing their preference, realtime, refresh and raw response flags, the raw response
+ * of a get is its document of the raw multi get response. Gets checking a version can't be expressed as a multi get item
+ * and gets issued outside of a Vert.x context have nothing to schedule the batch on, see {@link #isBatchable(GetOptions)}.
+ */
+class GetBatcher {
+
+    private static final long MICROS_PER_MILLI = 1000;
+
+    private final long windowInMicros;
+    private final int maxBatchSize;
+    private final MultiGetFunction multiGetFunction;
+    private final Map<String, Batch> pendingBatches = new HashMap<>();
+
+    GetBatcher(long windowInMicros, int maxBatchSize, MultiGetFunction multiGetFunction) {
+        checkArgument(windowInMicros >= 0, "windowInMicros must not be negative");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+
+        this.windowInMicros = windowInMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.multiGetFunction = checkNotNull(multiGetFunction, "multiGetFunction must not be null");
+    }
+
+    static boolean isBatchable(GetOptions options) {
+        return Vertx.currentContext() != null && (options == null || (options.getVersion() == null && options.getVersionType() == null));
+    }
+
+    void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+        final MultiGetOptions multiGetOptions = toMultiGetOptions(options);
+        final String batchKey = multiGetOptions.toJson().encode();
+        final Context context = Vertx.currentContext();
+        checkNotNull(context, "gets can only be batched on a Vert.x context");
+        final PendingGet pendingGet = new PendingGet(toMultiGetQueryOptions(index, type, id, options), resultHandler, context);
+
+        Batch fullBatch = null;
+        Batch newBatch = null;
+        synchronized (pendingBatches) {
+            Batch batch = pendingBatches.get(batchKey);
+            if (batch == null) {
+                batch = new Batch(multiGetOptions);
+                pendingBatches.put(batchKey, batch);
+                newBatch = batch;
+            }
+            batch.gets.add(pendingGet);
+            if (batch.gets.size() >= maxBatchSize) {
+                pendingBatches.remove(batchKey);
+                fullBatch = batch;
+            }
+        }
+
+        if (fullBatch != null) {
+            send(fullBatch);
+        } else if (newBatch != null) {
+            schedule(context, batchKey, newBatch);
+        }
+    }
+
+    private void schedule(Context context, String batchKey, Batch batch) {
+        final Handler<Void> flush = event -> {
+            synchronized (pendingBatches) {
+                if (!pendingBatches.remove(batchKey, batch)) {
+                    // Already sent when it got full
+                    return;
+                }
+            }
+            send(batch);
+        };
+
+        if (windowInMicros < MICROS_PER_MILLI) {
+            context.runOnContext(flush);
+        } else {
+            context.owner().setTimer(windowInMicros / MICROS_PER_MILLI, timerId -> flush.handle(null));
+        }
+    }
+
+    private void send(Batch batch) {
+        final List<MultiGetQueryOptions> queries = new ArrayList<>(batch.gets.size());
+        batch.gets.forEach(pendingGet -> queries.add(pendingGet.query));
+
+        multiGetFunction.multiGet(queries, batch.options, result -> {
+            for (int i = 0; i < batch.gets.size(); i++) {
+                final PendingGet pendingGet = batch.gets.get(i);
+                if (result.failed()) {
+                    dispatch(pendingGet, Future.failedFuture(result.cause()));
+                } else if (i >= result.result().getResponses().size()) {
+                    dispatch(pendingGet, Future.failedFuture("No multi get item for " + pendingGet.query.getId()));
+                } else {
+                    dispatch(pendingGet, toGetResponse(result.result(), i));
+                }
+            }
+        });
+    }
+
+    private static AsyncResult<GetResponse> toGetResponse(MultiGetResponse multiGetResponse, int position) {
+        final MultiGetResponseItem item = multiGetResponse.getResponses().get(position);
+        if (item.getFailureMessage() != null) {
+            // Failed like the get sent on its own, keeping the failure code of a rejection
+            return ResponseDispatcher.failure(item.getStatus() != null ? RestStatus.fromCode(item.getStatus()) : null, item.getFailureMessage());
+        }
+        final GetResponse getResponse = new GetResponse();
+        getResponse.setResult(item.getGetResult());
+        getResponse.setRawResponse(rawDoc(multiGetResponse, position));
+        // Every get of the batch gets its own copy of the shared timings
+        getResponse.setTimings(multiGetResponse.getTimings() != null ? new RequestTimings(multiGetResponse.getTimings()) : null);
+        return Future.succeededFuture(getResponse);
+    }
+
+    private static JsonObject rawDoc(MultiGetResponse multiGetResponse, int position) {
+        final JsonObject rawResponse = multiGetResponse.getRawResponse();
+        final JsonArray rawDocs = rawResponse != null ? rawResponse.getJsonArray(ElasticSearchServiceMapper.RAW_FIELD_DOCS) : null;
+        return rawDocs != null && position < rawDocs.size() ? rawDocs.getJsonObject(position) : null;
+    }
+
+    private static void dispatch(PendingGet pendingGet, AsyncResult<GetResponse> result) {
+        if (pendingGet.context == null || pendingGet.context == Vertx.currentContext()) {
+            pendingGet.resultHandler.handle(result);
+        } else {
+            pendingGet.context.runOnContext(event -> pendingGet.resultHandler.handle(result));
+        }
+    }
+
+    private static MultiGetOptions toMultiGetOptions(GetOptions options) {
+        final MultiGetOptions multiGetOptions = new MultiGetOptions();
+        if (options != null) {
+            multiGetOptions.setPreference(options.getPreference());
+            multiGetOptions.setRealtime(options.getRealtime());
+            multiGetOptions.setRefresh(options.getRefresh());
+            multiGetOptions.setIncludeRawResponse(options.getIncludeRawResponse());
+        }
+        return multiGetOptions;
+    }
+
+    /**
+     * Maps the options so that the item returns what the get would have: a get without stored fields or source
+     * filtering fetches the source, a multi get item with an empty list of stored fields doesn't.
+     */
+    private static MultiGetQueryOptions toMultiGetQueryOptions(String index, String type, String id, GetOptions options) {
+        final MultiGetQueryOptions query = new MultiGetQueryOptions().setIndex(index).setType(type).setId(id);
+        if (options == null) {
+            return query.setFetchSource(true);
+        }
+
+        query.setRouting(options.getRouting());
+        query.setParent(options.getParent());
+        query.setStoredFields(new ArrayList<>(options.getFields()));
+        if (!options.getFetchSourceIncludes().isEmpty() || !options.getFetchSourceExcludes().isEmpty()) {
+            query.setFetchSource(true)
+                    .setFetchSourceIncludes(new ArrayList<>(options.getFetchSourceIncludes()))
+                    .setFetchSourceExcludes(new ArrayList<>(options.getFetchSourceExcludes()));
+        } else if (options.getFetchSource() != null) {
+            query.setFetchSource(options.getFetchSource());
+        } else if (options.getFields().isEmpty()) {
+            query.setFetchSource(true);
+        }
+        return query;
+    }
+
+    /**
+     * The multi get the batches are sent with
+     */
+    @FunctionalInterface
+    interface MultiGetFunction {
+        void multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options, Handler<AsyncResult<MultiGetResponse>> resultHandler);
+    }
+
+    private static class Batch {
+
+        private final MultiGetOptions options;
+        private final List<PendingGet> gets = new ArrayList<>();
+
+        private Batch(MultiGetOptions options) {
+            this.options = options;
+        }
+    }
+
+    private static class PendingGet {
+
+        private final MultiGetQueryOptions query;
+        private final Handler<AsyncResult<GetResponse>> resultHandler;
+        private final Context context;
+
+        private PendingGet(MultiGetQueryOptions query, Handler<AsyncResult<GetResponse>> resultHandler, Context context) {
+            this.query = query;
+            this.resultHandler = resultHandler;
+            this.context = context;
+        }
+    }
+}
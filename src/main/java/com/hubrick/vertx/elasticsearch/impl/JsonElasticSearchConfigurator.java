@@ -15,7 +15,11 @@
  */
 package com.hubrick.vertx.elasticsearch.impl;
 
+import com.hubrick.vertx.elasticsearch.CompletionMode;
+import com.hubrick.vertx.elasticsearch.QueryParsing;
+import com.hubrick.vertx.elasticsearch.ResponseMaterialization;
 import com.hubrick.vertx.elasticsearch.ElasticSearchConfigurator;
+import com.hubrick.vertx.elasticsearch.model.TransportOptions;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -35,11 +39,35 @@ public class JsonElasticSearchConfigurator implements ElasticSearchConfigurator
     protected String clusterName;
     protected boolean clientTransportSniff;
     protected final List<TransportAddress> transportAddresses = new ArrayList<>();
+    protected CompletionMode completionMode;
+    protected int mappingPoolSize;
+    protected int mappingPoolQueueSize;
+    protected ResponseMaterialization responseMaterialization;
+    protected boolean includeRawResponse;
+    protected boolean includeTimings;
+    protected long getBatchWindowMicros;
+    protected int getBatchMaxSize;
+    protected int parsedBuilderCacheSize;
+    protected int preparedSearchCacheSize;
+    protected QueryParsing queryParsing;
+    protected TransportOptions transportOptions;
 
     public static final String CONFIG_NAME = "elasticsearch";
     public static final String CONFIG_TRANSPORT_ADDRESSES = "transportAddresses";
     public static final String CONFIG_HOSTNAME = "hostname";
     public static final String CONFIG_PORT = "port";
+    public static final String CONFIG_COMPLETION_MODE = "completion_mode";
+    public static final String CONFIG_MAPPING_POOL_SIZE = "mapping_pool_size";
+    public static final String CONFIG_MAPPING_POOL_QUEUE_SIZE = "mapping_pool_queue_size";
+    public static final String CONFIG_RESPONSE_MATERIALIZATION = "response_materialization";
+    public static final String CONFIG_INCLUDE_RAW_RESPONSE = "include_raw_response";
+    public static final String CONFIG_INCLUDE_TIMINGS = "include_timings";
+    public static final String CONFIG_GET_BATCH_WINDOW_MICROS = "get_batch_window_micros";
+    public static final String CONFIG_GET_BATCH_MAX_SIZE = "get_batch_max_size";
+    public static final String CONFIG_PARSED_BUILDER_CACHE_SIZE = "parsed_builder_cache_size";
+    public static final String CONFIG_PREPARED_SEARCH_CACHE_SIZE = "prepared_search_cache_size";
+    public static final String CONFIG_QUERY_PARSING = "query_parsing";
+    public static final String CONFIG_TRANSPORT = "transport";
 
     @Inject
     public JsonElasticSearchConfigurator(Vertx vertx) {
@@ -62,6 +90,15 @@ public class JsonElasticSearchConfigurator implements ElasticSearchConfigurator
         initClusterName(config);
         initClientTransportSniff(config);
         initTransportAddresses(config);
+        initCompletionMode(config);
+        initResponseMaterialization(config);
+        initIncludeRawResponse(config);
+        initIncludeTimings(config);
+        initGetBatching(config);
+        initParsedBuilderCache(config);
+        initPreparedSearchCache(config);
+        initQueryParsing(config);
+        initTransportOptions(config);
     }
 
     protected void initClusterName(JsonObject config) {
@@ -72,6 +109,46 @@ public class JsonElasticSearchConfigurator implements ElasticSearchConfigurator
         clientTransportSniff = config.getBoolean("client_transport_sniff", true);
     }
 
+    protected void initCompletionMode(JsonObject config) {
+        completionMode = CompletionMode.valueOf(config.getString(CONFIG_COMPLETION_MODE, CompletionMode.CALLER_CONTEXT.name()));
+        mappingPoolSize = config.getInteger(CONFIG_MAPPING_POOL_SIZE, Runtime.getRuntime().availableProcessors());
+        mappingPoolQueueSize = config.getInteger(CONFIG_MAPPING_POOL_QUEUE_SIZE, 10000);
+    }
+
+    protected void initResponseMaterialization(JsonObject config) {
+        responseMaterialization = ResponseMaterialization.valueOf(config.getString(CONFIG_RESPONSE_MATERIALIZATION, ResponseMaterialization.TREE.name()));
+    }
+
+    protected void initIncludeRawResponse(JsonObject config) {
+        includeRawResponse = config.getBoolean(CONFIG_INCLUDE_RAW_RESPONSE, true);
+    }
+
+    protected void initIncludeTimings(JsonObject config) {
+        includeTimings = config.getBoolean(CONFIG_INCLUDE_TIMINGS, false);
+    }
+
+    protected void initGetBatching(JsonObject config) {
+        getBatchWindowMicros = config.getLong(CONFIG_GET_BATCH_WINDOW_MICROS, 0L);
+        getBatchMaxSize = config.getInteger(CONFIG_GET_BATCH_MAX_SIZE, 100);
+    }
+
+    protected void initParsedBuilderCache(JsonObject config) {
+        parsedBuilderCacheSize = config.getInteger(CONFIG_PARSED_BUILDER_CACHE_SIZE, 1000);
+    }
+
+    protected void initPreparedSearchCache(JsonObject config) {
+        preparedSearchCacheSize = config.getInteger(CONFIG_PREPARED_SEARCH_CACHE_SIZE, 1000);
+    }
+
+    protected void initQueryParsing(JsonObject config) {
+        queryParsing = QueryParsing.valueOf(config.getString(CONFIG_QUERY_PARSING, QueryParsing.WRAPPER.name()));
+    }
+
+    protected void initTransportOptions(JsonObject config) {
+        final JsonObject transportConfig = config.getJsonObject(CONFIG_TRANSPORT);
+        transportOptions = transportConfig != null ? new TransportOptions(transportConfig) : new TransportOptions();
+    }
+
     protected void initTransportAddresses(JsonObject config) {
         try {
             JsonArray jsonArray = config.getJsonArray(CONFIG_TRANSPORT_ADDRESSES);
@@ -110,4 +187,64 @@ public class JsonElasticSearchConfigurator implements ElasticSearchConfigurator
     public List<TransportAddress> getTransportAddresses() {
         return transportAddresses;
     }
+
+    @Override
+    public CompletionMode getCompletionMode() {
+        return completionMode;
+    }
+
+    @Override
+    public int getMappingPoolSize() {
+        return mappingPoolSize;
+    }
+
+    @Override
+    public int getMappingPoolQueueSize() {
+        return mappingPoolQueueSize;
+    }
+
+    @Override
+    public ResponseMaterialization getResponseMaterialization() {
+        return responseMaterialization;
+    }
+
+    @Override
+    public boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    @Override
+    public boolean getIncludeTimings() {
+        return includeTimings;
+    }
+
+    @Override
+    public long getGetBatchWindowMicros() {
+        return getBatchWindowMicros;
+    }
+
+    @Override
+    public int getGetBatchMaxSize() {
+        return getBatchMaxSize;
+    }
+
+    @Override
+    public int getParsedBuilderCacheSize() {
+        return parsedBuilderCacheSize;
+    }
+
+    @Override
+    public int getPreparedSearchCacheSize() {
+        return preparedSearchCacheSize;
+    }
+
+    @Override
+    public QueryParsing getQueryParsing() {
+        return queryParsing;
+    }
+
+    @Override
+    public TransportOptions getTransportOptions() {
+        return transportOptions;
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes JSON document sources straight into UTF-8 bytes.
+ * <p>
+ * A source is written once from the {@link JsonObject} and passed on as {@link BytesReference}, instead of being copied
+ * into maps Elasticsearch serializes again or into a String Elasticsearch converts to bytes again. An encoder instance
+ * writes all sources of a bulk request into one paged buffer and hands out slices of it, so it must not be shared
+ * between requests.
+ */
+public class JsonSourceEncoder {
+
+    private final BytesStreamOutput output = new BytesStreamOutput();
+    private final JsonGenerator generator;
+
+    public JsonSourceEncoder() {
+        try {
+            generator = Json.mapper.getFactory().createGenerator(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Appends the source to the shared buffer.
+     *
+     * @return the slice of the buffer holding the source
+     */
+    public BytesReference encode(JsonObject source) {
+        try {
+            final int offset = (int) output.position();
+            Json.mapper.writeValue(generator, source);
+            generator.flush();
+            return output.bytes().slice(offset, (int) output.position() - offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode the source", e);
+        }
+    }
+
+    /**
+     * Encodes a single source into its own array.
+     */
+    public static byte[] encodeToBytes(JsonObject source) {
+        try {
+            return Json.mapper.writeValueAsBytes(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode the source", e);
+        }
+    }
+}
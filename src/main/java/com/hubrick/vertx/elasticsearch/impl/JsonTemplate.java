@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JSON with {@code "{{name}}"} string values as placeholders, encoded once and split around the placeholders so binding
+ * the parameters only encodes their values.
+ */
+final class JsonTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\"\\{\\{([^\"{}]+)\\}\\}\"");
+
+    private final List<String> segments = new ArrayList<>();
+    private final List<String> parameters = new ArrayList<>();
+
+    JsonTemplate(JsonObject json) {
+        final String encoded = json.encode();
+        final Matcher matcher = PLACEHOLDER.matcher(encoded);
+        int start = 0;
+        while (matcher.find()) {
+            segments.add(encoded.substring(start, matcher.start()));
+            parameters.add(matcher.group(1));
+            start = matcher.end();
+        }
+        segments.add(encoded.substring(start));
+    }
+
+    boolean hasParameters() {
+        return !parameters.isEmpty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if a parameter is missing
+     */
+    String bind(JsonObject params) {
+        if (parameters.isEmpty()) {
+            return segments.get(0);
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            final String parameter = parameters.get(i);
+            if (params == null || !params.containsKey(parameter)) {
+                throw new IllegalArgumentException("Missing parameter " + parameter);
+            }
+            builder.append(segments.get(i)).append(Json.encode(params.getValue(parameter)));
+        }
+        return builder.append(segments.get(parameters.size())).toString();
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentGenerator;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Set;
+
+/**
+ * XContent which materializes everything written to it as a Vert.x JSON tree instead of serialized bytes.
+ * Parsing is delegated to the regular JSON XContent.
+ */
+public class JsonTreeXContent implements XContent {
+
+    public static final JsonTreeXContent INSTANCE = new JsonTreeXContent();
+
+    private static final OutputStream NOOP_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+            throw new UnsupportedOperationException("JsonTreeXContent does not produce bytes");
+        }
+    };
+
+    private JsonTreeXContent() {
+    }
+
+    /**
+     * Creates a builder whose content can be fetched with {@link #toJsonObject(XContentBuilder)}.
+     */
+    public static XContentBuilder treeBuilder() throws IOException {
+        return new XContentBuilder(INSTANCE, NOOP_OUTPUT_STREAM);
+    }
+
+    /**
+     * Returns the root object built by a builder created with {@link #treeBuilder()}.
+     */
+    public static JsonObject toJsonObject(XContentBuilder builder) {
+        return ((JsonTreeXContentGenerator) builder.generator()).root();
+    }
+
+    /**
+     * Parses serialized XContent of any type straight into a JsonObject.
+     */
+    public static JsonObject toJsonObject(BytesReference bytes) throws IOException {
+        final JsonTreeXContentGenerator generator = new JsonTreeXContentGenerator();
+        generator.writeRawValue(bytes);
+        return generator.root();
+    }
+
+    @Override
+    public XContentType type() {
+        return XContentType.JSON;
+    }
+
+    @Override
+    public byte streamSeparator() {
+        return JsonXContent.jsonXContent.streamSeparator();
+    }
+
+    @Override
+    public XContentGenerator createGenerator(OutputStream os, Set<String> includes, Set<String> excludes) throws IOException {
+        if ((includes != null && !includes.isEmpty()) || (excludes != null && !excludes.isEmpty())) {
+            throw new UnsupportedOperationException("JsonTreeXContent does not support filtering");
+        }
+        return new JsonTreeXContentGenerator();
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, String content) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, content);
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, InputStream is) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, is);
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, byte[] data) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, data);
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, byte[] data, int offset, int length) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, data, offset, length);
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, BytesReference bytes) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, bytes);
+    }
+
+    @Override
+    public XContentParser createParser(NamedXContentRegistry xContentRegistry, Reader reader) throws IOException {
+        return JsonXContent.jsonXContent.createParser(xContentRegistry, reader);
+    }
+
+    static XContentType detectType(BytesReference bytes) {
+        final XContentType xContentType = XContentFactory.xContentType(bytes);
+        if (xContentType == null) {
+            throw new IllegalArgumentException("Failed to detect the content type of the raw value");
+        }
+        return xContentType;
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentGenerator;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+
+/**
+ * {@link XContentGenerator} building a Vert.x JSON tree. Values are put into the backing map/list of the current container
+ * directly, so nothing is copied or validated twice. Raw values (e.g. the {@code _source} of a hit) are streamed from their
+ * parser into the tree without being converted to a string first.
+ */
+public class JsonTreeXContentGenerator implements XContentGenerator {
+
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private JsonObject root;
+    private String currentFieldName;
+    private boolean closed;
+
+    /**
+     * Returns the outermost object written to this generator.
+     */
+    public JsonObject root() {
+        return root;
+    }
+
+    @Override
+    public XContentType contentType() {
+        return XContentType.JSON;
+    }
+
+    @Override
+    public void usePrettyPrint() {
+    }
+
+    @Override
+    public boolean isPrettyPrint() {
+        return false;
+    }
+
+    @Override
+    public void usePrintLineFeedAtEnd() {
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        final JsonObject jsonObject = new JsonObject();
+        if (containers.isEmpty()) {
+            if (root != null) {
+                throw new IllegalStateException("Only one root object can be written");
+            }
+            root = jsonObject;
+        } else {
+            writeValue(jsonObject);
+        }
+        containers.push(jsonObject);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        if (!(containers.poll() instanceof JsonObject)) {
+            throw new IllegalStateException("No object to end");
+        }
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        if (containers.isEmpty()) {
+            throw new IllegalStateException("The root value has to be an object");
+        }
+        final JsonArray jsonArray = new JsonArray();
+        writeValue(jsonArray);
+        containers.push(jsonArray);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (!(containers.poll() instanceof JsonArray)) {
+            throw new IllegalStateException("No array to end");
+        }
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        currentFieldName = name;
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        writeValue(null);
+    }
+
+    @Override
+    public void writeNullField(String name) throws IOException {
+        writeFieldName(name);
+        writeNull();
+    }
+
+    @Override
+    public void writeBooleanField(String name, boolean value) throws IOException {
+        writeFieldName(name);
+        writeBoolean(value);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        writeValue(value);
+    }
+
+    @Override
+    public void writeNumberField(String name, double value) throws IOException {
+        writeFieldName(name);
+        writeNumber(value);
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+        writeValue(value);
+    }
+
+    @Override
+    public void writeNumberField(String name, float value) throws IOException {
+        writeFieldName(name);
+        writeNumber(value);
+    }
+
+    @Override
+    public void writeNumber(float value) throws IOException {
+        // Stored like the JSON text of the float decodes, e.g. 0.1 instead of 0.10000000149011612
+        writeValue(Double.valueOf(Float.toString(value)));
+    }
+
+    @Override
+    public void writeNumberField(String name, int value) throws IOException {
+        writeFieldName(name);
+        writeNumber(value);
+    }
+
+    @Override
+    public void writeNumber(int value) throws IOException {
+        writeValue(value);
+    }
+
+    @Override
+    public void writeNumberField(String name, long value) throws IOException {
+        writeFieldName(name);
+        writeNumber(value);
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+        writeValue(value);
+    }
+
+    @Override
+    public void writeNumber(short value) throws IOException {
+        writeValue((int) value);
+    }
+
+    @Override
+    public void writeStringField(String name, String value) throws IOException {
+        writeFieldName(name);
+        writeString(value);
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        writeValue(value);
+    }
+
+    @Override
+    public void writeString(char[] value, int offset, int length) throws IOException {
+        writeValue(new String(value, offset, length));
+    }
+
+    @Override
+    public void writeUTF8String(byte[] value, int offset, int length) throws IOException {
+        writeValue(new String(value, offset, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeBinaryField(String name, byte[] value) throws IOException {
+        writeFieldName(name);
+        writeBinary(value);
+    }
+
+    @Override
+    public void writeBinary(byte[] value) throws IOException {
+        writeBinary(value, 0, value.length);
+    }
+
+    @Override
+    public void writeBinary(byte[] value, int offset, int length) throws IOException {
+        // Same representation a JSON generator produces for binary values
+        final byte[] bytes = offset == 0 && length == value.length ? value : Arrays.copyOfRange(value, offset, offset + length);
+        writeValue(Base64.getEncoder().encodeToString(bytes));
+    }
+
+    @Override
+    public void writeRawField(String name, InputStream value) throws IOException {
+        writeRawField(name, readFully(value));
+    }
+
+    @Override
+    public void writeRawField(String name, InputStream value, XContentType xContentType) throws IOException {
+        writeRawField(name, readFully(value), xContentType);
+    }
+
+    @Override
+    public void writeRawField(String name, BytesReference value) throws IOException {
+        writeRawField(name, value, JsonTreeXContent.detectType(value));
+    }
+
+    @Override
+    public void writeRawField(String name, BytesReference value, XContentType xContentType) throws IOException {
+        writeFieldName(name);
+        writeRawValue(value, xContentType);
+    }
+
+    @Override
+    public void writeRawValue(BytesReference value) throws IOException {
+        writeRawValue(value, JsonTreeXContent.detectType(value));
+    }
+
+    @Override
+    public void writeRawValue(BytesReference value, XContentType xContentType) throws IOException {
+        try (XContentParser parser = xContentType.xContent().createParser(NamedXContentRegistry.EMPTY, value)) {
+            parser.nextToken();
+            copyCurrentStructure(parser);
+        }
+    }
+
+    @Override
+    public void copyCurrentStructure(XContentParser parser) throws IOException {
+        XContentParser.Token token = parser.currentToken();
+        if (token == XContentParser.Token.FIELD_NAME) {
+            writeFieldName(parser.currentName());
+            token = parser.nextToken();
+        }
+
+        switch (token) {
+            case START_OBJECT:
+                writeStartObject();
+                while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                    writeFieldName(parser.currentName());
+                    parser.nextToken();
+                    copyCurrentStructure(parser);
+                }
+                writeEndObject();
+                break;
+            case START_ARRAY:
+                writeStartArray();
+                while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                    copyCurrentStructure(parser);
+                }
+                writeEndArray();
+                break;
+            case VALUE_STRING:
+                writeString(parser.text());
+                break;
+            case VALUE_NUMBER:
+                final Number number = parser.numberValue();
+                writeValue(number instanceof BigDecimal ? number.doubleValue() : number);
+                break;
+            case VALUE_BOOLEAN:
+                writeBoolean(parser.booleanValue());
+                break;
+            case VALUE_NULL:
+                writeNull();
+                break;
+            case VALUE_EMBEDDED_OBJECT:
+                writeBinary(parser.binaryValue());
+                break;
+            default:
+                throw new IllegalStateException("Unexpected token " + token);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void flush() throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!containers.isEmpty()) {
+            throw new IOException("Unclosed object or array found");
+        }
+        closed = true;
+    }
+
+    private static BytesReference readFully(InputStream inputStream) throws IOException {
+        final BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        Streams.copy(inputStream, bytesStreamOutput);
+        return bytesStreamOutput.bytes();
+    }
+
+    private void writeValue(Object value) {
+        final Object container = containers.peek();
+        if (container instanceof JsonObject) {
+            if (currentFieldName == null) {
+                throw new IllegalStateException("Value written without field name");
+            }
+            ((JsonObject) container).getMap().put(currentFieldName, value);
+            currentFieldName = null;
+        } else if (container instanceof JsonArray) {
+            ((JsonArray) container).getList().add(value);
+        } else {
+            throw new IllegalStateException("The root value has to be an object");
+        }
+    }
+}
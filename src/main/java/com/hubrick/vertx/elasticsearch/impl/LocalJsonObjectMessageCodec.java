@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Event bus codec handing {@link JsonObject} messages over by reference when sender and receiver share a JVM.
+ * <p>
+ * The default codec deep copies every local message. This one doesn't, and as the {@code toJson()} methods of the data
+ * objects are shallow, nested JSON such as a query, a document source or a raw response is shared between sender and
+ * receiver. Messages sent with this codec, and the objects they were built from, must not be modified after sending.
+ * Remote deliveries fall back to plain JSON on the wire.
+ */
+public class LocalJsonObjectMessageCodec implements MessageCodec<JsonObject, JsonObject> {
+
+    public static final String CODEC_NAME = "elasticsearch.local";
+
+    @Override
+    public void encodeToWire(Buffer buffer, JsonObject jsonObject) {
+        final Buffer encoded = jsonObject.toBuffer();
+        buffer.appendInt(encoded.length());
+        buffer.appendBuffer(encoded);
+    }
+
+    @Override
+    public JsonObject decodeFromWire(int pos, Buffer buffer) {
+        final int length = buffer.getInt(pos);
+        final int start = pos + 4;
+        return new JsonObject(buffer.slice(start, start + length));
+    }
+
+    @Override
+    public JsonObject transform(JsonObject jsonObject) {
+        return jsonObject;
+    }
+
+    @Override
+    public String name() {
+        return CODEC_NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ActionListener} reporting the outcome of a request to the {@link ElasticSearchMetrics} before handing it to the
+ * wrapped listener.
+ */
+class MetricsListener<R> implements ActionListener<R> {
+
+    private final ElasticSearchMetrics metrics;
+    private final String operation;
+    private final String index;
+    private final long requestSizeInBytes;
+    private final long startNanos;
+    private final ActionListener<R> listener;
+
+    private MetricsListener(ElasticSearchMetrics metrics, String operation, String index, long requestSizeInBytes, ActionListener<R> listener) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.index = index;
+        this.requestSizeInBytes = requestSizeInBytes;
+        this.listener = listener;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Instrument the listener of a request, the listener is returned as is when the metrics are disabled
+     */
+    static <R> ActionListener<R> wrap(ElasticSearchMetrics metrics, String operation, ActionRequest request, ActionListener<R> listener) {
+        if (!metrics.isEnabled()) {
+            return listener;
+        }
+
+        final String index = index(request);
+        final long requestSizeInBytes = metrics.isRecordingSizes() ? sizeInBytes(request) : -1;
+        metrics.requestStarted(operation, index);
+        return new MetricsListener<>(metrics, operation, index, requestSizeInBytes, listener);
+    }
+
+    @Override
+    public void onResponse(R response) {
+        try {
+            final long latencyInNanos = System.nanoTime() - startNanos;
+            final long responseSizeInBytes = metrics.isRecordingSizes() && response instanceof Streamable ? sizeInBytes((Streamable) response) : -1;
+            metrics.requestSucceeded(operation, index, latencyInNanos, tookInMillis(response), requestSizeInBytes, responseSizeInBytes);
+            if (response instanceof BulkResponse) {
+                recordBulkItems((BulkResponse) response);
+            }
+        } finally {
+            listener.onResponse(response);
+        }
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+        try {
+            metrics.requestFailed(operation, index, System.nanoTime() - startNanos, ExceptionsHelper.unwrapCause(e));
+        } finally {
+            listener.onFailure(e);
+        }
+    }
+
+    private void recordBulkItems(BulkResponse bulkResponse) {
+        final Map<String, int[]> itemsByIndex = new LinkedHashMap<>();
+        for (BulkItemResponse item : bulkResponse.getItems()) {
+            final int[] counts = itemsByIndex.computeIfAbsent(item.getIndex(), key -> new int[2]);
+            counts[item.isFailed() ? 1 : 0]++;
+        }
+        itemsByIndex.forEach((itemIndex, counts) -> metrics.bulkItemsCompleted(itemIndex, counts[0], counts[1]));
+    }
+
+    private static long tookInMillis(Object response) {
+        if (response instanceof SearchResponse) {
+            return ((SearchResponse) response).getTook().millis();
+        }
+        if (response instanceof BulkResponse) {
+            return ((BulkResponse) response).getTook().millis();
+        }
+        if (response instanceof BulkByScrollResponse) {
+            return ((BulkByScrollResponse) response).getTook().millis();
+        }
+        return -1;
+    }
+
+    static String index(ActionRequest request) {
+        final Set<String> indices = new LinkedHashSet<>();
+        if (request instanceof IndicesRequest) {
+            addAll(indices, ((IndicesRequest) request).indices());
+        } else if (request instanceof BulkRequest) {
+            ((BulkRequest) request).requests().forEach(item -> indices.add(item.index()));
+        } else if (request instanceof MultiGetRequest) {
+            ((MultiGetRequest) request).getItems().forEach(item -> indices.add(item.index()));
+        } else if (request instanceof MultiSearchRequest) {
+            ((MultiSearchRequest) request).requests().forEach(item -> addAll(indices, item.indices()));
+        }
+        return join(indices);
+    }
+
+    private static void addAll(Set<String> indices, String[] requestIndices) {
+        if (requestIndices != null) {
+            indices.addAll(Arrays.asList(requestIndices));
+        }
+    }
+
+    private static String join(Collection<String> indices) {
+        final String index = indices.stream().filter(Objects::nonNull).collect(Collectors.joining(","));
+        return index.isEmpty() ? null : index;
+    }
+
+    private static long sizeInBytes(Streamable streamable) {
+        final CountingStreamOutput out = new CountingStreamOutput();
+        try {
+            streamable.writeTo(out);
+            return out.count;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Counts the bytes a request or response is serialized to without keeping them
+     */
+    private static class CountingStreamOutput extends StreamOutput {
+
+        private long count;
+
+        @Override
+        public void writeByte(byte b) {
+            count++;
+        }
+
+        @Override
+        public void writeBytes(byte[] b, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
+import com.hubrick.vertx.elasticsearch.ParsedBuilderType;
+import com.hubrick.vertx.elasticsearch.RequestPhase;
+
+/**
+ * {@link ElasticSearchMetrics} recording nothing, the requests aren't instrumented
+ */
+public class NoopElasticSearchMetrics implements ElasticSearchMetrics {
+
+    public static final NoopElasticSearchMetrics INSTANCE = new NoopElasticSearchMetrics();
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isRecordingSizes() {
+        return false;
+    }
+
+    @Override
+    public void requestStarted(String operation, String index) {
+    }
+
+    @Override
+    public void requestSucceeded(String operation, String index, long latencyInNanos, long tookInMillis, long requestSizeInBytes, long responseSizeInBytes) {
+    }
+
+    @Override
+    public void requestFailed(String operation, String index, long latencyInNanos, Throwable cause) {
+    }
+
+    @Override
+    public void bulkItemsCompleted(String index, int succeededItems, int failedItems) {
+    }
+
+    @Override
+    public void requestPhaseCompleted(String operation, String index, RequestPhase phase, long durationInNanos) {
+    }
+
+    @Override
+    public void parsedBuilderCacheAccessed(ParsedBuilderType type, boolean hit) {
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
+import com.hubrick.vertx.elasticsearch.ParsedBuilderType;
+import com.hubrick.vertx.elasticsearch.model.AggregationOption;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the builders parsed from the search options, keyed by the canonical JSON of the option they were
+ * parsed from, so options repeated across requests are parsed once.
+ * <p>
+ * The cached builders are shared by all requests using them. The transport client only serializes them, they must not
+ * be modified once cached.
+ */
+class ParsedBuilderCache {
+
+    private final Cache<HashCode, Object> cache;
+    private final ElasticSearchMetrics metrics;
+
+    ParsedBuilderCache(int maxEntries, ElasticSearchMetrics metrics) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+        this.metrics = metrics;
+    }
+
+    AggregationBuilder aggregation(AggregationOption aggregationOption, Function<AggregationOption, AggregationBuilder> parser) {
+        return get(ParsedBuilderType.AGGREGATION, aggregationOption.toJson(), aggregationOption, parser);
+    }
+
+    QueryBuilder query(JsonObject query, Function<JsonObject, QueryBuilder> parser) {
+        return get(ParsedBuilderType.QUERY, query, query, parser);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <O, B> B get(ParsedBuilderType type, Object keyJson, O option, Function<O, B> parser) {
+        final HashCode key = RequestKeys.hash(new JsonArray().add(type.name()).add(keyJson));
+        B builder = (B) cache.getIfPresent(key);
+        final boolean hit = builder != null;
+        if (!hit) {
+            builder = parser.apply(option);
+            cache.put(key, builder);
+        }
+        if (metrics.isEnabled()) {
+            metrics.parsedBuilderCacheAccessed(type, hit);
+        }
+        return builder;
+    }
+}
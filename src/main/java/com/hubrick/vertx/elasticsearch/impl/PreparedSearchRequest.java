@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.util.function.Function;
+
+/**
+ * A search request populated once from a template, copied and bound to the parameters of every execution.
+ * <p>
+ * The copies share the source of the prototype except for the query, post filter and paging, the shared parts are
+ * only serialized by the transport client.
+ */
+final class PreparedSearchRequest {
+
+    private final SearchRequest prototype;
+    private final JsonTemplate query;
+    private final JsonTemplate postFilter;
+    private final QueryBuilder staticQuery;
+    private final QueryBuilder staticPostFilter;
+    private final Boolean includeRawResponse;
+    private final Function<String, QueryBuilder> queryParser;
+
+    /**
+     * @param queryParser turns the bound JSON of the query and post filter into a query builder, queries without
+     *                    parameters are turned once
+     */
+    PreparedSearchRequest(SearchRequest prototype, JsonObject query, JsonObject postFilter, Boolean includeRawResponse, Function<String, QueryBuilder> queryParser) {
+        this.prototype = prototype;
+        this.query = query != null ? new JsonTemplate(query) : null;
+        this.postFilter = postFilter != null ? new JsonTemplate(postFilter) : null;
+        this.staticQuery = this.query != null && !this.query.hasParameters() ? queryParser.apply(this.query.bind(null)) : null;
+        this.staticPostFilter = this.postFilter != null && !this.postFilter.hasParameters() ? queryParser.apply(this.postFilter.bind(null)) : null;
+        this.includeRawResponse = includeRawResponse;
+        this.queryParser = queryParser;
+    }
+
+    Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a parameter is missing
+     * @throws RuntimeException         if the bound query cannot be parsed
+     */
+    SearchRequestBuilder bind(Client client, JsonObject params) {
+        final SearchSourceBuilder prototypeSource = prototype.source() != null ? prototype.source() : new SearchSourceBuilder();
+        final SearchSourceBuilder source = prototypeSource.copyWithNewSlice(prototypeSource.slice());
+        if (query != null) {
+            source.query(staticQuery != null ? staticQuery : queryParser.apply(query.bind(params)));
+        }
+        if (postFilter != null) {
+            source.postFilter(staticPostFilter != null ? staticPostFilter : queryParser.apply(postFilter.bind(params)));
+        }
+        if (params != null) {
+            if (params.getValue(PreparedSearch.PARAM_FROM) != null) source.from(params.getInteger(PreparedSearch.PARAM_FROM));
+            if (params.getValue(PreparedSearch.PARAM_SIZE) != null) source.size(params.getInteger(PreparedSearch.PARAM_SIZE));
+        }
+
+        final SearchRequestBuilder builder = client.prepareSearch(prototype.indices())
+                .setTypes(prototype.types())
+                .setSearchType(prototype.searchType())
+                .setIndicesOptions(prototype.indicesOptions())
+                .setSource(source);
+        if (prototype.routing() != null) builder.setRouting(prototype.routing());
+        if (prototype.preference() != null) builder.setPreference(prototype.preference());
+        if (prototype.scroll() != null) builder.setScroll(prototype.scroll());
+        return builder;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keys identifying equal requests, shared by the caching and coalescing decorators.
+ */
+final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    static JsonArray canonicalIndices(List<String> indices) {
+        final List<String> sorted = new ArrayList<>(indices != null ? indices : Collections.emptyList());
+        Collections.sort(sorted);
+        return new JsonArray(sorted);
+    }
+
+    static HashCode hash(JsonArray keyJson) {
+        return Hashing.murmur3_128().hashString(Json.encode(canonical(keyJson)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sorts the keys of all objects so that equal options hash the same regardless of the order they were set in.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object canonical(Object value) {
+        if (value instanceof JsonObject) {
+            return canonical(((JsonObject) value).getMap());
+        }
+        if (value instanceof Map) {
+            final Map<String, Object> sorted = new TreeMap<>();
+            ((Map<String, Object>) value).forEach((key, entry) -> sorted.put(key, canonical(entry)));
+            return sorted;
+        }
+        if (value instanceof JsonArray) {
+            return canonical(((JsonArray) value).getList());
+        }
+        if (value instanceof List) {
+            final List<Object> list = new ArrayList<>();
+            ((List<Object>) value).forEach(entry -> list.add(canonical(entry)));
+            return list;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
+import com.hubrick.vertx.elasticsearch.RequestPhase;
+import com.hubrick.vertx.elasticsearch.model.AbstractRawResponse;
+import com.hubrick.vertx.elasticsearch.model.AbstractResponse;
+import com.hubrick.vertx.elasticsearch.model.RequestTimings;
+import org.elasticsearch.action.ActionRequest;
+
+/**
+ * Breaks the time spent on a request down into {@link RequestPhase}s. The timings are reported to the metrics and
+ * attached to the response if requested, {@link #DISABLED} measures nothing.
+ * <p>
+ * The phases are marked from the issuing thread, the transport thread and the completing thread in turn, each handing
+ * over to the next through the transport or an executor.
+ */
+class RequestTimer {
+
+    static final RequestTimer DISABLED = new RequestTimer(null, null, false, 0);
+
+    private final ElasticSearchMetrics metrics;
+    private final String operation;
+    private final boolean includeTimings;
+    private final long startNanos;
+    private String index;
+    private long sentNanos;
+    private long receivedNanos;
+    private long mappingStartNanos;
+    private long mappedNanos;
+
+    private RequestTimer(ElasticSearchMetrics metrics, String operation, boolean includeTimings, long startNanos) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.includeTimings = includeTimings;
+        this.startNanos = startNanos;
+    }
+
+    static RequestTimer start(ElasticSearchMetrics metrics, String operation, boolean includeTimings) {
+        if (!metrics.isEnabled() && !includeTimings) {
+            return DISABLED;
+        }
+        return new RequestTimer(metrics, operation, includeTimings, System.nanoTime());
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    /**
+     * The request builder is populated and the request is about to be sent
+     */
+    void sent(ActionRequest request) {
+        if (this != DISABLED) {
+            sentNanos = System.nanoTime();
+            if (metrics.isEnabled()) {
+                index = MetricsListener.index(request);
+            }
+        }
+    }
+
+    /**
+     * The response was received on the transport thread
+     */
+    void received() {
+        if (this != DISABLED) {
+            receivedNanos = System.nanoTime();
+        }
+    }
+
+    void mappingStarted() {
+        if (this != DISABLED) {
+            mappingStartNanos = System.nanoTime();
+        }
+    }
+
+    void mapped() {
+        if (this != DISABLED) {
+            mappedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * The result handler is about to be called with the mapped response
+     */
+    void completing(Object response) {
+        if (this == DISABLED || sentNanos == 0 || mappedNanos == 0) {
+            return;
+        }
+
+        final long buildInNanos = sentNanos - startNanos;
+        final long transportInNanos = receivedNanos - sentNanos;
+        final long mappingInNanos = mappedNanos - mappingStartNanos;
+        final long dispatchInNanos = (mappingStartNanos - receivedNanos) + (System.nanoTime() - mappedNanos);
+
+        if (metrics.isEnabled()) {
+            metrics.requestPhaseCompleted(operation, index, RequestPhase.BUILD, buildInNanos);
+            metrics.requestPhaseCompleted(operation, index, RequestPhase.TRANSPORT, transportInNanos);
+            metrics.requestPhaseCompleted(operation, index, RequestPhase.MAPPING, mappingInNanos);
+            metrics.requestPhaseCompleted(operation, index, RequestPhase.DISPATCH, dispatchInNanos);
+        }
+
+        if (includeTimings) {
+            final RequestTimings timings = new RequestTimings()
+                    .setBuildInNanos(buildInNanos)
+                    .setTransportInNanos(transportInNanos)
+                    .setMappingInNanos(mappingInNanos)
+                    .setDispatchInNanos(dispatchInNanos);
+            if (response instanceof AbstractResponse) {
+                ((AbstractResponse<?>) response).setTimings(timings);
+            } else if (response instanceof AbstractRawResponse) {
+                ((AbstractRawResponse<?>) response).setTimings(timings);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.CompletionMode;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.serviceproxy.ServiceException;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.rest.RestStatus;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Creates the {@link ActionListener}s used to complete ElasticSearch requests according to the configured {@link CompletionMode}.
+ * <p>
+ * The Vert.x context is captured when the listener is created, i.e. on the thread issuing the request. Requests issued
+ * outside of a Vert.x context are completed on the transport thread, or on the mapping pool when one is configured.
+ */
+public class ResponseDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseDispatcher.class);
+
+    private final CompletionMode completionMode;
+    private final ExecutorService mappingPool;
+
+    public ResponseDispatcher(CompletionMode completionMode, int mappingPoolSize, int mappingPoolQueueSize) {
+        this.completionMode = completionMode;
+
+        if (completionMode == CompletionMode.MAPPING_POOL) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    mappingPoolSize,
+                    mappingPoolSize,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(mappingPoolQueueSize),
+                    new MappingThreadFactory()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            this.mappingPool = executor;
+        } else {
+            this.mappingPool = null;
+        }
+    }
+
+    public CompletionMode getCompletionMode() {
+        return completionMode;
+    }
+
+    /**
+     * Create a listener mapping the ElasticSearch response with the mapper and completing the result handler
+     *
+     * @param resultHandler the handler to complete
+     * @param mapper        maps the ElasticSearch response to the service model
+     * @return the listener to pass to the request builder
+     */
+    public <R, T> ActionListener<R> listener(Handler<AsyncResult<T>> resultHandler, Function<R, T> mapper) {
+        return listener(RequestTimer.DISABLED, resultHandler, mapper);
+    }
+
+    /**
+     * Create a listener mapping the ElasticSearch response with the mapper and completing the result handler, marking
+     * the transport, mapping and dispatch phases on the timer
+     */
+    <R, T> ActionListener<R> listener(RequestTimer timer, Handler<AsyncResult<T>> resultHandler, Function<R, T> mapper) {
+        final Context context = completionMode == CompletionMode.TRANSPORT_THREAD ? null : Vertx.currentContext();
+
+        return new ActionListener<R>() {
+            @Override
+            public void onResponse(R response) {
+                timer.received();
+                if (mappingPool != null) {
+                    try {
+                        mappingPool.execute(() -> complete(context, timer, resultHandler, map(timer, mapper, response)));
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        log.debug("Mapping pool saturated, mapping on the caller context");
+                    }
+                }
+
+                if (context == null) {
+                    handle(timer, resultHandler, map(timer, mapper, response));
+                } else {
+                    context.runOnContext(event -> handle(timer, resultHandler, map(timer, mapper, response)));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                complete(context, resultHandler, failure(e));
+            }
+        };
+    }
+
+    /**
+     * Complete the result handler on the given context, or directly if there is none
+     */
+    public <T> void complete(Context context, Handler<AsyncResult<T>> resultHandler, AsyncResult<T> result) {
+        if (context == null) {
+            resultHandler.handle(result);
+        } else {
+            context.runOnContext(event -> resultHandler.handle(result));
+        }
+    }
+
+    private <T> void complete(Context context, RequestTimer timer, Handler<AsyncResult<T>> resultHandler, AsyncResult<T> result) {
+        if (context == null) {
+            handle(timer, resultHandler, result);
+        } else {
+            context.runOnContext(event -> handle(timer, resultHandler, result));
+        }
+    }
+
+    private <T> void handle(RequestTimer timer, Handler<AsyncResult<T>> resultHandler, AsyncResult<T> result) {
+        if (result.succeeded()) {
+            timer.completing(result.result());
+        }
+        resultHandler.handle(result);
+    }
+
+    public void close() {
+        if (mappingPool != null) {
+            mappingPool.shutdown();
+        }
+    }
+
+    private <R, T> AsyncResult<T> map(RequestTimer timer, Function<R, T> mapper, R response) {
+        try {
+            timer.mappingStarted();
+            final T result = mapper.apply(response);
+            timer.mapped();
+            return Future.succeededFuture(result);
+        } catch (RuntimeException e) {
+            return failure(e);
+        }
+    }
+
+    private <T> AsyncResult<T> failure(Throwable t) {
+        log.error("Error occurred in ElasticSearchService", t);
+
+        if (t instanceof ElasticsearchException) {
+            final ElasticsearchException esException = (ElasticsearchException) t;
+            return failure(esException.status(), esException.getDetailedMessage());
+        } else {
+            return Future.failedFuture(t);
+        }
+    }
+
+    /**
+     * Fail with the message of an ElasticSearch failure, shared by failed requests and failed items of a batch
+     */
+    static <T> AsyncResult<T> failure(RestStatus status, String message) {
+        // Rejections keep a failure code surviving the event bus, so callers can tell them apart and retry
+        if (status == RestStatus.TOO_MANY_REQUESTS) {
+            return ServiceException.fail(ElasticSearchService.REJECTED_EXECUTION, message);
+        }
+        return Future.failedFuture(message);
+    }
+
+    private static class MappingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "vert.x-elasticsearch-mapping-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ReadStream} of all hits of a scrolled search.
+ * <p>
+ * The search is started when the handler is set. While the hits of the current page are emitted the next page is already
+ * requested, so at most two pages are held in memory. Pausing the stream stops the emission and, once the prefetched page
+ * arrived, the scrolling. The scroll is cleared when the stream ends, fails or is cancelled by setting a {@code null} handler.
+ * <p>
+ * Responses are handed back to the Vert.x context the stream was created on.
+ */
+public class SearchScrollReadStream implements ReadStream<Hit> {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchScrollReadStream.class);
+
+    public static final String DEFAULT_SCROLL = "1m";
+
+    private final ElasticSearchService elasticSearchService;
+    private final List<String> indices;
+    private final SearchOptions searchOptions;
+    private final String scroll;
+    private final Context context;
+
+    private final Deque<Hit> pending = new ArrayDeque<>();
+    private List<Hit> prefetched;
+    private String scrollId;
+    private long received;
+
+    private Handler<Hit> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    private boolean started;
+    private boolean paused;
+    private boolean fetching;
+    private boolean exhausted;
+    private boolean closed;
+    private boolean emitting;
+
+    public SearchScrollReadStream(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions options) {
+        checkNotNull(elasticSearchService, "elasticSearchService must not be null");
+        checkNotNull(indices, "indices must not be null");
+
+        this.elasticSearchService = elasticSearchService;
+        this.indices = indices;
+        this.scroll = options != null && options.getScroll() != null ? options.getScroll() : DEFAULT_SCROLL;
+        this.searchOptions = (options != null ? new SearchOptions(options) : new SearchOptions())
+                .setScroll(scroll)
+                .setIncludeRawResponse(false);
+        this.context = Vertx.currentContext();
+    }
+
+    @Override
+    public SearchScrollReadStream exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public SearchScrollReadStream handler(Handler<Hit> handler) {
+        this.handler = handler;
+        if (handler == null) {
+            close();
+        } else if (!started) {
+            started = true;
+            fetching = true;
+            elasticSearchService.search(indices, searchOptions, onContext(this::handlePage));
+        }
+        return this;
+    }
+
+    @Override
+    public SearchScrollReadStream pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public SearchScrollReadStream resume() {
+        paused = false;
+        emit();
+        return this;
+    }
+
+    @Override
+    public SearchScrollReadStream endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void handlePage(AsyncResult<SearchResponse> result) {
+        fetching = false;
+        if (closed) {
+            // Cancelled while the page was in flight
+            clearScroll(result.succeeded() ? result.result().getScrollId() : scrollId);
+            return;
+        }
+        if (result.failed()) {
+            fail(result.cause());
+            return;
+        }
+
+        final SearchResponse searchResponse = result.result();
+        scrollId = searchResponse.getScrollId();
+
+        final List<Hit> hits = searchResponse.getHits() != null ? searchResponse.getHits().getHits() : Collections.emptyList();
+        final Long total = searchResponse.getHits() != null ? searchResponse.getHits().getTotal() : null;
+        received += hits.size();
+        if (hits.isEmpty() || (total != null && received >= total)) {
+            exhausted = true;
+        }
+
+        if (pending.isEmpty()) {
+            pending.addAll(hits);
+            fetchNext();
+        } else {
+            prefetched = hits;
+        }
+        emit();
+    }
+
+    private void fetchNext() {
+        if (exhausted || fetching || closed || prefetched != null) {
+            return;
+        }
+        fetching = true;
+        elasticSearchService.searchScroll(
+                scrollId,
+                new SearchScrollOptions().setScroll(scroll).setIncludeRawResponse(false),
+                onContext(this::handlePage)
+        );
+    }
+
+    private void emit() {
+        if (emitting) {
+            return;
+        }
+        emitting = true;
+        try {
+            while (!closed && !paused) {
+                if (pending.isEmpty()) {
+                    if (prefetched == null) {
+                        break;
+                    }
+                    pending.addAll(prefetched);
+                    prefetched = null;
+                    fetchNext();
+                    continue;
+                }
+                handler.handle(pending.poll());
+            }
+        } finally {
+            emitting = false;
+        }
+
+        if (!closed && pending.isEmpty() && prefetched == null && exhausted && !fetching) {
+            close();
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+        }
+    }
+
+    private void fail(Throwable cause) {
+        close();
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        } else {
+            log.error("Scrolling the search failed", cause);
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        prefetched = null;
+        if (!fetching) {
+            clearScroll(scrollId);
+        }
+    }
+
+    private void clearScroll(String scrollId) {
+        if (scrollId != null) {
+            elasticSearchService.clearScroll(Collections.singletonList(scrollId), result -> {
+                if (result.failed()) {
+                    log.warn("Failed to clear scroll " + scrollId, result.cause());
+                }
+            });
+        }
+    }
+
+    private <T> Handler<AsyncResult<T>> onContext(Handler<AsyncResult<T>> handler) {
+        return result -> {
+            if (context == null || Vertx.currentContext() == context) {
+                handler.handle(result);
+            } else {
+                context.runOnContext(v -> handler.handle(result));
+            }
+        };
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SliceOption;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link ReadStream} of all hits of a sliced scroll.
+ * <p>
+ * The search is split into {@code slices} slices, each scrolled by its own {@link SearchScrollReadStream}. Up to
+ * {@code parallelism} slices are scrolled at the same time and the next slice is started as soon as one is exhausted.
+ * Hits are merged as they arrive, or slice by slice when {@code ordered} is set. Once {@code maxBufferedHits} hits are
+ * buffered over all slices the slice streams are paused, every slice stream additionally holds at most one prefetched page.
+ * <p>
+ * Every scroll context is cleared when its slice ends, the stream fails or is cancelled by setting a {@code null} handler.
+ */
+public class SlicedSearchScrollReadStream implements ReadStream<Hit> {
+
+    private static final Logger log = LoggerFactory.getLogger(SlicedSearchScrollReadStream.class);
+
+    private final ElasticSearchService elasticSearchService;
+    private final List<String> indices;
+    private final SearchOptions searchOptions;
+    private final int slices;
+    private final int parallelism;
+    private final boolean ordered;
+    private final int maxBufferedHits;
+    private final String field;
+
+    private final List<Slice> running = new ArrayList<>();
+    private int nextSliceId;
+    private int nextSource;
+    private int buffered;
+
+    private Handler<Hit> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    private boolean started;
+    private boolean paused;
+    private boolean closed;
+    private boolean emitting;
+
+    public SlicedSearchScrollReadStream(ElasticSearchService elasticSearchService, List<String> indices, SearchOptions options, SlicedScrollOptions slicedScrollOptions) {
+        checkNotNull(elasticSearchService, "elasticSearchService must not be null");
+        checkNotNull(indices, "indices must not be null");
+        checkNotNull(slicedScrollOptions, "slicedScrollOptions must not be null");
+        checkArgument(slicedScrollOptions.getSlices() != null && slicedScrollOptions.getSlices() > 0, "slices must be greater than 0");
+        checkArgument(slicedScrollOptions.getParallelism() == null || slicedScrollOptions.getParallelism() > 0, "parallelism must be greater than 0");
+        checkArgument(slicedScrollOptions.getMaxBufferedHits() == null || slicedScrollOptions.getMaxBufferedHits() > 0, "maxBufferedHits must be greater than 0");
+
+        this.elasticSearchService = elasticSearchService;
+        this.indices = indices;
+        this.searchOptions = options != null ? options : new SearchOptions();
+        this.slices = slicedScrollOptions.getSlices();
+        this.parallelism = slicedScrollOptions.getParallelism() != null ? slicedScrollOptions.getParallelism() : slices;
+        this.ordered = Boolean.TRUE.equals(slicedScrollOptions.getOrdered());
+        this.maxBufferedHits = slicedScrollOptions.getMaxBufferedHits() != null ? slicedScrollOptions.getMaxBufferedHits() : SlicedScrollOptions.DEFAULT_MAX_BUFFERED_HITS;
+        this.field = slicedScrollOptions.getField();
+    }
+
+    @Override
+    public SlicedSearchScrollReadStream exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public SlicedSearchScrollReadStream handler(Handler<Hit> handler) {
+        this.handler = handler;
+        if (handler == null) {
+            close();
+        } else if (!started) {
+            started = true;
+            startSlices();
+        }
+        return this;
+    }
+
+    @Override
+    public SlicedSearchScrollReadStream pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public SlicedSearchScrollReadStream resume() {
+        paused = false;
+        emit();
+        return this;
+    }
+
+    @Override
+    public SlicedSearchScrollReadStream endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void startSlices() {
+        while (!closed && nextSliceId < slices && scrollingSlices() < parallelism) {
+            final Slice slice = new Slice(nextSliceId++);
+            running.add(slice);
+            slice.start();
+        }
+    }
+
+    private int scrollingSlices() {
+        int scrolling = 0;
+        for (Slice slice : running) {
+            if (!slice.ended) {
+                scrolling++;
+            }
+        }
+        return scrolling;
+    }
+
+    private void emit() {
+        if (emitting) {
+            return;
+        }
+        emitting = true;
+        try {
+            while (!closed && !paused) {
+                removeFinishedSlices();
+                final Slice source = nextSource();
+                if (source == null) {
+                    break;
+                }
+                buffered--;
+                handler.handle(source.hits.poll());
+            }
+            removeFinishedSlices();
+        } finally {
+            emitting = false;
+        }
+
+        if (closed) {
+            return;
+        }
+        if (nextSliceId >= slices && running.isEmpty()) {
+            closed = true;
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+        } else {
+            startSlices();
+            updateFlowControl();
+        }
+    }
+
+    private void removeFinishedSlices() {
+        final Iterator<Slice> iterator = running.iterator();
+        while (iterator.hasNext()) {
+            final Slice slice = iterator.next();
+            if (slice.ended && slice.hits.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private Slice nextSource() {
+        if (running.isEmpty()) {
+            return null;
+        }
+        if (ordered) {
+            final Slice head = running.get(0);
+            return head.hits.isEmpty() ? null : head;
+        }
+
+        // Round robin, so a fast slice can't starve the others
+        for (int i = 0; i < running.size(); i++) {
+            final Slice slice = running.get((nextSource + i) % running.size());
+            if (!slice.hits.isEmpty()) {
+                nextSource = (nextSource + i + 1) % running.size();
+                return slice;
+            }
+        }
+        return null;
+    }
+
+    private void updateFlowControl() {
+        final boolean full = buffered >= maxBufferedHits;
+        for (Slice slice : new ArrayList<>(running)) {
+            // In ordered mode the head slice has to keep going, otherwise a full buffer of later slices blocks the stream
+            final boolean throttle = full && !(ordered && !paused && slice == running.get(0));
+            slice.throttle(throttle);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (closed) {
+            return;
+        }
+        close();
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        } else {
+            log.error("Scrolling the sliced search failed", cause);
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Slice slice : running) {
+            if (!slice.ended) {
+                slice.stream.handler(null);
+            }
+        }
+        running.clear();
+        buffered = 0;
+    }
+
+    private class Slice {
+
+        private final int id;
+        private final Deque<Hit> hits = new ArrayDeque<>();
+        private ReadStream<Hit> stream;
+        private boolean ended;
+        private boolean throttled;
+
+        private Slice(int id) {
+            this.id = id;
+        }
+
+        private void start() {
+            final SearchOptions sliceOptions = new SearchOptions(searchOptions);
+            if (slices > 1) {
+                sliceOptions.setSlice(new SliceOption().setId(id).setMax(slices).setField(field));
+            }
+
+            stream = new SearchScrollReadStream(elasticSearchService, indices, sliceOptions);
+            stream.exceptionHandler(SlicedSearchScrollReadStream.this::fail);
+            stream.endHandler(end -> {
+                ended = true;
+                emit();
+            });
+            stream.handler(hit -> {
+                hits.add(hit);
+                buffered++;
+                emit();
+            });
+        }
+
+        private void throttle(boolean throttle) {
+            if (ended || throttle == throttled) {
+                return;
+            }
+            throttled = throttle;
+            if (throttle) {
+                stream.pause();
+            } else {
+                stream.resume();
+            }
+        }
+    }
+}
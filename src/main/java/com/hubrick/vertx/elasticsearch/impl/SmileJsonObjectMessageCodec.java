@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+
+/**
+ * Event bus codec sending {@link JsonObject} messages as SMILE instead of JSON text.
+ * <p>
+ * Both the sending and the receiving side need the codec registered, see {@link EventBusCodecs}.
+ * Local deliveries copy the message like the default JSON codec and never touch the wire format.
+ */
+public class SmileJsonObjectMessageCodec implements MessageCodec<JsonObject, JsonObject> {
+
+    public static final String CODEC_NAME = "elasticsearch.smile";
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    @Override
+    public void encodeToWire(Buffer buffer, JsonObject jsonObject) {
+        final byte[] bytes;
+        try {
+            bytes = MAPPER.writeValueAsBytes(jsonObject.getMap());
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as SMILE: " + e.getMessage());
+        }
+        buffer.appendInt(bytes.length);
+        buffer.appendBytes(bytes);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonObject decodeFromWire(int pos, Buffer buffer) {
+        final int length = buffer.getInt(pos);
+        final int start = pos + 4;
+        try {
+            return new JsonObject(MAPPER.readValue(buffer.getBytes(start, start + length), Map.class));
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode SMILE: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public JsonObject transform(JsonObject jsonObject) {
+        return jsonObject.copy();
+    }
+
+    @Override
+    public String name() {
+        return CODEC_NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    private static ObjectMapper createMapper() {
+        final SimpleModule module = new SimpleModule();
+        module.addSerializer(JsonObject.class, new JsonSerializer<JsonObject>() {
+            @Override
+            public void serialize(JsonObject value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeObject(value.getMap());
+            }
+        });
+        module.addSerializer(JsonArray.class, new JsonSerializer<JsonArray>() {
+            @Override
+            public void serialize(JsonArray value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeObject(value.getList());
+            }
+        });
+        module.addSerializer(Instant.class, new JsonSerializer<Instant>() {
+            @Override
+            public void serialize(Instant value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeString(ISO_INSTANT.format(value));
+            }
+        });
+
+        final ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        mapper.registerModule(module);
+        return mapper;
+    }
+}
@@ -24,18 +24,25 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public abstract class AbstractRawResponse<T extends AbstractRawResponse<T>> {
 
     private JsonObject rawResponse;
+    private RequestTimings timings;
 
     public static final String JSON_FIELD_RAW_RESPONSE = "rawResponse";
+    public static final String JSON_FIELD_TIMINGS = "timings";
 
     protected AbstractRawResponse() {
     }
 
     public AbstractRawResponse(AbstractRawResponse other) {
         this.rawResponse = other.getRawResponse();
+        this.timings = other.getTimings();
     }
 
     public AbstractRawResponse(JsonObject json) {
         this.rawResponse = json.getJsonObject(JSON_FIELD_RAW_RESPONSE);
+        final JsonObject jsonTimings = json.getJsonObject(JSON_FIELD_TIMINGS);
+        if (jsonTimings != null) {
+            this.timings = new RequestTimings(jsonTimings);
+        }
     }
 
     public JsonObject getRawResponse() {
@@ -47,11 +54,24 @@ public abstract class AbstractRawResponse<T extends AbstractRawResponse<T>> {
         return returnThis();
     }
 
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * The time spent in each phase of the request, only set when the service is configured to include timings
+     */
+    public T setTimings(RequestTimings timings) {
+        this.timings = timings;
+        return returnThis();
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
 
         if (rawResponse != null) json.put(JSON_FIELD_RAW_RESPONSE, rawResponse);
+        if (timings != null) json.put(JSON_FIELD_TIMINGS, timings.toJson());
 
         return json;
     }
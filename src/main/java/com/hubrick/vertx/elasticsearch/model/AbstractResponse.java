@@ -24,14 +24,17 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public abstract class AbstractResponse<T extends AbstractResponse<T>> {
 
     private Shards shards;
+    private RequestTimings timings;
 
     public static final String JSON_FIELD_SHARDS = "shards";
+    public static final String JSON_FIELD_TIMINGS = "timings";
 
     protected AbstractResponse() {
     }
 
     public AbstractResponse(AbstractResponse other) {
         this.shards = other.getShards();
+        this.timings = other.getTimings();
     }
 
     public AbstractResponse(JsonObject json) {
@@ -40,6 +43,10 @@ public abstract class AbstractResponse<T extends AbstractResponse<T>> {
         if (jsonShards != null) {
             this.shards = new Shards(jsonShards);
         }
+        final JsonObject jsonTimings = json.getJsonObject(JSON_FIELD_TIMINGS);
+        if (jsonTimings != null) {
+            this.timings = new RequestTimings(jsonTimings);
+        }
     }
 
     public Shards getShards() {
@@ -51,11 +58,24 @@ public abstract class AbstractResponse<T extends AbstractResponse<T>> {
         return returnThis();
     }
 
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * The time spent in each phase of the request, only set when the service is configured to include timings
+     */
+    public T setTimings(RequestTimings timings) {
+        this.timings = timings;
+        return returnThis();
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
 
         if (shards != null) json.put(JSON_FIELD_SHARDS, shards.toJson());
+        if (timings != null) json.put(JSON_FIELD_TIMINGS, timings.toJson());
 
         return json;
     }
@@ -40,6 +40,7 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
     private String preference;
     private JsonObject query;
     private JsonObject postFilter;
+    private JsonObject source;
     private Float minScore;
     private Integer size;
     private Integer from;
@@ -55,6 +56,11 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
     private List<String> storedFields = new ArrayList<>();
     private IndicesOptions indicesOptions;
     private Map<String, BaseSuggestOption> suggestions = new HashMap<>();
+    private SliceOption slice;
+    private JsonArray searchAfter;
+    private Boolean includeRawResponse;
+    private Boolean cacheable;
+    private Long cacheTtlInMillis;
 
     public static final String JSON_FIELD_TYPES = "types";
     public static final String JSON_FIELD_SEARCH_TYPE = "searchType";
@@ -65,6 +71,7 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
     public static final String JSON_FIELD_PREFERENCE = "preference";
     public static final String JSON_FIELD_QUERY = "query";
     public static final String JSON_FIELD_POST_FILTER = "postFilter";
+    public static final String JSON_FIELD_SOURCE = "source";
     public static final String JSON_FIELD_MIN_SCORE = "minScore";
     public static final String JSON_FIELD_SIZE = "size";
     public static final String JSON_FIELD_FROM = "from";
@@ -80,6 +87,11 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
     public static final String JSON_FIELD_STORED_FIELDS = "storedFields";
     public static final String JSON_FIELD_INDICES_OPTIONS = "indicesOptions";
     public static final String JSON_FIELD_SUGGESTIONS = "suggestions";
+    public static final String JSON_FIELD_SLICE = "slice";
+    public static final String JSON_FIELD_SEARCH_AFTER = "searchAfter";
+    public static final String JSON_FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
+    public static final String JSON_FIELD_CACHEABLE = "cacheable";
+    public static final String JSON_FIELD_CACHE_TTL_IN_MILLIS = "cacheTtlInMillis";
 
     public AbstractSearchOptions() {
     }
@@ -94,6 +106,7 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         preference = other.getPreference();
         query = other.getQuery();
         postFilter = other.getPostFilter();
+        source = other.getSource();
         minScore = other.getMinScore();
         size = other.getSize();
         from = other.getFrom();
@@ -109,6 +122,11 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         storedFields = other.getStoredFields();
         indicesOptions = other.getIndicesOptions();
         suggestions = other.getSuggestions();
+        slice = other.getSlice();
+        searchAfter = other.getSearchAfter();
+        includeRawResponse = other.isIncludeRawResponse();
+        cacheable = other.isCacheable();
+        cacheTtlInMillis = other.getCacheTtlInMillis();
     }
 
     public AbstractSearchOptions(JsonObject json) {
@@ -121,6 +139,7 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         preference = json.getString(JSON_FIELD_PREFERENCE);
         query = json.getJsonObject(JSON_FIELD_QUERY);
         postFilter = json.getJsonObject(JSON_FIELD_POST_FILTER);
+        source = json.getJsonObject(JSON_FIELD_SOURCE);
         minScore = json.getFloat(JSON_FIELD_MIN_SCORE);
         size = json.getInteger(JSON_FIELD_SIZE);
         from = json.getInteger(JSON_FIELD_FROM);
@@ -132,6 +151,11 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         trackScores = json.getBoolean(JSON_FIELD_TRACK_SCORES);
         storedFields = json.getJsonArray(JSON_FIELD_STORED_FIELDS, new JsonArray()).getList();
         indicesOptions = Optional.ofNullable(json.getJsonObject(JSON_FIELD_INDICES_OPTIONS)).map(IndicesOptions::new).orElse(null);
+        slice = Optional.ofNullable(json.getJsonObject(JSON_FIELD_SLICE)).map(SliceOption::new).orElse(null);
+        searchAfter = json.getJsonArray(JSON_FIELD_SEARCH_AFTER);
+        includeRawResponse = json.getBoolean(JSON_FIELD_INCLUDE_RAW_RESPONSE);
+        cacheable = json.getBoolean(JSON_FIELD_CACHEABLE);
+        cacheTtlInMillis = json.getLong(JSON_FIELD_CACHE_TTL_IN_MILLIS);
 
         JsonArray aggregationsJson = json.getJsonArray(JSON_FIELD_AGGREGATIONS);
         if (aggregationsJson != null) {
@@ -190,6 +214,18 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         return returnThis();
     }
 
+    public JsonObject getSource() {
+        return source;
+    }
+
+    /**
+     * A complete search request body in the query DSL, parsed on the client. The other options are applied on top of it.
+     */
+    public T setSource(JsonObject source) {
+        this.source = source;
+        return returnThis();
+    }
+
     public List<AggregationOption> getAggregations() {
         return aggregations;
     }
@@ -418,6 +454,61 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         return returnThis();
     }
 
+    public SliceOption getSlice() {
+        return slice;
+    }
+
+    public T setSlice(SliceOption slice) {
+        this.slice = slice;
+        return returnThis();
+    }
+
+    public JsonArray getSearchAfter() {
+        return searchAfter;
+    }
+
+    /**
+     * Continues the search after the hit with the given sort values, see {@link Hit#getSortValues()}. Requires a sort
+     * which is unique per document, {@code from} has to be unset or 0.
+     */
+    public T setSearchAfter(JsonArray searchAfter) {
+        this.searchAfter = searchAfter;
+        return returnThis();
+    }
+
+    public Boolean isIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public T setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return returnThis();
+    }
+
+    public Boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Allows the response to be served from and stored in the search cache, if the service has one. Defaults to false.
+     */
+    public T setCacheable(Boolean cacheable) {
+        this.cacheable = cacheable;
+        return returnThis();
+    }
+
+    public Long getCacheTtlInMillis() {
+        return cacheTtlInMillis;
+    }
+
+    /**
+     * How long a cached response stays valid. Defaults to the TTL of the search cache.
+     */
+    public T setCacheTtlInMillis(Long cacheTtlInMillis) {
+        this.cacheTtlInMillis = cacheTtlInMillis;
+        return returnThis();
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
@@ -431,6 +522,7 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         if (preference != null) json.put(JSON_FIELD_PREFERENCE, preference);
         if (query != null) json.put(JSON_FIELD_QUERY, query);
         if (postFilter != null) json.put(JSON_FIELD_POST_FILTER, postFilter);
+        if (source != null) json.put(JSON_FIELD_SOURCE, source);
         if (minScore != null) json.put(JSON_FIELD_MIN_SCORE, minScore);
         if (size != null) json.put(JSON_FIELD_SIZE, size);
         if (from != null) json.put(JSON_FIELD_FROM, from);
@@ -443,6 +535,11 @@ public abstract class AbstractSearchOptions<T extends AbstractSearchOptions<T>>
         if (explain != null) json.put(JSON_FIELD_EXPLAIN, explain);
         if (!storedFields.isEmpty()) json.put(JSON_FIELD_STORED_FIELDS, new JsonArray(storedFields));
         if (indicesOptions != null) json.put(JSON_FIELD_INDICES_OPTIONS, indicesOptions.toJson());
+        if (slice != null) json.put(JSON_FIELD_SLICE, slice.toJson());
+        if (searchAfter != null) json.put(JSON_FIELD_SEARCH_AFTER, searchAfter);
+        if (includeRawResponse != null) json.put(JSON_FIELD_INCLUDE_RAW_RESPONSE, includeRawResponse);
+        if (cacheable != null) json.put(JSON_FIELD_CACHEABLE, cacheable);
+        if (cacheTtlInMillis != null) json.put(JSON_FIELD_CACHE_TTL_IN_MILLIS, cacheTtlInMillis);
 
         if (aggregations != null && !aggregations.isEmpty()) {
             JsonArray aggregationArray = new JsonArray();
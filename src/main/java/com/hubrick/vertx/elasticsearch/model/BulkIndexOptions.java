@@ -32,11 +32,13 @@ public class BulkIndexOptions {
     public static final String JSON_FIELD_TYPE = "type";
     public static final String JSON_FIELD_SOURCE = "source";
     public static final String JSON_FIELD_INDEX_OPTIONS = "indexOptions";
+    public static final String JSON_FIELD_RAW_SOURCE = "rawSource";
 
     private String index;
     private String type;
     private JsonObject source;
     private IndexOptions indexOptions;
+    private RawSource rawSource;
 
     public BulkIndexOptions() {
     }
@@ -46,6 +48,7 @@ public class BulkIndexOptions {
         this.type = json.getString(JSON_FIELD_TYPE);
         this.source = json.getJsonObject(JSON_FIELD_SOURCE);
         this.indexOptions = Optional.ofNullable(json.getJsonObject(JSON_FIELD_INDEX_OPTIONS)).map(IndexOptions::new).orElse(null);
+        this.rawSource = Optional.ofNullable(json.getJsonObject(JSON_FIELD_RAW_SOURCE)).map(RawSource::new).orElse(null);
     }
 
     public String getIndex() {
@@ -84,6 +87,18 @@ public class BulkIndexOptions {
         return this;
     }
 
+    public RawSource getRawSource() {
+        return rawSource;
+    }
+
+    /**
+     * An already encoded source, indexed instead of {@code source}
+     */
+    public BulkIndexOptions setRawSource(RawSource rawSource) {
+        this.rawSource = rawSource;
+        return this;
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
@@ -92,6 +107,7 @@ public class BulkIndexOptions {
         if (type != null) json.put(JSON_FIELD_TYPE, type);
         if (source != null) json.put(JSON_FIELD_SOURCE, source);
         if (indexOptions != null) json.put(JSON_FIELD_INDEX_OPTIONS, indexOptions.toJson());
+        if (rawSource != null) json.put(JSON_FIELD_RAW_SOURCE, rawSource.toJson());
 
         return json;
     }
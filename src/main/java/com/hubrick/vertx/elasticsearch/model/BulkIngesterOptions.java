@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Optional;
+
+/**
+ * Bulk ingester options
+ */
+@DataObject
+public class BulkIngesterOptions {
+
+    public static final int DEFAULT_MAX_ACTIONS = 1000;
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 5 * 1024 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_IN_MILLIS = 1000;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 1;
+    public static final long DEFAULT_INITIAL_BACKOFF_IN_MILLIS = 50;
+    public static final int DEFAULT_MAX_RETRIES = 8;
+
+    private static final String JSON_FIELD_MAX_ACTIONS = "maxActions";
+    private static final String JSON_FIELD_MAX_SIZE_IN_BYTES = "maxSizeInBytes";
+    private static final String JSON_FIELD_FLUSH_INTERVAL_IN_MILLIS = "flushIntervalInMillis";
+    private static final String JSON_FIELD_MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+    private static final String JSON_FIELD_INITIAL_BACKOFF_IN_MILLIS = "initialBackoffInMillis";
+    private static final String JSON_FIELD_MAX_RETRIES = "maxRetries";
+    private static final String JSON_FIELD_BULK_OPTIONS = "bulkOptions";
+
+    private Integer maxActions;
+    private Long maxSizeInBytes;
+    private Long flushIntervalInMillis;
+    private Integer maxConcurrentRequests;
+    private Long initialBackoffInMillis;
+    private Integer maxRetries;
+    private BulkOptions bulkOptions;
+
+    public BulkIngesterOptions() {
+    }
+
+    public BulkIngesterOptions(BulkIngesterOptions other) {
+        this.maxActions = other.getMaxActions();
+        this.maxSizeInBytes = other.getMaxSizeInBytes();
+        this.flushIntervalInMillis = other.getFlushIntervalInMillis();
+        this.maxConcurrentRequests = other.getMaxConcurrentRequests();
+        this.initialBackoffInMillis = other.getInitialBackoffInMillis();
+        this.maxRetries = other.getMaxRetries();
+        this.bulkOptions = other.getBulkOptions();
+    }
+
+    public BulkIngesterOptions(JsonObject json) {
+        this.maxActions = json.getInteger(JSON_FIELD_MAX_ACTIONS);
+        this.maxSizeInBytes = json.getLong(JSON_FIELD_MAX_SIZE_IN_BYTES);
+        this.flushIntervalInMillis = json.getLong(JSON_FIELD_FLUSH_INTERVAL_IN_MILLIS);
+        this.maxConcurrentRequests = json.getInteger(JSON_FIELD_MAX_CONCURRENT_REQUESTS);
+        this.initialBackoffInMillis = json.getLong(JSON_FIELD_INITIAL_BACKOFF_IN_MILLIS);
+        this.maxRetries = json.getInteger(JSON_FIELD_MAX_RETRIES);
+        this.bulkOptions = Optional.ofNullable(json.getJsonObject(JSON_FIELD_BULK_OPTIONS)).map(BulkOptions::new).orElse(null);
+    }
+
+    public Integer getMaxActions() {
+        return maxActions;
+    }
+
+    /**
+     * The number of actions which triggers a flush, defaults to 1000
+     */
+    public BulkIngesterOptions setMaxActions(Integer maxActions) {
+        this.maxActions = maxActions;
+        return this;
+    }
+
+    public Long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    /**
+     * The estimated request size which triggers a flush, defaults to 5mb
+     */
+    public BulkIngesterOptions setMaxSizeInBytes(Long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        return this;
+    }
+
+    public Long getFlushIntervalInMillis() {
+        return flushIntervalInMillis;
+    }
+
+    /**
+     * The interval pending actions are flushed in regardless of their number and size, defaults to 1s, 0 disables it
+     */
+    public BulkIngesterOptions setFlushIntervalInMillis(Long flushIntervalInMillis) {
+        this.flushIntervalInMillis = flushIntervalInMillis;
+        return this;
+    }
+
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * The number of bulk requests in flight at the same time, defaults to 1. Further batches wait until one completes.
+     */
+    public BulkIngesterOptions setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    public Long getInitialBackoffInMillis() {
+        return initialBackoffInMillis;
+    }
+
+    /**
+     * The delay before rejected actions are retried the first time, doubled with every further retry. Defaults to 50ms.
+     */
+    public BulkIngesterOptions setInitialBackoffInMillis(Long initialBackoffInMillis) {
+        this.initialBackoffInMillis = initialBackoffInMillis;
+        return this;
+    }
+
+    public Integer getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * The number of times rejected actions are retried, defaults to 8
+     */
+    public BulkIngesterOptions setMaxRetries(Integer maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    public BulkOptions getBulkOptions() {
+        return bulkOptions;
+    }
+
+    /**
+     * The options of every bulk request sent
+     */
+    public BulkIngesterOptions setBulkOptions(BulkOptions bulkOptions) {
+        this.bulkOptions = bulkOptions;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (maxActions != null) json.put(JSON_FIELD_MAX_ACTIONS, maxActions);
+        if (maxSizeInBytes != null) json.put(JSON_FIELD_MAX_SIZE_IN_BYTES, maxSizeInBytes);
+        if (flushIntervalInMillis != null) json.put(JSON_FIELD_FLUSH_INTERVAL_IN_MILLIS, flushIntervalInMillis);
+        if (maxConcurrentRequests != null) json.put(JSON_FIELD_MAX_CONCURRENT_REQUESTS, maxConcurrentRequests);
+        if (initialBackoffInMillis != null) json.put(JSON_FIELD_INITIAL_BACKOFF_IN_MILLIS, initialBackoffInMillis);
+        if (maxRetries != null) json.put(JSON_FIELD_MAX_RETRIES, maxRetries);
+        if (bulkOptions != null) json.put(JSON_FIELD_BULK_OPTIONS, bulkOptions.toJson());
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -24,20 +24,41 @@ import io.vertx.core.json.JsonObject;
 @DataObject
 public class BulkOptions extends AbstractWriteOptions<BulkOptions> {
 
+    private Boolean includeRawResponse;
+
+    public static final String FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
+
     public BulkOptions() {
     }
 
     public BulkOptions(BulkOptions other) {
         super(other);
+
+        includeRawResponse = other.getIncludeRawResponse();
     }
 
     public BulkOptions(JsonObject json) {
         super(json);
+
+        includeRawResponse = json.getBoolean(FIELD_INCLUDE_RAW_RESPONSE);
+    }
+
+    public Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public BulkOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
     }
 
     @Override
     public JsonObject toJson() {
-        return super.toJson();
+        JsonObject json = super.toJson();
+
+        if (getIncludeRawResponse() != null) json.put(FIELD_INCLUDE_RAW_RESPONSE, getIncludeRawResponse());
+
+        return json;
     }
 
 }
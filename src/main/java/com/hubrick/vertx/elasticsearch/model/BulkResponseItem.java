@@ -35,6 +35,7 @@ public class BulkResponseItem {
     public static final String JSON_FIELD_OP_TYPE = "opType";
     public static final String JSON_FIELD_FAILURE = "failure";
     public static final String JSON_FIELD_FAILURE_MESSAGE = "failureMessage";
+    public static final String JSON_FIELD_STATUS = "status";
 
     private String id;
     private Shards shards;
@@ -43,18 +44,20 @@ public class BulkResponseItem {
     private OpType opType;
     private JsonObject failure = new JsonObject();
     private String failureMessage;
+    private Integer status;
 
     public BulkResponseItem() {
     }
 
     public BulkResponseItem(JsonObject json) {
         this.id = json.getString(JSON_FIELD_ID);
-        this.shards = new Shards(json.getJsonObject(JSON_FIELD_SHARDS));
+        this.shards = Optional.ofNullable(json.getJsonObject(JSON_FIELD_SHARDS)).map(Shards::new).orElse(null);
         this.index = json.getString(JSON_FIELD_INDEX);
         this.type = json.getString(JSON_FIELD_TYPE);
         this.opType = Optional.ofNullable(json.getString(JSON_FIELD_OP_TYPE)).map(OpType::valueOf).orElse(null);
         this.failure = json.getJsonObject(JSON_FIELD_FAILURE);
         this.failureMessage = json.getString(JSON_FIELD_FAILURE_MESSAGE);
+        this.status = json.getInteger(JSON_FIELD_STATUS);
     }
 
     public String getId() {
@@ -113,6 +116,17 @@ public class BulkResponseItem {
         this.failureMessage = failureMessage;
     }
 
+    /**
+     * @return the HTTP status of the item, e.g. 429 if the item was rejected because the write queue was full
+     */
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
@@ -124,6 +138,7 @@ public class BulkResponseItem {
         if (opType != null) json.put(JSON_FIELD_OP_TYPE, opType.name());
         if (failure != null) json.put(JSON_FIELD_FAILURE, failure);
         if (failureMessage != null) json.put(JSON_FIELD_FAILURE_MESSAGE, failureMessage);
+        if (status != null) json.put(JSON_FIELD_STATUS, status);
 
         return json;
     }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Request coalescing options
+ */
+@DataObject
+public class CoalescingOptions {
+
+    public static final boolean DEFAULT_COALESCE_GETS = true;
+    public static final boolean DEFAULT_COALESCE_SEARCHES = true;
+
+    private static final String JSON_FIELD_COALESCE_GETS = "coalesceGets";
+    private static final String JSON_FIELD_COALESCE_SEARCHES = "coalesceSearches";
+
+    private Boolean coalesceGets;
+    private Boolean coalesceSearches;
+
+    public CoalescingOptions() {
+    }
+
+    public CoalescingOptions(CoalescingOptions other) {
+        this.coalesceGets = other.getCoalesceGets();
+        this.coalesceSearches = other.getCoalesceSearches();
+    }
+
+    public CoalescingOptions(JsonObject json) {
+        this.coalesceGets = json.getBoolean(JSON_FIELD_COALESCE_GETS);
+        this.coalesceSearches = json.getBoolean(JSON_FIELD_COALESCE_SEARCHES);
+    }
+
+    public Boolean getCoalesceGets() {
+        return coalesceGets;
+    }
+
+    /**
+     * Whether identical gets in flight at the same time share one request, defaults to true
+     */
+    public CoalescingOptions setCoalesceGets(Boolean coalesceGets) {
+        this.coalesceGets = coalesceGets;
+        return this;
+    }
+
+    public Boolean getCoalesceSearches() {
+        return coalesceSearches;
+    }
+
+    /**
+     * Whether identical searches in flight at the same time share one request, defaults to true. Scroll searches are
+     * never coalesced.
+     */
+    public CoalescingOptions setCoalesceSearches(Boolean coalesceSearches) {
+        this.coalesceSearches = coalesceSearches;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (coalesceGets != null) json.put(JSON_FIELD_COALESCE_GETS, coalesceGets);
+        if (coalesceSearches != null) json.put(JSON_FIELD_COALESCE_SEARCHES, coalesceSearches);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
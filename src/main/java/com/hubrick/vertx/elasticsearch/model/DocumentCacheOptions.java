@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Document cache options
+ */
+@DataObject
+public class DocumentCacheOptions {
+
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_TTL_IN_MILLIS = 60000;
+
+    private static final String JSON_FIELD_MAX_SIZE_IN_BYTES = "maxSizeInBytes";
+    private static final String JSON_FIELD_TTL_IN_MILLIS = "ttlInMillis";
+    private static final String JSON_FIELD_INDEX_TTLS_IN_MILLIS = "indexTtlsInMillis";
+
+    private Long maxSizeInBytes;
+    private Long ttlInMillis;
+    private Map<String, Long> indexTtlsInMillis = new HashMap<>();
+
+    public DocumentCacheOptions() {
+    }
+
+    public DocumentCacheOptions(DocumentCacheOptions other) {
+        this.maxSizeInBytes = other.getMaxSizeInBytes();
+        this.ttlInMillis = other.getTtlInMillis();
+        this.indexTtlsInMillis = new HashMap<>(other.getIndexTtlsInMillis());
+    }
+
+    public DocumentCacheOptions(JsonObject json) {
+        this.maxSizeInBytes = json.getLong(JSON_FIELD_MAX_SIZE_IN_BYTES);
+        this.ttlInMillis = json.getLong(JSON_FIELD_TTL_IN_MILLIS);
+
+        final JsonObject indexTtlsJson = json.getJsonObject(JSON_FIELD_INDEX_TTLS_IN_MILLIS);
+        if (indexTtlsJson != null) {
+            for (String index : indexTtlsJson.fieldNames()) {
+                indexTtlsInMillis.put(index, indexTtlsJson.getLong(index));
+            }
+        }
+    }
+
+    public Long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    /**
+     * The estimated size of all cached documents, the least recently used ones are evicted beyond it. Defaults to 64mb.
+     */
+    public DocumentCacheOptions setMaxSizeInBytes(Long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+        return this;
+    }
+
+    public Long getTtlInMillis() {
+        return ttlInMillis;
+    }
+
+    /**
+     * How long cached documents stay valid unless their index has its own TTL, defaults to 60s
+     */
+    public DocumentCacheOptions setTtlInMillis(Long ttlInMillis) {
+        this.ttlInMillis = ttlInMillis;
+        return this;
+    }
+
+    public Map<String, Long> getIndexTtlsInMillis() {
+        return indexTtlsInMillis;
+    }
+
+    /**
+     * TTLs of the documents of single indices, 0 disables caching for an index
+     */
+    public DocumentCacheOptions setIndexTtlsInMillis(Map<String, Long> indexTtlsInMillis) {
+        this.indexTtlsInMillis = indexTtlsInMillis;
+        return this;
+    }
+
+    @GenIgnore
+    public DocumentCacheOptions putIndexTtlInMillis(String index, Long ttlInMillis) {
+        this.indexTtlsInMillis.put(index, ttlInMillis);
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (maxSizeInBytes != null) json.put(JSON_FIELD_MAX_SIZE_IN_BYTES, maxSizeInBytes);
+        if (ttlInMillis != null) json.put(JSON_FIELD_TTL_IN_MILLIS, ttlInMillis);
+        if (!indexTtlsInMillis.isEmpty()) json.put(JSON_FIELD_INDEX_TTLS_IN_MILLIS, new JsonObject(new HashMap<>(indexTtlsInMillis)));
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -35,6 +35,7 @@ public class GetOptions extends AbstractOptions<GetOptions> {
     private List<String> fetchSourceExcludes = new ArrayList<>();
     private Boolean realtime;
     private Boolean refresh;
+    private Boolean includeRawResponse;
 
     public static final String FIELD_PREFERENCE = "preference";
     public static final String FIELD_FIELDS = "fields";
@@ -43,6 +44,7 @@ public class GetOptions extends AbstractOptions<GetOptions> {
     public static final String FIELD_FETCH_SOURCE_EXCLUDES = "fetchSourceExcludes";
     public static final String FIELD_REALTIME = "realtime";
     public static final String FIELD_REFRESH = "refresh";
+    public static final String FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
 
     public GetOptions() {
     }
@@ -57,6 +59,7 @@ public class GetOptions extends AbstractOptions<GetOptions> {
         fetchSourceExcludes = other.getFetchSourceExcludes();
         realtime = other.getRealtime();
         refresh = other.getRefresh();
+        includeRawResponse = other.getIncludeRawResponse();
     }
 
     public GetOptions(JsonObject json) {
@@ -69,6 +72,7 @@ public class GetOptions extends AbstractOptions<GetOptions> {
         fetchSourceExcludes = json.getJsonArray(FIELD_FETCH_SOURCE_EXCLUDES, new JsonArray()).getList();
         realtime = json.getBoolean(FIELD_REALTIME);
         refresh = json.getBoolean(FIELD_REFRESH);
+        includeRawResponse = json.getBoolean(FIELD_INCLUDE_RAW_RESPONSE);
     }
 
     public String getPreference() {
@@ -138,6 +142,15 @@ public class GetOptions extends AbstractOptions<GetOptions> {
         return this;
     }
 
+    public Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public GetOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
+    }
+
     @Override
     public JsonObject toJson() {
         JsonObject json = super.toJson();
@@ -149,6 +162,7 @@ public class GetOptions extends AbstractOptions<GetOptions> {
         if (!getFetchSourceExcludes().isEmpty()) json.put(FIELD_FETCH_SOURCE_EXCLUDES, new JsonArray(getFetchSourceExcludes()));
         if (getRealtime() != null) json.put(FIELD_REALTIME, getRealtime());
         if (getRefresh() != null) json.put(FIELD_REFRESH, getRefresh());
+        if (getIncludeRawResponse() != null) json.put(FIELD_INCLUDE_RAW_RESPONSE, getIncludeRawResponse());
 
         return json;
     }
@@ -39,6 +39,7 @@ public class Hit {
     private Long version;
     private JsonObject source;
     private Map<String, List<Object>> fields = new HashMap<>();
+    private JsonArray sortValues;
 
     public static final String JSON_FIELD_INDEX = "index";
     public static final String JSON_FIELD_TYPE = "type";
@@ -47,6 +48,7 @@ public class Hit {
     public static final String JSON_FIELD_VERSION = "version";
     public static final String JSON_FIELD_SOURCE = "source";
     public static final String JSON_FIELD_FIELDS = "fields";
+    public static final String JSON_FIELD_SORT_VALUES = "sortValues";
 
     public Hit() {
     }
@@ -59,7 +61,7 @@ public class Hit {
         this.version = other.getVersion();
         this.source = other.getSource();
         this.fields = other.getFields();
-
+        this.sortValues = other.getSortValues();
     }
 
     public Hit(JsonObject jsonObject) {
@@ -69,6 +71,7 @@ public class Hit {
         this.score = jsonObject.getFloat(JSON_FIELD_SCORE);
         this.version = jsonObject.getLong(JSON_FIELD_VERSION);
         this.source = jsonObject.getJsonObject(JSON_FIELD_SOURCE);
+        this.sortValues = jsonObject.getJsonArray(JSON_FIELD_SORT_VALUES);
 
         final JsonObject jsonFields = jsonObject.getJsonObject(JSON_FIELD_FIELDS);
         if (jsonFields != null) {
@@ -143,6 +146,15 @@ public class Hit {
         return this;
     }
 
+    public JsonArray getSortValues() {
+        return sortValues;
+    }
+
+    public Hit setSortValues(JsonArray sortValues) {
+        this.sortValues = sortValues;
+        return this;
+    }
+
     public JsonObject toJson() {
 
         final JsonObject json = new JsonObject();
@@ -153,6 +165,7 @@ public class Hit {
         if (score != null) json.put(JSON_FIELD_SCORE, score);
         if (version != null) json.put(JSON_FIELD_VERSION, version);
         if (source != null) json.put(JSON_FIELD_SOURCE, source);
+        if (sortValues != null) json.put(JSON_FIELD_SORT_VALUES, sortValues);
 
         if (!fields.isEmpty()) {
             final JsonObject jsonFields = new JsonObject();
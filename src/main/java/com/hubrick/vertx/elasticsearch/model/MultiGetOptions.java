@@ -31,10 +31,12 @@ public class MultiGetOptions {
     private static final String JSON_FIELD_REFRESH = "refresh";
     private static final String JSON_FIELD_REALTIME = "realtime";
     private static final String JSON_FIELD_PREFERENCE = "preference";
+    private static final String JSON_FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
 
     private Boolean refresh;
     private Boolean realtime;
     private String preference;
+    private Boolean includeRawResponse;
 
     public MultiGetOptions() {
     }
@@ -43,12 +45,14 @@ public class MultiGetOptions {
         this.refresh = other.getRefresh();
         this.realtime = other.getRealtime();
         this.preference = other.getPreference();
+        this.includeRawResponse = other.getIncludeRawResponse();
     }
 
     public MultiGetOptions(JsonObject json) {
         this.refresh = json.getBoolean(JSON_FIELD_REFRESH);
         this.realtime = json.getBoolean(JSON_FIELD_REALTIME);
         this.preference = json.getString(JSON_FIELD_PREFERENCE);
+        this.includeRawResponse = json.getBoolean(JSON_FIELD_INCLUDE_RAW_RESPONSE);
     }
 
     public Boolean getRefresh() {
@@ -78,12 +82,22 @@ public class MultiGetOptions {
         return this;
     }
 
+    public Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public MultiGetOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
+    }
+
     public JsonObject toJson() {
         final JsonObject json = new JsonObject();
 
         if (refresh != null) json.put(JSON_FIELD_REFRESH, refresh);
         if (realtime != null) json.put(JSON_FIELD_REALTIME, realtime);
         if (preference != null) json.put(JSON_FIELD_PREFERENCE, preference);
+        if (includeRawResponse != null) json.put(JSON_FIELD_INCLUDE_RAW_RESPONSE, includeRawResponse);
 
         return json;
     }
@@ -33,12 +33,14 @@ public class MultiGetResponseItem {
     public static final String JSON_FIELD_ID = "id";
     public static final String JSON_FIELD_GET_RESULT = "getResult";
     public static final String JSON_FIELD_FAILURE_MESSAGE = "failureMessage";
+    public static final String JSON_FIELD_STATUS = "status";
 
     private String index;
     private String type;
     private String id;
     private GetResult getResult;
     private String failureMessage;
+    private Integer status;
 
     public MultiGetResponseItem() {
     }
@@ -49,6 +51,7 @@ public class MultiGetResponseItem {
         this.id = json.getString(JSON_FIELD_ID);
         this.getResult = Optional.ofNullable(json.getJsonObject(JSON_FIELD_GET_RESULT)).map(GetResult::new).orElse(null);
         this.failureMessage = json.getString(JSON_FIELD_FAILURE_MESSAGE);
+        this.status = json.getInteger(JSON_FIELD_STATUS);
     }
 
     public String getIndex() {
@@ -96,6 +99,18 @@ public class MultiGetResponseItem {
         return this;
     }
 
+    /**
+     * @return the HTTP status of a failed item, e.g. 404 if the index doesn't exist
+     */
+    public Integer getStatus() {
+        return status;
+    }
+
+    public MultiGetResponseItem setStatus(Integer status) {
+        this.status = status;
+        return this;
+    }
+
     public JsonObject toJson() {
         final JsonObject json = new JsonObject();
 
@@ -104,6 +119,7 @@ public class MultiGetResponseItem {
         if (id != null) json.put(JSON_FIELD_ID, id);
         if (getResult != null) json.put(JSON_FIELD_GET_RESULT, getResult.toJson());
         if (failureMessage != null) json.put(JSON_FIELD_FAILURE_MESSAGE, failureMessage);
+        if (status != null) json.put(JSON_FIELD_STATUS, status);
 
         return json;
     }
@@ -32,9 +32,11 @@ public class MultiSearchOptions  {
 
     private static final String JSON_FIELD_INDICES_OPTIONS = "indicesOptions";
     private static final String JSON_FIELD_MAX_CONCURRENT_SEARCH_REQUESTS = "maxConcurrentSearchRequests";
+    private static final String JSON_FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
 
     private IndicesOptions indicesOptions;
     private Integer maxConcurrentSearchRequests;
+    private Boolean includeRawResponse;
 
     public MultiSearchOptions() {
     }
@@ -42,11 +44,13 @@ public class MultiSearchOptions  {
     public MultiSearchOptions(MultiSearchOptions other) {
         this.indicesOptions = other.getIndicesOptions();
         this.maxConcurrentSearchRequests = other.getMaxConcurrentSearchRequests();
+        this.includeRawResponse = other.getIncludeRawResponse();
     }
 
     public MultiSearchOptions(JsonObject json) {
         this.indicesOptions = Optional.ofNullable(json.getJsonObject(JSON_FIELD_INDICES_OPTIONS)).map(IndicesOptions::new).orElse(null);
         this.maxConcurrentSearchRequests = json.getInteger(JSON_FIELD_MAX_CONCURRENT_SEARCH_REQUESTS);
+        this.includeRawResponse = json.getBoolean(JSON_FIELD_INCLUDE_RAW_RESPONSE);
     }
 
     public IndicesOptions getIndicesOptions() {
@@ -67,11 +71,21 @@ public class MultiSearchOptions  {
         return this;
     }
 
+    public Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public MultiSearchOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
+    }
+
     public JsonObject toJson() {
         final JsonObject json = new JsonObject();
 
         if (indicesOptions != null) json.put(JSON_FIELD_INDICES_OPTIONS, indicesOptions.toJson());
         if (maxConcurrentSearchRequests != null) json.put(JSON_FIELD_MAX_CONCURRENT_SEARCH_REQUESTS, maxConcurrentSearchRequests);
+        if (includeRawResponse != null) json.put(JSON_FIELD_INCLUDE_RAW_RESPONSE, includeRawResponse);
 
         return json;
     }
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Optional;
+
+/**
+ * An already encoded document source, passed to Elasticsearch as is.
+ * <p>
+ * Over the event bus the bytes travel as base64 encoded binary field of the JSON message.
+ */
+@DataObject
+public class RawSource {
+
+    private static final String JSON_FIELD_BYTES = "bytes";
+    private static final String JSON_FIELD_TYPE = "type";
+
+    private Buffer bytes;
+    private SourceType type;
+
+    public RawSource() {
+    }
+
+    public RawSource(RawSource other) {
+        this.bytes = other.getBytes();
+        this.type = other.getType();
+    }
+
+    public RawSource(JsonObject json) {
+        this.bytes = Optional.ofNullable(json.getBinary(JSON_FIELD_BYTES)).map(Buffer::buffer).orElse(null);
+        this.type = Optional.ofNullable(json.getString(JSON_FIELD_TYPE)).map(SourceType::valueOf).orElse(null);
+    }
+
+    public static RawSource json(Buffer bytes) {
+        return new RawSource().setBytes(bytes).setType(SourceType.JSON);
+    }
+
+    public Buffer getBytes() {
+        return bytes;
+    }
+
+    public RawSource setBytes(Buffer bytes) {
+        this.bytes = bytes;
+        return this;
+    }
+
+    public SourceType getType() {
+        return type;
+    }
+
+    /**
+     * The content type of the bytes, defaults to JSON
+     */
+    public RawSource setType(SourceType type) {
+        this.type = type;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (bytes != null) json.put(JSON_FIELD_BYTES, bytes.getBytes());
+        if (type != null) json.put(JSON_FIELD_TYPE, type.name());
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
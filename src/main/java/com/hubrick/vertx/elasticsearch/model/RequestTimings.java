@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Time spent in each phase of a request, see {@link com.hubrick.vertx.elasticsearch.RequestPhase}
+ */
+@DataObject
+public class RequestTimings {
+
+    private Long buildInNanos;
+    private Long transportInNanos;
+    private Long mappingInNanos;
+    private Long dispatchInNanos;
+
+    public static final String JSON_FIELD_BUILD_IN_NANOS = "buildInNanos";
+    public static final String JSON_FIELD_TRANSPORT_IN_NANOS = "transportInNanos";
+    public static final String JSON_FIELD_MAPPING_IN_NANOS = "mappingInNanos";
+    public static final String JSON_FIELD_DISPATCH_IN_NANOS = "dispatchInNanos";
+
+    public RequestTimings() {
+    }
+
+    public RequestTimings(RequestTimings other) {
+        this.buildInNanos = other.getBuildInNanos();
+        this.transportInNanos = other.getTransportInNanos();
+        this.mappingInNanos = other.getMappingInNanos();
+        this.dispatchInNanos = other.getDispatchInNanos();
+    }
+
+    public RequestTimings(JsonObject json) {
+        this.buildInNanos = json.getLong(JSON_FIELD_BUILD_IN_NANOS);
+        this.transportInNanos = json.getLong(JSON_FIELD_TRANSPORT_IN_NANOS);
+        this.mappingInNanos = json.getLong(JSON_FIELD_MAPPING_IN_NANOS);
+        this.dispatchInNanos = json.getLong(JSON_FIELD_DISPATCH_IN_NANOS);
+    }
+
+    public Long getBuildInNanos() {
+        return buildInNanos;
+    }
+
+    public RequestTimings setBuildInNanos(Long buildInNanos) {
+        this.buildInNanos = buildInNanos;
+        return this;
+    }
+
+    public Long getTransportInNanos() {
+        return transportInNanos;
+    }
+
+    public RequestTimings setTransportInNanos(Long transportInNanos) {
+        this.transportInNanos = transportInNanos;
+        return this;
+    }
+
+    public Long getMappingInNanos() {
+        return mappingInNanos;
+    }
+
+    public RequestTimings setMappingInNanos(Long mappingInNanos) {
+        this.mappingInNanos = mappingInNanos;
+        return this;
+    }
+
+    public Long getDispatchInNanos() {
+        return dispatchInNanos;
+    }
+
+    public RequestTimings setDispatchInNanos(Long dispatchInNanos) {
+        this.dispatchInNanos = dispatchInNanos;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (buildInNanos != null) json.put(JSON_FIELD_BUILD_IN_NANOS, buildInNanos);
+        if (transportInNanos != null) json.put(JSON_FIELD_TRANSPORT_IN_NANOS, transportInNanos);
+        if (mappingInNanos != null) json.put(JSON_FIELD_MAPPING_IN_NANOS, mappingInNanos);
+        if (dispatchInNanos != null) json.put(JSON_FIELD_DISPATCH_IN_NANOS, dispatchInNanos);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Search cache options
+ */
+@DataObject
+public class SearchCacheOptions {
+
+    public static final long DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_TTL_IN_MILLIS = 10000;
+
+    private static final String JSON_FIELD_MAX_ENTRIES = "maxEntries";
+    private static final String JSON_FIELD_TTL_IN_MILLIS = "ttlInMillis";
+
+    private Long maxEntries;
+    private Long ttlInMillis;
+
+    public SearchCacheOptions() {
+    }
+
+    public SearchCacheOptions(SearchCacheOptions other) {
+        this.maxEntries = other.getMaxEntries();
+        this.ttlInMillis = other.getTtlInMillis();
+    }
+
+    public SearchCacheOptions(JsonObject json) {
+        this.maxEntries = json.getLong(JSON_FIELD_MAX_ENTRIES);
+        this.ttlInMillis = json.getLong(JSON_FIELD_TTL_IN_MILLIS);
+    }
+
+    public Long getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * The number of cached responses, the least recently used ones are evicted beyond it. Defaults to 10000.
+     */
+    public SearchCacheOptions setMaxEntries(Long maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public Long getTtlInMillis() {
+        return ttlInMillis;
+    }
+
+    /**
+     * How long cached responses stay valid unless the request sets its own TTL, defaults to 10s
+     */
+    public SearchCacheOptions setTtlInMillis(Long ttlInMillis) {
+        this.ttlInMillis = ttlInMillis;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (maxEntries != null) json.put(JSON_FIELD_MAX_ENTRIES, maxEntries);
+        if (ttlInMillis != null) json.put(JSON_FIELD_TTL_IN_MILLIS, ttlInMillis);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -26,18 +26,22 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public class SearchScrollOptions {
 
     private String scroll;
+    private Boolean includeRawResponse;
 
     public static final String FIELD_SCROLL = "scroll";
+    public static final String FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
 
     public SearchScrollOptions() {
     }
 
     public SearchScrollOptions(SearchScrollOptions other) {
         scroll = other.getScroll();
+        includeRawResponse = other.getIncludeRawResponse();
     }
 
     public SearchScrollOptions(JsonObject json) {
         scroll = json.getString(FIELD_SCROLL);
+        includeRawResponse = json.getBoolean(FIELD_INCLUDE_RAW_RESPONSE);
     }
 
     public String getScroll() {
@@ -49,10 +53,20 @@ public class SearchScrollOptions {
         return this;
     }
 
+    public Boolean getIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public SearchScrollOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
+    }
+
     public JsonObject toJson() {
         JsonObject json = new JsonObject();
 
         if (getScroll() != null) json.put(FIELD_SCROLL, getScroll());
+        if (getIncludeRawResponse() != null) json.put(FIELD_INCLUDE_RAW_RESPONSE, getIncludeRawResponse());
 
         return json;
     }
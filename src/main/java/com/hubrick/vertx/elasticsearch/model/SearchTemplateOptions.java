@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Search template operation options, either the id of a stored template or an inline mustache template
+ */
+@DataObject
+public class SearchTemplateOptions {
+
+    private String templateId;
+    private String template;
+    private JsonObject params;
+    private List<String> types = new ArrayList<>();
+    private SearchType searchType;
+    private String scroll;
+    private String routing;
+    private String preference;
+    private IndicesOptions indicesOptions;
+    private Boolean explain;
+    private Boolean profile;
+    private Boolean includeRawResponse;
+
+    public static final String JSON_FIELD_TEMPLATE_ID = "templateId";
+    public static final String JSON_FIELD_TEMPLATE = "template";
+    public static final String JSON_FIELD_PARAMS = "params";
+    public static final String JSON_FIELD_TYPES = "types";
+    public static final String JSON_FIELD_SEARCH_TYPE = "searchType";
+    public static final String JSON_FIELD_SCROLL = "scroll";
+    public static final String JSON_FIELD_ROUTING = "routing";
+    public static final String JSON_FIELD_PREFERENCE = "preference";
+    public static final String JSON_FIELD_INDICES_OPTIONS = "indicesOptions";
+    public static final String JSON_FIELD_EXPLAIN = "explain";
+    public static final String JSON_FIELD_PROFILE = "profile";
+    public static final String JSON_FIELD_INCLUDE_RAW_RESPONSE = "includeRawResponse";
+
+    public SearchTemplateOptions() {
+    }
+
+    public SearchTemplateOptions(SearchTemplateOptions other) {
+        templateId = other.getTemplateId();
+        template = other.getTemplate();
+        params = other.getParams();
+        types = other.getTypes();
+        searchType = other.getSearchType();
+        scroll = other.getScroll();
+        routing = other.getRouting();
+        preference = other.getPreference();
+        indicesOptions = other.getIndicesOptions();
+        explain = other.isExplain();
+        profile = other.isProfile();
+        includeRawResponse = other.isIncludeRawResponse();
+    }
+
+    public SearchTemplateOptions(JsonObject json) {
+        templateId = json.getString(JSON_FIELD_TEMPLATE_ID);
+        template = json.getString(JSON_FIELD_TEMPLATE);
+        params = json.getJsonObject(JSON_FIELD_PARAMS);
+        types = json.getJsonArray(JSON_FIELD_TYPES, new JsonArray()).getList();
+        searchType = Optional.ofNullable(json.getString(JSON_FIELD_SEARCH_TYPE)).map(SearchType::valueOf).orElse(null);
+        scroll = json.getString(JSON_FIELD_SCROLL);
+        routing = json.getString(JSON_FIELD_ROUTING);
+        preference = json.getString(JSON_FIELD_PREFERENCE);
+        indicesOptions = Optional.ofNullable(json.getJsonObject(JSON_FIELD_INDICES_OPTIONS)).map(IndicesOptions::new).orElse(null);
+        explain = json.getBoolean(JSON_FIELD_EXPLAIN);
+        profile = json.getBoolean(JSON_FIELD_PROFILE);
+        includeRawResponse = json.getBoolean(JSON_FIELD_INCLUDE_RAW_RESPONSE);
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    /**
+     * The id of a template stored with {@code ElasticSearchAdminService#putSearchTemplate}
+     */
+    public SearchTemplateOptions setTemplateId(String templateId) {
+        this.templateId = templateId;
+        return this;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * An inline mustache template, used when no template id is set
+     */
+    public SearchTemplateOptions setTemplate(String template) {
+        this.template = template;
+        return this;
+    }
+
+    public JsonObject getParams() {
+        return params;
+    }
+
+    public SearchTemplateOptions setParams(JsonObject params) {
+        this.params = params;
+        return this;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public SearchTemplateOptions addType(String type) {
+        types.add(type);
+        return this;
+    }
+
+    public SearchTemplateOptions setTypes(List<String> types) {
+        this.types = types;
+        return this;
+    }
+
+    public SearchType getSearchType() {
+        return searchType;
+    }
+
+    public SearchTemplateOptions setSearchType(SearchType searchType) {
+        this.searchType = searchType;
+        return this;
+    }
+
+    public String getScroll() {
+        return scroll;
+    }
+
+    public SearchTemplateOptions setScroll(String scroll) {
+        this.scroll = scroll;
+        return this;
+    }
+
+    public String getRouting() {
+        return routing;
+    }
+
+    public SearchTemplateOptions setRouting(String routing) {
+        this.routing = routing;
+        return this;
+    }
+
+    public String getPreference() {
+        return preference;
+    }
+
+    public SearchTemplateOptions setPreference(String preference) {
+        this.preference = preference;
+        return this;
+    }
+
+    public IndicesOptions getIndicesOptions() {
+        return indicesOptions;
+    }
+
+    public SearchTemplateOptions setIndicesOptions(IndicesOptions indicesOptions) {
+        this.indicesOptions = indicesOptions;
+        return this;
+    }
+
+    public Boolean isExplain() {
+        return explain;
+    }
+
+    public SearchTemplateOptions setExplain(Boolean explain) {
+        this.explain = explain;
+        return this;
+    }
+
+    public Boolean isProfile() {
+        return profile;
+    }
+
+    public SearchTemplateOptions setProfile(Boolean profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    public Boolean isIncludeRawResponse() {
+        return includeRawResponse;
+    }
+
+    public SearchTemplateOptions setIncludeRawResponse(Boolean includeRawResponse) {
+        this.includeRawResponse = includeRawResponse;
+        return this;
+    }
+
+    public JsonObject toJson() {
+        final JsonObject json = new JsonObject();
+
+        if (templateId != null) json.put(JSON_FIELD_TEMPLATE_ID, templateId);
+        if (template != null) json.put(JSON_FIELD_TEMPLATE, template);
+        if (params != null) json.put(JSON_FIELD_PARAMS, params);
+        if (!types.isEmpty()) json.put(JSON_FIELD_TYPES, new JsonArray(types));
+        if (searchType != null) json.put(JSON_FIELD_SEARCH_TYPE, searchType.name());
+        if (scroll != null) json.put(JSON_FIELD_SCROLL, scroll);
+        if (routing != null) json.put(JSON_FIELD_ROUTING, routing);
+        if (preference != null) json.put(JSON_FIELD_PREFERENCE, preference);
+        if (indicesOptions != null) json.put(JSON_FIELD_INDICES_OPTIONS, indicesOptions.toJson());
+        if (explain != null) json.put(JSON_FIELD_EXPLAIN, explain);
+        if (profile != null) json.put(JSON_FIELD_PROFILE, profile);
+        if (includeRawResponse != null) json.put(JSON_FIELD_INCLUDE_RAW_RESPONSE, includeRawResponse);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Slice of a scrolled search
+ */
+@DataObject
+public class SliceOption {
+
+    private static final String JSON_FIELD_ID = "id";
+    private static final String JSON_FIELD_MAX = "max";
+    private static final String JSON_FIELD_FIELD = "field";
+
+    private Integer id;
+    private Integer max;
+    private String field;
+
+    public SliceOption() {
+    }
+
+    public SliceOption(SliceOption other) {
+        this.id = other.getId();
+        this.max = other.getMax();
+        this.field = other.getField();
+    }
+
+    public SliceOption(JsonObject json) {
+        this.id = json.getInteger(JSON_FIELD_ID);
+        this.max = json.getInteger(JSON_FIELD_MAX);
+        this.field = json.getString(JSON_FIELD_FIELD);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public SliceOption setId(Integer id) {
+        this.id = id;
+        return this;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public SliceOption setMax(Integer max) {
+        this.max = max;
+        return this;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public SliceOption setField(String field) {
+        this.field = field;
+        return this;
+    }
+
+    public JsonObject toJson() {
+        final JsonObject json = new JsonObject();
+
+        if (id != null) json.put(JSON_FIELD_ID, id);
+        if (max != null) json.put(JSON_FIELD_MAX, max);
+        if (field != null) json.put(JSON_FIELD_FIELD, field);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
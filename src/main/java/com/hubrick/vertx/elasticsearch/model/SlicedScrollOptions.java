@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Sliced scroll options
+ */
+@DataObject
+public class SlicedScrollOptions {
+
+    public static final int DEFAULT_MAX_BUFFERED_HITS = 10000;
+
+    private static final String JSON_FIELD_SLICES = "slices";
+    private static final String JSON_FIELD_PARALLELISM = "parallelism";
+    private static final String JSON_FIELD_ORDERED = "ordered";
+    private static final String JSON_FIELD_MAX_BUFFERED_HITS = "maxBufferedHits";
+    private static final String JSON_FIELD_FIELD = "field";
+
+    private Integer slices;
+    private Integer parallelism;
+    private Boolean ordered;
+    private Integer maxBufferedHits;
+    private String field;
+
+    public SlicedScrollOptions() {
+    }
+
+    public SlicedScrollOptions(SlicedScrollOptions other) {
+        this.slices = other.getSlices();
+        this.parallelism = other.getParallelism();
+        this.ordered = other.getOrdered();
+        this.maxBufferedHits = other.getMaxBufferedHits();
+        this.field = other.getField();
+    }
+
+    public SlicedScrollOptions(JsonObject json) {
+        this.slices = json.getInteger(JSON_FIELD_SLICES);
+        this.parallelism = json.getInteger(JSON_FIELD_PARALLELISM);
+        this.ordered = json.getBoolean(JSON_FIELD_ORDERED);
+        this.maxBufferedHits = json.getInteger(JSON_FIELD_MAX_BUFFERED_HITS);
+        this.field = json.getString(JSON_FIELD_FIELD);
+    }
+
+    public Integer getSlices() {
+        return slices;
+    }
+
+    /**
+     * The number of slices the scroll is split into
+     */
+    public SlicedScrollOptions setSlices(Integer slices) {
+        this.slices = slices;
+        return this;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The number of slices scrolled at the same time, defaults to the number of slices
+     */
+    public SlicedScrollOptions setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Boolean getOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Emit the hits slice by slice instead of as they arrive, defaults to false
+     */
+    public SlicedScrollOptions setOrdered(Boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    public Integer getMaxBufferedHits() {
+        return maxBufferedHits;
+    }
+
+    /**
+     * The number of hits buffered over all slices before the slices are paused, defaults to {@value #DEFAULT_MAX_BUFFERED_HITS}
+     */
+    public SlicedScrollOptions setMaxBufferedHits(Integer maxBufferedHits) {
+        this.maxBufferedHits = maxBufferedHits;
+        return this;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * The field used to slice, defaults to {@code _uid}
+     */
+    public SlicedScrollOptions setField(String field) {
+        this.field = field;
+        return this;
+    }
+
+    public JsonObject toJson() {
+        final JsonObject json = new JsonObject();
+
+        if (slices != null) json.put(JSON_FIELD_SLICES, slices);
+        if (parallelism != null) json.put(JSON_FIELD_PARALLELISM, parallelism);
+        if (ordered != null) json.put(JSON_FIELD_ORDERED, ordered);
+        if (maxBufferedHits != null) json.put(JSON_FIELD_MAX_BUFFERED_HITS, maxBufferedHits);
+        if (field != null) json.put(JSON_FIELD_FIELD, field);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.model;
+
+import com.hubrick.vertx.elasticsearch.TransportProfile;
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Optional;
+
+/**
+ * Transport client connection options. Options left unset keep the value of the profile or the ElasticSearch default.
+ */
+@DataObject
+public class TransportOptions {
+
+    private static final String JSON_FIELD_PROFILE = "profile";
+    private static final String JSON_FIELD_BULK_CONNECTIONS_PER_NODE = "bulkConnectionsPerNode";
+    private static final String JSON_FIELD_REG_CONNECTIONS_PER_NODE = "regConnectionsPerNode";
+    private static final String JSON_FIELD_STATE_CONNECTIONS_PER_NODE = "stateConnectionsPerNode";
+    private static final String JSON_FIELD_PING_CONNECTIONS_PER_NODE = "pingConnectionsPerNode";
+    private static final String JSON_FIELD_RECOVERY_CONNECTIONS_PER_NODE = "recoveryConnectionsPerNode";
+    private static final String JSON_FIELD_COMPRESS = "compress";
+    private static final String JSON_FIELD_PING_SCHEDULE = "pingSchedule";
+    private static final String JSON_FIELD_PING_TIMEOUT = "pingTimeout";
+    private static final String JSON_FIELD_TCP_NO_DELAY = "tcpNoDelay";
+    private static final String JSON_FIELD_TCP_SEND_BUFFER_SIZE = "tcpSendBufferSize";
+    private static final String JSON_FIELD_TCP_RECEIVE_BUFFER_SIZE = "tcpReceiveBufferSize";
+    private static final String JSON_FIELD_NODES_SAMPLER_INTERVAL = "nodesSamplerInterval";
+
+    private TransportProfile profile;
+    private Integer bulkConnectionsPerNode;
+    private Integer regConnectionsPerNode;
+    private Integer stateConnectionsPerNode;
+    private Integer pingConnectionsPerNode;
+    private Integer recoveryConnectionsPerNode;
+    private Boolean compress;
+    private String pingSchedule;
+    private String pingTimeout;
+    private Boolean tcpNoDelay;
+    private String tcpSendBufferSize;
+    private String tcpReceiveBufferSize;
+    private String nodesSamplerInterval;
+
+    public TransportOptions() {
+    }
+
+    public TransportOptions(TransportOptions other) {
+        this.profile = other.getProfile();
+        this.bulkConnectionsPerNode = other.getBulkConnectionsPerNode();
+        this.regConnectionsPerNode = other.getRegConnectionsPerNode();
+        this.stateConnectionsPerNode = other.getStateConnectionsPerNode();
+        this.pingConnectionsPerNode = other.getPingConnectionsPerNode();
+        this.recoveryConnectionsPerNode = other.getRecoveryConnectionsPerNode();
+        this.compress = other.getCompress();
+        this.pingSchedule = other.getPingSchedule();
+        this.pingTimeout = other.getPingTimeout();
+        this.tcpNoDelay = other.getTcpNoDelay();
+        this.tcpSendBufferSize = other.getTcpSendBufferSize();
+        this.tcpReceiveBufferSize = other.getTcpReceiveBufferSize();
+        this.nodesSamplerInterval = other.getNodesSamplerInterval();
+    }
+
+    public TransportOptions(JsonObject json) {
+        this.profile = Optional.ofNullable(json.getString(JSON_FIELD_PROFILE)).map(TransportProfile::valueOf).orElse(null);
+        this.bulkConnectionsPerNode = json.getInteger(JSON_FIELD_BULK_CONNECTIONS_PER_NODE);
+        this.regConnectionsPerNode = json.getInteger(JSON_FIELD_REG_CONNECTIONS_PER_NODE);
+        this.stateConnectionsPerNode = json.getInteger(JSON_FIELD_STATE_CONNECTIONS_PER_NODE);
+        this.pingConnectionsPerNode = json.getInteger(JSON_FIELD_PING_CONNECTIONS_PER_NODE);
+        this.recoveryConnectionsPerNode = json.getInteger(JSON_FIELD_RECOVERY_CONNECTIONS_PER_NODE);
+        this.compress = json.getBoolean(JSON_FIELD_COMPRESS);
+        this.pingSchedule = json.getString(JSON_FIELD_PING_SCHEDULE);
+        this.pingTimeout = json.getString(JSON_FIELD_PING_TIMEOUT);
+        this.tcpNoDelay = json.getBoolean(JSON_FIELD_TCP_NO_DELAY);
+        this.tcpSendBufferSize = json.getString(JSON_FIELD_TCP_SEND_BUFFER_SIZE);
+        this.tcpReceiveBufferSize = json.getString(JSON_FIELD_TCP_RECEIVE_BUFFER_SIZE);
+        this.nodesSamplerInterval = json.getString(JSON_FIELD_NODES_SAMPLER_INTERVAL);
+    }
+
+    public TransportProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * The preset for the connections per node, the explicit connection counts override it. Defaults to
+     * {@link TransportProfile#DEFAULT}.
+     */
+    public TransportOptions setProfile(TransportProfile profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    public Integer getBulkConnectionsPerNode() {
+        return bulkConnectionsPerNode;
+    }
+
+    /**
+     * The connections per node used by bulk requests, {@code transport.connections_per_node.bulk}
+     */
+    public TransportOptions setBulkConnectionsPerNode(Integer bulkConnectionsPerNode) {
+        this.bulkConnectionsPerNode = bulkConnectionsPerNode;
+        return this;
+    }
+
+    public Integer getRegConnectionsPerNode() {
+        return regConnectionsPerNode;
+    }
+
+    /**
+     * The connections per node used by searches, gets, index and the other regular requests,
+     * {@code transport.connections_per_node.reg}
+     */
+    public TransportOptions setRegConnectionsPerNode(Integer regConnectionsPerNode) {
+        this.regConnectionsPerNode = regConnectionsPerNode;
+        return this;
+    }
+
+    public Integer getStateConnectionsPerNode() {
+        return stateConnectionsPerNode;
+    }
+
+    /**
+     * The connections per node used for cluster state requests, {@code transport.connections_per_node.state}
+     */
+    public TransportOptions setStateConnectionsPerNode(Integer stateConnectionsPerNode) {
+        this.stateConnectionsPerNode = stateConnectionsPerNode;
+        return this;
+    }
+
+    public Integer getPingConnectionsPerNode() {
+        return pingConnectionsPerNode;
+    }
+
+    /**
+     * The connections per node used for pings, {@code transport.connections_per_node.ping}
+     */
+    public TransportOptions setPingConnectionsPerNode(Integer pingConnectionsPerNode) {
+        this.pingConnectionsPerNode = pingConnectionsPerNode;
+        return this;
+    }
+
+    public Integer getRecoveryConnectionsPerNode() {
+        return recoveryConnectionsPerNode;
+    }
+
+    /**
+     * The connections per node reserved for shard recoveries, which the client never sends,
+     * {@code transport.connections_per_node.recovery}
+     */
+    public TransportOptions setRecoveryConnectionsPerNode(Integer recoveryConnectionsPerNode) {
+        this.recoveryConnectionsPerNode = recoveryConnectionsPerNode;
+        return this;
+    }
+
+    public Boolean getCompress() {
+        return compress;
+    }
+
+    /**
+     * Whether all requests are compressed, {@code transport.tcp.compress}. Bulk requests are compressed regardless.
+     */
+    public TransportOptions setCompress(Boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    public String getPingSchedule() {
+        return pingSchedule;
+    }
+
+    /**
+     * The interval of the keep alive pings on idle connections, e.g. {@code 5s}, {@code transport.ping_schedule}
+     */
+    public TransportOptions setPingSchedule(String pingSchedule) {
+        this.pingSchedule = pingSchedule;
+        return this;
+    }
+
+    public String getPingTimeout() {
+        return pingTimeout;
+    }
+
+    /**
+     * How long the client waits for a node to answer its liveness check, e.g. {@code 5s},
+     * {@code client.transport.ping_timeout}
+     */
+    public TransportOptions setPingTimeout(String pingTimeout) {
+        this.pingTimeout = pingTimeout;
+        return this;
+    }
+
+    public Boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Whether Nagle's algorithm is disabled on the connections, {@code transport.tcp_no_delay}
+     */
+    public TransportOptions setTcpNoDelay(Boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public String getTcpSendBufferSize() {
+        return tcpSendBufferSize;
+    }
+
+    /**
+     * The socket send buffer size, e.g. {@code 1mb}, {@code transport.tcp.send_buffer_size}
+     */
+    public TransportOptions setTcpSendBufferSize(String tcpSendBufferSize) {
+        this.tcpSendBufferSize = tcpSendBufferSize;
+        return this;
+    }
+
+    public String getTcpReceiveBufferSize() {
+        return tcpReceiveBufferSize;
+    }
+
+    /**
+     * The socket receive buffer size, e.g. {@code 1mb}, {@code transport.tcp.receive_buffer_size}
+     */
+    public TransportOptions setTcpReceiveBufferSize(String tcpReceiveBufferSize) {
+        this.tcpReceiveBufferSize = tcpReceiveBufferSize;
+        return this;
+    }
+
+    public String getNodesSamplerInterval() {
+        return nodesSamplerInterval;
+    }
+
+    /**
+     * How often the client samples the nodes it is connected to, or sniffs for new ones, e.g. {@code 5s},
+     * {@code client.transport.nodes_sampler_interval}
+     */
+    public TransportOptions setNodesSamplerInterval(String nodesSamplerInterval) {
+        this.nodesSamplerInterval = nodesSamplerInterval;
+        return this;
+    }
+
+    public JsonObject toJson() {
+
+        final JsonObject json = new JsonObject();
+
+        if (profile != null) json.put(JSON_FIELD_PROFILE, profile.name());
+        if (bulkConnectionsPerNode != null) json.put(JSON_FIELD_BULK_CONNECTIONS_PER_NODE, bulkConnectionsPerNode);
+        if (regConnectionsPerNode != null) json.put(JSON_FIELD_REG_CONNECTIONS_PER_NODE, regConnectionsPerNode);
+        if (stateConnectionsPerNode != null) json.put(JSON_FIELD_STATE_CONNECTIONS_PER_NODE, stateConnectionsPerNode);
+        if (pingConnectionsPerNode != null) json.put(JSON_FIELD_PING_CONNECTIONS_PER_NODE, pingConnectionsPerNode);
+        if (recoveryConnectionsPerNode != null) json.put(JSON_FIELD_RECOVERY_CONNECTIONS_PER_NODE, recoveryConnectionsPerNode);
+        if (compress != null) json.put(JSON_FIELD_COMPRESS, compress);
+        if (pingSchedule != null) json.put(JSON_FIELD_PING_SCHEDULE, pingSchedule);
+        if (pingTimeout != null) json.put(JSON_FIELD_PING_TIMEOUT, pingTimeout);
+        if (tcpNoDelay != null) json.put(JSON_FIELD_TCP_NO_DELAY, tcpNoDelay);
+        if (tcpSendBufferSize != null) json.put(JSON_FIELD_TCP_SEND_BUFFER_SIZE, tcpSendBufferSize);
+        if (tcpReceiveBufferSize != null) json.put(JSON_FIELD_TCP_RECEIVE_BUFFER_SIZE, tcpReceiveBufferSize);
+        if (nodesSamplerInterval != null) json.put(JSON_FIELD_NODES_SAMPLER_INTERVAL, nodesSamplerInterval);
+
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
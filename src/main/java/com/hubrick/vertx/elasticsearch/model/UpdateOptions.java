@@ -37,6 +37,8 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
     private Integer retryOnConflict;
     private JsonObject doc;
     private JsonObject upsert;
+    private RawSource rawDoc;
+    private RawSource rawUpsert;
     private Boolean docAsUpsert;
     private Boolean detectNoop;
     private Boolean scriptedUpsert;
@@ -49,6 +51,8 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
     public static final String FIELD_RETRY_ON_CONFLICT = "retryOnConflict";
     public static final String FIELD_DOC = "doc";
     public static final String FIELD_UPSERT = "upsert";
+    public static final String FIELD_RAW_DOC = "rawDoc";
+    public static final String FIELD_RAW_UPSERT = "rawUpsert";
     public static final String FIELD_DOC_AS_UPSERT = "docAsUpsert";
     public static final String FIELD_DETECT_NOOP = "detectNoop";
     public static final String FIELD_SCRIPTED_UPSERT = "scriptedUpsert";
@@ -67,6 +71,8 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
         retryOnConflict = other.getRetryOnConflict();
         doc = other.getDoc();
         upsert = other.getUpsert();
+        rawDoc = other.getRawDoc();
+        rawUpsert = other.getRawUpsert();
         docAsUpsert = other.getDocAsUpsert();
         detectNoop = other.getDetectNoop();
         scriptedUpsert = other.getScriptedUpsert();
@@ -84,6 +90,8 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
         retryOnConflict = json.getInteger(FIELD_RETRY_ON_CONFLICT);
         doc = json.getJsonObject(FIELD_DOC);
         upsert = json.getJsonObject(FIELD_UPSERT);
+        rawDoc = Optional.ofNullable(json.getJsonObject(FIELD_RAW_DOC)).map(RawSource::new).orElse(null);
+        rawUpsert = Optional.ofNullable(json.getJsonObject(FIELD_RAW_UPSERT)).map(RawSource::new).orElse(null);
         docAsUpsert = json.getBoolean(FIELD_DOC_AS_UPSERT);
         detectNoop = json.getBoolean(FIELD_DETECT_NOOP);
         scriptedUpsert = json.getBoolean(FIELD_SCRIPTED_UPSERT);
@@ -158,6 +166,30 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
         return this;
     }
 
+    public RawSource getRawDoc() {
+        return rawDoc;
+    }
+
+    /**
+     * An already encoded partial document, used instead of {@code doc}
+     */
+    public UpdateOptions setRawDoc(RawSource rawDoc) {
+        this.rawDoc = rawDoc;
+        return this;
+    }
+
+    public RawSource getRawUpsert() {
+        return rawUpsert;
+    }
+
+    /**
+     * An already encoded upsert document, used instead of {@code upsert}
+     */
+    public UpdateOptions setRawUpsert(RawSource rawUpsert) {
+        this.rawUpsert = rawUpsert;
+        return this;
+    }
+
     public Boolean getDocAsUpsert() {
         return docAsUpsert;
     }
@@ -196,6 +228,8 @@ public class UpdateOptions extends AbstractWriteOptions<UpdateOptions> {
         if (getRetryOnConflict() != null) json.put(FIELD_RETRY_ON_CONFLICT, getRetryOnConflict());
         if (getDoc() != null) json.put(FIELD_DOC, getDoc());
         if (getUpsert() != null) json.put(FIELD_UPSERT, getUpsert());
+        if (getRawDoc() != null) json.put(FIELD_RAW_DOC, getRawDoc().toJson());
+        if (getRawUpsert() != null) json.put(FIELD_RAW_UPSERT, getRawUpsert().toJson());
         if (getDocAsUpsert() != null) json.put(FIELD_DOC_AS_UPSERT, getDocAsUpsert());
         if (getDetectNoop() != null) json.put(FIELD_DETECT_NOOP, getDetectNoop());
         if (getScriptedUpsert() != null) json.put(FIELD_SCRIPTED_UPSERT, getScriptedUpsert());
@@ -44,11 +44,12 @@ public class GetOptionsTest {
                 .addField("field2")
                 .setFetchSource(true)
                 .setFetchSource(Arrays.asList("incl1", "incl2"), Arrays.asList("excl1", "excl2"))
-                .setRealtime(true);
+                .setRealtime(true)
+                .setIncludeRawResponse(false);
 
         json1= options1.toJson();
 
-        assertEquals(6, json1.fieldNames().size());
+        assertEquals(7, json1.fieldNames().size());
 
         GetOptions options2 = new GetOptions(json1);
         JsonObject json2 = options2.toJson();
@@ -22,6 +22,7 @@ import com.hubrick.vertx.elasticsearch.model.ScriptSortOption;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchType;
 import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
 
@@ -53,6 +54,7 @@ public class SearchOptionsTest {
                 .setPreference("preference")
                 .setQuery(new JsonObject().put("status", "ok"))
                 .setPostFilter(new JsonObject().put("status2", "ok"))
+                .setSource(new JsonObject().put("query", new JsonObject().put("match_all", new JsonObject())))
                 .setMinScore(10F)
                 .setSize(50)
                 .setFrom(1)
@@ -61,6 +63,8 @@ public class SearchOptionsTest {
                 .setFetchSource(true)
                 .setSourceIncludes(Arrays.asList("field1", "field2"))
                 .setTrackScores(true)
+                .setIncludeRawResponse(false)
+                .setSearchAfter(new JsonArray().add(10).add("id"))
                 .addAggregation(new AggregationOption().setName("agg1").setType(AggregationOption.AggregationType.TERMS).setDefinition( new JsonObject().put("field", "field1").put("size", 1)))
                 .addSuggestion("name", new CompletionSuggestOption().setField("field").setText("text").setSize(10))
                 .addFieldSort("status", SortOrder.ASC)
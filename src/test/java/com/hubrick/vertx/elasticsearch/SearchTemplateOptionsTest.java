@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch;
+
+import com.hubrick.vertx.elasticsearch.model.IndicesOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchType;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link SearchTemplateOptions}
+ */
+public class SearchTemplateOptionsTest {
+
+    @Test
+    public void testToJson() throws Exception {
+
+        SearchTemplateOptions options1 = new SearchTemplateOptions().setTemplateId("template1");
+        JsonObject json1 = options1.toJson();
+
+        assertEquals("{\"templateId\":\"template1\"}", json1.encode());
+
+        options1 = new SearchTemplateOptions()
+                .setTemplateId("template1")
+                .setTemplate("{\"query\":{\"term\":{\"user\":\"{{user}}\"}}}")
+                .setParams(new JsonObject().put("user", "hubrick"))
+                .addType("type1")
+                .setSearchType(SearchType.QUERY_THEN_FETCH)
+                .setScroll("1m")
+                .setRouting("routing")
+                .setPreference("preference")
+                .setIndicesOptions(new IndicesOptions().setIgnoreUnavailable(true))
+                .setExplain(true)
+                .setProfile(false)
+                .setIncludeRawResponse(false);
+
+        json1 = options1.toJson();
+
+        assertEquals(12, json1.fieldNames().size());
+
+        SearchTemplateOptions options2 = new SearchTemplateOptions(json1);
+        JsonObject json2 = options2.toJson();
+
+        assertEquals(json1.encode(), json2.encode());
+
+        options2 = new SearchTemplateOptions(options1);
+        json2 = options2.toJson();
+
+        assertEquals(json1.encode(), json2.encode());
+    }
+}
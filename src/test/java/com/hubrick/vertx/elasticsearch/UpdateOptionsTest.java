@@ -15,8 +15,11 @@
  */
 package com.hubrick.vertx.elasticsearch;
 
+import com.hubrick.vertx.elasticsearch.model.RawSource;
 import com.hubrick.vertx.elasticsearch.model.ScriptType;
+import com.hubrick.vertx.elasticsearch.model.SourceType;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
 
@@ -68,4 +71,21 @@ public class UpdateOptionsTest {
         assertEquals(json1.encode(), json2.encode());
 
     }
+
+    @Test
+    public void testUpdateOptionsWithRawSources() throws Exception {
+
+        final UpdateOptions options1 = new UpdateOptions()
+                .setRawDoc(RawSource.json(Buffer.buffer("{\"field1\":\"1\"}")))
+                .setRawUpsert(new RawSource().setBytes(Buffer.buffer(new byte[]{(byte) 0x3a, (byte) 0x29, (byte) 0x0a})).setType(SourceType.SMILE));
+
+        final JsonObject json1 = options1.toJson();
+        final UpdateOptions options2 = new UpdateOptions(json1);
+
+        assertEquals(json1.encode(), options2.toJson().encode());
+        assertEquals("{\"field1\":\"1\"}", options2.getRawDoc().getBytes().toString());
+        assertEquals(SourceType.JSON, options2.getRawDoc().getType());
+        assertEquals(SourceType.SMILE, options2.getRawUpsert().getType());
+        assertEquals(3, options2.getRawUpsert().getBytes().length());
+    }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.BulkIngester;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIngesterOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link BulkWriteStream}
+ */
+@RunWith(VertxUnitRunner.class)
+public class BulkWriteStreamTest {
+
+    private Vertx vertx;
+    private List<Runnable> pendingResponses;
+    private String failureMessage;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        pendingResponses = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testWriteQueueFullUntilAcknowledged(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setFlushIntervalInMillis(0L).setMaxConcurrentRequests(10));
+            final WriteStream<BulkIndexOptions> stream = bulkIngester.indexStream().setWriteQueueMaxSize(100);
+
+            stream.write(index("a"));
+            assertThat(testContext, stream.writeQueueFull(), is(false));
+            stream.write(index("b"));
+            assertThat(testContext, stream.writeQueueFull(), is(true));
+            // A full queue is flushed right away
+            assertThat(testContext, pendingResponses.size(), is(1));
+
+            stream.drainHandler(drained -> {
+                assertThat(testContext, stream.writeQueueFull(), is(false));
+                async.complete();
+            });
+            pendingResponses.forEach(Runnable::run);
+        });
+    }
+
+    @Test
+    public void testReportsFailedItems(TestContext testContext) {
+        final Async async = testContext.async();
+        failureMessage = "mapper_parsing_exception";
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setFlushIntervalInMillis(0L));
+            final WriteStream<BulkIndexOptions> stream = bulkIngester.indexStream();
+            stream.exceptionHandler(cause -> {
+                assertThat(testContext, cause, instanceOf(BulkWriteStream.BulkItemFailureException.class));
+                assertThat(testContext, ((BulkWriteStream.BulkItemFailureException) cause).getItem().getFailureMessage(), is(failureMessage));
+                async.complete();
+            });
+            stream.write(index("a"));
+            stream.end();
+            pendingResponses.forEach(Runnable::run);
+        });
+    }
+
+    private static BulkIndexOptions index(String value) {
+        return new BulkIndexOptions().setIndex("index").setType("type").setSource(new JsonObject().put("value", value));
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                             List<BulkUpdateOptions> bulkUpdateOptions,
+                             List<BulkDeleteOptions> bulkDeleteOptions,
+                             BulkOptions bulkOptions,
+                             Handler<AsyncResult<BulkResponse>> resultHandler) {
+                final List<BulkResponseItem> items = new ArrayList<>();
+                for (BulkIndexOptions ignored : bulkIndexOptions) {
+                    final BulkResponseItem item = new BulkResponseItem();
+                    item.setStatus(failureMessage != null ? 400 : 201);
+                    item.setFailureMessage(failureMessage);
+                    items.add(item);
+                }
+                final BulkResponse bulkResponse = new BulkResponse();
+                bulkResponse.setResponses(items);
+
+                pendingResponses.add(() -> resultHandler.handle(Future.succeededFuture(bulkResponse)));
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchCacheOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link CachingElasticSearchService}
+ */
+@RunWith(VertxUnitRunner.class)
+public class CachingElasticSearchServiceTest {
+
+    private static final List<String> INDICES = Collections.singletonList("index");
+
+    private Vertx vertx;
+    private AtomicInteger searches;
+    private CachingElasticSearchService service;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        searches = new AtomicInteger();
+        service = new CachingElasticSearchService(createService(), new SearchCacheOptions());
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testCachesCacheableSearches(TestContext testContext) {
+        final Async async = testContext.async();
+        final SearchOptions cacheable = new SearchOptions()
+                .setQuery(new JsonObject().put("term", new JsonObject().put("user", "hubrick")))
+                .setSize(10)
+                .setCacheable(true);
+        // Same options set in another order
+        final SearchOptions reordered = new SearchOptions()
+                .setCacheable(true)
+                .setSize(10)
+                .setQuery(new JsonObject().put("term", new JsonObject().put("user", "hubrick")));
+
+        vertx.runOnContext(event -> search(cacheable, first -> search(reordered, second -> {
+            assertThat(testContext, searches.get(), is(1));
+            assertThat(testContext, second.getTook(), is(1L));
+
+            search(new SearchOptions().setSize(10), third -> search(new SearchOptions().setSize(10), fourth -> {
+                assertThat(testContext, searches.get(), is(3));
+                async.complete();
+            }));
+        })));
+    }
+
+    @Test
+    public void testInvalidatesOnWrite(TestContext testContext) {
+        final Async async = testContext.async();
+        final SearchOptions options = new SearchOptions().setCacheable(true);
+
+        vertx.runOnContext(event -> search(options, first -> {
+            service.index("other", "type", new JsonObject(), new IndexOptions(), other -> search(options, second -> {
+                assertThat(testContext, searches.get(), is(1));
+
+                service.index("index", "type", new JsonObject(), new IndexOptions(), index -> search(options, third -> {
+                    assertThat(testContext, searches.get(), is(2));
+                    assertThat(testContext, third.getTook(), is(2L));
+                    async.complete();
+                }));
+            }));
+        }));
+    }
+
+    @Test
+    public void testExpiresAfterTtl(TestContext testContext) {
+        final Async async = testContext.async();
+        final SearchOptions options = new SearchOptions().setCacheable(true).setCacheTtlInMillis(10L);
+
+        vertx.runOnContext(event -> search(options, first -> vertx.setTimer(50, timer -> search(options, second -> {
+            assertThat(testContext, searches.get(), is(2));
+            async.complete();
+        }))));
+    }
+
+    @Test
+    public void testReturnsCopies(TestContext testContext) {
+        final Async async = testContext.async();
+        final SearchOptions options = new SearchOptions().setCacheable(true);
+
+        vertx.runOnContext(event -> search(options, first -> {
+            first.getRawResponse().put("modified", true);
+            search(options, second -> {
+                assertThat(testContext, second.getRawResponse().containsKey("modified"), is(false));
+                async.complete();
+            });
+        }));
+    }
+
+    private void search(SearchOptions options, Handler<SearchResponse> handler) {
+        service.search(INDICES, options, result -> handler.handle(result.result()));
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                final long took = searches.incrementAndGet();
+                resultHandler.handle(Future.succeededFuture(new SearchResponse().setTook(took).setRawResponse(new JsonObject().put("took", took))));
+            }
+
+            @Override
+            public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+                resultHandler.handle(Future.succeededFuture(new IndexResponse()));
+            }
+        };
+    }
+}
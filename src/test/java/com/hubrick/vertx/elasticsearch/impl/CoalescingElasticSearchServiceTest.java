@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.CoalescingOptions;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.GetResult;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+/**
+ * Unit tests for {@link CoalescingElasticSearchService}
+ */
+@RunWith(VertxUnitRunner.class)
+public class CoalescingElasticSearchServiceTest {
+
+    private Vertx vertx;
+    private List<String> requests;
+    private List<Runnable> pendingResponses;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        requests = new ArrayList<>();
+        pendingResponses = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testCoalescesIdenticalGets(TestContext testContext) {
+        final Async async = testContext.async(4);
+        final ElasticSearchService service = new CoalescingElasticSearchService(createService(), new CoalescingOptions());
+        final List<GetResponse> responses = new ArrayList<>();
+
+        vertx.runOnContext(event -> {
+            for (String id : Arrays.asList("1", "1", "2", "1")) {
+                service.get("index", "type", id, new GetOptions(), result -> {
+                    responses.add(result.result());
+                    async.countDown();
+                });
+            }
+
+            assertThat(testContext, requests, is(Arrays.asList("get 1", "get 2")));
+            pendingResponses.forEach(Runnable::run);
+
+            final List<String> ids = responses.stream().map(response -> response.getResult().getId()).collect(Collectors.toList());
+            assertThat(testContext, ids.stream().sorted().collect(Collectors.toList()), is(Arrays.asList("1", "1", "1", "2")));
+            assertThat(testContext, responses.get(0), not(sameInstance(responses.get(1))));
+
+            // Nothing is kept once the response is received
+            service.get("index", "type", "1", new GetOptions(), result -> {
+                assertThat(testContext, requests.size(), is(3));
+                async.countDown();
+            });
+            pendingResponses.get(2).run();
+        });
+    }
+
+    @Test
+    public void testCoalescesSearchesButNotScrolls(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new CoalescingElasticSearchService(createService(), new CoalescingOptions());
+        final SearchOptions searchOptions = new SearchOptions().setQuery(new JsonObject().put("match_all", new JsonObject()));
+
+        vertx.runOnContext(event -> {
+            service.search(Collections.singletonList("index"), searchOptions, result -> {});
+            service.search(Collections.singletonList("index"), new SearchOptions(searchOptions), result -> {});
+            service.search(Collections.singletonList("index"), new SearchOptions(searchOptions).setScroll("1m"), result -> {});
+            service.search(Collections.singletonList("index"), new SearchOptions(searchOptions).setScroll("1m"), result -> {});
+
+            assertThat(testContext, requests, is(Arrays.asList("search", "search", "search")));
+            async.complete();
+        });
+    }
+
+    private static GetResult document(String id) {
+        return new GetResult().setIndex("index").setType("type").setId(id).setVersion(1L).setExists(true).setSource(new JsonObject().put("id", id));
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+                requests.add("get " + id);
+                final GetResponse getResponse = new GetResponse();
+                getResponse.setResult(document(id));
+                pendingResponses.add(() -> resultHandler.handle(Future.succeededFuture(getResponse)));
+            }
+
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                requests.add("search");
+                pendingResponses.add(() -> resultHandler.handle(Future.succeededFuture(new SearchResponse())));
+            }
+        };
+    }
+}
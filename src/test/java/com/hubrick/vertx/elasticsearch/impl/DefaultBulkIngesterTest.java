@@ -0,0 +1,262 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.BulkIngester;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIngesterOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkResponseItem;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.serviceproxy.ServiceException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link DefaultBulkIngester}
+ */
+@RunWith(VertxUnitRunner.class)
+public class DefaultBulkIngesterTest {
+
+    private Vertx vertx;
+    private List<List<String>> requests;
+    private List<String> kinds;
+    private Set<String> rejectOnce;
+    private AtomicInteger bulksToReject;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        requests = new CopyOnWriteArrayList<>();
+        kinds = new CopyOnWriteArrayList<>();
+        rejectOnce = new HashSet<>();
+        bulksToReject = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testFlushesOnMaxActions(TestContext testContext) {
+        final Async async = testContext.async(3);
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setMaxActions(3).setFlushIntervalInMillis(0L));
+            for (String id : new String[]{"1", "2", "3"}) {
+                bulkIngester.index(index(id), result -> {
+                    assertThat(testContext, Vertx.currentContext(), is(context));
+                    assertThat(testContext, result.result().getId(), is(id));
+                    assertThat(testContext, requests.size(), is(1));
+                    assertThat(testContext, requests.get(0).size(), is(3));
+                    async.countDown();
+                });
+            }
+        });
+    }
+
+    @Test
+    public void testKeepsOrderOfMixedActions(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setFlushIntervalInMillis(0L));
+            bulkIngester.index(index("1"), result -> {});
+            bulkIngester.index(index("2"), result -> {});
+            bulkIngester.delete(new BulkDeleteOptions().setIndex("index").setType("type").setSource("1"), result -> {});
+            bulkIngester.index(index("1"), result -> {});
+            bulkIngester.close(result -> {
+                assertThat(testContext, kinds, is(list("index", "delete", "index")));
+                assertThat(testContext, requests, is(Arrays.asList(list("1", "2"), list("1"), list("1"))));
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testFailsActionsWhenBulkThrows(TestContext testContext) {
+        final Async async = testContext.async(2);
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, new StubElasticSearchService() {
+                @Override
+                public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                                 List<BulkUpdateOptions> bulkUpdateOptions,
+                                 List<BulkDeleteOptions> bulkDeleteOptions,
+                                 BulkOptions bulkOptions,
+                                 Handler<AsyncResult<BulkResponse>> resultHandler) {
+                    throw new IllegalStateException("not encodable");
+                }
+            }, new BulkIngesterOptions().setFlushIntervalInMillis(0L));
+            bulkIngester.index(index("1"), result -> {
+                assertThat(testContext, result.cause() instanceof IllegalStateException, is(true));
+                async.countDown();
+            });
+            bulkIngester.close(result -> {
+                assertThat(testContext, result.succeeded(), is(true));
+                async.countDown();
+            });
+        });
+    }
+
+    @Test
+    public void testFlushesOnInterval(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setFlushIntervalInMillis(20L));
+            bulkIngester.index(index("1"), result -> {
+                assertThat(testContext, result.result().getId(), is("1"));
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testRetriesRejectedItems(TestContext testContext) {
+        final Async async = testContext.async(2);
+        rejectOnce.add("2");
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setMaxActions(2).setInitialBackoffInMillis(10L));
+            bulkIngester.index(index("1"), result -> {
+                assertThat(testContext, result.result().getStatus(), is(201));
+                async.countDown();
+            });
+            bulkIngester.index(index("2"), result -> {
+                assertThat(testContext, result.result().getStatus(), is(201));
+                assertThat(testContext, requests.size(), is(2));
+                assertThat(testContext, requests.get(1), is(list("2")));
+                async.countDown();
+            });
+        });
+    }
+
+    @Test
+    public void testRetriesRejectedBulks(TestContext testContext) {
+        final Async async = testContext.async(2);
+        bulksToReject.set(1);
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setMaxActions(2).setInitialBackoffInMillis(10L));
+            for (String id : new String[]{"1", "2"}) {
+                bulkIngester.index(index(id), result -> {
+                    assertThat(testContext, result.result().getStatus(), is(201));
+                    assertThat(testContext, requests.size(), is(2));
+                    assertThat(testContext, requests.get(1), is(list("1", "2")));
+                    async.countDown();
+                });
+            }
+        });
+    }
+
+    @Test
+    public void testCloseFlushesPendingActions(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final BulkIngester bulkIngester = BulkIngester.create(vertx, createService(), new BulkIngesterOptions().setFlushIntervalInMillis(0L));
+            final List<String> completed = new ArrayList<>();
+            bulkIngester.index(index("1"), result -> completed.add(result.result().getId()));
+            bulkIngester.close(result -> {
+                assertThat(testContext, completed, is(list("1")));
+                bulkIngester.index(index("2"), rejected -> {
+                    assertThat(testContext, rejected.failed(), is(true));
+                    async.complete();
+                });
+            });
+        });
+    }
+
+    private static BulkIndexOptions index(String id) {
+        return new BulkIndexOptions()
+                .setIndex("index")
+                .setType("type")
+                .setSource(new JsonObject().put("id", id))
+                .setIndexOptions(new IndexOptions().setId(id));
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                             List<BulkUpdateOptions> bulkUpdateOptions,
+                             List<BulkDeleteOptions> bulkDeleteOptions,
+                             BulkOptions bulkOptions,
+                             Handler<AsyncResult<BulkResponse>> resultHandler) {
+                final List<String> ids = new ArrayList<>();
+                bulkIndexOptions.forEach(options -> ids.add(options.getIndexOptions().getId()));
+                bulkDeleteOptions.forEach(options -> ids.add(options.getId()));
+                requests.add(ids);
+                kinds.add(!bulkIndexOptions.isEmpty() ? "index" : !bulkUpdateOptions.isEmpty() ? "update" : "delete");
+
+                if (bulksToReject.getAndDecrement() > 0) {
+                    new Thread(() -> resultHandler.handle(ServiceException.fail(ElasticSearchService.REJECTED_EXECUTION, "rejected execution"))).start();
+                    return;
+                }
+
+                final List<BulkResponseItem> items = new ArrayList<>();
+                for (String id : ids) {
+                    final BulkResponseItem item = new BulkResponseItem();
+                    item.setId(id);
+                    item.setStatus(rejectOnce.remove(id) ? 429 : 201);
+                    items.add(item);
+                }
+                final BulkResponse bulkResponse = new BulkResponse();
+                bulkResponse.setResponses(items);
+
+                // Responses arrive on a transport thread
+                new Thread(() -> resultHandler.handle(Future.succeededFuture(bulkResponse))).start();
+            }
+        };
+    }
+
+    private static List<String> list(String... values) {
+        final List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.admin.cluster.storedscripts.DeleteStoredScriptAction;
+import org.elasticsearch.action.admin.cluster.storedscripts.PutStoredScriptAction;
+import org.elasticsearch.transport.client.PreBuiltTransportClient;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the search templates of {@link DefaultElasticSearchAdminService}, against a transport client answering
+ * every request itself
+ */
+public class DefaultElasticSearchAdminServiceTest {
+
+    private final List<String> actions = new CopyOnWriteArrayList<>();
+    private DefaultElasticSearchService service;
+
+    @BeforeClass
+    public static void setUpClass() {
+        // Vert.x already initialized netty in this JVM
+        System.setProperty("es.set.netty.runtime.available.processors", "false");
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    public void testSkipsPuttingKnownSearchTemplates() throws Exception {
+        final DefaultElasticSearchAdminService adminService = start(DefaultElasticSearchAdminService.KNOWN_SEARCH_TEMPLATE_TTL_IN_MILLIS);
+
+        await(handler -> adminService.putSearchTemplate("template", "{\"query\": {}}", handler));
+        await(handler -> adminService.putSearchTemplate("template", "{\"query\": {}}", handler));
+
+        // Changed and deleted templates are stored again
+        await(handler -> adminService.putSearchTemplate("template", "{\"size\": 1}", handler));
+        await(handler -> adminService.deleteSearchTemplate("template", handler));
+        await(handler -> adminService.putSearchTemplate("template", "{\"size\": 1}", handler));
+
+        assertEquals(Arrays.asList(PutStoredScriptAction.NAME, PutStoredScriptAction.NAME, DeleteStoredScriptAction.NAME, PutStoredScriptAction.NAME), actions);
+    }
+
+    @Test
+    public void testPutsSearchTemplatesAgainOnceExpired() throws Exception {
+        final DefaultElasticSearchAdminService adminService = start(0);
+
+        await(handler -> adminService.putSearchTemplate("template", "{\"query\": {}}", handler));
+        await(handler -> adminService.putSearchTemplate("template", "{\"query\": {}}", handler));
+
+        assertEquals(Arrays.asList(PutStoredScriptAction.NAME, PutStoredScriptAction.NAME), actions);
+    }
+
+    private static void await(Consumer<Handler<AsyncResult<Void>>> request) throws InterruptedException {
+        // The transport client completes its listeners on its own threads
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<AsyncResult<Void>> result = new AtomicReference<>();
+        request.accept(completed -> {
+            result.set(completed);
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(result.get().succeeded());
+    }
+
+    private DefaultElasticSearchAdminService start(long knownSearchTemplateTtlInMillis) {
+        service = new DefaultElasticSearchService(settings -> new PreBuiltTransportClient(settings) {
+            @Override
+            protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+                actions.add(action.name());
+                listener.onResponse(action.newResponse());
+            }
+        }, new JsonElasticSearchConfigurator(new JsonObject()));
+        service.start();
+        return new DefaultElasticSearchAdminService(service, NoopElasticSearchMetrics.INSTANCE, knownSearchTemplateTtlInMillis);
+    }
+}
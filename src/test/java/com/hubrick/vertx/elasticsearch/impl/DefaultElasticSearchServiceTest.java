@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DefaultElasticSearchService} requests failing before they are sent, against a transport client
+ * without nodes
+ */
+public class DefaultElasticSearchServiceTest {
+
+    private DefaultElasticSearchService service;
+
+    @BeforeClass
+    public static void setUpClass() {
+        // Vert.x already initialized netty in this JVM
+        System.setProperty("es.set.netty.runtime.available.processors", "false");
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    public void testRejectsPreparedSearchWithoutTemplate() {
+        service = start(new JsonObject());
+        final AtomicReference<AsyncResult<String>> result = new AtomicReference<>();
+
+        service.registerPreparedSearch(Collections.singletonList("index"), null, result::set);
+
+        assertTrue(result.get().failed());
+        assertTrue(result.get().cause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testEvictsPreparedSearchesBeyondCacheSize() {
+        service = start(new JsonObject().put("prepared_search_cache_size", 1));
+        final AtomicReference<AsyncResult<String>> first = new AtomicReference<>();
+        final AtomicReference<AsyncResult<SearchResponse>> executed = new AtomicReference<>();
+
+        service.registerPreparedSearch(Collections.singletonList("index"), new SearchOptions().setSize(1), first::set);
+        service.registerPreparedSearch(Collections.singletonList("index"), new SearchOptions().setSize(2), result -> {});
+        service.executePreparedSearch(first.get().result(), new JsonObject(), executed::set);
+
+        assertTrue(executed.get().failed());
+        assertEquals(PreparedSearch.UNKNOWN_PREPARED_SEARCH, ((ServiceException) executed.get().cause()).failureCode());
+    }
+
+    @Test
+    public void testFailsSearchesWithMalformedQuery() {
+        service = start(new JsonObject().put("query_parsing", "CLIENT"));
+        final JsonObject malformedQuery = new JsonObject().put("no_such_query", new JsonObject());
+        final AtomicReference<AsyncResult<SearchResponse>> searched = new AtomicReference<>();
+        final AtomicReference<AsyncResult<MultiSearchResponse>> multiSearched = new AtomicReference<>();
+        final AtomicReference<AsyncResult<DeleteByQueryResponse>> deleted = new AtomicReference<>();
+
+        service.search(Collections.singletonList("index"), new SearchOptions().setQuery(malformedQuery), searched::set);
+        service.multiSearch(Collections.singletonList(new MultiSearchQueryOptions().setIndices(Collections.singletonList("index")).setSearchOptions(new SearchOptions().setQuery(malformedQuery))), null, multiSearched::set);
+        service.deleteByQuery(Collections.singletonList("index"), new DeleteByQueryOptions().setQuery(malformedQuery), deleted::set);
+
+        assertTrue(searched.get().failed());
+        assertTrue(multiSearched.get().failed());
+        assertTrue(deleted.get().failed());
+    }
+
+    private static DefaultElasticSearchService start(JsonObject config) {
+        final DefaultElasticSearchService service = new DefaultElasticSearchService(new DefaultTransportClientFactory(), new JsonElasticSearchConfigurator(config));
+        service.start();
+        return service;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DefaultPreparedSearch}
+ */
+public class DefaultPreparedSearchTest {
+
+    private final Set<String> registered = new HashSet<>();
+    private final List<String> calls = new ArrayList<>();
+    private final ElasticSearchService service = createService();
+
+    @Test
+    public void testExecutesWithIdAndParams() {
+        final PreparedSearch preparedSearch = prepare();
+        final AtomicReference<AsyncResult<SearchResponse>> result = new AtomicReference<>();
+        preparedSearch.execute(new JsonObject().put("prefix", "ver"), result::set);
+
+        assertTrue(result.get().succeeded());
+        assertEquals(Arrays.asList("register", "execute id {\"prefix\":\"ver\"}"), calls);
+    }
+
+    @Test
+    public void testPreparesAgainWhenTheIdIsUnknown() {
+        final PreparedSearch preparedSearch = prepare();
+        // E.g. the service was restarted
+        registered.clear();
+
+        final AtomicReference<AsyncResult<SearchResponse>> result = new AtomicReference<>();
+        preparedSearch.execute(new JsonObject().put("prefix", "ver"), result::set);
+
+        assertTrue(result.get().succeeded());
+        assertEquals(Arrays.asList("register", "execute id {\"prefix\":\"ver\"}", "register", "execute id {\"prefix\":\"ver\"}"), calls);
+    }
+
+    private PreparedSearch prepare() {
+        final AtomicReference<AsyncResult<PreparedSearch>> result = new AtomicReference<>();
+        DefaultPreparedSearch.prepare(service, Collections.singletonList("index"), new SearchOptions().setQuery(new JsonObject().put("prefix", "{{prefix}}")), result::set);
+        assertTrue(result.get().succeeded());
+        assertEquals("id", result.get().result().getId());
+        return result.get().result();
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void registerPreparedSearch(List<String> indices, SearchOptions template, Handler<AsyncResult<String>> resultHandler) {
+                calls.add("register");
+                registered.add("id");
+                resultHandler.handle(Future.succeededFuture("id"));
+            }
+
+            @Override
+            public void executePreparedSearch(String preparedSearchId, JsonObject params, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                calls.add("execute " + preparedSearchId + " " + params.encode());
+                resultHandler.handle(registered.contains(preparedSearchId)
+                        ? Future.succeededFuture(new SearchResponse())
+                        : ServiceException.fail(PreparedSearch.UNKNOWN_PREPARED_SEARCH, "Unknown prepared search " + preparedSearchId));
+            }
+        };
+    }
+}
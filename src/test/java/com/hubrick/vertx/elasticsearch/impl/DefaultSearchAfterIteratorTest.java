@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.SearchAfterIterator;
+import com.hubrick.vertx.elasticsearch.model.FieldSortOption;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.Hits;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SortOrder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * Unit tests for {@link DefaultSearchAfterIterator}
+ */
+@RunWith(VertxUnitRunner.class)
+public class DefaultSearchAfterIteratorTest {
+
+    private static final int TOTAL = 5;
+    private static final int PAGE_SIZE = 2;
+
+    private Vertx vertx;
+    private List<SearchOptions> requests;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        requests = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testPagesWithSearchAfter(TestContext testContext) {
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final SearchOptions searchOptions = new SearchOptions().setSize(PAGE_SIZE).addFieldSort("date", SortOrder.DESC);
+            final SearchAfterIterator iterator = ElasticSearchServiceHelper.searchAfterIterator(createService(), Collections.singletonList("index"), searchOptions);
+            final List<String> ids = new ArrayList<>();
+
+            nextPage(testContext, context, iterator, ids, () -> {
+                assertThat(testContext, ids, is(IntStream.range(0, TOTAL).mapToObj(String::valueOf).collect(Collectors.toList())));
+                assertThat(testContext, requests.size(), is(3));
+                assertThat(testContext, requests.get(0).getSearchAfter(), is(nullValue()));
+                assertThat(testContext, requests.get(1).getSearchAfter(), is(new JsonArray().add(1)));
+                assertThat(testContext, requests.get(2).getSearchAfter(), is(new JsonArray().add(3)));
+                assertThat(testContext, ((FieldSortOption) requests.get(0).getSorts().get(1)).getField(), is(DefaultSearchAfterIterator.DEFAULT_TIEBREAKER));
+                assertThat(testContext, searchOptions.getSorts().size(), is(1));
+                assertThat(testContext, iterator.getSearchAfter(), is(new JsonArray().add(4)));
+
+                iterator.next(result -> {
+                    assertThat(testContext, result.cause(), instanceOf(NoSuchElementException.class));
+                    async.complete();
+                });
+            });
+        });
+    }
+
+    @Test
+    public void testPrefetchesNextPage(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final SearchAfterIterator iterator = ElasticSearchServiceHelper.searchAfterIterator(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE));
+            iterator.next(result -> {
+                assertThat(testContext, result.succeeded(), is(true));
+                vertx.setTimer(50, timer -> {
+                    // The second page was requested without calling next()
+                    assertThat(testContext, requests.size(), is(2));
+                    async.complete();
+                });
+            });
+        });
+    }
+
+    private void nextPage(TestContext testContext, Context context, SearchAfterIterator iterator, List<String> ids, Runnable done) {
+        if (!iterator.hasNext()) {
+            done.run();
+            return;
+        }
+        iterator.next(result -> {
+            assertThat(testContext, result.succeeded(), is(true));
+            assertThat(testContext, Vertx.currentContext(), is(context));
+            result.result().getHits().getHits().forEach(hit -> ids.add(hit.getId()));
+            nextPage(testContext, context, iterator, ids, done);
+        });
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                requests.add(options);
+                respond(resultHandler, options.getSearchAfter() != null ? options.getSearchAfter().getInteger(0) + 1 : 0);
+            }
+        };
+    }
+
+    private void respond(Handler<AsyncResult<SearchResponse>> handler, int from) {
+        final int to = Math.min(from + PAGE_SIZE, TOTAL);
+        final List<Hit> hits = IntStream.range(from, to)
+                .mapToObj(i -> new Hit().setId(String.valueOf(i)).setSortValues(new JsonArray().add(i)))
+                .collect(Collectors.toList());
+        final SearchResponse searchResponse = new SearchResponse().setHits(new Hits().setTotal((long) TOTAL).setHits(hits));
+
+        // Responses arrive on a transport thread
+        new Thread(() -> handler.handle(Future.succeededFuture(searchResponse))).start();
+    }
+}
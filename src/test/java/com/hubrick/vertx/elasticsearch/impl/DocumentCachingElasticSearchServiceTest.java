@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
+import com.hubrick.vertx.elasticsearch.model.DocumentCacheOptions;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.GetResult;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponseItem;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link DocumentCachingElasticSearchService}
+ */
+@RunWith(VertxUnitRunner.class)
+public class DocumentCachingElasticSearchServiceTest {
+
+    private Vertx vertx;
+    private List<String> fetchedIds;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        fetchedIds = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testCachesGets(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions());
+
+        vertx.runOnContext(event -> service.get("index", "type", "1", cacheable(), first -> service.get("index", "type", "1", cacheable(), second -> {
+            assertThat(testContext, fetchedIds, is(Arrays.asList("1")));
+            assertThat(testContext, second.result().getResult().getSource(), is(new JsonObject().put("id", "1")));
+
+            // Other routing, other document
+            service.get("index", "type", "1", cacheable().setRouting("other"), third -> {
+                assertThat(testContext, fetchedIds, is(Arrays.asList("1", "1")));
+                async.complete();
+            });
+        })));
+    }
+
+    @Test
+    public void testFetchesOnlyMissesOfMultiGet(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions());
+
+        vertx.runOnContext(event -> service.get("index", "type", "2", cacheable(), first -> {
+            final List<MultiGetQueryOptions> queries = Arrays.asList(query("1"), query("2"), query("3"));
+            service.multiGet(queries, new MultiGetOptions().setIncludeRawResponse(false), result -> {
+                assertThat(testContext, fetchedIds, is(Arrays.asList("2", "1", "3")));
+                assertThat(testContext, result.result().getResponses().stream().map(MultiGetResponseItem::getId).collect(Collectors.toList()), is(Arrays.asList("1", "2", "3")));
+
+                service.multiGet(queries, new MultiGetOptions().setIncludeRawResponse(false), cached -> {
+                    assertThat(testContext, fetchedIds.size(), is(3));
+                    assertThat(testContext, cached.result().getResponses().get(2).getGetResult().getSource(), is(new JsonObject().put("id", "3")));
+                    async.complete();
+                });
+            });
+        }));
+    }
+
+    @Test
+    public void testWritesUpdateAndInvalidate(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions());
+        final JsonObject source = new JsonObject().put("id", "1").put("name", "indexed");
+
+        vertx.runOnContext(event -> service.index("index", "type", source, new IndexOptions().setId("1"), indexed -> {
+            service.get("index", "type", "1", cacheable(), cached -> {
+                assertThat(testContext, fetchedIds.isEmpty(), is(true));
+                assertThat(testContext, cached.result().getResult().getSource(), is(source));
+                assertThat(testContext, cached.result().getResult().getVersion(), is(2L));
+
+                service.delete("index", "type", "1", new DeleteOptions(), deleted -> service.get("index", "type", "1", cacheable(), fetched -> {
+                    assertThat(testContext, fetchedIds, is(Arrays.asList("1")));
+                    async.complete();
+                }));
+            });
+        }));
+    }
+
+    @Test
+    public void testKeepsNewerVersionOfOutOfOrderIndexes(TestContext testContext) {
+        final Async async = testContext.async();
+        final List<Runnable> pendingIndexes = new ArrayList<>();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(new ForwardingElasticSearchService(createService()) {
+            @Override
+            public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+                final IndexResponse indexResponse = new IndexResponse();
+                indexResponse.setIndex(index);
+                indexResponse.setType(type);
+                indexResponse.setId(options.getId());
+                indexResponse.setVersion(source.getLong("version"));
+                pendingIndexes.add(() -> resultHandler.handle(Future.succeededFuture(indexResponse)));
+            }
+        }, new DocumentCacheOptions());
+
+        vertx.runOnContext(event -> {
+            service.index("index", "type", new JsonObject().put("version", 1L), new IndexOptions().setId("1"), indexed -> {});
+            service.index("index", "type", new JsonObject().put("version", 2L), new IndexOptions().setId("1"), indexed -> {});
+            pendingIndexes.get(1).run();
+            pendingIndexes.get(0).run();
+
+            service.get("index", "type", "1", cacheable(), cached -> {
+                assertThat(testContext, fetchedIds.isEmpty(), is(true));
+                assertThat(testContext, cached.result().getResult().getVersion(), is(2L));
+                assertThat(testContext, cached.result().getResult().getSource(), is(new JsonObject().put("version", 2L)));
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testDelegatesGetsWithoutOptions(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions());
+
+        vertx.runOnContext(event -> service.get("index", "type", "1", null, first -> service.get("index", "type", "1", null, second -> {
+            assertThat(testContext, second.succeeded(), is(true));
+            assertThat(testContext, fetchedIds, is(Arrays.asList("1", "1")));
+            async.complete();
+        })));
+    }
+
+    @Test
+    public void testIndexTtlDisablesCaching(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions().putIndexTtlInMillis("index", 0L));
+
+        vertx.runOnContext(event -> service.get("index", "type", "1", cacheable(), first -> service.get("index", "type", "1", cacheable(), second -> {
+            assertThat(testContext, fetchedIds, is(Arrays.asList("1", "1")));
+            async.complete();
+        })));
+    }
+
+    @Test
+    public void testDelegatesGetsWithRawResponse(TestContext testContext) {
+        final Async async = testContext.async();
+        final ElasticSearchService service = new DocumentCachingElasticSearchService(createService(), new DocumentCacheOptions());
+
+        vertx.runOnContext(event -> service.get("index", "type", "1", new GetOptions(), first -> service.get("index", "type", "1", cacheable(), second -> {
+            // Leaving includeRawResponse unset may get the raw response, so the document isn't cached
+            assertThat(testContext, fetchedIds, is(Arrays.asList("1", "1")));
+            service.multiGet(Arrays.asList(query("1")), new MultiGetOptions(), third -> {
+                assertThat(testContext, fetchedIds, is(Arrays.asList("1", "1", "1")));
+                async.complete();
+            });
+        })));
+    }
+
+    private static GetOptions cacheable() {
+        return new GetOptions().setIncludeRawResponse(false);
+    }
+
+    private static MultiGetQueryOptions query(String id) {
+        return new MultiGetQueryOptions().setIndex("index").setType("type").setId(id);
+    }
+
+    private GetResult document(String id) {
+        fetchedIds.add(id);
+        return new GetResult().setIndex("index").setType("type").setId(id).setVersion(1L).setExists(true).setSource(new JsonObject().put("id", id));
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+                final GetResponse getResponse = new GetResponse();
+                getResponse.setResult(document(id));
+                resultHandler.handle(Future.succeededFuture(getResponse));
+            }
+
+            @Override
+            public void multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options, Handler<AsyncResult<MultiGetResponse>> resultHandler) {
+                final List<MultiGetResponseItem> items = multiGetQueryOptions.stream()
+                        .map(query -> new MultiGetResponseItem().setIndex(query.getIndex()).setType(query.getType()).setId(query.getId()).setGetResult(document(query.getId())))
+                        .collect(Collectors.toList());
+                resultHandler.handle(Future.succeededFuture(new MultiGetResponse().setResponses(items)));
+            }
+
+            @Override
+            public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+                final IndexResponse indexResponse = new IndexResponse();
+                indexResponse.setIndex(index);
+                indexResponse.setType(type);
+                indexResponse.setId(options.getId());
+                indexResponse.setVersion(2L);
+                resultHandler.handle(Future.succeededFuture(indexResponse));
+            }
+
+            @Override
+            public void delete(String index, String type, String id, DeleteOptions options, Handler<AsyncResult<DeleteResponse>> resultHandler) {
+                resultHandler.handle(Future.succeededFuture(new DeleteResponse()));
+            }
+        };
+    }
+}
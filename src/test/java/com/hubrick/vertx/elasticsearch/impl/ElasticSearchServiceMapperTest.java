@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ResponseMaterialization;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link ElasticSearchServiceMapper}
+ */
+public class ElasticSearchServiceMapperTest {
+
+    @Test
+    public void testSearchResponseTreeMaterialization() throws Exception {
+        final org.elasticsearch.action.search.SearchResponse esSearchResponse = createSearchResponse();
+
+        final SearchResponse fromString = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.JSON_STRING, true);
+        final SearchResponse fromTree = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.TREE, true);
+
+        assertEquals(fromString.getRawResponse().encode(), fromTree.getRawResponse().encode());
+        assertEquals(fromString.toJson().encode(), fromTree.toJson().encode());
+        assertEquals("value1", fromTree.getHits().getHits().get(0).getSource().getString("field1"));
+        assertEquals(2, fromTree.getHits().getHits().get(1).getSource().getJsonObject("nested").getJsonArray("array").size());
+    }
+
+    @Test
+    public void testSearchResponseWithoutRawResponse() throws Exception {
+        final org.elasticsearch.action.search.SearchResponse esSearchResponse = createSearchResponse();
+
+        final SearchResponse withRaw = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.TREE, true);
+        final SearchResponse withoutRaw = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.TREE, false);
+
+        assertNull(withoutRaw.getRawResponse());
+        assertEquals(withRaw.getHits().toJson().encode(), withoutRaw.getHits().toJson().encode());
+    }
+
+    @Test
+    public void testTreeMaterializationKeepsRawResponseApart() throws Exception {
+        final SearchResponse fromTree = ElasticSearchServiceMapper.mapToSearchResponse(createSearchResponse(), ResponseMaterialization.TREE, true);
+
+        fromTree.getHits().getHits().get(0).getSource().put("field1", "changed");
+
+        assertEquals("value1", fromTree.getRawResponse().getJsonObject("hits").getJsonArray("hits").getJsonObject(0).getJsonObject("_source").getString("field1"));
+    }
+
+    @Test
+    public void testFloatsMaterializeLikeTheirJson() throws Exception {
+        final SearchHit hit = new SearchHit(1, "1", new Text("type"), Collections.emptyMap()).sourceRef(new BytesArray("{}"));
+        hit.score(0.1f);
+        final SearchHits searchHits = new SearchHits(new SearchHit[]{hit}, 1, 0.1f);
+        final org.elasticsearch.action.search.SearchResponse esSearchResponse = new org.elasticsearch.action.search.SearchResponse(
+                new InternalSearchResponse(searchHits, null, null, null, false, null, 1), null, 1, 1, 0, 10, new ShardSearchFailure[0], org.elasticsearch.action.search.SearchResponse.Clusters.EMPTY);
+
+        final SearchResponse fromString = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.JSON_STRING, true);
+        final SearchResponse fromTree = ElasticSearchServiceMapper.mapToSearchResponse(esSearchResponse, ResponseMaterialization.TREE, true);
+
+        assertEquals(0.1, fromTree.getRawResponse().getJsonObject("hits").getDouble("max_score"), 0);
+        assertEquals(fromString.getRawResponse(), fromTree.getRawResponse());
+    }
+
+    @Test
+    public void testReadSource() throws Exception {
+        final BytesArray source = new BytesArray("{\"a\":1,\"b\":[true,null,\"c\"],\"d\":{\"e\":1.5}}");
+
+        final JsonObject fromString = ElasticSearchServiceMapper.readSource(source, ResponseMaterialization.JSON_STRING);
+        final JsonObject fromTree = ElasticSearchServiceMapper.readSource(source, ResponseMaterialization.TREE);
+
+        assertEquals(fromString, fromTree);
+        assertEquals(fromString.encode(), fromTree.encode());
+    }
+
+    private org.elasticsearch.action.search.SearchResponse createSearchResponse() {
+        final SearchHit hit1 = new SearchHit(1, "1", new Text("type"), Collections.emptyMap())
+                .sourceRef(new BytesArray("{\"field1\":\"value1\",\"count\":12}"));
+        hit1.score(1.5f);
+        final SearchHit hit2 = new SearchHit(2, "2", new Text("type"), Collections.emptyMap())
+                .sourceRef(new BytesArray("{\"field1\":\"value2\",\"nested\":{\"array\":[1,{\"deep\":false}]}}"));
+        hit2.score(0.5f);
+
+        final SearchHits searchHits = new SearchHits(new SearchHit[]{hit1, hit2}, 2, 1.5f);
+        final InternalSearchResponse internalSearchResponse = new InternalSearchResponse(searchHits, null, null, null, false, null, 1);
+        return new org.elasticsearch.action.search.SearchResponse(internalSearchResponse, "scroll_id", 1, 1, 0, 10, new ShardSearchFailure[0], org.elasticsearch.action.search.SearchResponse.Clusters.EMPTY);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link EventBusCodecs}
+ */
+@RunWith(VertxUnitRunner.class)
+public class EventBusCodecsTest {
+
+    private static final String ADDRESS = "eb.elasticsearch";
+
+    private Vertx vertx;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        EventBusCodecs.bindService(vertx, ADDRESS, createService());
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testPlainProxy(TestContext testContext) {
+        assertSearch(testContext, ElasticSearchService.createEventBusProxy(vertx, ADDRESS));
+    }
+
+    @Test
+    public void testBinaryProxy(TestContext testContext) {
+        assertSearch(testContext, ElasticSearchServiceHelper.createBinaryEventBusProxy(vertx, ADDRESS));
+    }
+
+    @Test
+    public void testLocalProxy(TestContext testContext) {
+        assertSearch(testContext, ElasticSearchServiceHelper.createLocalEventBusProxy(vertx, ADDRESS));
+    }
+
+    private void assertSearch(TestContext testContext, ElasticSearchService proxy) {
+        final Async async = testContext.async();
+
+        proxy.search(Collections.singletonList("index"), new SearchOptions().setSize(3), result -> {
+            assertThat(testContext, result.succeeded(), is(true));
+            assertThat(testContext, result.result().getTook(), is(3L));
+            assertThat(testContext, result.result().getRawResponse(), is(new JsonObject().put("size", 3)));
+            async.complete();
+        });
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                final SearchResponse searchResponse = new SearchResponse()
+                        .setTook(options.getSize().longValue())
+                        .setRawResponse(new JsonObject().put("size", options.getSize()));
+                resultHandler.handle(Future.succeededFuture(searchResponse));
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResult;
+import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponseItem;
+import com.hubrick.vertx.elasticsearch.model.RequestTimings;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.serviceproxy.ServiceException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * Unit tests for {@link GetBatcher}
+ */
+@RunWith(VertxUnitRunner.class)
+public class GetBatcherTest {
+
+    private Vertx vertx;
+    private List<List<MultiGetQueryOptions>> batches;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        batches = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testMapsGetOptionsToItems(TestContext testContext) {
+        final Async async = testContext.async();
+        final GetBatcher getBatcher = new GetBatcher(100, 3, this::multiGet);
+
+        vertx.runOnContext(event -> {
+            getBatcher.get("index", "type", "1", new GetOptions().setRouting("user"), result -> {});
+            getBatcher.get("index", "type", "2", new GetOptions().addField("name"), result -> {});
+            getBatcher.get("index", "type", "3", new GetOptions().setFetchSource(false).setFetchSource(Collections.singletonList("name"), null), result -> {});
+
+            // A full batch is sent right away
+            assertThat(testContext, batches.size(), is(1));
+            final List<MultiGetQueryOptions> items = batches.get(0);
+            assertThat(testContext, items.get(0).getRouting(), is("user"));
+            assertThat(testContext, items.get(0).getFetchSource(), is(true));
+            assertThat(testContext, items.get(1).getStoredFields(), is(Collections.singletonList("name")));
+            assertThat(testContext, items.get(1).getFetchSource(), is(nullValue()));
+            assertThat(testContext, items.get(2).getFetchSource(), is(true));
+            assertThat(testContext, items.get(2).getFetchSourceIncludes(), is(Collections.singletonList("name")));
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testSplitsBatchesByRequestOptionsAndRawResponses(TestContext testContext) {
+        final Async async = testContext.async(2);
+        final GetBatcher getBatcher = new GetBatcher(100, 100, this::multiGet);
+
+        vertx.runOnContext(event -> {
+            getBatcher.get("index", "type", "1", new GetOptions().setIncludeRawResponse(true), result -> {
+                assertThat(testContext, result.result().getRawResponse(), is(new JsonObject().put("_id", "1")));
+                async.countDown();
+            });
+            getBatcher.get("index", "type", "2", new GetOptions().setIncludeRawResponse(false), result -> {
+                assertThat(testContext, result.result().getRawResponse(), is(nullValue()));
+                assertThat(testContext, result.result().getResult().getId(), is("2"));
+                async.countDown();
+            });
+
+            vertx.runOnContext(flushed -> {
+                final List<String> ids = batches.stream()
+                        .map(batch -> batch.stream().map(MultiGetQueryOptions::getId).collect(Collectors.joining(",")))
+                        .collect(Collectors.toList());
+                assertThat(testContext, ids, is(Arrays.asList("1", "2")));
+            });
+        });
+    }
+
+    @Test
+    public void testGetsOwnTheirTimings(TestContext testContext) {
+        final Async async = testContext.async(2);
+        final GetBatcher getBatcher = new GetBatcher(100, 2, this::multiGet);
+
+        vertx.runOnContext(event -> {
+            getBatcher.get("index", "type", "1", new GetOptions(), result -> {
+                result.result().getTimings().setTransportInNanos(0L);
+                async.countDown();
+            });
+            getBatcher.get("index", "type", "2", new GetOptions(), result -> {
+                assertThat(testContext, result.result().getTimings().getTransportInNanos(), is(10L));
+                async.countDown();
+            });
+        });
+    }
+
+    @Test
+    public void testFailsItemsLikeSingleGets(TestContext testContext) {
+        final Async async = testContext.async(2);
+        final GetBatcher getBatcher = new GetBatcher(100, 2, this::multiGet);
+
+        vertx.runOnContext(event -> {
+            getBatcher.get("index", "type", "rejected", new GetOptions(), result -> {
+                assertThat(testContext, ((ServiceException) result.cause()).failureCode(), is(ElasticSearchService.REJECTED_EXECUTION));
+                async.countDown();
+            });
+            getBatcher.get("missing", "type", "1", new GetOptions(), result -> {
+                assertThat(testContext, result.cause() instanceof ServiceException, is(false));
+                assertThat(testContext, result.cause().getMessage(), is("no such index"));
+                async.countDown();
+            });
+        });
+    }
+
+    private void multiGet(List<MultiGetQueryOptions> queries, MultiGetOptions options, Handler<AsyncResult<MultiGetResponse>> resultHandler) {
+        batches.add(queries);
+
+        final List<MultiGetResponseItem> items = new ArrayList<>();
+        final JsonArray rawDocs = new JsonArray();
+        for (MultiGetQueryOptions query : queries) {
+            if (query.getId().equals("rejected")) {
+                items.add(new MultiGetResponseItem().setId(query.getId()).setFailureMessage("rejected execution").setStatus(429));
+                continue;
+            }
+            if (query.getIndex().equals("missing")) {
+                items.add(new MultiGetResponseItem().setId(query.getId()).setFailureMessage("no such index").setStatus(404));
+                continue;
+            }
+            items.add(new MultiGetResponseItem().setIndex(query.getIndex()).setType(query.getType()).setId(query.getId())
+                    .setGetResult(new GetResult().setIndex(query.getIndex()).setType(query.getType()).setId(query.getId()).setExists(true)));
+            rawDocs.add(new JsonObject().put("_id", query.getId()));
+        }
+
+        final MultiGetResponse multiGetResponse = new MultiGetResponse().setResponses(items);
+        multiGetResponse.setTimings(new RequestTimings().setTransportInNanos(10L));
+        if (Boolean.TRUE.equals(options.getIncludeRawResponse())) {
+            multiGetResponse.setRawResponse(new JsonObject().put("docs", rawDocs));
+        }
+        resultHandler.handle(Future.succeededFuture(multiGetResponse));
+    }
+}
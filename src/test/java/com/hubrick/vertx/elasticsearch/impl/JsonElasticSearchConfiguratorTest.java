@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonElasticSearchConfiguratorTest {
+
+    @Test
+    public void testTransportSettingsHonourSniff() {
+        final Settings settings = DefaultElasticSearchService.transportSettings(new JsonElasticSearchConfigurator(new JsonObject()
+                .put("cluster_name", "test")
+                .put("client_transport_sniff", false)));
+
+        assertEquals("test", settings.get("cluster.name"));
+        assertEquals("false", settings.get("client.transport.sniff"));
+        assertNull(settings.get("transport.connections_per_node.bulk"));
+    }
+
+    @Test
+    public void testTransportSettingsOverrideProfile() {
+        final Settings settings = DefaultElasticSearchService.transportSettings(new JsonElasticSearchConfigurator(new JsonObject()
+                .put("transport", new JsonObject()
+                        .put("profile", "SEARCH_HEAVY")
+                        .put("regConnectionsPerNode", 10)
+                        .put("compress", true)
+                        .put("pingSchedule", "5s")
+                        .put("tcpNoDelay", true)
+                        .put("tcpSendBufferSize", "1mb")
+                        .put("nodesSamplerInterval", "10s"))));
+
+        assertEquals("2", settings.get("transport.connections_per_node.bulk"));
+        assertEquals("10", settings.get("transport.connections_per_node.reg"));
+        assertEquals("true", settings.get("transport.tcp.compress"));
+        assertEquals("5s", settings.get("transport.ping_schedule"));
+        assertEquals("1mb", settings.get("transport.tcp.send_buffer_size"));
+        assertEquals("10s", settings.get("client.transport.nodes_sampler_interval"));
+    }
+}
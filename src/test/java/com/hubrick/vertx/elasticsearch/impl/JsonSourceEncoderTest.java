@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link JsonSourceEncoder}
+ */
+public class JsonSourceEncoderTest {
+
+    @Test
+    public void testEncodesSourcesIntoSlices() {
+        final JsonObject first = new JsonObject().put("user", "hübrick").put("tags", new JsonArray().add("a").add(1));
+        final JsonObject second = new JsonObject().put("nested", new JsonObject().put("value", 1.5)).put("empty", (String) null);
+
+        final JsonSourceEncoder encoder = new JsonSourceEncoder();
+        final BytesReference firstBytes = encoder.encode(first);
+        final BytesReference secondBytes = encoder.encode(second);
+
+        assertThat(new JsonObject(firstBytes.utf8ToString()), is(first));
+        assertThat(new JsonObject(secondBytes.utf8ToString()), is(second));
+        assertThat(secondBytes.utf8ToString(), is(second.encode()));
+    }
+
+    @Test
+    public void testEncodesSingleSource() {
+        final JsonObject source = new JsonObject().put("user", "hubrick").put("count", 3);
+
+        assertThat(new String(JsonSourceEncoder.encodeToBytes(source), StandardCharsets.UTF_8), is(source.encode()));
+    }
+}
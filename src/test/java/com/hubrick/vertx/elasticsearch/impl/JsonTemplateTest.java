@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonTemplateTest {
+
+    @Test
+    public void testBindsPlaceholdersToJsonValues() {
+        final JsonTemplate template = new JsonTemplate(new JsonObject().put("bool", new JsonObject()
+                .put("must", new JsonObject().put("match_phrase_prefix", new JsonObject().put("title", "{{prefix}}")))
+                .put("filter", new JsonObject().put("terms", new JsonObject().put("tags", "{{tags}}")))
+                .put("minimum_should_match", "{{minimum}}")));
+
+        final JsonObject bound = new JsonObject(template.bind(new JsonObject()
+                .put("prefix", "vert\"x")
+                .put("tags", new JsonArray().add("a").add("b"))
+                .put("minimum", 2)));
+
+        assertTrue(template.hasParameters());
+        assertEquals("vert\"x", bound.getJsonObject("bool").getJsonObject("must").getJsonObject("match_phrase_prefix").getString("title"));
+        assertEquals(new JsonArray().add("a").add("b"), bound.getJsonObject("bool").getJsonObject("filter").getJsonObject("terms").getJsonArray("tags"));
+        assertEquals(Integer.valueOf(2), bound.getJsonObject("bool").getInteger("minimum_should_match"));
+    }
+
+    @Test
+    public void testWithoutPlaceholders() {
+        final JsonObject query = new JsonObject().put("match", new JsonObject().put("title", "{not a placeholder}"));
+        final JsonTemplate template = new JsonTemplate(query);
+
+        assertFalse(template.hasParameters());
+        assertEquals(query.encode(), template.bind(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingParameter() {
+        new JsonTemplate(new JsonObject().put("term", new JsonObject().put("status", "{{status}}"))).bind(new JsonObject());
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchMetrics;
+import com.hubrick.vertx.elasticsearch.ParsedBuilderType;
+import com.hubrick.vertx.elasticsearch.RequestPhase;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.support.replication.ReplicationResponse;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.transport.RemoteTransportException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link MetricsListener}
+ */
+public class MetricsListenerTest {
+
+    private final RecordingMetrics metrics = new RecordingMetrics();
+    private final List<Object> outcomes = new ArrayList<>();
+
+    @Test
+    public void testDisabledMetricsDoNotWrap() {
+        final ActionListener<Object> listener = listener();
+        assertSame(listener, MetricsListener.wrap(NoopElasticSearchMetrics.INSTANCE, "search", new SearchRequest("index"), listener));
+    }
+
+    @Test
+    public void testRecordsBulkItemsPerIndexAndTook() {
+        final BulkRequest request = new BulkRequest()
+                .add(new IndexRequest("index1", "type", "1").source(Collections.singletonMap("field", "value")))
+                .add(new IndexRequest("index2", "type", "2").source(Collections.singletonMap("field", "value")));
+        final ActionListener<BulkResponse> listener = MetricsListener.wrap(metrics, "bulk", request, listener());
+
+        final IndexResponse indexResponse = new IndexResponse(new ShardId("index1", "_na_", 0), "type", "1", 1, 1, 1, true);
+        indexResponse.setShardInfo(new ReplicationResponse.ShardInfo(1, 1));
+        final BulkResponse response = new BulkResponse(new BulkItemResponse[]{
+                new BulkItemResponse(0, DocWriteRequest.OpType.INDEX, indexResponse),
+                new BulkItemResponse(1, DocWriteRequest.OpType.INDEX, new BulkItemResponse.Failure("index2", "type", "2", new IllegalArgumentException("mapping")))
+        }, 42);
+        listener.onResponse(response);
+
+        assertEquals(Arrays.asList("started bulk index1,index2", "succeeded bulk index1,index2 took 42", "items index1 1/0", "items index2 0/1"), metrics.events);
+        assertTrue(metrics.requestSizeInBytes > 0);
+        assertTrue(metrics.responseSizeInBytes > 0);
+        assertEquals(Collections.singletonList(response), outcomes);
+    }
+
+    @Test
+    public void testRecordsUnwrappedFailures() {
+        final ActionListener<Object> listener = MetricsListener.wrap(metrics, "search", new SearchRequest(), listener());
+        final IllegalStateException cause = new IllegalStateException("shard failure");
+
+        listener.onFailure(new RemoteTransportException("node", cause));
+
+        assertEquals(Arrays.asList("started search null", "failed search null IllegalStateException"), metrics.events);
+        assertEquals(1, outcomes.size());
+    }
+
+    private <T> ActionListener<T> listener() {
+        return ActionListener.wrap(outcomes::add, outcomes::add);
+    }
+
+    private static class RecordingMetrics implements ElasticSearchMetrics {
+
+        private final List<String> events = new ArrayList<>();
+        private long requestSizeInBytes;
+        private long responseSizeInBytes;
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isRecordingSizes() {
+            return true;
+        }
+
+        @Override
+        public void requestStarted(String operation, String index) {
+            events.add("started " + operation + " " + index);
+        }
+
+        @Override
+        public void requestSucceeded(String operation, String index, long latencyInNanos, long tookInMillis, long requestSizeInBytes, long responseSizeInBytes) {
+            events.add("succeeded " + operation + " " + index + " took " + tookInMillis);
+            this.requestSizeInBytes = requestSizeInBytes;
+            this.responseSizeInBytes = responseSizeInBytes;
+        }
+
+        @Override
+        public void requestFailed(String operation, String index, long latencyInNanos, Throwable cause) {
+            events.add("failed " + operation + " " + index + " " + cause.getClass().getSimpleName());
+        }
+
+        @Override
+        public void bulkItemsCompleted(String index, int succeededItems, int failedItems) {
+            events.add("items " + index + " " + succeededItems + "/" + failedItems);
+        }
+
+        @Override
+        public void requestPhaseCompleted(String operation, String index, RequestPhase phase, long durationInNanos) {
+            events.add("phase " + operation + " " + phase);
+        }
+
+        @Override
+        public void parsedBuilderCacheAccessed(ParsedBuilderType type, boolean hit) {
+            events.add("cache " + type + " " + hit);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ParsedBuilderType;
+import com.hubrick.vertx.elasticsearch.model.AggregationOption;
+import io.vertx.core.json.JsonObject;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ParsedBuilderCacheTest {
+
+    private final List<Boolean> hits = new ArrayList<>();
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private final ParsedBuilderCache cache = new ParsedBuilderCache(10, new NoopElasticSearchMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void parsedBuilderCacheAccessed(ParsedBuilderType type, boolean hit) {
+            hits.add(hit);
+        }
+    });
+
+    @Test
+    public void testEqualDefinitionsAreParsedOnce() {
+        final AggregationBuilder first = cache.aggregation(terms(new JsonObject().put("field", "status").put("size", 10)), this::parse);
+        final AggregationBuilder second = cache.aggregation(terms(new JsonObject().put("size", 10).put("field", "status")), this::parse);
+
+        assertSame(first, second);
+        assertEquals(1, parsed.get());
+        assertEquals(Arrays.asList(false, true), hits);
+    }
+
+    @Test
+    public void testDifferentDefinitionsAreParsedSeparately() {
+        final AggregationBuilder first = cache.aggregation(terms(new JsonObject().put("field", "status")), this::parse);
+        final AggregationBuilder second = cache.aggregation(terms(new JsonObject().put("field", "status")).addSubAggregation(
+                new AggregationOption().setName("max").setType(AggregationOption.AggregationType.MAX).setDefinition(new JsonObject().put("field", "count"))), this::parse);
+
+        assertNotSame(first, second);
+        assertEquals(2, parsed.get());
+        assertEquals(Arrays.asList(false, false), hits);
+    }
+
+    @Test
+    public void testQueriesAreKeyedApartFromAggregations() {
+        final JsonObject definition = new JsonObject().put("field", "status");
+        cache.aggregation(terms(definition), this::parse);
+        final QueryBuilder first = cache.query(new JsonObject().put("term", definition), this::parseQuery);
+        final QueryBuilder second = cache.query(new JsonObject().put("term", definition.copy()), this::parseQuery);
+
+        assertSame(first, second);
+        assertEquals(2, parsed.get());
+        assertEquals(Arrays.asList(false, false, true), hits);
+    }
+
+    private AggregationOption terms(JsonObject definition) {
+        return new AggregationOption().setName("statuses").setType(AggregationOption.AggregationType.TERMS).setDefinition(definition);
+    }
+
+    private AggregationBuilder parse(AggregationOption aggregationOption) {
+        parsed.incrementAndGet();
+        return AggregationBuilders.terms(aggregationOption.getName());
+    }
+
+    private QueryBuilder parseQuery(JsonObject query) {
+        parsed.incrementAndGet();
+        return QueryBuilders.wrapperQuery(query.encode());
+    }
+}
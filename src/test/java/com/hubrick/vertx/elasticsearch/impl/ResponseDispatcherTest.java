@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.CompletionMode;
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.RequestTimings;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.serviceproxy.ServiceException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.transport.RemoteTransportException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+
+/**
+ * Unit tests for {@link ResponseDispatcher}
+ */
+@RunWith(VertxUnitRunner.class)
+public class ResponseDispatcherTest {
+
+    private Vertx vertx;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testCallerContext(TestContext testContext) {
+        final ResponseDispatcher dispatcher = new ResponseDispatcher(CompletionMode.CALLER_CONTEXT, 1, 1);
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final ActionListener<String> listener = dispatcher.<String, String>listener(result -> {
+                assertThat(testContext, Vertx.currentContext(), is(context));
+                assertThat(testContext, result.result(), is("RESPONSE"));
+                async.complete();
+            }, String::toUpperCase);
+
+            new Thread(() -> listener.onResponse("response")).start();
+        });
+    }
+
+    @Test
+    public void testTimings(TestContext testContext) {
+        final ResponseDispatcher dispatcher = new ResponseDispatcher(CompletionMode.MAPPING_POOL, 1, 1);
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final RequestTimer timer = RequestTimer.start(NoopElasticSearchMetrics.INSTANCE, "search", true);
+            timer.sent(new SearchRequest("index"));
+            final ActionListener<String> listener = dispatcher.<String, SearchResponse>listener(timer, result -> {
+                final RequestTimings timings = result.result().getTimings();
+                assertThat(testContext, timings.getBuildInNanos() >= 0, is(true));
+                assertThat(testContext, timings.getTransportInNanos() >= 0, is(true));
+                assertThat(testContext, timings.getMappingInNanos() >= 0, is(true));
+                assertThat(testContext, timings.getDispatchInNanos() >= 0, is(true));
+                dispatcher.close();
+                async.complete();
+            }, response -> new SearchResponse());
+
+            new Thread(() -> listener.onResponse("response")).start();
+        });
+    }
+
+    @Test
+    public void testMappingPool(TestContext testContext) {
+        final ResponseDispatcher dispatcher = new ResponseDispatcher(CompletionMode.MAPPING_POOL, 1, 1);
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+        final AtomicReference<String> mappingThread = new AtomicReference<>();
+
+        context.runOnContext(event -> {
+            final ActionListener<String> listener = dispatcher.<String, String>listener(result -> {
+                assertThat(testContext, Vertx.currentContext(), is(context));
+                assertThat(testContext, mappingThread.get(), startsWith("vert.x-elasticsearch-mapping-"));
+                dispatcher.close();
+                async.complete();
+            }, response -> {
+                mappingThread.set(Thread.currentThread().getName());
+                return response;
+            });
+
+            new Thread(() -> listener.onResponse("response")).start();
+        });
+    }
+
+    @Test
+    public void testFailureOnCallerContext(TestContext testContext) {
+        final ResponseDispatcher dispatcher = new ResponseDispatcher(CompletionMode.CALLER_CONTEXT, 1, 1);
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final ActionListener<String> listener = dispatcher.<String, String>listener(result -> {
+                assertThat(testContext, Vertx.currentContext(), is(context));
+                assertThat(testContext, result.failed(), is(true));
+                async.complete();
+            }, response -> response);
+
+            new Thread(() -> listener.onFailure(new IllegalStateException("failed"))).start();
+        });
+    }
+
+    @Test
+    public void testRejectionKeepsFailureCode(TestContext testContext) {
+        final ResponseDispatcher dispatcher = new ResponseDispatcher(CompletionMode.CALLER_CONTEXT, 1, 1);
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final ActionListener<String> listener = dispatcher.<String, String>listener(result -> {
+                assertThat(testContext, result.cause() instanceof ServiceException, is(true));
+                assertThat(testContext, ((ServiceException) result.cause()).failureCode(), is(ElasticSearchService.REJECTED_EXECUTION));
+                async.complete();
+            }, response -> response);
+
+            new Thread(() -> listener.onFailure(new RemoteTransportException("rejected", new EsRejectedExecutionException("queue full")))).start();
+        });
+    }
+}
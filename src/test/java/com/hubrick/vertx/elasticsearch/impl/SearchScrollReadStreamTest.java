@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.Hits;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link SearchScrollReadStream}
+ */
+@RunWith(VertxUnitRunner.class)
+public class SearchScrollReadStreamTest {
+
+    private static final int TOTAL = 5;
+    private static final int PAGE_SIZE = 2;
+
+    private Vertx vertx;
+    private List<String> requests;
+    private List<String> clearedScrollIds;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        requests = new ArrayList<>();
+        clearedScrollIds = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testStreamsAllPages(TestContext testContext) {
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final List<String> ids = new ArrayList<>();
+            final ReadStream<Hit> stream = ElasticSearchServiceHelper.searchStream(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE));
+            stream.endHandler(end -> {
+                assertThat(testContext, ids, is(IntStream.range(0, TOTAL).mapToObj(String::valueOf).collect(Collectors.toList())));
+                assertThat(testContext, requests, is(list("search", "scroll_2", "scroll_4")));
+                assertThat(testContext, clearedScrollIds, is(list("scroll_5")));
+                async.complete();
+            });
+            stream.handler(hit -> {
+                assertThat(testContext, Vertx.currentContext(), is(context));
+                ids.add(hit.getId());
+            });
+        });
+    }
+
+    @Test
+    public void testPauseStopsPrefetching(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final List<String> ids = new ArrayList<>();
+            final ReadStream<Hit> stream = ElasticSearchServiceHelper.searchStream(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE));
+            stream.handler(hit -> {
+                ids.add(hit.getId());
+                stream.pause();
+            });
+
+            vertx.setTimer(100, timer -> {
+                // First page is emitted partially, the second one is prefetched but nothing beyond
+                assertThat(testContext, ids, is(list("0")));
+                assertThat(testContext, requests, is(list("search", "scroll_2")));
+                stream.handler(null);
+                vertx.setTimer(50, timer2 -> {
+                    assertThat(testContext, clearedScrollIds, is(list("scroll_4")));
+                    async.complete();
+                });
+            });
+        });
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                requests.add("search");
+                respond(resultHandler, 0);
+            }
+
+            @Override
+            public void searchScroll(String scrollId, SearchScrollOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                requests.add(scrollId);
+                respond(resultHandler, Integer.parseInt(scrollId.substring("scroll_".length())));
+            }
+
+            @Override
+            public void clearScroll(List<String> scrollIds, Handler<AsyncResult<Void>> resultHandler) {
+                clearedScrollIds.addAll(scrollIds);
+                resultHandler.handle(Future.succeededFuture());
+            }
+        };
+    }
+
+    private void respond(Handler<AsyncResult<SearchResponse>> handler, int from) {
+        final int to = Math.min(from + PAGE_SIZE, TOTAL);
+        final List<Hit> hits = IntStream.range(from, to).mapToObj(i -> new Hit().setId(String.valueOf(i))).collect(Collectors.toList());
+        final SearchResponse searchResponse = new SearchResponse()
+                .setScrollId("scroll_" + to)
+                .setHits(new Hits().setTotal((long) TOTAL).setHits(hits));
+
+        // Responses arrive on a transport thread
+        new Thread(() -> handler.handle(Future.succeededFuture(searchResponse))).start();
+    }
+
+    private static List<String> list(String... values) {
+        final List<String> list = new ArrayList<>();
+        Collections.addAll(list, values);
+        return list;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
+import com.hubrick.vertx.elasticsearch.model.Hit;
+import com.hubrick.vertx.elasticsearch.model.Hits;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SlicedScrollOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hubrick.vertx.elasticsearch.VertxMatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Unit tests for {@link SlicedSearchScrollReadStream}
+ */
+@RunWith(VertxUnitRunner.class)
+public class SlicedSearchScrollReadStreamTest {
+
+    private static final int SLICES = 3;
+    private static final int HITS_PER_SLICE = 3;
+    private static final int PAGE_SIZE = 2;
+
+    private Vertx vertx;
+    private List<String> clearedScrollIds;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        clearedScrollIds = new CopyOnWriteArrayList<>();
+    }
+
+    @After
+    public void tearDown(TestContext testContext) {
+        vertx.close(testContext.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testOrderedStreamsSlicesInOrder(TestContext testContext) {
+        final Async async = testContext.async();
+        final Context context = vertx.getOrCreateContext();
+
+        context.runOnContext(event -> {
+            final List<String> ids = new ArrayList<>();
+            final SlicedScrollOptions slicedScrollOptions = new SlicedScrollOptions().setSlices(SLICES).setParallelism(2).setOrdered(true);
+            final ReadStream<Hit> stream = ElasticSearchServiceHelper.slicedSearchStream(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE), slicedScrollOptions);
+            stream.endHandler(end -> {
+                assertThat(testContext, ids, is(allIds()));
+                assertThat(testContext, clearedScrollIds.size(), is(SLICES));
+                async.complete();
+            });
+            stream.handler(hit -> {
+                assertThat(testContext, Vertx.currentContext(), is(context));
+                ids.add(hit.getId());
+            });
+        });
+    }
+
+    @Test
+    public void testUnorderedStreamsAllHits(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final List<String> ids = new ArrayList<>();
+            final SlicedScrollOptions slicedScrollOptions = new SlicedScrollOptions().setSlices(SLICES).setMaxBufferedHits(1);
+            final ReadStream<Hit> stream = ElasticSearchServiceHelper.slicedSearchStream(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE), slicedScrollOptions);
+            stream.endHandler(end -> {
+                Collections.sort(ids);
+                assertThat(testContext, ids, is(allIds()));
+                assertThat(testContext, clearedScrollIds.size(), is(SLICES));
+                async.complete();
+            });
+            stream.handler(hit -> ids.add(hit.getId()));
+        });
+    }
+
+    @Test
+    public void testCancelClearsAllScrolls(TestContext testContext) {
+        final Async async = testContext.async();
+
+        vertx.runOnContext(event -> {
+            final SlicedScrollOptions slicedScrollOptions = new SlicedScrollOptions().setSlices(SLICES);
+            final ReadStream<Hit> stream = ElasticSearchServiceHelper.slicedSearchStream(createService(), Collections.singletonList("index"), new SearchOptions().setSize(PAGE_SIZE), slicedScrollOptions);
+            stream.endHandler(end -> testContext.fail("Cancelled stream must not end"));
+            stream.handler(hit -> stream.handler(null));
+
+            vertx.setTimer(100, timer -> {
+                assertThat(testContext, clearedScrollIds.size(), is(SLICES));
+                async.complete();
+            });
+        });
+    }
+
+    private ElasticSearchService createService() {
+        return new StubElasticSearchService() {
+            @Override
+            public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                respond(resultHandler, options.getSlice().getId(), 0);
+            }
+
+            @Override
+            public void searchScroll(String scrollId, SearchScrollOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+                final String[] sliceAndFrom = scrollId.split("_");
+                respond(resultHandler, Integer.parseInt(sliceAndFrom[1]), Integer.parseInt(sliceAndFrom[2]));
+            }
+
+            @Override
+            public void clearScroll(List<String> scrollIds, Handler<AsyncResult<Void>> resultHandler) {
+                clearedScrollIds.addAll(scrollIds);
+                resultHandler.handle(Future.succeededFuture());
+            }
+        };
+    }
+
+    private void respond(Handler<AsyncResult<SearchResponse>> handler, int slice, int from) {
+        final int to = Math.min(from + PAGE_SIZE, HITS_PER_SLICE);
+        final List<Hit> hits = IntStream.range(from, to).mapToObj(i -> new Hit().setId(slice + "-" + i)).collect(Collectors.toList());
+        final SearchResponse searchResponse = new SearchResponse()
+                .setScrollId("scroll_" + slice + "_" + to)
+                .setHits(new Hits().setTotal((long) HITS_PER_SLICE).setHits(hits));
+
+        // Responses arrive on a transport thread
+        new Thread(() -> handler.handle(Future.succeededFuture(searchResponse))).start();
+    }
+
+    private static List<String> allIds() {
+        return IntStream.range(0, SLICES)
+                .boxed()
+                .flatMap(slice -> IntStream.range(0, HITS_PER_SLICE).mapToObj(i -> slice + "-" + i))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link SmileJsonObjectMessageCodec}
+ */
+public class SmileJsonObjectMessageCodecTest {
+
+    @Test
+    public void testRoundTripsOverTheWire() {
+        final JsonObject message = new JsonObject()
+                .put("user", "hübrick")
+                .put("count", 3)
+                .put("score", 1.5)
+                .put("enabled", true)
+                .put("missing", (String) null)
+                .put("binary", new byte[]{1, 2, 3})
+                .put("nested", new JsonObject().put("tags", new JsonArray().add("a").add(new JsonObject().put("b", 2L))));
+
+        final SmileJsonObjectMessageCodec codec = new SmileJsonObjectMessageCodec();
+        final Buffer buffer = Buffer.buffer().appendString("prefix");
+        codec.encodeToWire(buffer, message);
+
+        final JsonObject decoded = codec.decodeFromWire(6, buffer);
+        assertThat(decoded, is(message));
+        assertThat(decoded.getBinary("binary"), is(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void testRoundTripsDataObjects() {
+        final SearchResponse searchResponse = new SearchResponse().setTook(5L).setTimedOut(false);
+
+        final SmileJsonObjectMessageCodec codec = new SmileJsonObjectMessageCodec();
+        final Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, searchResponse.toJson());
+
+        assertThat(new SearchResponse(codec.decodeFromWire(0, buffer)).toJson(), is(searchResponse.toJson()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRepliesWithCodecOnlyForJson() {
+        final AtomicReference<DeliveryOptions> replyOptions = new AtomicReference<>();
+        final Message<JsonObject> message = (Message<JsonObject>) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{Message.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("reply")) {
+                        replyOptions.set((DeliveryOptions) args[1]);
+                    }
+                    return null;
+                }
+        );
+
+        final CodecReplyMessage<JsonObject> codecReplyMessage = new CodecReplyMessage<>(message, SmileJsonObjectMessageCodec.CODEC_NAME);
+
+        codecReplyMessage.reply(new JsonObject());
+        assertThat(replyOptions.get().getCodecName(), is(SmileJsonObjectMessageCodec.CODEC_NAME));
+
+        codecReplyMessage.reply("failure");
+        assertThat(replyOptions.get().getCodecName(), is(nullValue()));
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2016 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.elasticsearch.impl;
+
+import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.model.BulkDeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkIndexOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkOptions;
+import com.hubrick.vertx.elasticsearch.model.BulkResponse;
+import com.hubrick.vertx.elasticsearch.model.BulkUpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteByQueryResponse;
+import com.hubrick.vertx.elasticsearch.model.DeleteOptions;
+import com.hubrick.vertx.elasticsearch.model.DeleteResponse;
+import com.hubrick.vertx.elasticsearch.model.GetOptions;
+import com.hubrick.vertx.elasticsearch.model.GetResponse;
+import com.hubrick.vertx.elasticsearch.model.IndexOptions;
+import com.hubrick.vertx.elasticsearch.model.IndexResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiGetOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
+import com.hubrick.vertx.elasticsearch.model.RawSource;
+import com.hubrick.vertx.elasticsearch.model.SearchOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchResponse;
+import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
+import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
+import com.hubrick.vertx.elasticsearch.model.UpdateResponse;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+
+/**
+ * Service for unit tests, failing every call the test doesn't override
+ */
+class StubElasticSearchService implements ElasticSearchService {
+
+    @Override
+    public void start() {
+        throw new UnsupportedOperationException("start");
+    }
+
+    @Override
+    public void stop() {
+        throw new UnsupportedOperationException("stop");
+    }
+
+    @Override
+    public void index(String index, String type, JsonObject source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        throw new UnsupportedOperationException("index");
+    }
+
+    @Override
+    public void indexRaw(String index, String type, RawSource source, IndexOptions options, Handler<AsyncResult<IndexResponse>> resultHandler) {
+        throw new UnsupportedOperationException("indexRaw");
+    }
+
+    @Override
+    public void update(String index, String type, String id, UpdateOptions options, Handler<AsyncResult<UpdateResponse>> resultHandler) {
+        throw new UnsupportedOperationException("update");
+    }
+
+    @Override
+    public void get(String index, String type, String id, GetOptions options, Handler<AsyncResult<GetResponse>> resultHandler) {
+        throw new UnsupportedOperationException("get");
+    }
+
+    @Override
+    public void search(List<String> indices, SearchOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("search");
+    }
+
+    @Override
+    public void searchTemplate(List<String> indices, SearchTemplateOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("searchTemplate");
+    }
+
+    @Override
+    public void registerPreparedSearch(List<String> indices, SearchOptions template, Handler<AsyncResult<String>> resultHandler) {
+        throw new UnsupportedOperationException("registerPreparedSearch");
+    }
+
+    @Override
+    public void executePreparedSearch(String preparedSearchId, JsonObject params, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("executePreparedSearch");
+    }
+
+    @Override
+    public void removePreparedSearch(String preparedSearchId, Handler<AsyncResult<Void>> resultHandler) {
+        throw new UnsupportedOperationException("removePreparedSearch");
+    }
+
+    @Override
+    public void searchScroll(String scrollId, SearchScrollOptions options, Handler<AsyncResult<SearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("searchScroll");
+    }
+
+    @Override
+    public void clearScroll(List<String> scrollIds, Handler<AsyncResult<Void>> resultHandler) {
+        throw new UnsupportedOperationException("clearScroll");
+    }
+
+    @Override
+    public void delete(String index, String type, String id, DeleteOptions options, Handler<AsyncResult<DeleteResponse>> resultHandler) {
+        throw new UnsupportedOperationException("delete");
+    }
+
+    @Override
+    public void bulk(List<BulkIndexOptions> bulkIndexOptions,
+                     List<BulkUpdateOptions> bulkUpdateOptions,
+                     List<BulkDeleteOptions> bulkDeleteOptions,
+                     BulkOptions bulkOptions,
+                     Handler<AsyncResult<BulkResponse>> resultHandler) {
+        throw new UnsupportedOperationException("bulk");
+    }
+
+    @Override
+    public void multiSearch(List<MultiSearchQueryOptions> multiSearchQueryOptions, MultiSearchOptions options, Handler<AsyncResult<MultiSearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("multiSearch");
+    }
+
+    @Override
+    public void multiSearchTemplate(List<MultiSearchTemplateQueryOptions> multiSearchTemplateQueryOptions, MultiSearchOptions options, Handler<AsyncResult<MultiSearchResponse>> resultHandler) {
+        throw new UnsupportedOperationException("multiSearchTemplate");
+    }
+
+    @Override
+    public void multiGet(List<MultiGetQueryOptions> multiGetQueryOptions, MultiGetOptions options, Handler<AsyncResult<MultiGetResponse>> resultHandler) {
+        throw new UnsupportedOperationException("multiGet");
+    }
+
+    @Override
+    public void deleteByQuery(List<String> indices, DeleteByQueryOptions options, Handler<AsyncResult<DeleteByQueryResponse>> resultHandler) {
+        throw new UnsupportedOperationException("deleteByQuery");
+    }
+}
@@ -19,7 +19,9 @@ import com.google.common.collect.ImmutableList;
 import com.hubrick.vertx.elasticsearch.AbstractVertxIntegrationTest;
 import com.hubrick.vertx.elasticsearch.ElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.ElasticSearchService;
+import com.hubrick.vertx.elasticsearch.ElasticSearchServiceHelper;
 import com.hubrick.vertx.elasticsearch.ElasticSearchServiceVerticle;
+import com.hubrick.vertx.elasticsearch.PreparedSearch;
 import com.hubrick.vertx.elasticsearch.Rx2ElasticSearchAdminService;
 import com.hubrick.vertx.elasticsearch.Rx2ElasticSearchService;
 import com.hubrick.vertx.elasticsearch.RxElasticSearchAdminService;
@@ -44,6 +46,7 @@ import com.hubrick.vertx.elasticsearch.model.MultiGetQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiGetResponse;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.MultiSearchResponse;
+import com.hubrick.vertx.elasticsearch.model.MultiSearchTemplateQueryOptions;
 import com.hubrick.vertx.elasticsearch.model.OpType;
 import com.hubrick.vertx.elasticsearch.model.RefreshPolicy;
 import com.hubrick.vertx.elasticsearch.model.ScriptSortOption;
@@ -51,6 +54,7 @@ import com.hubrick.vertx.elasticsearch.model.ScriptType;
 import com.hubrick.vertx.elasticsearch.model.SearchOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchResponse;
 import com.hubrick.vertx.elasticsearch.model.SearchScrollOptions;
+import com.hubrick.vertx.elasticsearch.model.SearchTemplateOptions;
 import com.hubrick.vertx.elasticsearch.model.SearchType;
 import com.hubrick.vertx.elasticsearch.model.SortOrder;
 import com.hubrick.vertx.elasticsearch.model.UpdateOptions;
@@ -68,6 +72,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -407,6 +413,74 @@ public abstract class IntegrationTestBase extends AbstractVertxIntegrationTest {
                 );
     }
 
+    @Test
+    public void testPreparedSearch(TestContext testContext) throws Exception {
+
+        final Async async = testContext.async();
+        final JsonObject source = new JsonObject()
+                .put("user", source_user)
+                .put("message", source_message);
+
+        final SearchOptions template = new SearchOptions()
+                .setSourceIncludes(Arrays.asList("user", "message"))
+                .addFieldSort("user", SortOrder.DESC)
+                .setQuery(new JsonObject().put("term", new JsonObject().put("user", "{{user}}")));
+
+        service.index(index, type, source, new IndexOptions().setId(id), indexResult -> {
+            testContext.assertTrue(indexResult.succeeded());
+            vertx.setTimer(2000l, timer -> ElasticSearchServiceHelper.prepareSearch(service, Collections.singletonList(index), template, prepareResult -> {
+                testContext.assertTrue(prepareResult.succeeded());
+                prepareResult.result().execute(new JsonObject().put("user", source_user).put(PreparedSearch.PARAM_SIZE, 10), searchResult -> {
+                    testContext.assertTrue(searchResult.succeeded());
+                    assertSearch(testContext, searchResult.result());
+
+                    prepareResult.result().execute(new JsonObject().put("user", "unknown"), emptyResult -> {
+                        testContext.assertTrue(emptyResult.succeeded());
+                        assertThat(testContext, emptyResult.result().getHits().getHits(), hasSize(0));
+                        prepareResult.result().close(testContext.asyncAssertSuccess(closed -> async.complete()));
+                    });
+                });
+            }));
+        });
+    }
+
+    @Test
+    public void testSearchTemplate(TestContext testContext) throws Exception {
+
+        final Async async = testContext.async();
+        final JsonObject source = new JsonObject()
+                .put("user", source_user)
+                .put("message", source_message);
+
+        final String template = new JsonObject()
+                .put("query", new JsonObject().put("term", new JsonObject().put("user", "{{user}}")))
+                .put("_source", new JsonArray().add("user").add("message"))
+                .encode();
+        final JsonObject params = new JsonObject().put("user", source_user);
+
+        service.index(index, type, source, new IndexOptions().setId(id), indexResult -> {
+            testContext.assertTrue(indexResult.succeeded());
+            vertx.setTimer(2000l, timer -> adminService.putSearchTemplate("test_template", template, putResult -> {
+                testContext.assertTrue(putResult.succeeded());
+                service.searchTemplate(index, new SearchTemplateOptions().setTemplateId("test_template").setParams(params), searchResult -> {
+                    testContext.assertTrue(searchResult.succeeded());
+                    assertSearch(testContext, searchResult.result());
+
+                    final List<MultiSearchTemplateQueryOptions> queries = Arrays.asList(
+                            new MultiSearchTemplateQueryOptions().addIndex(index).setSearchTemplateOptions(new SearchTemplateOptions().setTemplateId("test_template").setParams(params)),
+                            new MultiSearchTemplateQueryOptions().addIndex(index).setSearchTemplateOptions(new SearchTemplateOptions().setTemplate(template).setParams(params))
+                    );
+                    service.multiSearchTemplate(queries, multiSearchResult -> {
+                        testContext.assertTrue(multiSearchResult.succeeded());
+                        assertThat(testContext, multiSearchResult.result().getResponses(), hasSize(2));
+                        multiSearchResult.result().getResponses().forEach(item -> assertSearch(testContext, item.getSearchResponse()));
+                        adminService.deleteSearchTemplate("test_template", testContext.asyncAssertSuccess(deleted -> async.complete()));
+                    });
+                });
+            }));
+        });
+    }
+
     private void assertSearch(TestContext testContext, SearchResponse searchResponse) {
         assertThat(testContext, searchResponse, notNullValue());
         assertThat(testContext, searchResponse.getHits().getHits(), hasSize(1));